@@ -0,0 +1,142 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.activity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.social.core.activity.model.ExoSocialActivity;
+import org.exoplatform.social.core.manager.ActivityManager;
+
+/**
+ * Bounded cache of the comments count of news activities, to avoid counting
+ * the comments of an activity each time its article is displayed. A count is
+ * computed once, then incremented by the news activity listener when a comment
+ * is saved and removed when a comment is deleted. The cache is local to each
+ * cluster node and the listener only sees the comments saved or deleted on
+ * its own node, so entries expire after a configurable time to live, which
+ * bounds the staleness due to comments changed on another node. The likes
+ * count is read from the activity likers, which are already loaded with the
+ * activity.
+ */
+@Component
+public class NewsActivityCounterCache {
+
+  @Autowired
+  private ActivityManager                activityManager;
+
+  @Value("${content.activity.counterCache.size:5000}")
+  private int                            maxSize;
+
+  @Value("${content.activity.counterCache.ttl:300000}")
+  private long                           timeToLive;
+
+  private final Map<String, CachedCount> commentsCounts = new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = 6419250467302364417L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+      return size() > maxSize;
+    }
+  };
+
+  /**
+   * Retrieves the comments count of an activity, including the replies, from
+   * the cache or by counting them when not cached or expired
+   *
+   * @param activity {@link ExoSocialActivity}
+   * @return comments count
+   */
+  public int getCommentsCount(ExoSocialActivity activity) {
+    String activityId = activity.getId();
+    long now = System.currentTimeMillis();
+    if (activityId != null) {
+      synchronized (commentsCounts) {
+        CachedCount cachedCount = commentsCounts.get(activityId);
+        if (cachedCount != null && cachedCount.expiryTime > now) {
+          return cachedCount.count;
+        }
+      }
+    }
+    int commentsCount = activityManager.getCommentsWithListAccess(activity, true).getSize();
+    if (activityId != null) {
+      synchronized (commentsCounts) {
+        commentsCounts.put(activityId, new CachedCount(commentsCount, now + timeToLive));
+      }
+    }
+    return commentsCount;
+  }
+
+  /**
+   * @param activity {@link ExoSocialActivity}
+   * @return likes count of the activity
+   */
+  public int getLikesCount(ExoSocialActivity activity) {
+    return activity.getLikeIdentityIds() == null ? 0 : activity.getLikeIdentityIds().length;
+  }
+
+  /**
+   * Increments the cached comments count of an activity, if cached
+   *
+   * @param activityId {@link String} activity identifier
+   */
+  public void incrementCommentsCount(String activityId) {
+    if (activityId == null) {
+      return;
+    }
+    synchronized (commentsCounts) {
+      CachedCount cachedCount = commentsCounts.get(activityId);
+      if (cachedCount != null) {
+        commentsCounts.put(activityId, new CachedCount(cachedCount.count + 1, cachedCount.expiryTime));
+      }
+    }
+  }
+
+  /**
+   * Removes the cached comments count of an activity, to count its comments
+   * again when next displayed
+   *
+   * @param activityId {@link String} activity identifier
+   */
+  public void invalidateCommentsCount(String activityId) {
+    if (activityId == null) {
+      return;
+    }
+    synchronized (commentsCounts) {
+      commentsCounts.remove(activityId);
+    }
+  }
+
+  private static class CachedCount {
+
+    private final int  count;
+
+    private final long expiryTime;
+
+    private CachedCount(int count, long expiryTime) {
+      this.count = count;
+      this.expiryTime = expiryTime;
+    }
+  }
+}
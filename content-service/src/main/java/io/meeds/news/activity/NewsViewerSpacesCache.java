@@ -0,0 +1,176 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.activity;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.social.core.activity.model.ExoSocialActivity;
+import org.exoplatform.social.core.manager.ActivityManager;
+import org.exoplatform.social.core.space.spi.SpaceService;
+
+/**
+ * Bounded cache, by viewer, of the spaces the viewer is member of and of the
+ * existing activities among the news shares already displayed to the viewer.
+ * It allows to filter the shares of an article visible to a user with one bulk
+ * membership retrieval and one bulk activity existence check, instead of
+ * retrieving each shared space and activity for each article read. Entries are
+ * invalidated when the viewer joins or leaves a space and expire after a
+ * configurable time to live, which bounds the staleness due to deleted
+ * activities or to memberships updated on another cluster node. As entries
+ * can be stale and are local to each cluster node, the cache is only used to
+ * filter the displayed shares and never to check access to an article.
+ */
+@Component
+public class NewsViewerSpacesCache {
+
+  @Autowired
+  private SpaceService                   spaceService;
+
+  @Autowired
+  private ActivityManager                activityManager;
+
+  @Value("${content.activity.viewerCache.size:1000}")
+  private int                            maxSize;
+
+  @Value("${content.activity.viewerCache.ttl:300000}")
+  private long                           timeToLive;
+
+  private final Map<String, ViewerEntry> viewers = new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = -2716591270563785284L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, ViewerEntry> eldest) {
+      return size() > maxSize;
+    }
+  };
+
+  /**
+   * Retrieves the identifiers of the spaces a user is member of, from the
+   * cache or with one bulk retrieval when not cached or expired
+   *
+   * @param username {@link String} user name
+   * @return {@link Set} of spaces identifiers, empty for anonymous users
+   */
+  public Set<String> getMemberSpacesIds(String username) {
+    if (StringUtils.isBlank(username)) {
+      return Set.of();
+    }
+    return getViewerEntry(username).memberSpacesIds;
+  }
+
+  /**
+   * Filters the identifiers of existing activities, the ones not already known
+   * by the viewer cache entry being checked with one bulk retrieval
+   *
+   * @param username {@link String} user name
+   * @param activitiesIds {@link Collection} of activities identifiers to check
+   * @return {@link Set} of the existing activities identifiers
+   */
+  public Set<String> getExistingActivitiesIds(String username, Collection<String> activitiesIds) {
+    if (StringUtils.isBlank(username) || activitiesIds == null || activitiesIds.isEmpty()) {
+      return Set.of();
+    }
+    Set<String> knownActivitiesIds = getViewerEntry(username).existingActivitiesIds;
+    List<String> uncheckedActivitiesIds = activitiesIds.stream()
+                                                       .filter(Objects::nonNull)
+                                                       .distinct()
+                                                       .filter(activityId -> !knownActivitiesIds.contains(activityId))
+                                                       .toList();
+    if (!uncheckedActivitiesIds.isEmpty()) {
+      List<ExoSocialActivity> activities = activityManager.getActivities(uncheckedActivitiesIds);
+      if (activities != null) {
+        activities.stream()
+                  .filter(Objects::nonNull)
+                  .map(ExoSocialActivity::getId)
+                  .filter(Objects::nonNull)
+                  .forEach(knownActivitiesIds::add);
+      }
+    }
+    Set<String> existingActivitiesIds = new HashSet<>(activitiesIds);
+    existingActivitiesIds.retainAll(knownActivitiesIds);
+    return existingActivitiesIds;
+  }
+
+  /**
+   * Removes the cached entry of a user
+   *
+   * @param username {@link String} user name
+   */
+  public void invalidate(String username) {
+    if (StringUtils.isBlank(username)) {
+      return;
+    }
+    synchronized (viewers) {
+      viewers.remove(username);
+    }
+  }
+
+  /**
+   * Removes all the cached entries
+   */
+  public void clear() {
+    synchronized (viewers) {
+      viewers.clear();
+    }
+  }
+
+  private ViewerEntry getViewerEntry(String username) {
+    long now = System.currentTimeMillis();
+    synchronized (viewers) {
+      ViewerEntry viewerEntry = viewers.get(username);
+      if (viewerEntry != null && viewerEntry.expiryTime > now) {
+        return viewerEntry;
+      }
+    }
+    List<String> memberSpacesIds = spaceService.getMemberSpacesIds(username, 0, -1);
+    ViewerEntry viewerEntry = new ViewerEntry(memberSpacesIds == null ? Set.of() : Set.copyOf(memberSpacesIds),
+                                              now + timeToLive);
+    synchronized (viewers) {
+      viewers.put(username, viewerEntry);
+    }
+    return viewerEntry;
+  }
+
+  private static class ViewerEntry {
+
+    private final Set<String> memberSpacesIds;
+
+    private final Set<String> existingActivitiesIds = ConcurrentHashMap.newKeySet();
+
+    private final long        expiryTime;
+
+    private ViewerEntry(Set<String> memberSpacesIds, long expiryTime) {
+      this.memberSpacesIds = memberSpacesIds;
+      this.expiryTime = expiryTime;
+    }
+  }
+}
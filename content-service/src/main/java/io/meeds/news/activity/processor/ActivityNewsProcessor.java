@@ -30,12 +30,13 @@ import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.container.xml.ValueParam;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
-import org.exoplatform.social.common.RealtimeListAccess;
 import org.exoplatform.social.core.BaseActivityProcessorPlugin;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
 import org.exoplatform.social.core.manager.ActivityManager;
 
+import io.meeds.news.activity.NewsActivityCounterCache;
 import io.meeds.news.model.News;
+import io.meeds.news.model.NewsTranslation;
 import io.meeds.news.service.NewsService;
 import io.meeds.news.utils.NewsUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,17 +46,20 @@ import org.springframework.util.CollectionUtils;
 @Component
 public class ActivityNewsProcessor extends BaseActivityProcessorPlugin {
 
-  private static final Log    LOG                     = ExoLogger.getLogger(ActivityNewsProcessor.class);
+  private static final Log         LOG                     = ExoLogger.getLogger(ActivityNewsProcessor.class);
 
-  private static final String ACTIVITY_PROCESSOR_NAME = "ActivityNewsProcessor";
+  private static final String      ACTIVITY_PROCESSOR_NAME = "ActivityNewsProcessor";
 
-  private static final int    processorPriority       = 30;
+  private static final int         processorPriority       = 30;
 
   @Autowired
-  private NewsService         newsService;
+  private NewsService              newsService;
 
   @Autowired
-  private ActivityManager     activityManager;
+  private ActivityManager          activityManager;
+
+  @Autowired
+  private NewsActivityCounterCache newsActivityCounterCache;
 
   public ActivityNewsProcessor() {
     super(getInitParams());
@@ -87,9 +91,8 @@ public class ActivityNewsProcessor extends BaseActivityProcessorPlugin {
         }
         news = newsService.getNewsArticleById(activity.getTemplateParams().get("newsId"));
 
-        RealtimeListAccess<ExoSocialActivity> listAccess = activityManager.getCommentsWithListAccess(activity, true);
-        news.setCommentsCount(listAccess.getSize());
-        news.setLikesCount(activity.getLikeIdentityIds() == null ? 0 : activity.getLikeIdentityIds().length);
+        news.setCommentsCount(newsActivityCounterCache.getCommentsCount(activity));
+        news.setLikesCount(newsActivityCounterCache.getLikesCount(activity));
 
         activity.setMetadataObjectId(news.getId());
         activity.setMetadataObjectType(NewsUtils.NEWS_METADATA_OBJECT_TYPE);
@@ -98,16 +101,13 @@ public class ActivityNewsProcessor extends BaseActivityProcessorPlugin {
       }
       activity.getLinkedProcessedEntities().put("news", news);
       try {
-        String newsId = news.getId();
-        List<String> articleLanguages = newsService.getArticleLanguages(newsId, false);
-        if (!CollectionUtils.isEmpty(articleLanguages)) {
-          Map<String, News> newsTranslations = new HashMap<>();
-          articleLanguages.stream().forEach(articleLanguage -> {
-            News articleTranslation = newsService.getNewsArticleByIdAndLang(newsId, articleLanguage);
-            if (articleTranslation != null) {
-              newsTranslations.put("news_" + articleLanguage, articleTranslation);
-            }
-          });
+        // Only describe the translations, the one of the viewer language is
+        // loaded on demand
+        List<NewsTranslation> articleTranslations = newsService.getArticleTranslations(news.getId());
+        if (!CollectionUtils.isEmpty(articleTranslations)) {
+          Map<String, NewsTranslation> newsTranslations = new HashMap<>();
+          articleTranslations.forEach(articleTranslation -> newsTranslations.put("news_" + articleTranslation.getLang(),
+                                                                                 articleTranslation));
           activity.getLinkedProcessedEntities().put("newsTranslations", newsTranslations);
         }
       } catch (Exception exception) {
@@ -20,20 +20,23 @@
 package io.meeds.news.job;
 
 import io.meeds.common.ContainerTransactional;
+import io.meeds.news.model.News;
+import io.meeds.news.model.NewsPageObject;
 import io.meeds.news.service.NewsService;
+import io.meeds.news.utils.ScheduleDateUtils;
 import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.time.ZoneOffset;
-import java.util.Calendar;
-import java.util.TimeZone;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_DELETED;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_KEY;
 import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_NAME;
 import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_PAGE_OBJECT_TYPE;
 import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_TYPE;
@@ -41,10 +44,18 @@ import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_PUBLICATION_STATE;
 import static io.meeds.news.service.impl.NewsServiceImpl.SCHEDULE_POST_DATE;
 import static io.meeds.news.service.impl.NewsServiceImpl.STAGED;
 
+/**
+ * Posts scheduled news articles. The articles due time are tracked in memory
+ * by {@link ScheduledNewsArticleQueue} which triggers the posting of each
+ * article when its schedule post date is reached and once claimed by the
+ * current node.
+ */
 @Component
 public class PostScheduledNewsArticleJob {
 
-  private static final Logger LOG = LoggerFactory.getLogger(PostScheduledNewsArticleJob.class);
+  private static final Logger LOG                       = LoggerFactory.getLogger(PostScheduledNewsArticleJob.class);
+
+  private static final int    STAGED_ARTICLES_PAGE_SIZE = 100;
 
   @Autowired
   private NewsService         newsService;
@@ -52,63 +63,94 @@ public class PostScheduledNewsArticleJob {
   @Autowired
   private MetadataService     metadataService;
 
-
-  @Scheduled(cron = "${meeds.content.postScheduledNewsArticle.job.cron:15 */2 * * * ?}")
+  /**
+   * Retrieves all scheduled articles schedule post times, used to reconcile
+   * periodically the in-memory schedule of each node. The staged articles are
+   * read by pages, since the metadata filters don't allow to restrict them by
+   * schedule post date.
+   *
+   * @return schedule post time in milliseconds by article identifier, ordered
+   *         by schedule post time
+   */
   @ContainerTransactional
-  public void postScheduledNewsArticle() {
-
-    metadataService.getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(NEWS_METADATA_NAME,
-                                                                                          NEWS_METADATA_TYPE.getName(),
-                                                                                          NEWS_METADATA_PAGE_OBJECT_TYPE,
-                                                                                          NEWS_PUBLICATION_STATE,
-                                                                                          STAGED,
-                                                                                          0,
-                                                                                          0)
-                   .stream()
-                   .filter(scheduledArticleMetadataItem -> {
-                     try {
-                       if (scheduledArticleMetadataItem.getProperties() != null && !scheduledArticleMetadataItem.getProperties().isEmpty()) {
-                         String articleScheduleDate = scheduledArticleMetadataItem.getProperties().getOrDefault(SCHEDULE_POST_DATE, null);
-                         if (articleScheduleDate != null) {
+  public Map<String, Long> getScheduledArticles() {
+    Map<String, Long> schedulePostTimes = new LinkedHashMap<>();
+    int offset = 0;
+    List<MetadataItem> stagedArticlesItems;
+    do {
+      stagedArticlesItems =
+                          metadataService.getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(NEWS_METADATA_NAME,
+                                                                                                                NEWS_METADATA_TYPE.getName(),
+                                                                                                                NEWS_METADATA_PAGE_OBJECT_TYPE,
+                                                                                                                NEWS_PUBLICATION_STATE,
+                                                                                                                STAGED,
+                                                                                                                offset,
+                                                                                                                STAGED_ARTICLES_PAGE_SIZE);
+      stagedArticlesItems.forEach(stagedArticleItem -> {
+        long schedulePostTime = getSchedulePostTime(stagedArticleItem);
+        if (schedulePostTime > 0) {
+          schedulePostTimes.put(stagedArticleItem.getObjectId(), schedulePostTime);
+        }
+      });
+      offset += STAGED_ARTICLES_PAGE_SIZE;
+    } while (stagedArticlesItems.size() == STAGED_ARTICLES_PAGE_SIZE);
+    Map<String, Long> scheduledArticles = new LinkedHashMap<>();
+    schedulePostTimes.entrySet()
+                     .stream()
+                     .sorted(Map.Entry.comparingByValue())
+                     .forEach(scheduledArticle -> scheduledArticles.put(scheduledArticle.getKey(), scheduledArticle.getValue()));
+    return scheduledArticles;
+  }
 
-                           if (isSchedulePostDatePassed(articleScheduleDate)) {
-                             // return only the metadata items with a schedule date property equals or prior to
-                             // the current date to be mapped to news articles and then post them.
-                             return true;
-                           }
-                         }
-                       }
-                     } catch (Exception e) {
-                       return false;
-                     }
-                     return false; // Return false if conditions are not met or exception occurred
-                   })
-                   .map(scheduledArticle -> newsService.getNewsArticleById(scheduledArticle.getObjectId()))
-                   .forEach(article -> {
-                     try {
-                       if (article != null) {
-                         article = newsService.postNews(article, article.getAuthor());
-                         LOG.info("News scheduled news posted to {}", article.getUrl());
-                       }
-                     } catch (Exception e) {
-                       LOG.error("Error posting scheduled news article", e);
-                     }
-                   });
+  /**
+   * @param article scheduled {@link News} article
+   * @return the stored schedule post time of the article in milliseconds, 0
+   *         if the article isn't scheduled
+   */
+  @ContainerTransactional
+  public long getSchedulePostTime(News article) {
+    NewsPageObject newsPageObject = new NewsPageObject(NEWS_METADATA_PAGE_OBJECT_TYPE,
+                                                       article.getId(),
+                                                       null,
+                                                       Long.parseLong(article.getSpaceId()));
+    return metadataService.getMetadataItemsByMetadataAndObject(NEWS_METADATA_KEY, newsPageObject)
+                          .stream()
+                          .findFirst()
+                          .filter(metadataItem -> metadataItem.getProperties() != null
+                              && STAGED.equals(metadataItem.getProperties().get(NEWS_PUBLICATION_STATE)))
+                          .map(this::getSchedulePostTime)
+                          .orElse(0L);
   }
 
-  private boolean isSchedulePostDatePassed(String schedulePostDateString) {
-    Calendar schedulePostDate = Calendar.getInstance();
-    try {
-      SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-      format.setTimeZone(TimeZone.getTimeZone(ZoneOffset.UTC));
-      schedulePostDate.setTime(format.parse(schedulePostDateString));
-    } catch (ParseException e) {
-      // Handle exception as needed
-      LOG.error("Error parsing schedule post date", e);
-      return false;
+  /**
+   * Posts a scheduled article if it's still staged and due, in a dedicated
+   * transaction. The caller is expected to have claimed the article using
+   * {@link ScheduledNewsArticleClaimService#claim(String)} so that it's posted
+   * by a single node.
+   *
+   * @param articleId due article identifier
+   * @return true if the article has been posted, else false
+   * @throws Exception when an error occurs while posting the article, the
+   *           transaction being rolled back
+   */
+  @ContainerTransactional
+  public boolean postScheduledNewsArticle(String articleId) throws Exception {
+    News article = newsService.getNewsArticleById(articleId);
+    long schedulePostTime = article == null ? 0 : ScheduleDateUtils.parse(article.getSchedulePostDate());
+    if (article != null && STAGED.equals(article.getPublicationState()) && schedulePostTime > 0
+        && schedulePostTime <= System.currentTimeMillis()) {
+      article = newsService.postNews(article, article.getAuthor());
+      LOG.info("News scheduled news posted to {}", article.getUrl());
+      return true;
     }
+    return false;
+  }
 
-    Calendar now = Calendar.getInstance();
-    return schedulePostDate.before(now) || now.equals(schedulePostDate);
+  private long getSchedulePostTime(MetadataItem scheduledArticleMetadataItem) {
+    Map<String, String> properties = scheduledArticleMetadataItem.getProperties();
+    if (properties == null || Boolean.parseBoolean(properties.get(NEWS_DELETED))) {
+      return 0;
+    }
+    return ScheduleDateUtils.parse(properties.get(SCHEDULE_POST_DATE));
   }
 }
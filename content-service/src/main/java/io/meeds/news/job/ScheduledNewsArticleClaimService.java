@@ -0,0 +1,243 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.job;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.Metadata;
+import org.exoplatform.social.metadata.model.MetadataKey;
+import org.exoplatform.social.metadata.model.MetadataType;
+
+import io.meeds.common.ContainerTransactional;
+import io.meeds.news.model.ScheduledNewsArticleFailure;
+
+/**
+ * Cluster wide claims of due scheduled articles, so that each article is
+ * posted by a single node. A claim is a metadata of a dedicated metadata type,
+ * named by the article identifier: the database unique key on metadata type,
+ * name and audience lets the creation of the claim succeed on a single node
+ * only, whatever the nodes claiming the article concurrently. A claim older
+ * than the configured lease duration is considered abandoned by a stopped node
+ * and can be taken over. When all posting attempts of an article fail, its
+ * claim is kept and marked as failed, which makes it a cluster wide dead
+ * letter until it's retried by an administrator.
+ */
+@Component
+public class ScheduledNewsArticleClaimService {
+
+  public static final MetadataType CLAIM_METADATA_TYPE = new MetadataType(1001, "newsScheduledPostClaim");
+
+  public static final String       CLAIM_NODE          = "node";
+
+  public static final String       CLAIM_TIME          = "claimTime";
+
+  public static final String       CLAIM_FAILED        = "failed";
+
+  public static final String       CLAIM_ATTEMPTS      = "attempts";
+
+  public static final String       CLAIM_ERROR         = "error";
+
+  public static final String       CLAIM_SCHEDULE_TIME = "schedulePostTime";
+
+  private static final Logger      LOG                 = LoggerFactory.getLogger(ScheduledNewsArticleClaimService.class);
+
+  private static final int         MAX_ERROR_LENGTH    = 1000;
+
+  private static final String      NODE_NAME           = ManagementFactory.getRuntimeMXBean().getName();
+
+  @Autowired
+  private MetadataService          metadataService;
+
+  @Autowired
+  private PortalContainer          container;
+
+  @Value("${meeds.content.postScheduledNewsArticle.claim.lease:300000}")
+  private long                     claimLease;
+
+  /**
+   * Claims a due scheduled article for the current node. The claim isn't
+   * created in an enclosing transaction, so that a violation of the unique key
+   * by a concurrent claim of another node is raised by the claim creation
+   * itself.
+   *
+   * @param articleId article identifier
+   * @return true if the current node has claimed the article and is the only
+   *         one allowed to post it, else false
+   */
+  public boolean claim(String articleId) {
+    ExoContainerContext.setCurrentContainer(container);
+    RequestLifeCycle.begin(container);
+    try {
+      Metadata claim = metadataService.getMetadataByKey(getClaimKey(articleId));
+      if (claim != null) {
+        if (!isExpired(claim)) {
+          return false;
+        }
+        LOG.warn("Claim of scheduled news article {} by node {} has expired, take it over",
+                 articleId,
+                 claim.getProperties() == null ? null : claim.getProperties().get(CLAIM_NODE));
+        deleteClaim(claim);
+      }
+      Map<String, String> properties = new HashMap<>();
+      properties.put(CLAIM_NODE, NODE_NAME);
+      properties.put(CLAIM_TIME, String.valueOf(System.currentTimeMillis()));
+      Metadata newClaim = new Metadata();
+      newClaim.setType(CLAIM_METADATA_TYPE);
+      newClaim.setName(articleId);
+      newClaim.setAudienceId(0);
+      newClaim.setProperties(properties);
+      try {
+        metadataService.createMetadata(newClaim, 0);
+        return true;
+      } catch (Exception e) {
+        LOG.debug("Scheduled news article {} already claimed by another node", articleId, e);
+        return false;
+      }
+    } finally {
+      RequestLifeCycle.end();
+    }
+  }
+
+  /**
+   * Releases the claim of the current node on a scheduled article
+   *
+   * @param articleId article identifier
+   */
+  @ContainerTransactional
+  public void release(String articleId) {
+    Metadata claim = getCurrentNodeClaim(articleId);
+    if (claim != null) {
+      deleteClaim(claim);
+    }
+  }
+
+  /**
+   * Keeps the claim of the current node on a scheduled article which couldn't
+   * be posted and marks it as failed, so that it's not claimed again
+   *
+   * @param articleId article identifier
+   * @param schedulePostTime article schedule post time in milliseconds
+   * @param attempts count of posting attempts
+   * @param error last posting error
+   */
+  @ContainerTransactional
+  public void markAsFailed(String articleId, long schedulePostTime, int attempts, String error) {
+    Metadata claim = getCurrentNodeClaim(articleId);
+    if (claim == null) {
+      return;
+    }
+    Map<String, String> properties = new HashMap<>(claim.getProperties());
+    properties.put(CLAIM_FAILED, String.valueOf(true));
+    properties.put(CLAIM_ATTEMPTS, String.valueOf(attempts));
+    properties.put(CLAIM_SCHEDULE_TIME, String.valueOf(schedulePostTime));
+    properties.put(CLAIM_TIME, String.valueOf(System.currentTimeMillis()));
+    properties.put(CLAIM_ERROR, StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+    claim.setProperties(properties);
+    metadataService.updateMetadata(claim, claim.getCreatorId());
+  }
+
+  /**
+   * @return scheduled articles which couldn't be posted by any node
+   */
+  @ContainerTransactional
+  public List<ScheduledNewsArticleFailure> getFailures() {
+    return metadataService.getMetadatas(CLAIM_METADATA_TYPE.getName(), 0)
+                          .stream()
+                          .filter(this::isFailed)
+                          .map(this::toFailure)
+                          .toList();
+  }
+
+  /**
+   * Deletes the failed claim of a scheduled article, so that it can be claimed
+   * and posted again
+   *
+   * @param articleId article identifier
+   * @return the deleted {@link ScheduledNewsArticleFailure} if any, else null
+   */
+  @ContainerTransactional
+  public ScheduledNewsArticleFailure deleteFailure(String articleId) {
+    Metadata claim = metadataService.getMetadataByKey(getClaimKey(articleId));
+    if (claim == null || !isFailed(claim)) {
+      return null;
+    }
+    deleteClaim(claim);
+    return toFailure(claim);
+  }
+
+  private Metadata getCurrentNodeClaim(String articleId) {
+    Metadata claim = metadataService.getMetadataByKey(getClaimKey(articleId));
+    if (claim == null || claim.getProperties() == null || !Objects.equals(NODE_NAME, claim.getProperties().get(CLAIM_NODE))) {
+      return null;
+    }
+    return claim;
+  }
+
+  private ScheduledNewsArticleFailure toFailure(Metadata claim) {
+    Map<String, String> properties = claim.getProperties();
+    return new ScheduledNewsArticleFailure(claim.getName(),
+                                           properties.get(CLAIM_NODE),
+                                           NumberUtils.toInt(properties.get(CLAIM_ATTEMPTS)),
+                                           properties.get(CLAIM_ERROR),
+                                           NumberUtils.toLong(properties.get(CLAIM_SCHEDULE_TIME)),
+                                           NumberUtils.toLong(properties.get(CLAIM_TIME)));
+  }
+
+  private boolean isFailed(Metadata claim) {
+    return claim.getProperties() != null && Boolean.parseBoolean(claim.getProperties().get(CLAIM_FAILED));
+  }
+
+  private boolean isExpired(Metadata claim) {
+    if (isFailed(claim)) {
+      return false;
+    }
+    String claimTime = claim.getProperties() == null ? null : claim.getProperties().get(CLAIM_TIME);
+    return !StringUtils.isNumeric(claimTime) || Long.parseLong(claimTime) + claimLease < System.currentTimeMillis();
+  }
+
+  private void deleteClaim(Metadata claim) {
+    try {
+      metadataService.deleteMetadataById(claim.getId());
+    } catch (Exception e) {
+      // Already deleted by another node
+      LOG.debug("Claim {} of scheduled news article {} already deleted", claim.getId(), claim.getName(), e);
+    }
+  }
+
+  private MetadataKey getClaimKey(String articleId) {
+    return new MetadataKey(CLAIM_METADATA_TYPE.getName(), articleId, 0);
+  }
+}
@@ -0,0 +1,379 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.job;
+
+import static io.meeds.news.utils.NewsUtils.DELETE_NEWS;
+import static io.meeds.news.utils.NewsUtils.SCHEDULE_NEWS;
+import static io.meeds.news.utils.NewsUtils.UNSCHEDULE_NEWS;
+import static io.meeds.news.utils.NewsUtils.UPDATE_NEWS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.listener.Event;
+import org.exoplatform.services.listener.Listener;
+import org.exoplatform.services.listener.ListenerService;
+
+import io.meeds.news.model.News;
+import io.meeds.news.model.ScheduledNewsArticleFailure;
+import io.meeds.news.model.ScheduledNewsArticleStatistics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory schedule of the staged news articles, ordered by schedule post
+ * time. It's loaded from storage at startup, then maintained incrementally
+ * when articles are scheduled, unscheduled, updated or deleted on the current
+ * node, and the queue head is checked every second, so that articles are
+ * posted at their due time. Scheduling events are local to the node which has
+ * received the request, so every node also reconciles its schedule with the
+ * staged articles in storage on a rare interval, one hour by default: articles
+ * scheduled, moved or unscheduled on another node are handled at the latest
+ * after one reconciliation delay. A due article is claimed then posted by a
+ * single node.
+ * <p>
+ * Due articles are posted by a bounded pool of workers, each article in its
+ * own transaction. A failed posting is retried with an exponential backoff,
+ * and once the maximum attempts count is reached, the article is kept as a
+ * failure until an administrator retries it.
+ */
+@Component
+public class ScheduledNewsArticleQueue extends Listener<String, News> {
+
+  private static final Logger                     LOG                = LoggerFactory.getLogger(ScheduledNewsArticleQueue.class);
+
+  @Autowired
+  private PostScheduledNewsArticleJob             postScheduledNewsArticleJob;
+
+  @Autowired
+  private ScheduledNewsArticleClaimService        claimService;
+
+  @Autowired
+  private ListenerService                         listenerService;
+
+  @Value("${meeds.content.postScheduledNewsArticle.workers:4}")
+  private int                                     workers;
+
+  @Value("${meeds.content.postScheduledNewsArticle.retry.maxAttempts:5}")
+  private int                                     maxAttempts;
+
+  @Value("${meeds.content.postScheduledNewsArticle.retry.delay:30000}")
+  private long                                    retryDelay;
+
+  private final DelayQueue<ScheduledArticle>      queue              = new DelayQueue<>();
+
+  private final Map<String, ScheduledArticle>     scheduledArticles  = new ConcurrentHashMap<>();
+
+  private final AtomicLong                        postedCount        = new AtomicLong();
+
+  private final AtomicLong                        retriedCount       = new AtomicLong();
+
+  private final AtomicLong                        failedCount        = new AtomicLong();
+
+  private final AtomicLong                        totalPostLag       = new AtomicLong();
+
+  private final AtomicLong                        lastPostLag        = new AtomicLong();
+
+  private final AtomicLong                        maxPostLag         = new AtomicLong();
+
+  private ExecutorService                         workersExecutor;
+
+  @PostConstruct
+  public void init() {
+    workersExecutor = Executors.newFixedThreadPool(Math.max(1, workers));
+    listenerService.addListener(SCHEDULE_NEWS, this);
+    listenerService.addListener(UNSCHEDULE_NEWS, this);
+    listenerService.addListener(UPDATE_NEWS, this);
+    listenerService.addListener(DELETE_NEWS, this);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (workersExecutor != null) {
+      workersExecutor.shutdown();
+    }
+  }
+
+  @Override
+  public void onEvent(Event<String, News> event) throws Exception {
+    News article = event.getData();
+    if (article == null || article.getId() == null) {
+      return;
+    }
+    if (UPDATE_NEWS.equals(event.getEventName()) && !scheduledArticles.containsKey(article.getId())) {
+      // Only the update of an already scheduled article can change its
+      // schedule, by posting it for instance
+      return;
+    }
+    if ((SCHEDULE_NEWS.equals(event.getEventName()) || UPDATE_NEWS.equals(event.getEventName()))
+        && article.getSpaceId() != null) {
+      long schedulePostTime = postScheduledNewsArticleJob.getSchedulePostTime(article);
+      if (schedulePostTime > 0) {
+        schedule(article.getId(), schedulePostTime);
+        return;
+      }
+    }
+    unschedule(article.getId());
+  }
+
+  @Scheduled(fixedDelayString = "${meeds.content.postScheduledNewsArticle.job.delay:1000}")
+  public void postDueArticles() {
+    List<ScheduledArticle> dueArticles = new ArrayList<>();
+    ScheduledArticle dueArticle = queue.poll();
+    while (dueArticle != null) {
+      if (scheduledArticles.remove(dueArticle.articleId, dueArticle)) {
+        dueArticles.add(dueArticle);
+      }
+      dueArticle = queue.poll();
+    }
+    // Each node handles the due articles in a different order, so that when
+    // many articles are due together, the nodes claim distinct articles and
+    // share the posting work
+    Collections.shuffle(dueArticles);
+    dueArticles.forEach(article -> workersExecutor.execute(() -> postDueArticle(article)));
+  }
+
+  /**
+   * Reconciles the schedule of the current node with the staged articles in
+   * storage, at startup then on a rare interval since the schedule is kept
+   * current by the scheduling events. Articles registered while the staged
+   * articles are read are kept as is, since they may be more recent than the
+   * read snapshot.
+   */
+  @Scheduled(fixedDelayString = "${meeds.content.postScheduledNewsArticle.reconcile.delay:3600000}")
+  public void reconcile() {
+    long reconcileStartTime = System.currentTimeMillis();
+    Map<String, Long> storedScheduledArticles;
+    try {
+      storedScheduledArticles = postScheduledNewsArticleJob.getScheduledArticles();
+    } catch (Exception e) {
+      LOG.error("Error loading scheduled news articles, retry on next reconciliation", e);
+      return;
+    }
+    int scheduledCount = 0;
+    for (Map.Entry<String, Long> storedScheduledArticle : storedScheduledArticles.entrySet()) {
+      String articleId = storedScheduledArticle.getKey();
+      long schedulePostTime = storedScheduledArticle.getValue();
+      ScheduledArticle scheduledArticle = new ScheduledArticle(articleId, schedulePostTime, schedulePostTime, 0);
+      ScheduledArticle previousScheduledArticle = scheduledArticles.putIfAbsent(articleId, scheduledArticle);
+      if (previousScheduledArticle == null) {
+        queue.add(scheduledArticle);
+        scheduledCount++;
+      } else if (previousScheduledArticle.schedulePostTime != schedulePostTime
+          && previousScheduledArticle.registrationTime < reconcileStartTime
+          && scheduledArticles.replace(articleId, previousScheduledArticle, scheduledArticle)) {
+        queue.remove(previousScheduledArticle);
+        queue.add(scheduledArticle);
+        scheduledCount++;
+      }
+    }
+    int unscheduledCount = 0;
+    for (ScheduledArticle scheduledArticle : scheduledArticles.values()) {
+      if (!storedScheduledArticles.containsKey(scheduledArticle.articleId)
+          && scheduledArticle.registrationTime < reconcileStartTime
+          && scheduledArticles.remove(scheduledArticle.articleId, scheduledArticle)) {
+        queue.remove(scheduledArticle);
+        unscheduledCount++;
+      }
+    }
+    if (scheduledCount > 0 || unscheduledCount > 0) {
+      LOG.info("Scheduled news articles reconciled with storage: {} scheduled or moved, {} unscheduled",
+               scheduledCount,
+               unscheduledCount);
+    }
+  }
+
+  /**
+   * Adds or moves an article in the schedule
+   *
+   * @param articleId article identifier
+   * @param schedulePostTime schedule post time in milliseconds
+   */
+  public void schedule(String articleId, long schedulePostTime) {
+    schedule(new ScheduledArticle(articleId, schedulePostTime, schedulePostTime, 0));
+  }
+
+  /**
+   * Removes an article from the schedule
+   *
+   * @param articleId article identifier
+   */
+  public void unschedule(String articleId) {
+    ScheduledArticle scheduledArticle = scheduledArticles.remove(articleId);
+    if (scheduledArticle != null) {
+      queue.remove(scheduledArticle);
+    }
+  }
+
+  /**
+   * @return count of articles waiting for their schedule post date
+   */
+  public int size() {
+    return scheduledArticles.size();
+  }
+
+  /**
+   * @return scheduled articles which couldn't be posted after all attempts
+   */
+  public List<ScheduledNewsArticleFailure> getFailures() {
+    return claimService.getFailures();
+  }
+
+  /**
+   * Schedules again for an immediate posting an article which couldn't be
+   * posted
+   *
+   * @param articleId article identifier
+   * @return true if the article was a failure and has been scheduled again,
+   *         else false
+   */
+  public boolean retryFailure(String articleId) {
+    ScheduledNewsArticleFailure failure = claimService.deleteFailure(articleId);
+    if (failure == null) {
+      return false;
+    }
+    schedule(new ScheduledArticle(articleId, failure.getSchedulePostTime(), System.currentTimeMillis(), 0));
+    return true;
+  }
+
+  /**
+   * @return posting statistics of scheduled articles handled by the current
+   *         node since its startup, including the lag between the schedule
+   *         post time and the effective post time
+   */
+  public ScheduledNewsArticleStatistics getStatistics() {
+    long posted = postedCount.get();
+    return new ScheduledNewsArticleStatistics(size(),
+                                              posted,
+                                              retriedCount.get(),
+                                              failedCount.get(),
+                                              lastPostLag.get(),
+                                              maxPostLag.get(),
+                                              posted == 0 ? 0 : totalPostLag.get() / posted);
+  }
+
+  private void schedule(ScheduledArticle scheduledArticle) {
+    ScheduledArticle previousScheduledArticle = scheduledArticles.put(scheduledArticle.articleId, scheduledArticle);
+    if (previousScheduledArticle != null) {
+      queue.remove(previousScheduledArticle);
+    }
+    queue.add(scheduledArticle);
+  }
+
+  private void postDueArticle(ScheduledArticle dueArticle) {
+    String articleId = dueArticle.articleId;
+    try {
+      if (!claimService.claim(articleId)) {
+        LOG.debug("Scheduled news article {} is posted by another node", articleId);
+        return;
+      }
+    } catch (Exception e) {
+      LOG.warn("Error claiming scheduled news article {}, retry later", articleId, e);
+      retry(dueArticle);
+      return;
+    }
+    try {
+      if (postScheduledNewsArticleJob.postScheduledNewsArticle(articleId)) {
+        recordPostLag(System.currentTimeMillis() - dueArticle.schedulePostTime);
+      }
+      claimService.release(articleId);
+    } catch (Exception e) {
+      int attempts = dueArticle.attempt + 1;
+      if (attempts < maxAttempts) {
+        LOG.warn("Error posting scheduled news article {}, attempt {}/{}", articleId, attempts, maxAttempts, e);
+        claimService.release(articleId);
+        retry(dueArticle);
+      } else {
+        LOG.error("Error posting scheduled news article {}, giving up after {} attempts", articleId, attempts, e);
+        failedCount.incrementAndGet();
+        claimService.markAsFailed(articleId, dueArticle.schedulePostTime, attempts, e.getMessage());
+      }
+    }
+  }
+
+  private void retry(ScheduledArticle dueArticle) {
+    int attempt = dueArticle.attempt + 1;
+    long delay = retryDelay * (1L << Math.min(attempt - 1, 20));
+    retriedCount.incrementAndGet();
+    // Don't override a new schedule received meanwhile
+    ScheduledArticle retriedArticle = new ScheduledArticle(dueArticle.articleId,
+                                                           dueArticle.schedulePostTime,
+                                                           System.currentTimeMillis() + delay,
+                                                           attempt);
+    if (scheduledArticles.putIfAbsent(dueArticle.articleId, retriedArticle) == null) {
+      queue.add(retriedArticle);
+    }
+  }
+
+  private void recordPostLag(long postLag) {
+    postedCount.incrementAndGet();
+    totalPostLag.addAndGet(postLag);
+    lastPostLag.set(postLag);
+    maxPostLag.accumulateAndGet(postLag, Math::max);
+  }
+
+  private static final class ScheduledArticle implements Delayed {
+
+    private final String articleId;
+
+    private final long   schedulePostTime;
+
+    private final long   dueTime;
+
+    private final int    attempt;
+
+    private final long   registrationTime;
+
+    private ScheduledArticle(String articleId, long schedulePostTime, long dueTime, int attempt) {
+      this.articleId = articleId;
+      this.schedulePostTime = schedulePostTime;
+      this.dueTime = dueTime;
+      this.attempt = attempt;
+      this.registrationTime = System.currentTimeMillis();
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(dueTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(dueTime, ((ScheduledArticle) other).dueTime);
+    }
+  }
+}
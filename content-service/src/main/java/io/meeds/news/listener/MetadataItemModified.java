@@ -21,7 +21,6 @@ package io.meeds.news.listener;
 
 import org.apache.commons.lang3.StringUtils;
 
-import org.exoplatform.commons.search.index.IndexingService;
 import org.exoplatform.services.listener.Event;
 import org.exoplatform.services.listener.Listener;
 import org.exoplatform.services.listener.ListenerService;
@@ -30,7 +29,7 @@ import org.exoplatform.social.core.storage.cache.CachedActivityStorage;
 import org.exoplatform.social.metadata.model.MetadataItem;
 
 import io.meeds.news.model.News;
-import io.meeds.news.search.NewsIndexingServiceConnector;
+import io.meeds.news.search.NewsSearchBackend;
 import io.meeds.news.service.NewsService;
 import io.meeds.news.utils.NewsUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,7 +41,7 @@ import jakarta.annotation.PostConstruct;
 public class MetadataItemModified extends Listener<Long, MetadataItem> {
 
   @Autowired
-  private IndexingService       indexingService;
+  private NewsSearchBackend     newsSearchBackend;
 
   @Autowired
   private NewsService           newsService;
@@ -96,7 +95,7 @@ public class MetadataItemModified extends Listener<Long, MetadataItem> {
   }
 
   private void reindexNews(String newsId) {
-    indexingService.reindex(NewsIndexingServiceConnector.TYPE, newsId);
+    newsSearchBackend.reindex(newsId);
   }
 
 }
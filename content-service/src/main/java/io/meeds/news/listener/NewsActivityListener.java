@@ -31,7 +31,9 @@ import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
 
+import io.meeds.news.activity.NewsActivityCounterCache;
 import io.meeds.news.model.News;
+import io.meeds.news.model.NewsActivity;
 import io.meeds.news.service.NewsService;
 import io.meeds.news.utils.NewsUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,21 +51,22 @@ import static io.meeds.news.utils.NewsUtils.NewsObjectType.ARTICLE;
 @Component
 public class NewsActivityListener extends ActivityListenerPlugin {
 
-  private static final Log    LOG     = ExoLogger.getLogger(NewsActivityListener.class);
+  private static final Log         LOG = ExoLogger.getLogger(NewsActivityListener.class);
 
-  private static final String NEWS_ID = "newsId";
+  @Autowired
+  private ActivityManager          activityManager;
 
   @Autowired
-  private ActivityManager     activityManager;
+  private IdentityManager          identityManager;
 
   @Autowired
-  private IdentityManager     identityManager;
+  private SpaceService             spaceService;
 
   @Autowired
-  private SpaceService        spaceService;
+  private NewsService              newsService;
 
   @Autowired
-  private NewsService         newsService;
+  private NewsActivityCounterCache newsActivityCounterCache;
 
   @PostConstruct
   public void init() {
@@ -75,10 +78,9 @@ public class NewsActivityListener extends ActivityListenerPlugin {
     if (sharedActivity != null && sharedActivity.getTemplateParams() != null
         && sharedActivity.getTemplateParams().containsKey("originalActivityId")) {
       String originalActivityId = sharedActivity.getTemplateParams().get("originalActivityId");
-      ExoSocialActivity originalActivity = activityManager.getActivity(originalActivityId);
-      if (originalActivity != null && originalActivity.getTemplateParams() != null
-          && originalActivity.getTemplateParams().containsKey(NEWS_ID)) {
-        String newsId = originalActivity.getTemplateParams().get(NEWS_ID);
+      NewsActivity originalNewsActivity = newsService.getNewsActivity(originalActivityId);
+      if (originalNewsActivity != null && !originalNewsActivity.isShare()) {
+        String newsId = originalNewsActivity.getNewsId();
         org.exoplatform.services.security.Identity currentIdentity = ConversationState.getCurrent().getIdentity();
         try {
           News news = newsService.getNewsById(newsId, currentIdentity, false, ARTICLE.name().toLowerCase());
@@ -96,11 +98,12 @@ public class NewsActivityListener extends ActivityListenerPlugin {
 
   @Override
   public void likeActivity(ActivityLifeCycleEvent event) {
-    ExoSocialActivity activity = activityManager.getActivity(event.getActivity().getId());
-    if (activity != null && activity.getTemplateParams() != null && activity.getTemplateParams().containsKey(NEWS_ID)) {
+    String activityId = event.getActivity().getId();
+    NewsActivity newsActivity = newsService.getNewsActivity(activityId);
+    if (newsActivity != null && !newsActivity.isShare()) {
       org.exoplatform.services.security.Identity currentIdentity = ConversationState.getCurrent().getIdentity();
       try {
-        News news = newsService.getNewsByActivityId(activity.getId(), currentIdentity);
+        News news = newsService.getNewsByActivityId(activityId, currentIdentity);
         NewsUtils.broadcastEvent(NewsUtils.LIKE_NEWS, currentIdentity.getUserId(), news);
       } catch (Exception e) {
         LOG.error("Error broadcast like news event", e);
@@ -110,11 +113,13 @@ public class NewsActivityListener extends ActivityListenerPlugin {
 
   @Override
   public void saveComment(ActivityLifeCycleEvent event) {
-    ExoSocialActivity activity = activityManager.getActivity(event.getActivity().getParentId());
-    if (activity != null && activity.getTemplateParams() != null && activity.getTemplateParams().containsKey(NEWS_ID)) {
+    String activityId = event.getActivity().getParentId();
+    NewsActivity newsActivity = newsService.getNewsActivity(activityId);
+    if (newsActivity != null && !newsActivity.isShare()) {
+      newsActivityCounterCache.incrementCommentsCount(activityId);
       org.exoplatform.services.security.Identity currentIdentity = ConversationState.getCurrent().getIdentity();
       try {
-        News news = newsService.getNewsByActivityId(activity.getId(), currentIdentity);
+        News news = newsService.getNewsByActivityId(activityId, currentIdentity);
         NewsUtils.broadcastEvent(NewsUtils.COMMENT_NEWS, currentIdentity.getUserId(), news);
       } catch (Exception e) {
         LOG.error("Error broadcast comment news event", e);
@@ -122,6 +127,13 @@ public class NewsActivityListener extends ActivityListenerPlugin {
     }
   }
 
+  @Override
+  public void deleteComment(ActivityLifeCycleEvent event) {
+    // The count of deleted comments isn't known when the comment has
+    // replies, thus the count is computed again when next displayed
+    newsActivityCounterCache.invalidateCommentsCount(event.getActivity().getParentId());
+  }
+
   private Identity getIdentity(ExoSocialActivity sharedActivity) {
     String posterIdentityId = sharedActivity.getPosterId();
     return identityManager.getIdentity(posterIdentityId);
@@ -0,0 +1,92 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.listener;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.profile.ProfileLifeCycleEvent;
+import org.exoplatform.social.core.profile.ProfileListenerPlugin;
+
+import io.meeds.news.search.NewsIndexPartialUpdater;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Updates the poster name of indexed news when a user changes their name. The
+ * last known full names are kept to ignore the profile updates which don't
+ * change the user name.
+ */
+@Component
+public class NewsIndexProfileListener extends ProfileListenerPlugin {
+
+  private static final int         MAX_KNOWN_FULL_NAMES = 10000;
+
+  private final Map<String, String> knownFullNames     = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = -2489046574325806212L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+      return size() > MAX_KNOWN_FULL_NAMES;
+    }
+  });
+
+  @Autowired
+  private IdentityManager           identityManager;
+
+  @Autowired
+  private NewsIndexPartialUpdater   newsIndexPartialUpdater;
+
+  @PostConstruct
+  public void init() {
+    identityManager.addProfileListener(this);
+  }
+
+  @Override
+  public void basicInfoUpdated(ProfileLifeCycleEvent event) {
+    updatePosterName(event);
+  }
+
+  @Override
+  public void contactSectionUpdated(ProfileLifeCycleEvent event) {
+    updatePosterName(event);
+  }
+
+  private void updatePosterName(ProfileLifeCycleEvent event) {
+    Profile profile = event.getProfile();
+    if (profile == null || profile.getIdentity() == null || profile.getFullName() == null) {
+      return;
+    }
+    String username = profile.getIdentity().getRemoteId();
+    String fullName = profile.getFullName();
+    // The first update of a user on this node can't be compared, the indexed
+    // documents are then updated once
+    if (!Objects.equals(knownFullNames.put(username, fullName), fullName)) {
+      newsIndexPartialUpdater.updatePosterName(username, fullName);
+    }
+  }
+}
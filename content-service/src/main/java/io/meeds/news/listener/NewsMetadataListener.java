@@ -24,7 +24,6 @@ import java.util.Set;
 import jakarta.annotation.PostConstruct;
 import org.apache.commons.lang3.StringUtils;
 
-import org.exoplatform.commons.search.index.IndexingService;
 import org.exoplatform.services.listener.Event;
 import org.exoplatform.services.listener.Listener;
 import org.exoplatform.services.listener.ListenerService;
@@ -36,7 +35,7 @@ import org.exoplatform.social.metadata.tag.model.TagName;
 import org.exoplatform.social.metadata.tag.model.TagObject;
 
 import io.meeds.news.model.News;
-import io.meeds.news.search.NewsIndexingServiceConnector;
+import io.meeds.news.search.NewsSearchBackend;
 import io.meeds.news.utils.NewsUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -49,7 +48,7 @@ import static io.meeds.news.utils.NewsUtils.UPDATE_NEWS;
 public class NewsMetadataListener extends Listener<String, News> {
 
   @Autowired
-  private IndexingService indexingService;
+  private NewsSearchBackend newsSearchBackend;
 
   @Autowired
   private IdentityManager identityManager;
@@ -78,7 +77,7 @@ public class NewsMetadataListener extends Listener<String, News> {
 
     saveTags(news, username);
 
-    indexingService.reindex(NewsIndexingServiceConnector.TYPE, news.getId());
+    newsSearchBackend.reindex(news.getId());
   }
 
   private void saveTags(News news, String username) {
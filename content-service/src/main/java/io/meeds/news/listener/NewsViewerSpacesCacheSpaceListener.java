@@ -0,0 +1,65 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.social.core.space.SpaceListenerPlugin;
+import org.exoplatform.social.core.space.spi.SpaceLifeCycleEvent;
+import org.exoplatform.social.core.space.spi.SpaceService;
+
+import io.meeds.news.activity.NewsViewerSpacesCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Invalidates the cached member spaces of a news viewer when the viewer joins
+ * or leaves a space
+ */
+@Component
+public class NewsViewerSpacesCacheSpaceListener extends SpaceListenerPlugin {
+
+  @Autowired
+  private SpaceService          spaceService;
+
+  @Autowired
+  private NewsViewerSpacesCache newsViewerSpacesCache;
+
+  @PostConstruct
+  public void init() {
+    spaceService.addSpaceListener(this);
+  }
+
+  @Override
+  public void joined(SpaceLifeCycleEvent event) {
+    newsViewerSpacesCache.invalidate(event.getTarget());
+  }
+
+  @Override
+  public void left(SpaceLifeCycleEvent event) {
+    newsViewerSpacesCache.invalidate(event.getTarget());
+  }
+
+  @Override
+  public void spaceRemoved(SpaceLifeCycleEvent event) {
+    newsViewerSpacesCache.clear();
+  }
+}
@@ -0,0 +1,73 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.profile.ProfileLifeCycleEvent;
+import org.exoplatform.social.core.profile.ProfileListenerPlugin;
+
+import io.meeds.news.notification.NotificationUserCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Invalidates the cached display information of a user used in news
+ * notifications when the user updates their profile
+ */
+@Component
+public class NotificationUserCacheProfileListener extends ProfileListenerPlugin {
+
+  @Autowired
+  private IdentityManager       identityManager;
+
+  @Autowired
+  private NotificationUserCache notificationUserCache;
+
+  @PostConstruct
+  public void init() {
+    identityManager.addProfileListener(this);
+  }
+
+  @Override
+  public void avatarUpdated(ProfileLifeCycleEvent event) {
+    invalidate(event);
+  }
+
+  @Override
+  public void basicInfoUpdated(ProfileLifeCycleEvent event) {
+    invalidate(event);
+  }
+
+  @Override
+  public void contactSectionUpdated(ProfileLifeCycleEvent event) {
+    invalidate(event);
+  }
+
+  private void invalidate(ProfileLifeCycleEvent event) {
+    Profile profile = event.getProfile();
+    if (profile != null && profile.getIdentity() != null) {
+      notificationUserCache.invalidate(profile.getIdentity().getRemoteId());
+    }
+  }
+}
@@ -105,6 +105,9 @@ public class News {
 
   private List<String>                    attachmentsIds;
 
+  /* mentions stored with the page version, null when unknown */
+  private List<String>                    mentions;
+
   private String                          spaceAvatarUrl;
 
   private boolean                         canEdit;
@@ -0,0 +1,610 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.notification;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.commons.api.notification.NotificationContext;
+import org.exoplatform.commons.api.notification.model.ArgumentLiteral;
+import org.exoplatform.commons.api.notification.model.PluginKey;
+import org.exoplatform.commons.notification.impl.NotificationContextImpl;
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.metadata.MetadataFilter;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.Metadata;
+import org.exoplatform.social.metadata.model.MetadataItem;
+import org.exoplatform.social.metadata.model.MetadataKey;
+import org.exoplatform.social.metadata.model.MetadataObject;
+import org.exoplatform.social.metadata.model.MetadataType;
+
+import io.meeds.news.model.NewsNotificationStatistics;
+import io.meeds.news.notification.plugin.MentionInNewsNotificationPlugin;
+import io.meeds.news.notification.plugin.PostNewsNotificationPlugin;
+import io.meeds.news.notification.utils.NotificationConstants;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Dispatches the news notifications asynchronously, so that the users posting
+ * or publishing articles don't wait for the notifications of all receivers to
+ * be built. Notifications are executed by a bounded pool of workers reading a
+ * bounded queue. When the queue is full, the notification is executed by the
+ * thread requesting it, which slows down the producers instead of dropping
+ * notifications.
+ * <p>
+ * Each notification is persisted as a metadata item before being queued and
+ * removed once executed. A failed notification is retried with an exponential
+ * backoff, and once all attempts are made, its metadata item is kept and
+ * marked as failed. The notifications left by a stopped node are queued again
+ * by the periodic recovery of all nodes, so that each notification is sent at
+ * least once. An abandoned notification is claimed before being queued again,
+ * the same way the scheduled articles are claimed, so that a single node
+ * recovers it.
+ * <p>
+ * The notification plugins send a single batch of receivers at a time. When
+ * receivers remain, the plugin returns the offset of the next batch, which is
+ * persisted and queued as its own pending notification before the sent one is
+ * removed. A failed batch is then retried alone, without sending again the
+ * previous batches.
+ * <p>
+ * When a digest window is configured, the notifications of articles posted in
+ * the same space are held during the window then sent as a single
+ * notification listing all the articles, so that a burst of posts produces a
+ * single message for each space member.
+ */
+@Component
+public class NewsNotificationQueue {
+
+  public static final MetadataType                   PENDING_NOTIFICATION_METADATA_TYPE = new MetadataType(1003,
+                                                                                                           "contentPendingNotification");
+
+  public static final MetadataKey                    PENDING_NOTIFICATION_METADATA_KEY  =
+                                                                                       new MetadataKey(PENDING_NOTIFICATION_METADATA_TYPE.getName(),
+                                                                                                       PENDING_NOTIFICATION_METADATA_TYPE.getName(),
+                                                                                                       0);
+
+  public static final MetadataType                   RECOVERY_CLAIM_METADATA_TYPE       = new MetadataType(1005,
+                                                                                                     "contentNotificationRecoveryClaim");
+
+  public static final String                         PENDING_NOTIFICATION_OBJECT_TYPE   = "newsNotification";
+
+  public static final String                         PLUGIN_ID                          = "pluginId";
+
+  public static final String                         NODE                               = "node";
+
+  public static final String                         ENQUEUE_TIME                       = "enqueueTime";
+
+  public static final String                         FAILED                             = "failed";
+
+  public static final String                         ATTEMPTS                           = "attempts";
+
+  public static final String                         ERROR                              = "error";
+
+  private static final Log                           LOG                                =
+                                                         ExoLogger.getLogger(NewsNotificationQueue.class);
+
+  private static final String                        NODE_NAME                          =
+                                                               ManagementFactory.getRuntimeMXBean().getName();
+
+  private static final String                        MENTIONED_IDS_SEPARATOR            = ",";
+
+  private static final int                           PENDING_NOTIFICATIONS_PAGE_SIZE    = 100;
+
+  private static final int                           MAX_ERROR_LENGTH                   = 1000;
+
+  private static final List<ArgumentLiteral<String>> STRING_ARGUMENTS                   =
+                                                                      List.of(PostNewsNotificationPlugin.CONTENT_TITLE,
+                                                                              PostNewsNotificationPlugin.CONTENT_AUTHOR,
+                                                                              PostNewsNotificationPlugin.CURRENT_USER,
+                                                                              PostNewsNotificationPlugin.CONTENT_SPACE_ID,
+                                                                              PostNewsNotificationPlugin.CONTENT_SPACE,
+                                                                              PostNewsNotificationPlugin.ILLUSTRATION_URL,
+                                                                              PostNewsNotificationPlugin.AUTHOR_AVATAR_URL,
+                                                                              PostNewsNotificationPlugin.ACTIVITY_LINK,
+                                                                              PostNewsNotificationPlugin.NEWS_ID,
+                                                                              PostNewsNotificationPlugin.AUDIENCE,
+                                                                              PostNewsNotificationPlugin.DIGEST_ARTICLES,
+                                                                              PostNewsNotificationPlugin.RECEIVERS_OFFSET);
+
+  private static final List<ArgumentLiteral<String>> DIGEST_ARTICLE_ARGUMENTS           =
+                                                                              List.of(PostNewsNotificationPlugin.NEWS_ID,
+                                                                                      PostNewsNotificationPlugin.CONTENT_TITLE,
+                                                                                      PostNewsNotificationPlugin.CONTENT_AUTHOR,
+                                                                                      PostNewsNotificationPlugin.CURRENT_USER,
+                                                                                      PostNewsNotificationPlugin.ILLUSTRATION_URL,
+                                                                                      PostNewsNotificationPlugin.AUTHOR_AVATAR_URL,
+                                                                                      PostNewsNotificationPlugin.ACTIVITY_LINK);
+
+  @Autowired
+  private MetadataService                            metadataService;
+
+  @Autowired
+  private PortalContainer                            container;
+
+  @Value("${content.notification.workers:2}")
+  private int                                        workers;
+
+  @Value("${content.notification.queue.capacity:1000}")
+  private int                                        queueCapacity;
+
+  @Value("${content.notification.retry.maxAttempts:3}")
+  private int                                        maxAttempts;
+
+  @Value("${content.notification.retry.delay:10000}")
+  private long                                       retryDelay;
+
+  /**
+   * Duration after which a pending notification is considered abandoned by
+   * the node which queued it
+   */
+  @Value("${content.notification.recovery.timeout:600000}")
+  private long                                       recoveryTimeout;
+
+  /**
+   * Duration during which the posted articles notifications of a space are
+   * accumulated to be sent as a single digest notification, 0 to disable
+   */
+  @Value("${content.notification.digest.window:0}")
+  private long                                       digestWindow;
+
+  /**
+   * Notifications being accumulated, by space identifier
+   */
+  private final Map<String, List<PendingNotification>> digests                         = new ConcurrentHashMap<>();
+
+  private final AtomicLong                           dispatchedCount                    = new AtomicLong();
+
+  private final AtomicLong                           retriedCount                       = new AtomicLong();
+
+  private final AtomicLong                           failedCount                        = new AtomicLong();
+
+  private final AtomicLong                           lastDispatchLatency                = new AtomicLong();
+
+  private final AtomicLong                           maxDispatchLatency                 = new AtomicLong();
+
+  private final AtomicLong                           totalDispatchLatency               = new AtomicLong();
+
+  private final AtomicLong                           digestedCount                      = new AtomicLong();
+
+  private ThreadPoolExecutor                         executor;
+
+  private ScheduledExecutorService                   scheduledExecutor;
+
+  @PostConstruct
+  public void init() {
+    executor = new ThreadPoolExecutor(workers,
+                                      workers,
+                                      0L,
+                                      TimeUnit.MILLISECONDS,
+                                      new ArrayBlockingQueue<>(queueCapacity),
+                                      new ThreadPoolExecutor.CallerRunsPolicy());
+    scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+    if (recoveryTimeout <= digestWindow) {
+      // The notifications held in a digest would be recovered by other nodes
+      // before being sent
+      LOG.warn("Pending news notifications recovery timeout {}ms must be greater than the digest window {}ms, use {}ms",
+               recoveryTimeout,
+               digestWindow,
+               2 * digestWindow);
+      recoveryTimeout = 2 * digestWindow;
+    }
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (scheduledExecutor != null) {
+      scheduledExecutor.shutdownNow();
+    }
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Persists then queues the execution of a news notification
+   *
+   * @param pluginId notification plugin identifier
+   * @param ctx {@link NotificationContext} holding the notification arguments
+   */
+  public void enqueue(String pluginId, NotificationContext ctx) {
+    Map<String, String> properties = toProperties(pluginId, ctx);
+    PendingNotification pendingNotification = new PendingNotification(persist(properties),
+                                                                      properties,
+                                                                      System.currentTimeMillis(),
+                                                                      1);
+    if (isDigestible(properties)) {
+      addToDigest(pendingNotification);
+    } else {
+      submit(pendingNotification);
+    }
+  }
+
+  /**
+   * Queues again the pending notifications which weren't sent, because the
+   * node which queued them was stopped before sending them. Failed
+   * notifications are excluded by the query, and all the other pending
+   * notifications are paged through, since the metadata filter can't compare
+   * their enqueue time. The abandoned ones are queued again once all pages are
+   * read, so that updating them doesn't shift the following pages. Each one
+   * is claimed first, the claim being named by the notification and its
+   * enqueue time, so that a single node recovers it even when several nodes
+   * read it concurrently. Claims are kept during the recovery timeout, so that
+   * a node reading the notification before its recovery can't claim it again.
+   */
+  @Scheduled(fixedDelayString = "${content.notification.recovery.delay:300000}")
+  public void recoverPendingNotifications() {
+    ExoContainerContext.setCurrentContainer(container);
+    RequestLifeCycle.begin(container);
+    try {
+      MetadataFilter metadataFilter = new MetadataFilter();
+      metadataFilter.setMetadataName(PENDING_NOTIFICATION_METADATA_KEY.getName());
+      metadataFilter.setMetadataTypeName(PENDING_NOTIFICATION_METADATA_TYPE.getName());
+      metadataFilter.setMetadataObjectTypes(List.of(PENDING_NOTIFICATION_OBJECT_TYPE));
+      metadataFilter.setMetadataProperties(Map.of(FAILED, String.valueOf(false)));
+      long now = System.currentTimeMillis();
+      List<MetadataItem> abandonedNotifications = new ArrayList<>();
+      long offset = 0;
+      List<MetadataItem> pendingNotifications;
+      do {
+        pendingNotifications = metadataService.getMetadataItemsByFilter(metadataFilter, offset, PENDING_NOTIFICATIONS_PAGE_SIZE);
+        pendingNotifications.stream()
+                            .filter(pendingNotification -> pendingNotification.getProperties() != null
+                                && NumberUtils.toLong(pendingNotification.getProperties().get(ENQUEUE_TIME))
+                                    + recoveryTimeout < now)
+                            .forEach(abandonedNotifications::add);
+        offset += PENDING_NOTIFICATIONS_PAGE_SIZE;
+      } while (pendingNotifications.size() == PENDING_NOTIFICATIONS_PAGE_SIZE);
+      deleteExpiredRecoveryClaims(now);
+      abandonedNotifications.forEach(pendingNotification -> {
+        if (!claimRecovery(pendingNotification, now)) {
+          return;
+        }
+        Map<String, String> properties = pendingNotification.getProperties();
+        LOG.info("Recover {} notification of news {} queued by node {}",
+                 properties.get(PLUGIN_ID),
+                 properties.get(PostNewsNotificationPlugin.NEWS_ID.getKey()),
+                 properties.get(NODE));
+        properties.put(NODE, NODE_NAME);
+        properties.put(ENQUEUE_TIME, String.valueOf(now));
+        pendingNotification.setProperties(properties);
+        metadataService.updateMetadataItem(pendingNotification, pendingNotification.getCreatorId(), false);
+        submit(new PendingNotification(pendingNotification, properties, now, 1));
+      });
+    } catch (Exception e) {
+      LOG.warn("Error while recovering pending news notifications", e);
+    } finally {
+      RequestLifeCycle.end();
+    }
+  }
+
+  /**
+   * @return {@link NewsNotificationStatistics} of the current node
+   */
+  public NewsNotificationStatistics getStatistics() {
+    long dispatched = dispatchedCount.get();
+    return new NewsNotificationStatistics(executor.getQueue().size(),
+                                          queueCapacity,
+                                          dispatched,
+                                          retriedCount.get(),
+                                          failedCount.get(),
+                                          lastDispatchLatency.get(),
+                                          maxDispatchLatency.get(),
+                                          dispatched == 0 ? 0 : totalDispatchLatency.get() / dispatched,
+                                          digestedCount.get());
+  }
+
+  /**
+   * Claims the recovery of an abandoned notification. The claim isn't created
+   * in an enclosing transaction, so that a violation of the unique key by a
+   * concurrent claim of another node is raised by the claim creation itself.
+   */
+  private boolean claimRecovery(MetadataItem pendingNotification, long now) {
+    Map<String, String> properties = new HashMap<>();
+    properties.put(NODE, NODE_NAME);
+    properties.put(ENQUEUE_TIME, String.valueOf(now));
+    Metadata claim = new Metadata();
+    claim.setType(RECOVERY_CLAIM_METADATA_TYPE);
+    claim.setName(pendingNotification.getId() + ":" + pendingNotification.getProperties().get(ENQUEUE_TIME));
+    claim.setAudienceId(0);
+    claim.setProperties(properties);
+    try {
+      metadataService.createMetadata(claim, 0);
+      return true;
+    } catch (Exception e) {
+      LOG.debug("Pending news notification {} already recovered by another node", pendingNotification.getId(), e);
+      return false;
+    }
+  }
+
+  private void deleteExpiredRecoveryClaims(long now) {
+    metadataService.getMetadatas(RECOVERY_CLAIM_METADATA_TYPE.getName(), 0)
+                   .stream()
+                   .filter(claim -> claim.getProperties() == null
+                       || NumberUtils.toLong(claim.getProperties().get(ENQUEUE_TIME)) + recoveryTimeout < now)
+                   .forEach(claim -> {
+                     try {
+                       metadataService.deleteMetadataById(claim.getId());
+                     } catch (Exception e) {
+                       // Already deleted by another node
+                       LOG.debug("Pending news notification recovery claim {} already deleted", claim.getName(), e);
+                     }
+                   });
+  }
+
+  private boolean isDigestible(Map<String, String> properties) {
+    return digestWindow > 0 && PostNewsNotificationPlugin.ID.equals(properties.get(PLUGIN_ID))
+        && NotificationConstants.NOTIFICATION_CONTEXT.POST_NEWS.name()
+                                                              .equals(properties.get(PostNewsNotificationPlugin.CONTEXT.getKey()))
+        && StringUtils.isNotBlank(properties.get(PostNewsNotificationPlugin.CONTENT_SPACE_ID.getKey()));
+  }
+
+  private void addToDigest(PendingNotification pendingNotification) {
+    String spaceId = pendingNotification.properties.get(PostNewsNotificationPlugin.CONTENT_SPACE_ID.getKey());
+    digests.compute(spaceId, (key, spaceNotifications) -> {
+      if (spaceNotifications == null) {
+        spaceNotifications = new ArrayList<>();
+        scheduledExecutor.schedule(() -> flushDigest(key), digestWindow, TimeUnit.MILLISECONDS);
+      }
+      spaceNotifications.add(pendingNotification);
+      return spaceNotifications;
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private void flushDigest(String spaceId) {
+    List<PendingNotification> spaceNotifications = digests.remove(spaceId);
+    if (spaceNotifications == null || spaceNotifications.isEmpty()) {
+      return;
+    }
+    if (spaceNotifications.size() == 1) {
+      submit(spaceNotifications.get(0));
+      return;
+    }
+    JSONArray digestArticles = new JSONArray();
+    List<MetadataItem> mergedItems = new ArrayList<>();
+    for (PendingNotification spaceNotification : spaceNotifications) {
+      // Each article keeps its own poster and illustration, so that the
+      // plugin can check it separately and exclude all the posters from
+      // the receivers
+      JSONObject digestArticle = new JSONObject();
+      DIGEST_ARTICLE_ARGUMENTS.forEach(argument -> digestArticle.put(argument.getKey(),
+                                                                     spaceNotification.properties.get(argument.getKey())));
+      digestArticles.add(digestArticle);
+      mergedItems.addAll(spaceNotification.items);
+    }
+    PendingNotification latestNotification = spaceNotifications.get(spaceNotifications.size() - 1);
+    Map<String, String> properties = new HashMap<>(latestNotification.properties);
+    properties.put(PostNewsNotificationPlugin.DIGEST_ARTICLES.getKey(), digestArticles.toJSONString());
+    digestedCount.addAndGet(spaceNotifications.size() - 1L);
+    submit(new PendingNotification(mergedItems, properties, spaceNotifications.get(0).enqueueTime, 1));
+  }
+
+  private void submit(PendingNotification pendingNotification) {
+    executor.execute(() -> dispatch(pendingNotification));
+  }
+
+  private void dispatch(PendingNotification pendingNotification) {
+    String pluginId = pendingNotification.properties.get(PLUGIN_ID);
+    ExoContainerContext.setCurrentContainer(container);
+    RequestLifeCycle.begin(container);
+    try {
+      NotificationContext ctx = toContext(pendingNotification.properties);
+      if (!ctx.getNotificationExecutor().with(ctx.makeCommand(PluginKey.key(pluginId))).execute(ctx)) {
+        throw new IllegalStateException("Notification " + pluginId + " wasn't executed");
+      }
+      long latency = System.currentTimeMillis() - pendingNotification.enqueueTime;
+      dispatchedCount.incrementAndGet();
+      lastDispatchLatency.set(latency);
+      maxDispatchLatency.accumulateAndGet(latency, Math::max);
+      totalDispatchLatency.addAndGet(latency);
+      String nextReceiversOffset = ctx.value(PostNewsNotificationPlugin.NEXT_RECEIVERS_OFFSET);
+      if (nextReceiversOffset != null) {
+        enqueueNextReceivers(pendingNotification, nextReceiversOffset);
+      }
+      deletePendingNotification(pendingNotification);
+    } catch (Exception e) {
+      if (pendingNotification.attempt < maxAttempts) {
+        long delay = retryDelay * (1L << (pendingNotification.attempt - 1));
+        LOG.warn("Error sending {} notification, attempt {}/{}, retry in {}ms",
+                 pluginId,
+                 pendingNotification.attempt,
+                 maxAttempts,
+                 delay,
+                 e);
+        retriedCount.incrementAndGet();
+        scheduledExecutor.schedule(() -> submit(pendingNotification.nextAttempt()), delay, TimeUnit.MILLISECONDS);
+      } else {
+        LOG.error("Error sending {} notification after {} attempts, it's kept as failed",
+                  pluginId,
+                  pendingNotification.attempt,
+                  e);
+        failedCount.incrementAndGet();
+        markAsFailed(pendingNotification, e.getMessage());
+      }
+    } finally {
+      RequestLifeCycle.end();
+    }
+  }
+
+  /**
+   * Persists and queues the notification of the next batch of receivers,
+   * before the sent batch is removed, so that the remaining receivers are
+   * recovered if the node stops meanwhile
+   */
+  private void enqueueNextReceivers(PendingNotification pendingNotification, String nextReceiversOffset) {
+    long now = System.currentTimeMillis();
+    Map<String, String> properties = new HashMap<>(pendingNotification.properties);
+    properties.put(NODE, NODE_NAME);
+    properties.put(ENQUEUE_TIME, String.valueOf(now));
+    properties.put(PostNewsNotificationPlugin.RECEIVERS_OFFSET.getKey(), nextReceiversOffset);
+    submit(new PendingNotification(persist(properties), properties, now, 1));
+  }
+
+  private MetadataItem persist(Map<String, String> properties) {
+    try {
+      return metadataService.createMetadataItem(new MetadataObject(PENDING_NOTIFICATION_OBJECT_TYPE,
+                                                                   UUID.randomUUID().toString()),
+                                                PENDING_NOTIFICATION_METADATA_KEY,
+                                                properties,
+                                                false);
+    } catch (Exception e) {
+      LOG.warn("Error persisting {} notification of news {}, it won't be recovered if the server stops before sending it",
+               properties.get(PLUGIN_ID),
+               properties.get(PostNewsNotificationPlugin.NEWS_ID.getKey()),
+               e);
+      return null;
+    }
+  }
+
+  private void deletePendingNotification(PendingNotification pendingNotification) {
+    pendingNotification.items.forEach(item -> {
+      try {
+        metadataService.deleteMetadataItem(item.getId(), false);
+      } catch (Exception e) {
+        LOG.debug("Pending news notification {} already removed", item.getId(), e);
+      }
+    });
+  }
+
+  private void markAsFailed(PendingNotification pendingNotification, String error) {
+    pendingNotification.items.forEach(item -> {
+      try {
+        Map<String, String> properties = item.getProperties() == null ? new HashMap<>()
+                                                                      : new HashMap<>(item.getProperties());
+        properties.put(FAILED, String.valueOf(true));
+        properties.put(ATTEMPTS, String.valueOf(pendingNotification.attempt));
+        properties.put(ERROR, StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+        item.setProperties(properties);
+        metadataService.updateMetadataItem(item, item.getCreatorId(), false);
+      } catch (Exception e) {
+        LOG.warn("Error marking pending news notification {} as failed", item.getId(), e);
+      }
+    });
+  }
+
+  private Map<String, String> toProperties(String pluginId, NotificationContext ctx) {
+    Map<String, String> properties = new HashMap<>();
+    properties.put(PLUGIN_ID, pluginId);
+    properties.put(NODE, NODE_NAME);
+    properties.put(ENQUEUE_TIME, String.valueOf(System.currentTimeMillis()));
+    properties.put(FAILED, String.valueOf(false));
+    STRING_ARGUMENTS.forEach(argument -> {
+      String value = ctx.value(argument);
+      if (value != null) {
+        properties.put(argument.getKey(), value);
+      }
+    });
+    NotificationConstants.NOTIFICATION_CONTEXT context = ctx.value(PostNewsNotificationPlugin.CONTEXT);
+    if (context != null) {
+      properties.put(PostNewsNotificationPlugin.CONTEXT.getKey(), context.name());
+    }
+    Set<?> mentionedIds = ctx.value(MentionInNewsNotificationPlugin.MENTIONED_IDS);
+    if (mentionedIds != null) {
+      properties.put(MentionInNewsNotificationPlugin.MENTIONED_IDS.getKey(),
+                     mentionedIds.stream().map(String::valueOf).collect(Collectors.joining(MENTIONED_IDS_SEPARATOR)));
+    }
+    return properties;
+  }
+
+  private NotificationContext toContext(Map<String, String> properties) {
+    NotificationContext ctx = NotificationContextImpl.cloneInstance();
+    STRING_ARGUMENTS.forEach(argument -> {
+      String value = properties.get(argument.getKey());
+      if (value != null) {
+        ctx.append(argument, value);
+      }
+    });
+    String context = properties.get(PostNewsNotificationPlugin.CONTEXT.getKey());
+    if (context != null) {
+      if (MentionInNewsNotificationPlugin.ID.equals(properties.get(PLUGIN_ID))) {
+        ctx.append(MentionInNewsNotificationPlugin.CONTEXT, NotificationConstants.NOTIFICATION_CONTEXT.valueOf(context));
+      } else {
+        ctx.append(PostNewsNotificationPlugin.CONTEXT, NotificationConstants.NOTIFICATION_CONTEXT.valueOf(context));
+      }
+    }
+    String mentionedIds = properties.get(MentionInNewsNotificationPlugin.MENTIONED_IDS.getKey());
+    if (mentionedIds != null) {
+      ctx.append(MentionInNewsNotificationPlugin.MENTIONED_IDS,
+                 Arrays.stream(mentionedIds.split(MENTIONED_IDS_SEPARATOR))
+                       .filter(StringUtils::isNotBlank)
+                       .collect(Collectors.toSet()));
+    }
+    return ctx;
+  }
+
+  private static class PendingNotification {
+
+    /**
+     * Persisted notifications sent by this notification, several when it's a
+     * digest, none when it couldn't be persisted
+     */
+    private final List<MetadataItem>  items;
+
+    private final Map<String, String> properties;
+
+    private final long                enqueueTime;
+
+    private final int                 attempt;
+
+    private PendingNotification(MetadataItem item, Map<String, String> properties, long enqueueTime, int attempt) {
+      this(item == null ? List.of() : List.of(item), properties, enqueueTime, attempt);
+    }
+
+    private PendingNotification(List<MetadataItem> items, Map<String, String> properties, long enqueueTime, int attempt) {
+      this.items = items;
+      this.properties = properties;
+      this.enqueueTime = enqueueTime;
+      this.attempt = attempt;
+    }
+
+    private PendingNotification nextAttempt() {
+      return new PendingNotification(items, properties, enqueueTime, attempt + 1);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.notification;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.manager.IdentityManager;
+
+import io.meeds.news.model.NotificationUser;
+import io.meeds.news.notification.utils.NotificationUtils;
+
+/**
+ * Bounded cache of the users display information used to build the news
+ * notifications: full name, first name and avatar. It is shared by the news
+ * notification plugins and template providers to avoid retrieving the same
+ * users for each notification and each receiver. The least recently used
+ * entries are evicted when the cache is full, entries are invalidated when the
+ * user profile is updated and expire after a configurable time to live, which
+ * bounds the staleness of entries updated on another cluster node.
+ */
+@Component
+public class NotificationUserCache {
+
+  @Autowired
+  private IdentityManager                     identityManager;
+
+  @Value("${content.notification.userCache.size:1000}")
+  private int                                 maxSize;
+
+  @Value("${content.notification.userCache.ttl:600000}")
+  private long                                timeToLive;
+
+  private final Map<String, CachedEntry>      users = new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = -4517427185263389263L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, CachedEntry> eldest) {
+      return size() > maxSize;
+    }
+  };
+
+  /**
+   * Retrieves the display information of a user from the cache, or from the
+   * user profile when not cached or expired
+   *
+   * @param username {@link String} user name
+   * @return {@link NotificationUser} or null if the user doesn't exist
+   */
+  public NotificationUser getUser(String username) {
+    if (StringUtils.isBlank(username)) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    synchronized (users) {
+      CachedEntry cachedEntry = users.get(username);
+      if (cachedEntry != null && cachedEntry.expiryTime > now) {
+        return cachedEntry.user;
+      }
+    }
+    NotificationUser user = loadUser(username);
+    if (user != null) {
+      synchronized (users) {
+        users.put(username, new CachedEntry(user, now + timeToLive));
+      }
+    }
+    return user;
+  }
+
+  /**
+   * Removes the cached display information of a user
+   *
+   * @param username {@link String} user name
+   */
+  public void invalidate(String username) {
+    if (StringUtils.isBlank(username)) {
+      return;
+    }
+    synchronized (users) {
+      users.remove(username);
+    }
+  }
+
+  /**
+   * @return the count of cached users
+   */
+  public int size() {
+    synchronized (users) {
+      return users.size();
+    }
+  }
+
+  private NotificationUser loadUser(String username) {
+    Identity identity = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, username);
+    return NotificationUtils.toNotificationUser(identity);
+  }
+
+  private static class CachedEntry {
+
+    private final NotificationUser user;
+
+    private final long             expiryTime;
+
+    private CachedEntry(NotificationUser user, long expiryTime) {
+      this.user = user;
+      this.expiryTime = expiryTime;
+    }
+  }
+}
@@ -25,17 +25,26 @@ import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
 import org.exoplatform.commons.api.notification.NotificationContext;
 import org.exoplatform.commons.api.notification.model.ArgumentLiteral;
 import org.exoplatform.commons.api.notification.model.NotificationInfo;
 import org.exoplatform.commons.api.notification.plugin.BaseNotificationPlugin;
+import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.space.spi.SpaceService;
+import org.exoplatform.social.core.storage.api.IdentityStorage;
 import org.exoplatform.social.notification.Utils;
 
 import io.meeds.news.notification.utils.NotificationConstants;
 import io.meeds.news.notification.utils.NotificationUtils;
+import io.meeds.news.utils.NewsUtils;
 
 public class MentionInNewsNotificationPlugin extends BaseNotificationPlugin {
 
@@ -56,8 +65,22 @@ public class MentionInNewsNotificationPlugin extends BaseNotificationPlugin {
                                                                                           new ArgumentLiteral<NotificationConstants.NOTIFICATION_CONTEXT>(NotificationConstants.NOTIFICATION_CONTEXT.class,
                                                                                                                                                           "CONTEXT");
 
-  public MentionInNewsNotificationPlugin(InitParams initParams) {
+  private static final String                                                     RECEIVERS_BATCH_SIZE_PARAM   = "receivers.batch.size";
+
+  private static final int                                                        DEFAULT_RECEIVERS_BATCH_SIZE = 500;
+
+  private SpaceService                                                            spaceService;
+
+  private int                                                                     receiversBatchSize           =
+                                                                                                     DEFAULT_RECEIVERS_BATCH_SIZE;
+
+  public MentionInNewsNotificationPlugin(InitParams initParams, SpaceService spaceService) {
     super(initParams);
+    this.spaceService = spaceService;
+    ValueParam receiversBatchSizeParam = initParams == null ? null : initParams.getValueParam(RECEIVERS_BATCH_SIZE_PARAM);
+    if (receiversBatchSizeParam != null && StringUtils.isNumeric(receiversBatchSizeParam.getValue())) {
+      this.receiversBatchSize = Integer.parseInt(receiversBatchSizeParam.getValue());
+    }
   }
 
   @Override
@@ -92,23 +115,58 @@ public class MentionInNewsNotificationPlugin extends BaseNotificationPlugin {
     String newsId = ctx.value(PostNewsNotificationPlugin.NEWS_ID);
 
     Set<String> receivers = new HashSet<>();
-    String[] mentionnedIdArray = new String[mentionedIds.size()];
-    Utils.sendToMentioners(receivers, mentionedIds.toArray(mentionnedIdArray), currentUserName, contentSpaceId);
-    return NotificationInfo.instance()
-                           .setFrom(currentUserName)
-                           .setSpaceId(Long.parseLong(contentSpaceId))
-                           .to(new ArrayList<>(receivers))
-                           .key(getKey())
-                           .with(NotificationConstants.CONTENT_TITLE, newsTitle)
-                           .with(NotificationConstants.CONTENT_AUTHOR, contentAuthor)
-                           .with(NotificationConstants.CURRENT_USER, currentUserFullName)
-                           .with(NotificationConstants.CONTENT_SPACE, contentSpaceName)
-                           .with(NotificationConstants.ILLUSTRATION_URL, illustrationUrl)
-                           .with(NotificationConstants.AUTHOR_AVATAR_URL, authorAvatarUrl)
-                           .with(NotificationConstants.ACTIVITY_LINK, activityLink)
-                           .with(NotificationConstants.CONTEXT, context.getContext())
-                           .with(NotificationConstants.MENTIONED_IDS, String.valueOf(mentionedIds))
-                           .with(NotificationConstants.NEWS_ID, newsId)
-                           .end();
+    String[] mentionnedIdArray = mentionedIds.stream()
+                                             .filter(mentionedId -> !NewsUtils.isRoleMention(mentionedId))
+                                             .toArray(String[]::new);
+    Utils.sendToMentioners(receivers, mentionnedIdArray, currentUserName, contentSpaceId);
+    if (mentionnedIdArray.length < mentionedIds.size()) {
+      // Space roles mentions are expanded only when sending the notification,
+      // then checked by batches like the mentioned users
+      Space space = spaceService.getSpaceById(contentSpaceId);
+      List<String> roleUsernames = new ArrayList<>(NewsUtils.getSpaceRoleUsernames(space, mentionedIds));
+      IdentityStorage identityStorage = CommonsUtils.getService(IdentityStorage.class);
+      for (int offset = 0; offset < roleUsernames.size(); offset += receiversBatchSize) {
+        List<String> usernames = roleUsernames.subList(offset, Math.min(offset + receiversBatchSize, roleUsernames.size()));
+        String[] roleMentionedIds = NewsUtils.getUserIdentityIds(identityStorage, usernames).toArray(String[]::new);
+        Utils.sendToMentioners(receivers, roleMentionedIds, currentUserName, contentSpaceId);
+      }
+    }
+    NotificationInfo notification = NotificationInfo.instance()
+                                                    .setFrom(currentUserName)
+                                                    .setSpaceId(Long.parseLong(contentSpaceId))
+                                                    .key(getKey())
+                                                    .with(NotificationConstants.CONTENT_TITLE, newsTitle)
+                                                    .with(NotificationConstants.CONTENT_AUTHOR, contentAuthor)
+                                                    .with(NotificationConstants.CURRENT_USER, currentUserFullName)
+                                                    .with(NotificationConstants.CONTENT_SPACE, contentSpaceName)
+                                                    .with(NotificationConstants.ILLUSTRATION_URL, illustrationUrl)
+                                                    .with(NotificationConstants.AUTHOR_AVATAR_URL, authorAvatarUrl)
+                                                    .with(NotificationConstants.ACTIVITY_LINK, activityLink)
+                                                    .with(NotificationConstants.CONTEXT, context.getContext())
+                                                    .with(NotificationConstants.MENTIONED_IDS, String.valueOf(mentionedIds))
+                                                    .with(NotificationConstants.NEWS_ID, newsId)
+                                                    .end();
+    return notification.to(getReceiversBatch(ctx, receivers));
+  }
+
+  /**
+   * Returns a single batch of {@link #receiversBatchSize} receivers, starting
+   * at {@link PostNewsNotificationPlugin#RECEIVERS_OFFSET} in the sorted
+   * receivers, so that mentioning a space role doesn't make a single
+   * notification for all the space users. When receivers remain, the offset of
+   * the next batch is set in
+   * {@link PostNewsNotificationPlugin#NEXT_RECEIVERS_OFFSET}, so that it's
+   * queued as its own notification.
+   */
+  private List<String> getReceiversBatch(NotificationContext ctx, Set<String> receivers) {
+    List<String> sortedReceivers = receivers.stream().sorted().toList();
+    int offset = NumberUtils.toInt(ctx.value(PostNewsNotificationPlugin.RECEIVERS_OFFSET));
+    if (offset >= sortedReceivers.size()) {
+      return new ArrayList<>();
+    }
+    if (offset + receiversBatchSize < sortedReceivers.size()) {
+      ctx.append(PostNewsNotificationPlugin.NEXT_RECEIVERS_OFFSET, String.valueOf(offset + receiversBatchSize));
+    }
+    return new ArrayList<>(sortedReceivers.subList(offset, Math.min(offset + receiversBatchSize, sortedReceivers.size())));
   }
 }
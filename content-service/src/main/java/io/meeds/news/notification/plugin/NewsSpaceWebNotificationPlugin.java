@@ -32,7 +32,7 @@ import org.exoplatform.social.metadata.model.MetadataObject;
 import org.exoplatform.social.notification.model.SpaceWebNotificationItem;
 import org.exoplatform.social.notification.plugin.SpaceWebNotificationPlugin;
 
-import io.meeds.news.model.News;
+import io.meeds.news.model.NewsArticleStatus;
 import io.meeds.news.notification.utils.NotificationConstants;
 import io.meeds.news.service.NewsService;
 
@@ -58,18 +58,18 @@ public class NewsSpaceWebNotificationPlugin extends SpaceWebNotificationPlugin {
   @Override
   public SpaceWebNotificationItem getSpaceApplicationItem(NotificationInfo notification) {
     String newsId = notification.getValueOwnerParameter(NotificationConstants.NEWS_ID);
-    News news = null;
+    NewsArticleStatus articleStatus = null;
     try {
-      news = newsService.getNewsArticleById(newsId);
+      articleStatus = newsService.getNewsArticleStatus(newsId);
     } catch (Exception e) {
       LOG.warn("Error retrieving news by id {}", newsId, e);
       return null;
     }
-    if (news == null) {
+    if (articleStatus == null || articleStatus.isDeleted()) {
       LOG.debug("News by id {} wasn't found. The space web notification will not be sent.", newsId);
       return null;
     }
-    String activityId = news.getActivityId();
+    String activityId = articleStatus.getActivityId();
     if (StringUtils.isBlank(activityId)) {
       return null;
     }
@@ -21,10 +21,14 @@ package io.meeds.news.notification.plugin;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
 
 import org.exoplatform.commons.api.notification.NotificationContext;
 import org.exoplatform.commons.api.notification.model.ArgumentLiteral;
@@ -32,6 +36,7 @@ import org.exoplatform.commons.api.notification.model.NotificationInfo;
 import org.exoplatform.commons.api.notification.plugin.BaseNotificationPlugin;
 import org.exoplatform.commons.utils.ListAccess;
 import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.services.organization.OrganizationService;
@@ -42,7 +47,7 @@ import org.exoplatform.social.core.manager.ActivityManager;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
 
-import io.meeds.news.model.News;
+import io.meeds.news.model.NewsArticleStatus;
 import io.meeds.news.notification.utils.NotificationConstants;
 import io.meeds.news.notification.utils.NotificationUtils;
 import io.meeds.news.service.NewsService;
@@ -98,6 +103,23 @@ public class PostNewsNotificationPlugin extends BaseNotificationPlugin {
                                                                                                new ArgumentLiteral<>(String.class,
                                                                                                                      "CURRENT_USER");
 
+  public static final ArgumentLiteral<String>                                     DIGEST_ARTICLES   =
+                                                                                                  new ArgumentLiteral<>(String.class,
+                                                                                                                        NotificationConstants.DIGEST_ARTICLES);
+
+  public static final ArgumentLiteral<String>                                     RECEIVERS_OFFSET  =
+                                                                                                   new ArgumentLiteral<>(String.class,
+                                                                                                                         "RECEIVERS_OFFSET");
+
+  public static final ArgumentLiteral<String>                                     NEXT_RECEIVERS_OFFSET =
+                                                                                                        new ArgumentLiteral<>(String.class,
+                                                                                                                              "NEXT_RECEIVERS_OFFSET");
+
+  private static final String                                                     RECEIVERS_BATCH_SIZE_PARAM   =
+                                                                                                             "receivers.batch.size";
+
+  private static final int                                                        DEFAULT_RECEIVERS_BATCH_SIZE = 500;
+
   private SpaceService                                                            spaceService;
 
   private NewsService                                                             newsService;
@@ -106,6 +128,9 @@ public class PostNewsNotificationPlugin extends BaseNotificationPlugin {
 
   private UserHandler                                                             userhandler;
 
+  private int                                                                     receiversBatchSize           =
+                                                                                                     DEFAULT_RECEIVERS_BATCH_SIZE;
+
   public PostNewsNotificationPlugin(InitParams initParams,
                                     SpaceService spaceService,
                                     OrganizationService organizationService,
@@ -116,6 +141,10 @@ public class PostNewsNotificationPlugin extends BaseNotificationPlugin {
     this.newsService = newsService;
     this.activityManager = activityManager;
     this.userhandler = organizationService.getUserHandler();
+    ValueParam receiversBatchSizeParam = initParams == null ? null : initParams.getValueParam(RECEIVERS_BATCH_SIZE_PARAM);
+    if (receiversBatchSizeParam != null && StringUtils.isNumeric(receiversBatchSizeParam.getValue())) {
+      this.receiversBatchSize = Integer.parseInt(receiversBatchSizeParam.getValue());
+    }
   }
 
   @Override
@@ -129,10 +158,50 @@ public class PostNewsNotificationPlugin extends BaseNotificationPlugin {
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   protected NotificationInfo makeNotification(NotificationContext ctx) {
     String contentTitle = ctx.value(CONTENT_TITLE);
     NotificationConstants.NOTIFICATION_CONTEXT context = ctx.value(CONTEXT);
     String contentAuthorUserName = ctx.value(CONTENT_AUTHOR);
+    String currentUserName = ctx.value(CURRENT_USER);
+    String contentSpaceId = ctx.value(CONTENT_SPACE_ID);
+    String contentSpaceName = ctx.value(CONTENT_SPACE);
+    String illustrationUrl = ctx.value(ILLUSTRATION_URL);
+    String authorAvatarUrl = ctx.value(AUTHOR_AVATAR_URL);
+    String activityLink = ctx.value(ACTIVITY_LINK);
+    String newsId = ctx.value(NEWS_ID);
+    String digestArticles = ctx.value(DIGEST_ARTICLES);
+    Set<String> posters = new HashSet<>();
+
+    if (digestArticles != null) {
+      JSONArray articles = NotificationUtils.getDigestArticles(digestArticles);
+      JSONArray sentArticles = new JSONArray();
+      for (Object article : articles) {
+        JSONObject digestArticle = (JSONObject) article;
+        posters.add((String) digestArticle.get(CURRENT_USER.getKey()));
+        if (mustSendNotification((String) digestArticle.get(NEWS_ID.getKey()))) {
+          sentArticles.add(digestArticle);
+        }
+      }
+      if (sentArticles.isEmpty()) {
+        return null;
+      }
+      // The latest article still visible is used as the main article of the
+      // digest
+      JSONObject latestArticle = (JSONObject) sentArticles.get(sentArticles.size() - 1);
+      contentTitle = (String) latestArticle.get(CONTENT_TITLE.getKey());
+      contentAuthorUserName = (String) latestArticle.get(CONTENT_AUTHOR.getKey());
+      currentUserName = (String) latestArticle.get(CURRENT_USER.getKey());
+      illustrationUrl = (String) latestArticle.get(ILLUSTRATION_URL.getKey());
+      authorAvatarUrl = (String) latestArticle.get(AUTHOR_AVATAR_URL.getKey());
+      activityLink = (String) latestArticle.get(ACTIVITY_LINK.getKey());
+      newsId = (String) latestArticle.get(NEWS_ID.getKey());
+      digestArticles = sentArticles.size() > 1 ? sentArticles.toJSONString() : null;
+    } else if (!mustSendNotification(newsId)) {
+      return null;
+    }
+    posters.add(currentUserName);
+
     String contentAuthor = contentAuthorUserName;
     try {
       contentAuthor = NotificationUtils.getUserFullName(contentAuthorUserName);
@@ -140,61 +209,52 @@ public class PostNewsNotificationPlugin extends BaseNotificationPlugin {
       LOG.error("An error occured when trying to retreive a user with username " + contentAuthorUserName + " " + e.getMessage(),
                 e);
     }
-    String currentUserName = ctx.value(CURRENT_USER);
     String currentUserFullName = currentUserName;
     try {
       currentUserFullName = NotificationUtils.getUserFullName(currentUserName);
     } catch (Exception e) {
       LOG.error("An error occured when trying to retreive a user with username " + currentUserName + " " + e.getMessage(), e);
     }
-    String contentSpaceId = ctx.value(CONTENT_SPACE_ID);
-    String contentSpaceName = ctx.value(CONTENT_SPACE);
-    String illustrationUrl = ctx.value(ILLUSTRATION_URL);
-    String authorAvatarUrl = ctx.value(AUTHOR_AVATAR_URL);
-    String activityLink = ctx.value(ACTIVITY_LINK);
-    String newsId = ctx.value(NEWS_ID);
 
-    if (mustSendNotification(newsId)) {
-      List<String> receivers = new ArrayList<String>();
-      try {
-        receivers = getReceivers(contentSpaceId, currentUserName);
-      } catch (Exception e) {
-        LOG.error("An error occured when trying to have the list of receivers " + e.getMessage(), e);
-      }
-
-      return NotificationInfo.instance()
-                             .setFrom(currentUserName)
-                             .setSpaceId(Long.parseLong(contentSpaceId))
-                             .with(NotificationConstants.CONTENT_TITLE, contentTitle)
-                             .to(receivers)
-                             .with(NotificationConstants.CONTENT_AUTHOR, contentAuthor)
-                             .with(NotificationConstants.CURRENT_USER, currentUserFullName)
-                             .with(NotificationConstants.CONTENT_SPACE, contentSpaceName)
-                             .with(NotificationConstants.ILLUSTRATION_URL, illustrationUrl)
-                             .with(NotificationConstants.AUTHOR_AVATAR_URL, authorAvatarUrl)
-                             .with(NotificationConstants.ACTIVITY_LINK, activityLink)
-                             .with(NotificationConstants.CONTEXT, context.getContext())
-                             .with(NotificationConstants.NEWS_ID, newsId)
-                             .key(getKey())
-                             .end();
+    NotificationInfo notification = NotificationInfo.instance()
+                                                    .setFrom(currentUserName)
+                                                    .setSpaceId(Long.parseLong(contentSpaceId))
+                                                    .with(NotificationConstants.CONTENT_TITLE, contentTitle)
+                                                    .with(NotificationConstants.CONTENT_AUTHOR, contentAuthor)
+                                                    .with(NotificationConstants.CURRENT_USER, currentUserFullName)
+                                                    .with(NotificationConstants.CONTENT_SPACE, contentSpaceName)
+                                                    .with(NotificationConstants.ILLUSTRATION_URL, illustrationUrl)
+                                                    .with(NotificationConstants.AUTHOR_AVATAR_URL, authorAvatarUrl)
+                                                    .with(NotificationConstants.ACTIVITY_LINK, activityLink)
+                                                    .with(NotificationConstants.CONTEXT, context.getContext())
+                                                    .with(NotificationConstants.NEWS_ID, newsId)
+                                                    .key(getKey())
+                                                    .end();
+    if (digestArticles != null) {
+      notification.with(NotificationConstants.DIGEST_ARTICLES, digestArticles);
     }
-
-    return null;
+    List<String> receivers = new ArrayList<>();
+    try {
+      receivers = getReceivers(ctx, contentSpaceId, posters);
+    } catch (Exception e) {
+      LOG.error("An error occured when trying to have the list of receivers " + e.getMessage(), e);
+    }
+    return notification.to(receivers);
   }
 
   private boolean mustSendNotification(String newsId) {
-    News news = null;
+    NewsArticleStatus articleStatus = null;
     try {
-      news = newsService.getNewsArticleById(newsId);
+      articleStatus = newsService.getNewsArticleStatus(newsId);
     } catch (Exception e) {
       LOG.warn("Error retrieving news by id {}", newsId, e);
       return false;
     }
-    if (news == null) {
+    if (articleStatus == null || articleStatus.isDeleted()) {
       LOG.debug("News by id {} wasn't found. The space web notification will not be sent.", newsId);
       return false;
     }
-    String activityId = news.getActivityId();
+    String activityId = articleStatus.getActivityId();
     if (StringUtils.isBlank(activityId)) {
       return false;
     }
@@ -205,15 +265,32 @@ public class PostNewsNotificationPlugin extends BaseNotificationPlugin {
     return true;
   }
 
-  private List<String> getReceivers(String contentSpaceId, String currentUserName) throws Exception {
+  /**
+   * Reads a single page of {@link #receiversBatchSize} space members, starting
+   * at {@link #RECEIVERS_OFFSET}, keeping only their usernames, so that the
+   * memory used doesn't depend on the space size. The posters of the notified
+   * articles aren't notified. When members remain, the offset of the next page
+   * is set in {@link #NEXT_RECEIVERS_OFFSET}, so that the next batch of
+   * receivers is queued as its own notification.
+   */
+  private List<String> getReceivers(NotificationContext ctx, String contentSpaceId, Set<String> posters) throws Exception {
     Space space = spaceService.getSpaceById(contentSpaceId);
     ListAccess<User> members = userhandler.findUsersByGroupId(space.getGroupId());
-    User[] userArray = members.load(0, members.getSize());
-    List<String> receiverUsers = Arrays.stream(userArray)
-                                       .filter(u -> !u.getUserName().equals(currentUserName))
-                                       .distinct()
-                                       .map(User::getUserName)
-                                       .collect(Collectors.toList());
-    return receiverUsers;
+    int membersCount = members.getSize();
+    int offset = NumberUtils.toInt(ctx.value(RECEIVERS_OFFSET));
+    List<String> receivers = new ArrayList<>();
+    if (offset >= membersCount) {
+      return receivers;
+    }
+    User[] users = members.load(offset, Math.min(receiversBatchSize, membersCount - offset));
+    if (users != null) {
+      Arrays.stream(users)
+            .filter(user -> user != null && !posters.contains(user.getUserName()))
+            .forEach(user -> receivers.add(user.getUserName()));
+    }
+    if (offset + receiversBatchSize < membersCount) {
+      ctx.append(NEXT_RECEIVERS_OFFSET, String.valueOf(offset + receiversBatchSize));
+    }
+    return receivers;
   }
 }
@@ -21,13 +21,21 @@ package io.meeds.news.notification.provider;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.commons.lang3.StringUtils;
 import org.gatein.common.text.EntityEncoder;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
 
 import org.exoplatform.commons.api.notification.NotificationContext;
 import org.exoplatform.commons.api.notification.NotificationMessageUtils;
@@ -48,30 +56,59 @@ import org.exoplatform.container.PortalContainer;
 import org.exoplatform.container.xml.InitParams;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
-import org.exoplatform.social.core.identity.model.Identity;
-import org.exoplatform.social.core.identity.model.Profile;
-import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
 import org.exoplatform.social.notification.LinkProviderUtils;
 import org.exoplatform.webui.utils.TimeConvertUtils;
 
+import io.meeds.news.model.NotificationUser;
 import io.meeds.news.notification.plugin.MentionInNewsNotificationPlugin;
 import io.meeds.news.notification.plugin.PostNewsNotificationPlugin;
 import io.meeds.news.notification.plugin.PublishNewsNotificationPlugin;
 import io.meeds.news.notification.utils.NotificationConstants;
+import io.meeds.news.notification.utils.NotificationUtils;
 
 @TemplateConfigs(templates = {
     @TemplateConfig(pluginId = PostNewsNotificationPlugin.ID, template = "war:/notification/templates/mail/postNewsNotificationPlugin.gtmpl"),
     @TemplateConfig(pluginId = MentionInNewsNotificationPlugin.ID, template = "war:/notification/templates/mail/postNewsNotificationPlugin.gtmpl"),
     @TemplateConfig(pluginId = PublishNewsNotificationPlugin.ID, template = "war:/notification/templates/mail/postNewsNotificationPlugin.gtmpl") })
 public class MailTemplateProvider extends TemplateProvider {
-  protected static Log          log = ExoLogger.getLogger(MailTemplateProvider.class);
+  protected static Log                             log                         = ExoLogger.getLogger(MailTemplateProvider.class);
 
-  private final IdentityManager identityManager;
+  /**
+   * Rendered messages are shared by the receivers of a notification, which are
+   * processed in a row, so only the latest notifications are kept
+   */
+  private static final int                         RENDERED_MESSAGES_MAX_SIZE  = 50;
 
-  private final SpaceService    spaceService;
+  private static final long                        RENDERED_MESSAGE_TTL        = 60000L;
+
+  private static final String                      PLACEHOLDER_ID              = UUID.randomUUID().toString();
+
+  private static final String                      FIRST_NAME_PLACEHOLDER      = "#FIRST_NAME-" + PLACEHOLDER_ID + "#";
+
+  private static final String                      FOOTER_LINK_PLACEHOLDER     = "#FOOTER_LINK-" + PLACEHOLDER_ID + "#";
+
+  private static final String                      NOTIFICATION_ID_PLACEHOLDER = "#NOTIFICATION_ID-" + PLACEHOLDER_ID + "#";
+
+  private static final String                      READ_PLACEHOLDER            = "#READ-" + PLACEHOLDER_ID + "#";
+
+  private static final String[]                    RECEIVER_PLACEHOLDERS       = new String[] { FIRST_NAME_PLACEHOLDER,
+      FOOTER_LINK_PLACEHOLDER, NOTIFICATION_ID_PLACEHOLDER, READ_PLACEHOLDER };
+
+  private final IdentityManager                    identityManager;
+
+  private final SpaceService                       spaceService;
+
+  private final Map<List<Object>, RenderedMessage> renderedMessages            = new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = 2650468131880290867L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<List<Object>, RenderedMessage> eldest) {
+      return size() > RENDERED_MESSAGES_MAX_SIZE;
+    }
+  };
 
   public MailTemplateProvider(InitParams initParams, IdentityManager identityManager, SpaceService spaceService) {
     super(initParams);
@@ -87,8 +124,51 @@ public class MailTemplateProvider extends TemplateProvider {
     protected MessageInfo makeMessage(NotificationContext ctx) {
       NotificationInfo notification = ctx.getNotificationInfo();
       String pluginId = notification.getKey().getId();
-
       String language = getLanguage(notification);
+
+      // Receiver
+      NotificationUser receiver = NotificationUtils.getNotificationUser(notification.getTo(), identityManager);
+      if (receiver == null || receiver.getUsername().equals(notification.getFrom())) {
+        return null;
+      }
+      RenderedMessage renderedMessage = getRenderedMessage(ctx, notification, pluginId, language);
+      if (renderedMessage == null) {
+        return null;
+      }
+      HTMLEntityEncoder encoder = HTMLEntityEncoder.getInstance();
+      String read = Boolean.valueOf(notification.getValueOwnerParameter(NotificationMessageUtils.READ_PORPERTY.getKey())) ? "read"
+                                                                                                                         : "unread";
+      // Only the receiver specific values are rendered for each receiver
+      String[] receiverValues = new String[] { StringUtils.defaultString(encoder.encode(receiver.getFirstName())),
+          StringUtils.defaultString(LinkProviderUtils.getRedirectUrl("notification_settings", receiver.getUsername())),
+          StringUtils.defaultString(notification.getId()), read };
+      MessageInfo messageInfo = new MessageInfo();
+      return messageInfo.subject(StringUtils.replaceEach(renderedMessage.subject, RECEIVER_PLACEHOLDERS, receiverValues))
+                        .body(StringUtils.replaceEach(renderedMessage.body, RECEIVER_PLACEHOLDERS, receiverValues))
+                        .end();
+    }
+
+    /**
+     * Retrieves the message rendered for the other receivers of the same
+     * notification, or renders it with placeholders instead of the receiver
+     * specific values
+     */
+    private RenderedMessage getRenderedMessage(NotificationContext ctx,
+                                               NotificationInfo notification,
+                                               String pluginId,
+                                               String language) {
+      Map<String, String> parameters = notification.getOwnerParameter() == null ? new HashMap<>()
+                                                                                : new HashMap<>(notification.getOwnerParameter());
+      parameters.remove(NotificationMessageUtils.READ_PORPERTY.getKey());
+      List<Object> messageKey = Arrays.asList(pluginId, language, parameters);
+      long now = System.currentTimeMillis();
+      synchronized (renderedMessages) {
+        RenderedMessage renderedMessage = renderedMessages.get(messageKey);
+        if (renderedMessage != null && renderedMessage.expiryTime > now) {
+          return renderedMessage;
+        }
+      }
+
       TemplateContext templateContext = TemplateContext.newChannelInstance(getChannelKey(), pluginId, language);
 
       String newsId = notification.getValueOwnerParameter(NotificationConstants.NEWS_ID);
@@ -110,6 +190,9 @@ public class MailTemplateProvider extends TemplateProvider {
       templateContext.put("ILLUSTRATION_URL", encoder.encode(illustrationUrl));
       templateContext.put("AUTHOR_AVATAR_URL", encoder.encode(authorAvatarUrl));
       templateContext.put("CONTEXT", encoder.encode(context));
+      JSONArray digestArticles = NotificationUtils.getDigestArticles(notification);
+      templateContext.put("DIGEST_COUNT", digestArticles.size());
+      templateContext.put("DIGEST_ARTICLES", buildDigestArticlesList(digestArticles, encoder));
       StringBuilder activityUrl = new StringBuilder();
       if (pluginId.equals(PublishNewsNotificationPlugin.ID)) {
         String portalName = PortalContainer.getCurrentPortalContainerName();
@@ -130,10 +213,8 @@ public class MailTemplateProvider extends TemplateProvider {
 
       templateContext.put("ACTIVITY_LINK", encoder.encode(activityUrl.toString()));
 
-      templateContext.put("READ",
-                          Boolean.valueOf(notification.getValueOwnerParameter(NotificationMessageUtils.READ_PORPERTY.getKey())) ? "read"
-                                                                                                                                : "unread");
-      templateContext.put("NOTIFICATION_ID", notification.getId());
+      templateContext.put("READ", READ_PLACEHOLDER);
+      templateContext.put("NOTIFICATION_ID", NOTIFICATION_ID_PLACEHOLDER);
       Calendar lastModified = Calendar.getInstance();
       lastModified.setTimeInMillis(notification.getLastModifiedDate());
       templateContext.put("LAST_UPDATED_TIME",
@@ -141,21 +222,22 @@ public class MailTemplateProvider extends TemplateProvider {
                                                                        "EE, dd yyyy",
                                                                        new Locale(language),
                                                                        TimeConvertUtils.YEAR));
-      // Receiver
-      Identity receiver = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, notification.getTo());
-      if (receiver == null || receiver.getRemoteId().equals(notification.getFrom())) {
-        return null;
-      }
-      templateContext.put("FIRST_NAME", encoder.encode(receiver.getProfile().getProperty(Profile.FIRST_NAME).toString()));
+      templateContext.put("FIRST_NAME", FIRST_NAME_PLACEHOLDER);
       // Footer
-      templateContext.put("FOOTER_LINK", LinkProviderUtils.getRedirectUrl("notification_settings", receiver.getRemoteId()));
+      templateContext.put("FOOTER_LINK", FOOTER_LINK_PLACEHOLDER);
       templateContext.put("COMPANY_LINK", LinkProviderUtils.getBaseUrl());
       String subject = TemplateUtils.processSubject(templateContext);
       String body = TemplateUtils.processGroovy(templateContext);
       // binding the exception throws by processing template
       ctx.setException(templateContext.getException());
-      MessageInfo messageInfo = new MessageInfo();
-      return messageInfo.subject(subject).body(body).end();
+      if (templateContext.getException() != null) {
+        return null;
+      }
+      RenderedMessage renderedMessage = new RenderedMessage(subject, body, now + RENDERED_MESSAGE_TTL);
+      synchronized (renderedMessages) {
+        renderedMessages.put(messageKey, renderedMessage);
+      }
+      return renderedMessage;
     }
 
     @Override
@@ -182,9 +264,12 @@ public class MailTemplateProvider extends TemplateProvider {
         String language = getLanguage(notificationInfo);
         TemplateContext templateContext = new TemplateContext(pluginId, language);
         //
-        Identity receiver = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, notificationInfo.getTo());
-        templateContext.put("FIRST_NAME", encoder.encode(receiver.getProfile().getProperty(Profile.FIRST_NAME).toString()));
-        templateContext.put("FOOTER_LINK", LinkProviderUtils.getRedirectUrl("notification_settings", receiver.getRemoteId()));
+        NotificationUser receiver = NotificationUtils.getNotificationUser(notificationInfo.getTo(), identityManager);
+        if (receiver == null) {
+          return false;
+        }
+        templateContext.put("FIRST_NAME", encoder.encode(receiver.getFirstName()));
+        templateContext.put("FOOTER_LINK", LinkProviderUtils.getRedirectUrl("notification_settings", receiver.getUsername()));
 
         writer.append(buildDigestMsg(notifications, templateContext));
       } catch (IOException e) {
@@ -194,6 +279,20 @@ public class MailTemplateProvider extends TemplateProvider {
       return true;
     }
 
+    private String buildDigestArticlesList(JSONArray digestArticles, HTMLEntityEncoder encoder) {
+      StringBuilder digestArticlesList = new StringBuilder();
+      for (Object digestArticle : digestArticles) {
+        JSONObject article = (JSONObject) digestArticle;
+        digestArticlesList.append("<li style=\"margin: 0 0 5px; font-size: 13px; line-height: 18px;\">")
+                          .append("<a href=\"")
+                          .append(encoder.encode(String.valueOf(article.get(NotificationConstants.ACTIVITY_LINK))))
+                          .append("\" style=\"text-decoration: none; color: #2f5e92;\">")
+                          .append(encoder.encode(String.valueOf(article.get(NotificationConstants.CONTENT_TITLE))))
+                          .append("</a></li>");
+      }
+      return digestArticlesList.toString();
+    }
+
     protected String buildDigestMsg(List<NotificationInfo> notifications, TemplateContext templateContext) {
       StringBuilder sb = new StringBuilder();
       for (NotificationInfo notification : notifications) {
@@ -210,4 +309,19 @@ public class MailTemplateProvider extends TemplateProvider {
       return sb.toString();
     }
   }
+
+  private static class RenderedMessage {
+
+    private final String subject;
+
+    private final String body;
+
+    private final long   expiryTime;
+
+    private RenderedMessage(String subject, String body, long expiryTime) {
+      this.subject = subject;
+      this.body = body;
+      this.expiryTime = expiryTime;
+    }
+  }
 }
@@ -50,6 +50,7 @@ import io.meeds.news.notification.plugin.MentionInNewsNotificationPlugin;
 import io.meeds.news.notification.plugin.PostNewsNotificationPlugin;
 import io.meeds.news.notification.plugin.PublishNewsNotificationPlugin;
 import io.meeds.news.notification.utils.NotificationConstants;
+import io.meeds.news.notification.utils.NotificationUtils;
 
 @TemplateConfigs(templates = {
     @TemplateConfig(pluginId = PostNewsNotificationPlugin.ID, template = "war:/notification/templates/push/postNewsNotificationPlugin.gtmpl"),
@@ -94,6 +95,7 @@ public class PushTemplateProvider extends TemplateProvider {
       templateContext.put("CURRENT_USER", currentUser);
       templateContext.put("ILLUSTRATION_URL", encoder.encode(illustrationUrl));
       templateContext.put("AUTHOR_AVATAR_URL", encoder.encode(authorAvatarUrl));
+      templateContext.put("DIGEST_COUNT", NotificationUtils.getDigestArticles(notification).size());
       Space space = spaceService.getSpaceByDisplayName(contentSpaceName);
       StringBuilder activityUrl = new StringBuilder();
       String portalName = PortalContainer.getCurrentPortalContainerName();
@@ -45,6 +45,8 @@ public class NotificationConstants {
 
   public static final String MENTIONED_IDS     = "MENTIONED_IDS";
 
+  public static final String DIGEST_ARTICLES   = "DIGEST_ARTICLES";
+
   public static enum NOTIFICATION_CONTEXT {
     POST_NEWS("POST NEWS"), MENTION_IN_NEWS("MENTION IN NEWS"), PUBLISH_NEWS("PUBLISH NEWS");
 
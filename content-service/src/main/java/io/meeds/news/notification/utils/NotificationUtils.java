@@ -19,18 +19,44 @@
  */
 package io.meeds.news.notification.utils;
 
+import org.apache.commons.lang3.StringUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import org.exoplatform.commons.api.notification.model.NotificationInfo;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.commons.utils.PropertyManager;
 import org.exoplatform.container.PortalContainer;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
 import org.exoplatform.services.organization.OrganizationService;
 import org.exoplatform.services.organization.User;
 import org.exoplatform.services.organization.UserHandler;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.core.service.LinkProvider;
 import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.notification.LinkProviderUtils;
+
+import io.meeds.news.model.NotificationUser;
+import io.meeds.news.notification.NotificationUserCache;
 
 public class NotificationUtils {
 
+  private static final Log LOG = ExoLogger.getLogger(NotificationUtils.class);
+
   public static String getUserFullName(String userName) throws Exception {
+    NotificationUserCache notificationUserCache = CommonsUtils.getService(NotificationUserCache.class);
+    if (notificationUserCache != null) {
+      NotificationUser user = notificationUserCache.getUser(userName);
+      if (user == null) {
+        throw new Exception("An error occured when trying to retreive a user with username " + userName);
+      }
+      return user.getFullName();
+    }
     OrganizationService organizationService = CommonsUtils.getService(OrganizationService.class);
     UserHandler userHandler = organizationService.getUserHandler();
     User user = userHandler.findUserByName(userName);
@@ -40,6 +66,64 @@ public class NotificationUtils {
     return user.getFullName();
   }
 
+  /**
+   * Retrieves the display information of a user from the shared
+   * {@link NotificationUserCache}, or from its profile when the cache isn't
+   * available
+   *
+   * @param userName {@link String} user name
+   * @param identityManager {@link IdentityManager} used when the cache isn't
+   *          available
+   * @return {@link NotificationUser} or null if the user doesn't exist
+   */
+  public static NotificationUser getNotificationUser(String userName, IdentityManager identityManager) {
+    NotificationUserCache notificationUserCache = CommonsUtils.getService(NotificationUserCache.class);
+    if (notificationUserCache != null) {
+      return notificationUserCache.getUser(userName);
+    }
+    return toNotificationUser(identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, userName));
+  }
+
+  public static NotificationUser toNotificationUser(Identity identity) {
+    if (identity == null || identity.getProfile() == null) {
+      return null;
+    }
+    Profile profile = identity.getProfile();
+    Object firstName = profile.getProperty(Profile.FIRST_NAME);
+    return new NotificationUser(identity.getRemoteId(),
+                                profile.getFullName(),
+                                firstName == null ? null : firstName.toString(),
+                                LinkProviderUtils.getUserAvatarUrl(profile));
+  }
+
+  /**
+   * @param notification {@link NotificationInfo} built by the post news
+   *          notification plugin
+   * @return the articles listed by a news notification digest, or an empty
+   *         array when the notification is about a single article
+   */
+  public static JSONArray getDigestArticles(NotificationInfo notification) {
+    return getDigestArticles(notification.getValueOwnerParameter(NotificationConstants.DIGEST_ARTICLES));
+  }
+
+  /**
+   * @param digestArticles JSON array of the articles of a news notification
+   *          digest
+   * @return the parsed articles, or an empty array when the value is blank
+   *         or invalid
+   */
+  public static JSONArray getDigestArticles(String digestArticles) {
+    if (StringUtils.isBlank(digestArticles)) {
+      return new JSONArray();
+    }
+    try {
+      return (JSONArray) new JSONParser().parse(digestArticles);
+    } catch (ParseException | ClassCastException e) {
+      LOG.warn("Error parsing the articles of news notification digest {}", digestArticles, e);
+      return new JSONArray();
+    }
+  }
+
   public static String getNotificationActivityLink(Space space, String activityId, boolean isMember) {
     String activityLink = "";
     if (isMember) {
@@ -22,23 +22,14 @@ package io.meeds.news.rest;
 import static io.meeds.news.utils.NewsUtils.NewsObjectType.ARTICLE;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Objects;
-
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
-
 import javax.ws.rs.core.Response;
 
-
 import io.swagger.v3.oas.annotations.Parameter;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -46,9 +37,6 @@ import org.apache.commons.lang3.StringUtils;
 
 import org.exoplatform.commons.exception.ObjectNotFoundException;
 import org.exoplatform.commons.utils.CommonsUtils;
-import org.exoplatform.container.ExoContainerContext;
-import org.exoplatform.container.PortalContainer;
-import org.exoplatform.container.component.RequestLifeCycle;
 import org.exoplatform.portal.application.localization.LocalizationFilter;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
@@ -67,9 +55,14 @@ import org.exoplatform.social.metadata.tag.model.TagFilter;
 import org.exoplatform.social.metadata.tag.model.TagName;
 import org.exoplatform.social.rest.api.RestUtils;
 
+import io.meeds.news.activity.NewsViewerSpacesCache;
 import io.meeds.news.filter.NewsFilter;
 import io.meeds.news.model.News;
+import io.meeds.news.model.NewsActivity;
+import io.meeds.news.model.NewsBulkDeletion;
 import io.meeds.news.search.NewsESSearchResult;
+import io.meeds.news.service.DelayedDeletionService;
+import io.meeds.news.service.NewsBulkDeletionService;
 import io.meeds.news.service.NewsService;
 import io.meeds.news.utils.NewsUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -110,31 +103,21 @@ public class NewsRest {
   private IdentityManager           identityManager;
 
   @Autowired
-  private PortalContainer           container;
+  private FavoriteService           favoriteService;
 
   @Autowired
-  private FavoriteService           favoriteService;
+  private DelayedDeletionService    delayedDeletionService;
 
-  private Map<String, String>       newsToDeleteQueue               = new HashMap<>();
+  @Autowired
+  private NewsBulkDeletionService   newsBulkDeletionService;
 
-  private ScheduledExecutorService  scheduledExecutor;
+  @Autowired
+  private NewsViewerSpacesCache     newsViewerSpacesCache;
 
   private enum FilterType {
     PINNED, MYPOSTED, DRAFTS, SCHEDULED, ALL
   }
 
-  @PostConstruct
-  public void init() {
-    scheduledExecutor = Executors.newScheduledThreadPool(1);
-  }
-
-  @PreDestroy
-  public void destroy() {
-    if (scheduledExecutor != null) {
-      scheduledExecutor.shutdown();
-    }
-  }
-
   @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
   @Secured("users")
   @Operation(summary = "Create a news", method = "POST", description = "This creates the news if the authenticated user is a member of the space or a spaces super manager. The news is created in draft status, unless the publicationState property is set to 'posted'.")
@@ -272,28 +255,7 @@ public class NewsRest {
         return Response.status(Response.Status.NOT_FOUND).build();
       }
 
-      if (delay > 0) {// TODO Move to service layer
-        newsToDeleteQueue.put(id, currentIdentity.getUserId());
-        scheduledExecutor.schedule(() -> {
-          if (newsToDeleteQueue.containsKey(id)) {
-            ExoContainerContext.setCurrentContainer(container);
-            RequestLifeCycle.begin(container);
-            try {
-              newsToDeleteQueue.remove(id);
-              newsService.deleteNews(id, currentIdentity, newsObjectType);
-            } catch (IllegalAccessException e) {
-              LOG.error("User '{}' attempts to delete a non authorized news", currentIdentity.getUserId(), e);
-            } catch (Exception e) {
-              LOG.warn("Error when deleting the news with id " + id, e);
-            } finally {
-              RequestLifeCycle.end();
-            }
-          }
-        }, delay, TimeUnit.SECONDS);
-      } else {
-        newsToDeleteQueue.remove(id);
-        newsService.deleteNews(id, currentIdentity, newsObjectType);
-      }
+      delayedDeletionService.deleteNews(id, newsObjectType, currentIdentity, delay);
       return Response.ok().build();
     } catch (IllegalAccessException e) {
       LOG.warn("User '{}' is not autorized to delete news", currentIdentity.getUserId(), e);
@@ -317,19 +279,64 @@ public class NewsRest {
     if (StringUtils.isBlank(id)) {
       return Response.status(Response.Status.BAD_REQUEST).entity("News identifier must not be null or empty").build();
     }
-    if (newsToDeleteQueue.containsKey(id)) {// TODO Move to service layer
-      String authenticatedUser = ConversationState.getCurrent().getIdentity().getUserId();
-      String originalModifierUser = newsToDeleteQueue.get(id);
-      if (!originalModifierUser.equals(authenticatedUser)) {
-        LOG.warn("User {} attempts to cancel deletion of a news deleted by user {}", authenticatedUser, originalModifierUser);
-        return Response.status(Response.Status.FORBIDDEN).build();
-      }
-      newsToDeleteQueue.remove(id);
-      return Response.noContent().build();
-    } else {
-      return Response.status(Response.Status.BAD_REQUEST)
-                     .entity("News with id {} was already deleted or isn't planned to be deleted" + id)
-                     .build();
+    String authenticatedUser = ConversationState.getCurrent().getIdentity().getUserId();
+    try {
+      if (delayedDeletionService.undoDeleteNews(id, authenticatedUser)) {
+        return Response.noContent().build();
+      }
+    } catch (IllegalAccessException e) {
+      LOG.warn("User {} attempts to cancel deletion of a news deleted by another user", authenticatedUser, e);
+      return Response.status(Response.Status.FORBIDDEN).build();
+    }
+    return Response.status(Response.Status.BAD_REQUEST)
+                   .entity("News with id {} was already deleted or isn't planned to be deleted" + id)
+                   .build();
+  }
+
+  @PostMapping(path = "bulkDeletions", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+  @Secured("users")
+  @Operation(summary = "Delete a list of news articles", method = "POST", description = "This checks that the authenticated user can delete all the news articles, then deletes them asynchronously. The returned deletion progress can be retrieved again using its identifier.")
+  @ApiResponses(value = { @ApiResponse(responseCode = "202", description = "Deletion started"),
+      @ApiResponse(responseCode = "400", description = "Invalid query input"),
+      @ApiResponse(responseCode = "401", description = "User not authorized to delete one of the news articles"),
+      @ApiResponse(responseCode = "500", description = "Internal server error") })
+  public ResponseEntity<NewsBulkDeletion> deleteNewsList(@Parameter(description = "News articles identifiers", required = true)
+                                                         @RequestBody
+                                                         List<String> ids) {
+    if (CollectionUtils.isEmpty(ids)) {
+      return ResponseEntity.badRequest().build();
+    }
+    org.exoplatform.services.security.Identity currentIdentity = ConversationState.getCurrent().getIdentity();
+    try {
+      return ResponseEntity.status(HttpStatus.ACCEPTED).body(newsBulkDeletionService.deleteNews(ids, currentIdentity));
+    } catch (IllegalAccessException e) {
+      LOG.warn("User '{}' is not autorized to delete news", currentIdentity.getUserId(), e);
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    } catch (Exception e) {
+      LOG.error("Error when deleting the news with ids {}", ids, e);
+      return ResponseEntity.internalServerError().build();
+    }
+  }
+
+  @GetMapping(path = "bulkDeletions/{bulkDeletionId}", produces = MediaType.APPLICATION_JSON_VALUE)
+  @Secured("users")
+  @Operation(summary = "Get the progress of a news articles bulk deletion", method = "GET", description = "This gets the progress of a news articles bulk deletion requested by the authenticated user")
+  @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Request fulfilled"),
+      @ApiResponse(responseCode = "403", description = "Forbidden operation"),
+      @ApiResponse(responseCode = "404", description = "Bulk deletion not found") })
+  public ResponseEntity<NewsBulkDeletion> getNewsBulkDeletion(@Parameter(description = "Bulk deletion identifier", required = true)
+                                                              @PathVariable("bulkDeletionId")
+                                                              String bulkDeletionId) {
+    String authenticatedUser = ConversationState.getCurrent().getIdentity().getUserId();
+    try {
+      NewsBulkDeletion bulkDeletion = newsBulkDeletionService.getBulkDeletion(bulkDeletionId, authenticatedUser);
+      if (bulkDeletion == null) {
+        return ResponseEntity.notFound().build();
+      }
+      return ResponseEntity.ok(bulkDeletion);
+    } catch (IllegalAccessException e) {
+      LOG.warn("User {} attempts to access a news bulk deletion requested by another user", authenticatedUser, e);
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
     }
   }
 
@@ -364,7 +371,7 @@ public class NewsRest {
         return ResponseEntity.notFound().build();
       }
       Locale userLocale = LocalizationFilter.getCurrentLocale();
-      news.setBody(MentionUtils.substituteRoleWithLocale(news.getBody(), userLocale));
+      substituteRoleMentions(news, userLocale);
       // check favorite
       Identity userIdentity = identityManager.getOrCreateUserIdentity(currentIdentity.getUserId());
       if (userIdentity != null) {
@@ -379,13 +386,20 @@ public class NewsRest {
                                                                       // service
                                                                       // layer
         News filteredNews = new News();
-        List<String> spacesList = new ArrayList<>();
-        String newsActivities = news.getActivities();
-        for (String newsActivity : newsActivities.split(";")) {
-          String spaceId = newsActivity.split(":")[0];
-          spacesList.add(spaceId);
+        // Only the activities in the viewer spaces are read, in addition to
+        // the one posted with the article
+        List<String> sharedInSpacesList = new ArrayList<>();
+        NewsActivity postActivity = newsService.getNewsPostActivity(news.getId());
+        if (postActivity != null) {
+          sharedInSpacesList.add(postActivity.getSpaceId());
         }
-        filteredNews.setSharedInSpacesList(spacesList);
+        Set<String> memberSpacesIds = newsViewerSpacesCache.getMemberSpacesIds(authenticatedUser);
+        newsService.getNewsActivities(news.getId(), memberSpacesIds)
+                   .stream()
+                   .map(NewsActivity::getSpaceId)
+                   .filter(spaceId -> !sharedInSpacesList.contains(spaceId))
+                   .forEach(sharedInSpacesList::add);
+        filteredNews.setSharedInSpacesList(sharedInSpacesList);
         return ResponseEntity.ok(filteredNews);
       } else {
         return ResponseEntity.ok(news);
@@ -505,7 +519,7 @@ public class NewsRest {
         Locale userLocale = LocalizationFilter.getCurrentLocale();
         news.stream()
             .filter(Objects::nonNull)
-            .forEach(news1 -> news1.setBody(MentionUtils.substituteRoleWithLocale(news1.getBody(), userLocale)));
+            .forEach(news1 -> substituteRoleMentions(news1, userLocale));
       }
       newsEntity.setNews(news);
       newsEntity.setOffset(offset);
@@ -557,7 +571,7 @@ public class NewsRest {
       Locale userLocale = LocalizationFilter.getCurrentLocale();
       news.forEach(newsArticle -> {
         if (newsArticle != null) {
-          newsArticle.setBody(MentionUtils.substituteRoleWithLocale(newsArticle.getBody(), userLocale));
+          substituteRoleMentions(newsArticle, userLocale);
         }
       });
       newsEntity.setNews(news);
@@ -594,7 +608,7 @@ public class NewsRest {
         return ResponseEntity.notFound().build();
       }
       Locale userLocale = LocalizationFilter.getCurrentLocale();
-      news.setBody(MentionUtils.substituteRoleWithLocale(news.getBody(), userLocale));
+      substituteRoleMentions(news, userLocale);
 
       Identity userIdentity = identityManager.getOrCreateUserIdentity(currentIdentity.getUserId());
       if (userIdentity != null) {
@@ -691,6 +705,10 @@ public class NewsRest {
     filter.setLimit(limit);
     filter.setOffset(offset);
     filter.setTagNames(tagNames);
+    Locale userLocale = LocalizationFilter.getCurrentLocale();
+    if (userLocale != null) {
+      filter.setLang(userLocale.getLanguage());
+    }
     List<NewsESSearchResult> searchResults = newsService.search(currentIdentity, filter);
     List<NewsSearchResultEntity> results =
                                          searchResults.stream()
@@ -858,4 +876,11 @@ public class NewsRest {
     return newsFilter;
   }
 
+  private void substituteRoleMentions(News news, Locale userLocale) {
+    // Skip bodies for which the stored mentions don't include any space role
+    if (NewsUtils.hasRoleMentions(news.getMentions())) {
+      news.setBody(MentionUtils.substituteRoleWithLocale(news.getBody(), userLocale));
+    }
+  }
+
 }
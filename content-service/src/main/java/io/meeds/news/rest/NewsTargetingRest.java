@@ -19,15 +19,7 @@
  */
 package io.meeds.news.rest;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-
-import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -35,14 +27,12 @@ import javax.ws.rs.core.Response;
 import io.swagger.v3.oas.annotations.Parameter;
 import org.apache.commons.lang3.StringUtils;
 
-import org.exoplatform.container.ExoContainerContext;
-import org.exoplatform.container.PortalContainer;
-import org.exoplatform.container.component.RequestLifeCycle;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.services.security.ConversationState;
 import org.exoplatform.social.metadata.model.Metadata;
 
+import io.meeds.news.service.DelayedDeletionService;
 import io.meeds.news.service.NewsTargetingService;
 import io.meeds.news.utils.NewsUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -73,24 +63,7 @@ public class NewsTargetingRest {
   private NewsTargetingService     newsTargetingService;
 
   @Autowired
-  private PortalContainer          container;
-
-  private ScheduledExecutorService scheduledExecutor;
-
-  private Map<String, String>      newsTargetToDeleteQueue = new HashMap<>();
-
-
-  @PostConstruct
-  public void init() {
-    scheduledExecutor = Executors.newScheduledThreadPool(1);
-  }
-
-  @PreDestroy
-  public void destroy() {
-    if (scheduledExecutor != null) {
-      scheduledExecutor.shutdown();
-    }
-  }
+  private DelayedDeletionService   delayedDeletionService;
 
   @GetMapping(produces = MediaType.APPLICATION_JSON)
   @Secured("users")
@@ -140,30 +113,7 @@ public class NewsTargetingRest {
       if (StringUtils.isBlank(targetName)) {
         return Response.status(Response.Status.BAD_REQUEST).entity("Target name ist mandatory").build();
       }
-      if (delay > 0) {
-        newsTargetToDeleteQueue.put(targetName, currentIdentity.getUserId());
-        scheduledExecutor.schedule(() -> {
-          if (newsTargetToDeleteQueue.containsKey(targetName)) {
-            ExoContainerContext.setCurrentContainer(container);
-            RequestLifeCycle.begin(container);
-            try {
-              newsTargetToDeleteQueue.remove(targetName);
-              newsTargetingService.deleteTargetByName(targetName, currentIdentity);
-            } catch (IllegalAccessException e) {
-              LOG.warn("User '{}' is not authorized to delete the news target with name " + targetName,
-                       currentIdentity.getUserId(),
-                       e);
-            } catch (Exception e) {
-              LOG.error("Error when deleting the news target with name " + targetName, e);
-            } finally {
-              RequestLifeCycle.end();
-            }
-          }
-        }, delay, TimeUnit.SECONDS);
-      } else {
-        newsTargetToDeleteQueue.remove(targetName);
-        newsTargetingService.deleteTargetByName(targetName, currentIdentity);
-      }
+      delayedDeletionService.deleteTarget(targetName, currentIdentity, delay);
       return Response.ok().build();
     } catch (Exception e) {
       LOG.error("Error when deleting the news target with name " + targetName, e);
@@ -181,23 +131,18 @@ public class NewsTargetingRest {
     if (StringUtils.isBlank(targetName)) {
       return Response.status(Response.Status.BAD_REQUEST).entity("Target name ist mandatory").build();
     }
-    if (newsTargetToDeleteQueue.containsKey(targetName)) {
-      org.exoplatform.services.security.Identity currentIdentity = ConversationState.getCurrent().getIdentity();
-      String authenticatedUser = currentIdentity.getUserId();
-      String originalModifierUser = newsTargetToDeleteQueue.get(targetName);
-      if (!originalModifierUser.equals(authenticatedUser)) {
-        LOG.warn("User {} attempts to cancel deletion of a news target deleted by user {}",
-                 authenticatedUser,
-                 originalModifierUser);
-        return Response.status(Response.Status.FORBIDDEN).build();
+    String authenticatedUser = ConversationState.getCurrent().getIdentity().getUserId();
+    try {
+      if (delayedDeletionService.undoDeleteTarget(targetName, authenticatedUser)) {
+        return Response.noContent().build();
       }
-      newsTargetToDeleteQueue.remove(targetName);
-      return Response.noContent().build();
-    } else {
-      return Response.status(Response.Status.BAD_REQUEST)
-                     .entity("News target with name {} was already deleted or isn't planned to be deleted" + targetName)
-                     .build();
+    } catch (IllegalAccessException e) {
+      LOG.warn("User {} attempts to cancel deletion of a news target deleted by another user", authenticatedUser, e);
+      return Response.status(Response.Status.FORBIDDEN).build();
     }
+    return Response.status(Response.Status.BAD_REQUEST)
+                   .entity("News target with name {} was already deleted or isn't planned to be deleted" + targetName)
+                   .build();
   }
 
   @PostMapping(consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
@@ -0,0 +1,83 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.rest;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.meeds.news.job.ScheduledNewsArticleQueue;
+import io.meeds.news.model.ScheduledNewsArticleFailure;
+import io.meeds.news.model.ScheduledNewsArticleStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("contents/scheduled")
+@Tag(name = "content/rest/contents/scheduled", description = "Monitoring scheduled contents posting")
+public class ScheduledNewsArticleRest {
+
+  @Autowired
+  private ScheduledNewsArticleQueue scheduledNewsArticleQueue;
+
+  @GetMapping(path = "failures", produces = MediaType.APPLICATION_JSON_VALUE)
+  @Secured("administrators")
+  @Operation(summary = "Get scheduled articles which couldn't be posted", method = "GET", description = "This gets the scheduled articles which couldn't be posted after all retry attempts")
+  @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Request fulfilled"),
+      @ApiResponse(responseCode = "401", description = "Unauthorized operation"), })
+  public ResponseEntity<List<ScheduledNewsArticleFailure>> getFailures() {
+    return ResponseEntity.ok(scheduledNewsArticleQueue.getFailures());
+  }
+
+  @PostMapping(path = "failures/{articleId}/retry")
+  @Secured("administrators")
+  @Operation(summary = "Retry posting a scheduled article which couldn't be posted", method = "POST", description = "This schedules again the article for an immediate posting")
+  @ApiResponses(value = { @ApiResponse(responseCode = "204", description = "Request fulfilled"),
+      @ApiResponse(responseCode = "401", description = "Unauthorized operation"),
+      @ApiResponse(responseCode = "404", description = "Article isn't a failed scheduled article"), })
+  public ResponseEntity<Void> retryFailure(@Parameter(description = "Article identifier")
+                                           @PathVariable("articleId")
+                                           String articleId) {
+    if (!scheduledNewsArticleQueue.retryFailure(articleId)) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping(path = "statistics", produces = MediaType.APPLICATION_JSON_VALUE)
+  @Secured("administrators")
+  @Operation(summary = "Get scheduled articles posting statistics", method = "GET", description = "This gets the scheduled articles posting statistics of the current node, including the lag between the schedule post time and the effective post time")
+  @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Request fulfilled"),
+      @ApiResponse(responseCode = "401", description = "Unauthorized operation"), })
+  public ResponseEntity<ScheduledNewsArticleStatistics> getStatistics() {
+    return ResponseEntity.ok(scheduledNewsArticleQueue.getStatistics());
+  }
+}
@@ -0,0 +1,550 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.search;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ar.ArabicAnalyzer;
+import org.apache.lucene.analysis.de.GermanAnalyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.it.ItalianAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.nl.DutchAnalyzer;
+import org.apache.lucene.analysis.pt.PortugueseAnalyzer;
+import org.apache.lucene.analysis.ru.RussianAnalyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.MMapDirectory;
+
+import org.exoplatform.commons.search.domain.Document;
+import org.exoplatform.commons.utils.CommonsUtils;
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.storage.api.ActivityStorage;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.favorite.FavoriteService;
+import org.exoplatform.social.metadata.model.MetadataItem;
+import org.exoplatform.social.metadata.model.MetadataObject;
+import org.exoplatform.social.metadata.tag.TagService;
+
+import io.meeds.news.filter.NewsFilter;
+import io.meeds.news.utils.NewsUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Embedded Lucene implementation of {@link NewsSearchBackend}. The index is
+ * stored on local disk and memory mapped. Documents are built by
+ * {@link NewsIndexingServiceConnector} and indexed asynchronously, the same
+ * way the platform indexing queue does with Elasticsearch. The connector isn't
+ * registered in the platform indexing processor with this backend. The index
+ * is local to each node, this backend is meant for single node deployments.
+ * Searches use near real time readers, so index changes are visible before
+ * being committed. Changes are committed periodically and at the end of a
+ * full reindexing rather than after each document.
+ */
+@Component
+@ConditionalOnProperty(name = NewsSearchBackend.SEARCH_BACKEND_PROPERTY, havingValue = NewsSearchBackend.LUCENE_BACKEND)
+public class LuceneNewsSearchBackend implements NewsSearchBackend {
+
+  private static final Log                 LOG                   = ExoLogger.getLogger(LuceneNewsSearchBackend.class);
+
+  static final String                      DOCUMENT_ID_FIELD     = "_id";
+
+  static final String                      PERMISSIONS_FIELD     = "permissions";
+
+  static final String                      FAVORITES_FIELD       = "favorites";
+
+  static final String                      TAGS_FIELD            = "tags";
+
+  private static final List<String>        KEYWORD_FIELDS        = List.of("id", "lang", "posterId", "newsActivityId");
+
+  private static final List<String>        LOCALIZED_FIELDS      = List.of("title", "summary", "body");
+
+  private static final List<String>        STORED_ONLY_FIELDS    = List.of("postedTime", "lastUpdatedTime");
+
+  private static final String              EXCERPT_PRE_TAG       = "<span class='searchMatchExcerpt'>";
+
+  private static final String              EXCERPT_POST_TAG      = "</span>";
+
+  private static final int                 EXCERPTS_COUNT        = 2;
+
+  private static final int                 REINDEX_ALL_PAGE_SIZE = 100;
+
+  @Autowired
+  private NewsIndexingServiceConnector     connector;
+
+  @Autowired
+  private MetadataService                  metadataService;
+
+  @Autowired
+  private IdentityManager                  identityManager;
+
+  @Autowired
+  private ActivityStorage                  activityStorage;
+
+  @Autowired
+  private PortalContainer                  container;
+
+  @Value("${content.search.lucene.path:${exo.data.dir:gatein/data}/content/news-index}")
+  private String                           indexPath;
+
+  @Value("${content.search.lucene.commitInterval:5000}")
+  private long                             commitInterval;
+
+  private Analyzer                         analyzer;
+
+  private IndexWriter                      indexWriter;
+
+  private SearcherManager                  searcherManager;
+
+  private ScheduledExecutorService         indexingExecutor;
+
+  @PostConstruct
+  public void init() throws IOException {
+    Path path = Path.of(indexPath);
+    Files.createDirectories(path);
+    analyzer = buildAnalyzer();
+    indexWriter = new IndexWriter(new MMapDirectory(path), new IndexWriterConfig(analyzer));
+    searcherManager = new SearcherManager(indexWriter, null);
+    indexingExecutor = Executors.newSingleThreadScheduledExecutor();
+    if (indexWriter.getDocStats().numDocs == 0) {
+      indexingExecutor.execute(this::reindexAll);
+    }
+    indexingExecutor.scheduleWithFixedDelay(this::commitChanges, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void destroy() throws IOException {
+    if (indexingExecutor != null) {
+      indexingExecutor.shutdown();
+      try {
+        indexingExecutor.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (searcherManager != null) {
+      searcherManager.close();
+    }
+    if (indexWriter != null) {
+      // Commits the changes done since the last periodic commit
+      indexWriter.close();
+    }
+  }
+
+  @Override
+  public List<NewsESSearchResult> search(Identity viewerIdentity, NewsFilter filter) {
+    NewsSearchBackend.checkSearchArguments(viewerIdentity, filter);
+    Set<Long> streamFeedOwnerIds = activityStorage.getStreamFeedOwnerIds(viewerIdentity);
+    if (CollectionUtils.isEmpty(streamFeedOwnerIds) || filter.getLimit() == 0) {
+      return new ArrayList<>();
+    }
+    IndexSearcher searcher = null;
+    try {
+      searcherManager.maybeRefresh();
+      searcher = searcherManager.acquire();
+      Query query = buildQuery(viewerIdentity, streamFeedOwnerIds, filter);
+      TopDocs topDocs = searcher.search(query, filter.getOffset() + filter.getLimit());
+      if (topDocs.scoreDocs.length <= filter.getOffset()) {
+        return new ArrayList<>();
+      }
+      ScoreDoc[] pageScoreDocs = Arrays.copyOfRange(topDocs.scoreDocs, filter.getOffset(), topDocs.scoreDocs.length);
+      TopDocs pageTopDocs = new TopDocs(topDocs.totalHits, pageScoreDocs);
+      Map<String, String[]> highlights = highlight(searcher, query, pageTopDocs);
+      List<NewsESSearchResult> results = new ArrayList<>();
+      for (int i = 0; i < pageScoreDocs.length; i++) {
+        org.apache.lucene.document.Document document = searcher.storedFields().document(pageScoreDocs[i].doc);
+        results.add(buildResult(document, getExcerpts(highlights, i)));
+      }
+      return results;
+    } catch (IOException e) {
+      throw new IllegalStateException("Error searching news in local index", e);
+    } finally {
+      releaseSearcher(searcher);
+    }
+  }
+
+  @Override
+  public void index(String id) {
+    indexingExecutor.execute(() -> indexDocument(id));
+  }
+
+  @Override
+  public void reindex(String id) {
+    indexingExecutor.execute(() -> indexDocument(id));
+  }
+
+  @Override
+  public void unindex(String id) {
+    indexingExecutor.execute(() -> {
+      try {
+        indexWriter.deleteDocuments(new Term(DOCUMENT_ID_FIELD, id));
+      } catch (IOException e) {
+        LOG.warn("Error removing news document {} from local index", id, e);
+      }
+    });
+  }
+
+  @Override
+  public void unindex(List<String> ids) {
+    if (CollectionUtils.isEmpty(ids)) {
+      return;
+    }
+    indexingExecutor.execute(() -> {
+      try {
+        indexWriter.deleteDocuments(ids.stream().map(id -> new Term(DOCUMENT_ID_FIELD, id)).toArray(Term[]::new));
+      } catch (IOException e) {
+        LOG.warn("Error removing news documents {} from local index", ids, e);
+      }
+    });
+  }
+
+  /**
+   * Lucene documents can't be partially updated, the documents are built and
+   * indexed again.
+   */
+  @Override
+  public void updateField(List<String> ids, String field, String value) {
+    ids.forEach(this::reindex);
+  }
+
+  @Override
+  public List<String> findDocumentsIds(String field, String value, int offset, int limit) {
+    IndexSearcher searcher = null;
+    try {
+      searcherManager.maybeRefresh();
+      searcher = searcherManager.acquire();
+      TopDocs topDocs = searcher.search(new TermQuery(new Term(field, value)), offset + limit, Sort.INDEXORDER);
+      List<String> documentsIds = new ArrayList<>();
+      for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+        documentsIds.add(searcher.storedFields().document(topDocs.scoreDocs[i].doc).get(DOCUMENT_ID_FIELD));
+      }
+      return documentsIds;
+    } catch (IOException e) {
+      throw new IllegalStateException("Error searching news documents in local index", e);
+    } finally {
+      releaseSearcher(searcher);
+    }
+  }
+
+  private void indexDocument(String id) {
+    ExoContainerContext.setCurrentContainer(container);
+    RequestLifeCycle.begin(container);
+    try {
+      Document document = connector.update(id);
+      if (document == null) {
+        indexWriter.deleteDocuments(new Term(DOCUMENT_ID_FIELD, id));
+      } else {
+        indexWriter.updateDocument(new Term(DOCUMENT_ID_FIELD, id), toLuceneDocument(id, document));
+      }
+    } catch (Exception e) {
+      LOG.warn("Error indexing news document {} in local index", id, e);
+    } finally {
+      RequestLifeCycle.end();
+    }
+  }
+
+  private void reindexAll() {
+    int offset = 0;
+    List<String> ids;
+    do {
+      ExoContainerContext.setCurrentContainer(container);
+      RequestLifeCycle.begin(container);
+      try {
+        ids = connector.getAllIds(offset, REINDEX_ALL_PAGE_SIZE);
+      } finally {
+        RequestLifeCycle.end();
+      }
+      ids.forEach(this::indexDocument);
+      offset += REINDEX_ALL_PAGE_SIZE;
+    } while (!ids.isEmpty());
+    commitChanges();
+    LOG.info("News local index built");
+  }
+
+  private org.apache.lucene.document.Document toLuceneDocument(String id, Document document) {
+    org.apache.lucene.document.Document luceneDocument = new org.apache.lucene.document.Document();
+    luceneDocument.add(new StringField(DOCUMENT_ID_FIELD, id, Field.Store.YES));
+    for (Map.Entry<String, String> field : document.getFields().entrySet()) {
+      String fieldName = field.getKey();
+      String fieldValue = field.getValue();
+      if (fieldValue == null) {
+        continue;
+      }
+      if (KEYWORD_FIELDS.contains(fieldName)) {
+        luceneDocument.add(new StringField(fieldName, fieldValue, Field.Store.YES));
+      } else if (STORED_ONLY_FIELDS.contains(fieldName)) {
+        luceneDocument.add(new StoredField(fieldName, fieldValue));
+      } else {
+        luceneDocument.add(new TextField(fieldName, fieldValue, Field.Store.YES));
+      }
+    }
+    if (document.getPermissions() != null) {
+      document.getPermissions()
+              .stream()
+              .filter(StringUtils::isNumeric)
+              .forEach(permission -> luceneDocument.add(new LongPoint(PERMISSIONS_FIELD, Long.parseLong(permission))));
+    }
+    MetadataObject metadataObject = new MetadataObject(NewsUtils.NEWS_METADATA_OBJECT_TYPE, id);
+    List<MetadataItem> metadataItems = metadataService.getMetadataItemsByObject(metadataObject);
+    if (metadataItems != null) {
+      for (MetadataItem metadataItem : metadataItems) {
+        String metadataType = metadataItem.getMetadata().getType().getName();
+        String metadataName = metadataItem.getMetadata().getName();
+        if (FavoriteService.METADATA_TYPE.getName().equals(metadataType)) {
+          luceneDocument.add(new StringField(FAVORITES_FIELD, metadataName, Field.Store.NO));
+        } else if (TagService.METADATA_TYPE.getName().equals(metadataType)) {
+          luceneDocument.add(new StringField(TAGS_FIELD, metadataName.toLowerCase(Locale.ROOT), Field.Store.NO));
+        }
+      }
+    }
+    return luceneDocument;
+  }
+
+  private Query buildQuery(Identity viewerIdentity, Set<Long> streamFeedOwnerIds, NewsFilter filter) {
+    BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+    if (StringUtils.isNotBlank(filter.getSearchText())) {
+      queryBuilder.add(buildTermQuery(filter.getSearchText(), filter.getLang()), Occur.MUST);
+    }
+    queryBuilder.add(LongPoint.newSetQuery(PERMISSIONS_FIELD, streamFeedOwnerIds), Occur.FILTER);
+    if (filter.isFavorites()) {
+      queryBuilder.add(new TermQuery(new Term(FAVORITES_FIELD, viewerIdentity.getId())), Occur.FILTER);
+    }
+    if (CollectionUtils.isNotEmpty(filter.getTagNames())) {
+      filter.getTagNames()
+            .forEach(tagName -> queryBuilder.add(new TermQuery(new Term(TAGS_FIELD, tagName.toLowerCase(Locale.ROOT))),
+                                                 Occur.SHOULD));
+      queryBuilder.setMinimumNumberShouldMatch(1);
+    }
+    return queryBuilder.build();
+  }
+
+  private Query buildTermQuery(String term, String lang) {
+    Map<String, Float> boosts = new HashMap<>();
+    List<String> fields = new ArrayList<>(List.of("title", "summary", "body", "posterName"));
+    NewsIndexingServiceConnector.ANALYZED_LANGUAGES.forEach(analyzedLanguage -> fields.add(NewsIndexingServiceConnector.getLocalizedFieldName("body",
+                                                                                                                                             analyzedLanguage)));
+    String analyzedLanguage = NewsIndexingServiceConnector.getAnalyzedLanguage(lang);
+    if (analyzedLanguage != null) {
+      // Boost matches in the viewer language fields
+      String titleField = NewsIndexingServiceConnector.getLocalizedFieldName("title", analyzedLanguage);
+      String summaryField = NewsIndexingServiceConnector.getLocalizedFieldName("summary", analyzedLanguage);
+      String bodyField = NewsIndexingServiceConnector.getLocalizedFieldName("body", analyzedLanguage);
+      fields.add(titleField);
+      fields.add(summaryField);
+      boosts.put(titleField, 3f);
+      boosts.put(summaryField, 2f);
+      boosts.put(bodyField, 2f);
+    }
+    MultiFieldQueryParser queryParser = new MultiFieldQueryParser(fields.toArray(new String[0]), analyzer, boosts);
+    queryParser.setDefaultOperator(QueryParser.Operator.AND);
+    String normalizedTerm = removeSpecialCharacters(term);
+    try {
+      return queryParser.parse(normalizedTerm);
+    } catch (ParseException e) {
+      try {
+        return queryParser.parse(QueryParser.escape(normalizedTerm));
+      } catch (ParseException pe) {
+        throw new IllegalArgumentException("Invalid search term " + term, pe);
+      }
+    }
+  }
+
+  private Map<String, String[]> highlight(IndexSearcher searcher, Query query, TopDocs topDocs) {
+    List<String> bodyFields = new ArrayList<>();
+    bodyFields.add("body");
+    NewsIndexingServiceConnector.ANALYZED_LANGUAGES.forEach(analyzedLanguage -> bodyFields.add(NewsIndexingServiceConnector.getLocalizedFieldName("body",
+                                                                                                                                                 analyzedLanguage)));
+    int[] maxPassages = new int[bodyFields.size()];
+    Arrays.fill(maxPassages, EXCERPTS_COUNT);
+    UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                                                       .withFormatter(new DefaultPassageFormatter(EXCERPT_PRE_TAG,
+                                                                                                  EXCERPT_POST_TAG,
+                                                                                                  "... ",
+                                                                                                  false))
+                                                       .withMaxNoHighlightPassages(0)
+                                                       .build();
+    try {
+      return highlighter.highlightFields(bodyFields.toArray(new String[0]), query, topDocs, maxPassages);
+    } catch (IOException e) {
+      LOG.warn("Error computing news search excerpts", e);
+      return Map.of();
+    }
+  }
+
+  private List<String> getExcerpts(Map<String, String[]> highlights, int index) {
+    List<String> excerpts = new ArrayList<>();
+    for (String[] fieldHighlights : highlights.values()) {
+      String highlight = fieldHighlights[index];
+      if (StringUtils.isNotBlank(highlight)) {
+        excerpts.add(highlight);
+      }
+    }
+    return excerpts;
+  }
+
+  private NewsESSearchResult buildResult(org.apache.lucene.document.Document document, List<String> excerpts) {
+    NewsESSearchResult newsSearchResult = new NewsESSearchResult();
+    String newsActivityId = document.get("newsActivityId");
+    String language = document.get("lang");
+    newsSearchResult.setId(document.get("id"));
+    newsSearchResult.setLang(language);
+    newsSearchResult.setTitle(document.get("title"));
+    String posterId = document.get("posterId");
+    if (posterId != null) {
+      newsSearchResult.setPoster(identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, posterId));
+    }
+    newsSearchResult.setPostedTime(parseLong(document.get("postedTime")));
+    newsSearchResult.setLastUpdatedTime(parseLong(document.get("lastUpdatedTime")));
+    newsSearchResult.setSpaceDisplayName(document.get("spaceDisplayName"));
+    newsSearchResult.setActivityId(newsActivityId);
+    String portalName = PortalContainer.getCurrentPortalContainerName();
+    String portalOwner = CommonsUtils.getCurrentPortalOwner();
+    newsSearchResult.setNewsUrl("/" + portalName + "/" + portalOwner + "/activity?id=" + newsActivityId);
+    if (language != null) {
+      newsSearchResult.setNewsUrl(newsSearchResult.getNewsUrl().concat("&lang=" + language));
+    }
+    newsSearchResult.setBody(getBody(document));
+    newsSearchResult.setExcerpts(excerpts);
+    return newsSearchResult;
+  }
+
+  private String getBody(org.apache.lucene.document.Document document) {
+    String body = document.get("body");
+    if (body == null) {
+      // Translations bodies are indexed in their language specific field
+      for (String analyzedLanguage : NewsIndexingServiceConnector.ANALYZED_LANGUAGES) {
+        body = document.get(NewsIndexingServiceConnector.getLocalizedFieldName("body", analyzedLanguage));
+        if (body != null) {
+          break;
+        }
+      }
+    }
+    return body;
+  }
+
+  private long parseLong(String value) {
+    return StringUtils.isBlank(value) ? 0 : Long.parseLong(value);
+  }
+
+  private Analyzer buildAnalyzer() {
+    Map<String, Analyzer> languageAnalyzers = Map.of("ar",
+                                                     new ArabicAnalyzer(),
+                                                     "de",
+                                                     new GermanAnalyzer(),
+                                                     "en",
+                                                     new EnglishAnalyzer(),
+                                                     "es",
+                                                     new SpanishAnalyzer(),
+                                                     "fr",
+                                                     new FrenchAnalyzer(),
+                                                     "it",
+                                                     new ItalianAnalyzer(),
+                                                     "nl",
+                                                     new DutchAnalyzer(),
+                                                     "pt",
+                                                     new PortugueseAnalyzer(),
+                                                     "ru",
+                                                     new RussianAnalyzer());
+    Map<String, Analyzer> fieldAnalyzers = new HashMap<>();
+    for (String field : LOCALIZED_FIELDS) {
+      languageAnalyzers.forEach((lang, languageAnalyzer) -> fieldAnalyzers.put(NewsIndexingServiceConnector.getLocalizedFieldName(field,
+                                                                                                                                  lang),
+                                                                               languageAnalyzer));
+    }
+    return new PerFieldAnalyzerWrapper(new StandardAnalyzer(), fieldAnalyzers);
+  }
+
+  private void commitChanges() {
+    try {
+      if (indexWriter.hasUncommittedChanges()) {
+        indexWriter.commit();
+      }
+    } catch (Exception e) {
+      LOG.warn("Error committing news local index changes", e);
+    }
+  }
+
+  private void releaseSearcher(IndexSearcher searcher) {
+    if (searcher != null) {
+      try {
+        searcherManager.release(searcher);
+      } catch (IOException e) {
+        LOG.warn("Error releasing news index searcher", e);
+      }
+    }
+  }
+
+  private String removeSpecialCharacters(String string) {
+    string = Normalizer.normalize(string, Normalizer.Form.NFD);
+    return string.replaceAll("[\\p{InCombiningDiacriticalMarks}]", "").replace("'", " ");
+  }
+}
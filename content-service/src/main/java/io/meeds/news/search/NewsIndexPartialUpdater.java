@@ -0,0 +1,241 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.search;
+
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_DELETED;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_NAME;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_PAGE_OBJECT_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_PUBLICATION_STATE;
+import static io.meeds.news.service.impl.NewsServiceImpl.POSTED;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.metadata.MetadataFilter;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+import io.meeds.news.service.NewsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Updates denormalized fields of already indexed news documents, such as the
+ * space display name or the poster name, using the search backend partial
+ * updates. Articles bodies are not rendered again when the backend supports
+ * it. The affected documents are retrieved from news metadata or from the
+ * index itself and updated by batches, a delay being observed between two
+ * consecutive batches to avoid flooding the index with update requests.
+ */
+@Component
+public class NewsIndexPartialUpdater {
+
+  public static final String         SPACE_DISPLAY_NAME_FIELD = "spaceDisplayName";
+
+  public static final String         POSTER_NAME_FIELD        = "posterName";
+
+  public static final String         POSTER_ID_FIELD          = "posterId";
+
+  private static final Log           LOG                      = ExoLogger.getLogger(NewsIndexPartialUpdater.class);
+
+  @Autowired
+  private MetadataService            metadataService;
+
+  @Autowired
+  private NewsService                newsService;
+
+  @Autowired
+  private NewsSearchBackend          newsSearchBackend;
+
+  @Autowired
+  private PortalContainer            container;
+
+  @Value("${content.search.partialUpdate.batchSize:100}")
+  private int                        batchSize;
+
+  @Value("${content.search.partialUpdate.batchDelay:2000}")
+  private long                       batchDelay;
+
+  /**
+   * Latest value to write, by updated field and metadata filter key. Used to
+   * coalesce successive updates of the same space or user while a previous
+   * update is still in progress.
+   */
+  private final Map<String, String>  pendingUpdates           = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService   scheduledExecutor;
+
+  @PostConstruct
+  public void init() {
+    scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (scheduledExecutor != null) {
+      scheduledExecutor.shutdown();
+    }
+  }
+
+  /**
+   * Schedules the update of the space display name of all indexed articles
+   * posted in a space
+   *
+   * @param spaceId {@link String} space identifier
+   * @param spaceDisplayName {@link String} new space display name
+   */
+  public void updateSpaceDisplayName(String spaceId, String spaceDisplayName) {
+    if (StringUtils.isBlank(spaceId) || spaceDisplayName == null) {
+      return;
+    }
+    scheduleUpdate(SPACE_DISPLAY_NAME_FIELD + ":" + spaceId, SPACE_DISPLAY_NAME_FIELD, spaceDisplayName, (offset, limit) -> {
+      MetadataFilter metadataFilter = buildPostedArticlesFilter();
+      metadataFilter.setMetadataSpaceIds(List.of(Long.parseLong(spaceId)));
+      List<MetadataItem> articlesItems = metadataService.getMetadataItemsByFilter(metadataFilter, offset, limit);
+      return new DocumentsBatch(articlesItems.size(), getDocumentsIds(articlesItems));
+    });
+  }
+
+  /**
+   * Schedules the update of the poster name of all indexed articles authored
+   * by a user. The documents are retrieved from the index by poster, which is
+   * the article author, whoever posted the article.
+   *
+   * @param username {@link String} user name
+   * @param posterName {@link String} new user full name
+   */
+  public void updatePosterName(String username, String posterName) {
+    if (StringUtils.isBlank(username) || posterName == null) {
+      return;
+    }
+    scheduleUpdate(POSTER_NAME_FIELD + ":" + username, POSTER_NAME_FIELD, posterName, (offset, limit) -> {
+      List<String> documentsIds = newsSearchBackend.findDocumentsIds(POSTER_ID_FIELD, username, offset, limit);
+      return new DocumentsBatch(documentsIds.size(), documentsIds);
+    });
+  }
+
+  private void scheduleUpdate(String updateKey, String field, String value, BatchLoader batchLoader) {
+    if (pendingUpdates.put(updateKey, value) == null) {
+      scheduledExecutor.execute(() -> updateBatch(updateKey, field, batchLoader, 0));
+    }
+  }
+
+  private void updateBatch(String updateKey, String field, BatchLoader batchLoader, int offset) {
+    String value = pendingUpdates.get(updateKey);
+    if (value == null) {
+      return;
+    }
+    int loadedCount = 0;
+    ExoContainerContext.setCurrentContainer(container);
+    RequestLifeCycle.begin(container);
+    try {
+      DocumentsBatch documentsBatch = batchLoader.load(offset, batchSize);
+      loadedCount = documentsBatch.loadedCount;
+      if (!documentsBatch.documentsIds.isEmpty()) {
+        newsSearchBackend.updateField(documentsBatch.documentsIds, field, value);
+      }
+    } catch (Exception e) {
+      LOG.warn("Error while updating field {} of indexed news for {}", field, updateKey, e);
+      pendingUpdates.remove(updateKey);
+      return;
+    } finally {
+      RequestLifeCycle.end();
+    }
+    if (loadedCount == batchSize) {
+      scheduledExecutor.schedule(() -> updateBatch(updateKey, field, batchLoader, offset + batchSize),
+                                 batchDelay,
+                                 TimeUnit.MILLISECONDS);
+    } else if (!pendingUpdates.remove(updateKey, value)) {
+      // The value was changed meanwhile, start again to apply the latest one
+      // on all documents
+      scheduledExecutor.schedule(() -> updateBatch(updateKey, field, batchLoader, 0), batchDelay, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private List<String> getDocumentsIds(List<MetadataItem> articlesItems) {
+    List<String> documentsIds = new ArrayList<>();
+    articlesItems.stream()
+                 .filter(articleItem -> articleItem.getProperties() == null
+                     || !Boolean.parseBoolean(articleItem.getProperties().get(NEWS_DELETED)))
+                 .map(MetadataItem::getObjectId)
+                 .filter(Objects::nonNull)
+                 .forEach(articleId -> {
+                   documentsIds.add(articleId);
+                   try {
+                     List<String> articleLanguages = newsService.getArticleLanguages(articleId, false);
+                     if (articleLanguages != null) {
+                       articleLanguages.forEach(lang -> documentsIds.add(articleId.concat("-").concat(lang)));
+                     }
+                   } catch (Exception e) {
+                     LOG.warn("Error retrieving translations of news article {}, only its original version will be updated",
+                              articleId,
+                              e);
+                   }
+                 });
+    return documentsIds;
+  }
+
+  private MetadataFilter buildPostedArticlesFilter() {
+    MetadataFilter metadataFilter = new MetadataFilter();
+    metadataFilter.setMetadataName(NEWS_METADATA_NAME);
+    metadataFilter.setMetadataTypeName(NEWS_METADATA_TYPE.getName());
+    metadataFilter.setMetadataObjectTypes(List.of(NEWS_METADATA_PAGE_OBJECT_TYPE));
+    metadataFilter.setMetadataProperties(Map.of(NEWS_PUBLICATION_STATE, POSTED));
+    return metadataFilter;
+  }
+
+  @FunctionalInterface
+  private interface BatchLoader {
+    DocumentsBatch load(int offset, int limit);
+  }
+
+  private static class DocumentsBatch {
+
+    /**
+     * Count of loaded items, used to know whether a next batch exists
+     */
+    private final int          loadedCount;
+
+    private final List<String> documentsIds;
+
+    private DocumentsBatch(int loadedCount, List<String> documentsIds) {
+      this.loadedCount = loadedCount;
+      this.documentsIds = documentsIds;
+    }
+  }
+}
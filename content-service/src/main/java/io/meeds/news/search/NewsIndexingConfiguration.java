@@ -0,0 +1,81 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.PropertiesParam;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.social.core.manager.ActivityManager;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.metadata.MetadataService;
+
+import io.meeds.news.service.NewsService;
+
+/**
+ * Declares the {@link NewsIndexingServiceConnector} building the news
+ * documents for both search backends. It is registered in the platform
+ * indexing processor by the Elasticsearch backend only, so that neither the
+ * Elasticsearch index nor its reindexing on upgrade are handled when the
+ * embedded Lucene backend is used.
+ */
+@Configuration
+public class NewsIndexingConfiguration {
+
+  @Value("${exo.news.es.mapping.path:jar:/news-es-mapping.json}")
+  private String  mappingFilePath;
+
+  @Value("${exo.news.es.index.current:news_v2}")
+  private String  currentIndex;
+
+  @Value("${exo.news.es.index.previous:news_v1}")
+  private String  previousIndex;
+
+  @Value("${exo.news.es.reindexOnUpgrade:true}")
+  private boolean reindexOnUpgrade;
+
+  @Bean
+  public NewsIndexingServiceConnector newsIndexingServiceConnector(IdentityManager identityManager,
+                                                                   @Lazy NewsService newsService,
+                                                                   ActivityManager activityManager,
+                                                                   MetadataService metadataService) {
+    return new NewsIndexingServiceConnector(identityManager, getInitParams(), newsService, activityManager, metadataService);
+  }
+
+  private InitParams getInitParams() {
+    InitParams initParams = new InitParams();
+    ValueParam mappingParam = new ValueParam();
+    mappingParam.setName("mapping.file.path");
+    mappingParam.setValue(mappingFilePath);
+    initParams.addParameter(mappingParam);
+    PropertiesParam constructorParams = new PropertiesParam();
+    constructorParams.setName("constructor.params");
+    constructorParams.setProperty("index_alias", "news_alias");
+    constructorParams.setProperty("index_current", currentIndex);
+    constructorParams.setProperty("index_previous", previousIndex);
+    constructorParams.setProperty("reindexOnUpgrade", String.valueOf(reindexOnUpgrade));
+    initParams.addParameter(constructorParams);
+    return initParams;
+  }
+}
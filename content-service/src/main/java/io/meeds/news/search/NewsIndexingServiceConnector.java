@@ -19,10 +19,21 @@
  */
 package io.meeds.news.search;
 
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_DELETED;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_NAME;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_PAGE_OBJECT_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_PUBLICATION_STATE;
+import static io.meeds.news.service.impl.NewsServiceImpl.POSTED;
+
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -50,18 +61,42 @@ import io.meeds.news.utils.NewsUtils;
 
 public class NewsIndexingServiceConnector extends ElasticIndexingServiceConnector {
 
-  public static final String    TYPE             = "news";
+  public static final String      TYPE                 = "news";
+
+  /**
+   * Languages having a dedicated analyzer declared in the index mapping
+   * dynamic templates
+   */
+  public static final Set<String> ANALYZED_LANGUAGES   = Set.of("ar", "de", "en", "es", "fr", "it", "nl", "pt", "ru");
+
+  private static final Log        LOG                  = ExoLogger.getLogger(NewsIndexingServiceConnector.class);
+
+  private static final long       RESOLUTIONS_TTL      = 60000L;
 
-  private static final Log      LOG              = ExoLogger.getLogger(NewsIndexingServiceConnector.class);
+  private static final int        RESOLUTIONS_MAX_SIZE = 1000;
 
-  private final NewsService     newsService;
+  private final NewsService       newsService;
 
-  private final IdentityManager identityManager;
+  private final IdentityManager   identityManager;
 
-  private final ActivityManager activityManager;
+  private final ActivityManager   activityManager;
 
-  private final MetadataService metadataService;
+  private final MetadataService   metadataService;
 
+  /**
+   * Poster full names resolved while indexing articles, by username
+   */
+  private final Map<String, Resolution> posterNames    = new ConcurrentHashMap<>();
+
+  /**
+   * Stream owner identity ids resolved while indexing articles, by activity id
+   */
+  private final Map<String, Resolution> streamOwnerIds = new ConcurrentHashMap<>();
+
+  /**
+   * Position reached by the last page of documents identifiers
+   */
+  private volatile IdsCursor            idsCursor;
 
   public NewsIndexingServiceConnector(IdentityManager identityManager,
                                       InitParams initParams,
@@ -90,9 +125,79 @@ public class NewsIndexingServiceConnector extends ElasticIndexingServiceConnecto
     return getDocument(id);
   }
 
+  /**
+   * Retrieves the identifiers of posted articles documents, including their
+   * translations documents, to let the indexing processor bulk reindex a newly
+   * created index before switching the alias to it. The offset and limit are
+   * applied on the documents identifiers, each article having its translations
+   * documents ids right after its own identifier, so that each page holds
+   * exactly limit ids until the last one. The articles position reached by a
+   * page is kept to read the next page without reading the previous articles
+   * again.
+   */
   @Override
   public List<String> getAllIds(int offset, int limit) {
-    throw new UnsupportedOperationException();
+    IdsCursor cursor = idsCursor;
+    if (cursor == null || cursor.documentsOffset != offset) {
+      cursor = new IdsCursor(0, 0, 0);
+    }
+    int articlesOffset = cursor.articlesOffset;
+    int position = cursor.articlePosition;
+    List<String> ids = new ArrayList<>();
+    List<MetadataItem> postedArticlesItems;
+    do {
+      postedArticlesItems = getPostedArticlesItems(articlesOffset, limit);
+      for (MetadataItem postedArticleItem : postedArticlesItems) {
+        List<String> documentsIds = getDocumentsIds(postedArticleItem);
+        int from = Math.max(0, offset - position);
+        if (from < documentsIds.size()) {
+          int to = Math.min(documentsIds.size(), from + limit - ids.size());
+          ids.addAll(documentsIds.subList(from, to));
+          if (to < documentsIds.size()) {
+            // The next page starts with the remaining documents of the article
+            idsCursor = new IdsCursor(offset + limit, articlesOffset, position);
+            return ids;
+          }
+        }
+        position += documentsIds.size();
+        articlesOffset++;
+        if (ids.size() == limit) {
+          idsCursor = new IdsCursor(offset + limit, articlesOffset, position);
+          return ids;
+        }
+      }
+    } while (postedArticlesItems.size() == limit);
+    idsCursor = null;
+    return ids;
+  }
+
+  private List<MetadataItem> getPostedArticlesItems(int offset, int limit) {
+    return metadataService.getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(NEWS_METADATA_NAME,
+                                                                                                 NEWS_METADATA_TYPE.getName(),
+                                                                                                 NEWS_METADATA_PAGE_OBJECT_TYPE,
+                                                                                                 NEWS_PUBLICATION_STATE,
+                                                                                                 POSTED,
+                                                                                                 offset,
+                                                                                                 limit);
+  }
+
+  private List<String> getDocumentsIds(MetadataItem postedArticleItem) {
+    List<String> ids = new ArrayList<>();
+    if (postedArticleItem.getProperties() != null
+        && Boolean.parseBoolean(postedArticleItem.getProperties().get(NEWS_DELETED))) {
+      return ids;
+    }
+    String articleId = postedArticleItem.getObjectId();
+    ids.add(articleId);
+    try {
+      List<String> articleLanguages = newsService.getArticleLanguages(articleId, false);
+      if (articleLanguages != null) {
+        articleLanguages.forEach(lang -> ids.add(articleId.concat("-").concat(lang)));
+      }
+    } catch (Exception e) {
+      LOG.warn("Error retrieving translations of news article {}, only its original version will be reindexed", articleId, e);
+    }
+    return ids;
   }
 
   private Document getDocument(String id) {
@@ -118,7 +223,9 @@ public class NewsIndexingServiceConnector extends ElasticIndexingServiceConnecto
     Map<String, String> fields = new HashMap<>();
     fields.put("id", news.getId());
 
+    String analyzedLanguage = getAnalyzedLanguage(news.getLang());
     fields.put("title", news.getTitle());
+    putLocalizedField(fields, "title", news.getTitle(), analyzedLanguage);
 
     String body = news.getBody();
     String summary = "";
@@ -137,7 +244,13 @@ public class NewsIndexingServiceConnector extends ElasticIndexingServiceConnecto
         LOG.warn("Error sanitizing news '{}' body", news.getId());
       }
       body = htmlToText(body);
-      fields.put("body", body);
+      if (analyzedLanguage == null) {
+        fields.put("body", body);
+      } else {
+        // The body is the largest field, index it only once using the
+        // language analyzer, search falls back on body_* fields
+        putLocalizedField(fields, "body", body, analyzedLanguage);
+      }
     }
 
     if (StringUtils.isNotBlank(summary)) {
@@ -149,41 +262,33 @@ public class NewsIndexingServiceConnector extends ElasticIndexingServiceConnecto
       }
       summary = htmlToText(summary);
       fields.put("summary", summary);
+      putLocalizedField(fields, "summary", summary, analyzedLanguage);
     }
 
-    if (StringUtils.isNotBlank(news.getAuthor())) {
-      fields.put("posterId", news.getAuthor());
-      Identity posterIdentity = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, news.getAuthor());
-      if (posterIdentity != null && posterIdentity.getProfile() != null
-          && StringUtils.isNotBlank(posterIdentity.getProfile().getFullName())) {
-        fields.put("posterName", posterIdentity.getProfile().getFullName());
+    // Translations documents reuse the resolutions made while indexing the
+    // original article document, which always refreshes them
+    boolean refreshResolutions = newsId == null;
+    String author = news.getAuthor();
+    if (StringUtils.isNotBlank(author)) {
+      fields.put("posterId", author);
+      String posterName = getResolution(posterNames, author, refreshResolutions, () -> getPosterFullName(author));
+      if (StringUtils.isNotBlank(posterName)) {
+        fields.put("posterName", posterName);
       }
     }
     if (news.getSpaceDisplayName() != null) {
       fields.put("spaceDisplayName", news.getSpaceDisplayName());
     }
 
-    String newsActivities = news.getActivities();
+    String newsActivityId = news.getActivityId();
     String ownerIdentityId = null;
 
-    if (newsActivities != null) {
-      String newsActivityId = newsActivities.split(";")[0].split(":")[1];
+    if (newsActivityId != null) {
       fields.put("newsActivityId", newsActivityId);
-      ExoSocialActivity newsActivity = activityManager.getActivity(newsActivityId);
-      ActivityStream activityStream = newsActivity.getActivityStream();
-
-      if (newsActivity.getParentId() != null
-          && (activityStream == null || activityStream.getType() == null || StringUtils.isBlank(activityStream.getPrettyId()))) {
-        ExoSocialActivity parentActivity = activityManager.getActivity(newsActivity.getParentId());
-        activityStream = parentActivity.getActivityStream();
-      }
-
-      if (activityStream != null && activityStream.getType() != null && StringUtils.isNotBlank(activityStream.getPrettyId())) {
-        String prettyId = activityStream.getPrettyId();
-        String providerId = activityStream.getType().getProviderId();
-        Identity streamOwner = identityManager.getOrCreateIdentity(providerId, prettyId);
-        ownerIdentityId = streamOwner.getId();
-      }
+      ownerIdentityId = getResolution(streamOwnerIds,
+                                      newsActivityId,
+                                      refreshResolutions,
+                                      () -> getStreamOwnerIdentityId(newsActivityId));
     } else {
       return null;
     }
@@ -204,6 +309,82 @@ public class NewsIndexingServiceConnector extends ElasticIndexingServiceConnecto
     return document;
   }
 
+  private String getResolution(Map<String, Resolution> resolutions,
+                               String key,
+                               boolean refresh,
+                               Supplier<String> resolver) {
+    long now = System.currentTimeMillis();
+    Resolution resolution = refresh ? null : resolutions.get(key);
+    if (resolution == null || resolution.expiryTime < now) {
+      if (resolutions.size() >= RESOLUTIONS_MAX_SIZE) {
+        resolutions.values().removeIf(cachedResolution -> cachedResolution.expiryTime < now);
+        if (resolutions.size() >= RESOLUTIONS_MAX_SIZE) {
+          resolutions.clear();
+        }
+      }
+      resolution = new Resolution(resolver.get(), now + RESOLUTIONS_TTL);
+      resolutions.put(key, resolution);
+    }
+    return resolution.value;
+  }
+
+  private String getPosterFullName(String username) {
+    Identity posterIdentity = identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, username);
+    if (posterIdentity != null && posterIdentity.getProfile() != null) {
+      return posterIdentity.getProfile().getFullName();
+    }
+    return null;
+  }
+
+  private String getStreamOwnerIdentityId(String newsActivityId) {
+    ExoSocialActivity newsActivity = activityManager.getActivity(newsActivityId);
+    ActivityStream activityStream = newsActivity.getActivityStream();
+
+    if (newsActivity.getParentId() != null
+        && (activityStream == null || activityStream.getType() == null || StringUtils.isBlank(activityStream.getPrettyId()))) {
+      ExoSocialActivity parentActivity = activityManager.getActivity(newsActivity.getParentId());
+      activityStream = parentActivity.getActivityStream();
+    }
+
+    if (activityStream != null && activityStream.getType() != null && StringUtils.isNotBlank(activityStream.getPrettyId())) {
+      String prettyId = activityStream.getPrettyId();
+      String providerId = activityStream.getType().getProviderId();
+      Identity streamOwner = identityManager.getOrCreateIdentity(providerId, prettyId);
+      return streamOwner.getId();
+    }
+    return null;
+  }
+
+  /**
+   * Normalizes a content or user language to the language having a dedicated
+   * analyzer in the index, for example 'pt_BR' is analyzed as 'pt'.
+   *
+   * @param lang language code
+   * @return the normalized language or null if no dedicated analyzer exists
+   */
+  public static String getAnalyzedLanguage(String lang) {
+    if (StringUtils.isBlank(lang)) {
+      return null;
+    }
+    String language = StringUtils.substringBefore(StringUtils.substringBefore(lang, "_"), "-").toLowerCase();
+    return ANALYZED_LANGUAGES.contains(language) ? language : null;
+  }
+
+  /**
+   * @param fieldName generic field name
+   * @param analyzedLanguage language having a dedicated analyzer
+   * @return the language specific field name, for example 'body_fr'
+   */
+  public static String getLocalizedFieldName(String fieldName, String analyzedLanguage) {
+    return fieldName + "_" + analyzedLanguage;
+  }
+
+  private void putLocalizedField(Map<String, String> fields, String fieldName, String value, String analyzedLanguage) {
+    if (analyzedLanguage != null && StringUtils.isNotBlank(value)) {
+      fields.put(getLocalizedFieldName(fieldName, analyzedLanguage), value);
+    }
+  }
+
   private String htmlToText(String source) {
     source = source.replaceAll("<( )*head([^>])*>", "<head>");
     source = source.replaceAll("(<( )*(/)( )*head( )*>)", "</head>");
@@ -231,4 +412,31 @@ public class NewsIndexingServiceConnector extends ElasticIndexingServiceConnecto
     document.setMetadataItems(metadataItems);
   }
 
+  private static final class Resolution {
+
+    private final String value;
+
+    private final long   expiryTime;
+
+    private Resolution(String value, long expiryTime) {
+      this.value = value;
+      this.expiryTime = expiryTime;
+    }
+  }
+
+  private static final class IdsCursor {
+
+    private final int documentsOffset;
+
+    private final int articlesOffset;
+
+    private final int articlePosition;
+
+    private IdsCursor(int documentsOffset, int articlesOffset, int articlePosition) {
+      this.documentsOffset = documentsOffset;
+      this.articlesOffset = articlesOffset;
+      this.articlePosition = articlePosition;
+    }
+  }
+
 }
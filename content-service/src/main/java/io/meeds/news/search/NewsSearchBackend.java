@@ -0,0 +1,131 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.search;
+
+import java.util.List;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import org.exoplatform.social.core.identity.model.Identity;
+
+import io.meeds.news.filter.NewsFilter;
+
+/**
+ * Search backend used to index and search news articles documents. The
+ * backend to use is selected using 'content.search.backend' property:
+ * 'elasticsearch' (default) or 'lucene' for an embedded index stored on local
+ * disk, suitable for small deployments and tests environments. The Lucene
+ * library isn't packaged with the add-on, the one of the platform is used.
+ */
+public interface NewsSearchBackend {
+
+  String SEARCH_BACKEND_PROPERTY = "content.search.backend";
+
+  String ELASTICSEARCH_BACKEND   = "elasticsearch";
+
+  String LUCENE_BACKEND          = "lucene";
+
+  /**
+   * Search news articles documents accessible to the viewer
+   *
+   * @param viewerIdentity viewer {@link Identity}
+   * @param filter {@link NewsFilter} holding the searched term, favorites and
+   *          tags filters and pagination
+   * @return {@link List} of {@link NewsESSearchResult}
+   */
+  List<NewsESSearchResult> search(Identity viewerIdentity, NewsFilter filter);
+
+  /**
+   * Index a news document
+   *
+   * @param id document identifier: article identifier or
+   *          '{articleId}-{lang}' for a translation
+   */
+  void index(String id);
+
+  /**
+   * Reindex a news document
+   *
+   * @param id document identifier: article identifier or
+   *          '{articleId}-{lang}' for a translation
+   */
+  void reindex(String id);
+
+  /**
+   * Remove a news document from index
+   *
+   * @param id document identifier: article identifier or
+   *          '{articleId}-{lang}' for a translation
+   */
+  void unindex(String id);
+
+  /**
+   * Remove a list of news documents from index using a single request when
+   * the backend allows it
+   *
+   * @param ids documents identifiers
+   */
+  void unindex(List<String> ids);
+
+  /**
+   * Updates a single denormalized field of indexed news documents, without
+   * building again the whole documents when the backend allows it
+   *
+   * @param ids documents identifiers
+   * @param field updated field name
+   * @param value new field value
+   */
+  void updateField(List<String> ids, String field, String value);
+
+  /**
+   * Retrieves the identifiers of indexed news documents having a keyword field
+   * value
+   *
+   * @param field keyword field name
+   * @param value searched field value
+   * @param offset offset of the first document to retrieve
+   * @param limit maximum count of documents to retrieve
+   * @return {@link List} of documents identifiers
+   */
+  List<String> findDocumentsIds(String field, String value, int offset, int limit);
+
+  /**
+   * Checks search arguments validity
+   *
+   * @param viewerIdentity viewer {@link Identity}
+   * @param filter {@link NewsFilter}
+   * @throws IllegalArgumentException when an argument is invalid
+   */
+  static void checkSearchArguments(Identity viewerIdentity, NewsFilter filter) {
+    if (viewerIdentity == null) {
+      throw new IllegalArgumentException("Viewer identity is mandatory");
+    }
+    if (filter.getOffset() < 0) {
+      throw new IllegalArgumentException("Offset must be positive");
+    }
+    if (filter.getLimit() < 0) {
+      throw new IllegalArgumentException("Limit must be positive");
+    }
+    if (StringUtils.isBlank(filter.getSearchText()) && !filter.isFavorites() && CollectionUtils.isEmpty(filter.getTagNames())) {
+      throw new IllegalArgumentException("Filter term is mandatory");
+    }
+  }
+}
@@ -39,7 +39,10 @@ import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import org.exoplatform.commons.search.es.ElasticSearchException;
+import org.exoplatform.commons.search.es.client.ElasticIndexingClient;
 import org.exoplatform.commons.search.es.client.ElasticSearchingClient;
+import org.exoplatform.commons.search.index.IndexingOperationProcessor;
+import org.exoplatform.commons.search.index.IndexingService;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.commons.utils.IOUtil;
 import org.exoplatform.commons.utils.PropertyManager;
@@ -57,28 +60,50 @@ import org.exoplatform.social.metadata.tag.TagService;
 import io.meeds.news.filter.NewsFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+/**
+ * Elasticsearch implementation of {@link NewsSearchBackend}, documents are
+ * built by {@link NewsIndexingServiceConnector}, registered in the platform
+ * indexing processor by this backend, and indexed through the platform
+ * {@link IndexingService} queue.
+ */
 @Component
-public class NewsSearchConnector {
+@ConditionalOnProperty(name = NewsSearchBackend.SEARCH_BACKEND_PROPERTY,
+                       havingValue = NewsSearchBackend.ELASTICSEARCH_BACKEND,
+                       matchIfMissing = true)
+public class NewsSearchConnector implements NewsSearchBackend {
+
+  @Autowired
+  private ConfigurationManager         configurationManager;
+
+  @Autowired
+  private IdentityManager              identityManager;
 
   @Autowired
-  private ConfigurationManager   configurationManager;
+  private ActivityStorage              activityStorage;
 
   @Autowired
-  private IdentityManager        identityManager;
+  private ElasticSearchingClient       client;
 
   @Autowired
-  private ActivityStorage        activityStorage;
+  private ElasticIndexingClient        indexingClient;
 
   @Autowired
-  private ElasticSearchingClient client;
+  private IndexingService              indexingService;
+
+  @Autowired
+  private IndexingOperationProcessor   indexingOperationProcessor;
+
+  @Autowired
+  private NewsIndexingServiceConnector newsIndexingServiceConnector;
 
   @Value("${content.es.index:news_alias}")
-  private String                 index;
+  private String                       index;
 
   @Value("${content.search.type:news}")
-  private String                 searchType;
+  private String                       searchType;
 
   @Value("${content.es.query.path:jar:/news-search-query.json}")
   private String                       searchQueryFilePath;
@@ -89,28 +114,106 @@ public class NewsSearchConnector {
 
   public static final String           SEARCH_QUERY_TERM            = """
                                                                       "must":{ "query_string" :{
-                                                                              "fields": ["body", "posterName", "summary","title"],
+                                                                              "fields": [@fields@],
                                                                               "default_operator": "AND",
                                                                               "query": "@term@"}
                                                                               },""";
 
+  /**
+   * Generic fields, always searched as fallback of viewer language fields.
+   * 'body_*' is used since translations bodies are indexed only in their
+   * language specific field.
+   */
+  private static final List<String>    SEARCH_GENERIC_FIELDS        = List.of("body", "body_*", "posterName", "summary", "title");
+
   @PostConstruct
   public void init() {
+    indexingOperationProcessor.addConnector(newsIndexingServiceConnector);
     retrieveSearchQuery();
   }
-  public List<NewsESSearchResult> search(Identity viewerIdentity, NewsFilter filter) {
-    if (viewerIdentity == null) {
-      throw new IllegalArgumentException("Viewer identity is mandatory");
+
+  @Override
+  public void index(String id) {
+    indexingService.index(NewsIndexingServiceConnector.TYPE, id);
+  }
+
+  @Override
+  public void reindex(String id) {
+    indexingService.reindex(NewsIndexingServiceConnector.TYPE, id);
+  }
+
+  @Override
+  public void unindex(String id) {
+    indexingService.unindex(NewsIndexingServiceConnector.TYPE, id);
+  }
+
+  /**
+   * Sends a single bulk of Elasticsearch delete operations
+   */
+  @Override
+  public void unindex(List<String> ids) {
+    if (CollectionUtils.isEmpty(ids)) {
+      return;
     }
-    if (filter.getOffset() < 0) {
-      throw new IllegalArgumentException("Offset must be positive");
+    StringBuilder bulkRequest = new StringBuilder();
+    for (String id : ids) {
+      JSONObject deleteOperation = new JSONObject(Map.of("delete", new JSONObject(Map.of("_index", index, "_id", id))));
+      bulkRequest.append(deleteOperation.toJSONString()).append("\n");
     }
-    if (filter.getLimit() < 0) {
-      throw new IllegalArgumentException("Limit must be positive");
+    indexingClient.sendCUDRequest(bulkRequest.toString());
+  }
+
+  /**
+   * Sends a bulk of Elasticsearch partial updates, the documents bodies are
+   * not built again
+   */
+  @Override
+  public void updateField(List<String> ids, String field, String value) {
+    if (CollectionUtils.isEmpty(ids)) {
+      return;
     }
-    if (StringUtils.isBlank(filter.getSearchText()) && !filter.isFavorites() && CollectionUtils.isEmpty(filter.getTagNames())) {
-      throw new IllegalArgumentException("Filter term is mandatory");
+    String partialDocument = new JSONObject(Map.of("doc", new JSONObject(Map.of(field, value)))).toJSONString();
+    StringBuilder bulkRequest = new StringBuilder();
+    for (String id : ids) {
+      JSONObject updateOperation = new JSONObject(Map.of("update", new JSONObject(Map.of("_index", index, "_id", id))));
+      bulkRequest.append(updateOperation.toJSONString()).append("\n").append(partialDocument).append("\n");
     }
+    indexingClient.sendCUDRequest(bulkRequest.toString());
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  public List<String> findDocumentsIds(String field, String value, int offset, int limit) {
+    Map<String, Object> query = Map.of("from",
+                                       offset,
+                                       "size",
+                                       limit,
+                                       "_source",
+                                       false,
+                                       "sort",
+                                       List.of("_doc"),
+                                       "query",
+                                       Map.of("term", Map.of(field, value)));
+    String jsonResponse = this.client.sendRequest(new JSONObject(query).toJSONString(), this.index);
+    Map json;
+    try {
+      json = (Map) new JSONParser().parse(jsonResponse);
+    } catch (ParseException e) {
+      throw new ElasticSearchException("Unable to parse JSON response", e);
+    }
+    List<String> documentsIds = new ArrayList<>();
+    JSONObject jsonResult = (JSONObject) json.get("hits");
+    if (jsonResult != null && jsonResult.get("hits") != null) {
+      for (Object jsonHit : (JSONArray) jsonResult.get("hits")) {
+        documentsIds.add((String) ((JSONObject) jsonHit).get("_id"));
+      }
+    }
+    return documentsIds;
+  }
+
+  @Override
+  public List<NewsESSearchResult> search(Identity viewerIdentity, NewsFilter filter) {
+    NewsSearchBackend.checkSearchArguments(viewerIdentity, filter);
     Set<Long> streamFeedOwnerIds = this.activityStorage.getStreamFeedOwnerIds(viewerIdentity);
     String esQuery = buildQueryStatement(viewerIdentity, streamFeedOwnerIds, filter);
     String jsonResponse = this.client.sendRequest(esQuery, this.index);
@@ -119,7 +222,7 @@ public class NewsSearchConnector {
 
   private String buildQueryStatement(Identity viewerIdentity, Set<Long> streamFeedOwnerIds, NewsFilter filter) {
     Map<String, List<String>> metadataFilters = buildMetadataFilter(filter, viewerIdentity);
-    String termQuery = buildTermQueryStatement(filter.getSearchText());
+    String termQuery = buildTermQueryStatement(filter.getSearchText(), filter.getLang());
     String favoriteQuery = buildFavoriteQueryStatement(metadataFilters.get(FavoriteService.METADATA_TYPE.getName()));
     String tagsQuery = buildTagsQueryStatement(metadataFilters.get(TagService.METADATA_TYPE.getName()));
     return retrieveSearchQuery().replace("@term_query@", termQuery)
@@ -166,13 +269,15 @@ public class NewsSearchConnector {
         Long lastUpdatedTime = parseLong(hitSource, "lastUpdatedTime");
 
         String title = (String) hitSource.get("title");
-        String body = (String) hitSource.get("body");
+        String body = getBody(hitSource);
         JSONObject highlightSource = (JSONObject) jsonHitObject.get("highlight");
         List<String> excerpts = new ArrayList<>();
         if (highlightSource != null) {
-          JSONArray bodyExcepts = (JSONArray) highlightSource.get("body");
-          if (bodyExcepts != null) {
-            excerpts = Arrays.asList((String[]) bodyExcepts.toArray(new String[0]));
+          for (Object highlightField : highlightSource.keySet()) {
+            if (StringUtils.startsWith((String) highlightField, "body")) {
+              JSONArray bodyExcepts = (JSONArray) highlightSource.get(highlightField);
+              excerpts.addAll(Arrays.asList((String[]) bodyExcepts.toArray(new String[0])));
+            }
           }
         }
         newsSearchResult.setId(id);
@@ -204,12 +309,38 @@ public class NewsSearchConnector {
     return results;
   }
 
-  private String buildTermQueryStatement(String term) {
+  private String buildTermQueryStatement(String term, String lang) {
     if (StringUtils.isBlank(term)) {
       return term;
     }
     term = removeSpecialCharacters(term);
-    return SEARCH_QUERY_TERM.replace("@term@", term);
+    return SEARCH_QUERY_TERM.replace("@fields@", buildSearchFields(lang)).replace("@term@", term);
+  }
+
+  private String buildSearchFields(String lang) {
+    List<String> fields = new ArrayList<>();
+    String analyzedLanguage = NewsIndexingServiceConnector.getAnalyzedLanguage(lang);
+    if (analyzedLanguage != null) {
+      // Boost matches in the viewer language fields
+      fields.add(NewsIndexingServiceConnector.getLocalizedFieldName("title", analyzedLanguage) + "^3");
+      fields.add(NewsIndexingServiceConnector.getLocalizedFieldName("summary", analyzedLanguage) + "^2");
+      fields.add(NewsIndexingServiceConnector.getLocalizedFieldName("body", analyzedLanguage) + "^2");
+    }
+    fields.addAll(SEARCH_GENERIC_FIELDS);
+    return fields.stream().map(field -> "\"" + field + "\"").collect(Collectors.joining(","));
+  }
+
+  private String getBody(JSONObject hitSource) {
+    String body = (String) hitSource.get("body");
+    if (body == null) {
+      // Translations bodies are indexed in their language specific field
+      for (Object field : hitSource.keySet()) {
+        if (StringUtils.startsWith((String) field, "body_")) {
+          return (String) hitSource.get(field);
+        }
+      }
+    }
+    return body;
   }
 
   private Long parseLong(JSONObject hitSource, String key) {
@@ -0,0 +1,81 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.service;
+
+import org.exoplatform.services.security.Identity;
+
+import io.meeds.news.model.News;
+import org.springframework.stereotype.Service;
+
+/**
+ * Delays the deletion of news and news targets, so that users can undo it
+ * during the given delay. Pending deletions are persisted, so that they're
+ * visible from all nodes of a cluster and survive a restart.
+ */
+@Service
+public interface DelayedDeletionService {
+
+  /**
+   * Deletes a {@link News} after the given delay, or immediately when the
+   * delay isn't positive
+   *
+   * @param newsId {@link News} identifier
+   * @param newsObjectType {@link News} object type to be deleted
+   * @param currentIdentity user attempting to delete the news
+   * @param delay delay in seconds before effectively deleting the news
+   * @throws Exception when an error occurs while deleting the news
+   *           immediately
+   */
+  void deleteNews(String newsId, String newsObjectType, Identity currentIdentity, long delay) throws Exception;
+
+  /**
+   * Cancels the pending deletion of a {@link News}
+   *
+   * @param newsId {@link News} identifier
+   * @param username user attempting to cancel the deletion
+   * @return true if the deletion was pending and has been canceled, else false
+   * @throws IllegalAccessException when the deletion was requested by another
+   *           user
+   */
+  boolean undoDeleteNews(String newsId, String username) throws IllegalAccessException;
+
+  /**
+   * Deletes a {@link News} target after the given delay, or immediately when
+   * the delay isn't positive
+   *
+   * @param targetName {@link News} target name
+   * @param currentIdentity user attempting to delete the target
+   * @param delay delay in seconds before effectively deleting the target
+   * @throws IllegalAccessException when the user isn't allowed to delete the
+   *           target immediately
+   */
+  void deleteTarget(String targetName, Identity currentIdentity, long delay) throws IllegalAccessException;
+
+  /**
+   * Cancels the pending deletion of a {@link News} target
+   *
+   * @param targetName {@link News} target name
+   * @param username user attempting to cancel the deletion
+   * @return true if the deletion was pending and has been canceled, else false
+   * @throws IllegalAccessException when the deletion was requested by another
+   *           user
+   */
+  boolean undoDeleteTarget(String targetName, String username) throws IllegalAccessException;
+}
@@ -0,0 +1,60 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.service;
+
+import java.util.List;
+
+import org.exoplatform.services.security.Identity;
+
+import io.meeds.news.model.News;
+import io.meeds.news.model.NewsBulkDeletion;
+import org.springframework.stereotype.Service;
+
+/**
+ * Deletes many news articles at once, the deletion of the articles and of
+ * their activities, metadata and indexed documents being run asynchronously.
+ */
+@Service
+public interface NewsBulkDeletionService {
+
+  /**
+   * Checks that the user can delete all the articles, then starts their
+   * asynchronous deletion. No article is deleted when the user isn't allowed
+   * to delete one of them.
+   *
+   * @param newsIds {@link News} articles identifiers
+   * @param currentIdentity user attempting to delete the articles
+   * @return {@link NewsBulkDeletion} holding the deletion progress
+   * @throws IllegalAccessException when the user isn't allowed to delete one
+   *           of the articles
+   */
+  NewsBulkDeletion deleteNews(List<String> newsIds, Identity currentIdentity) throws IllegalAccessException;
+
+  /**
+   * Retrieves the progress of a bulk deletion
+   *
+   * @param bulkDeletionId {@link NewsBulkDeletion} identifier
+   * @param username user attempting to retrieve the deletion progress
+   * @return {@link NewsBulkDeletion} if found else null
+   * @throws IllegalAccessException when the deletion was requested by another
+   *           user
+   */
+  NewsBulkDeletion getBulkDeletion(String bulkDeletionId, String username) throws IllegalAccessException;
+}
@@ -19,6 +19,7 @@
  */
 package io.meeds.news.service;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.exoplatform.commons.exception.ObjectNotFoundException;
@@ -29,6 +30,9 @@ import org.exoplatform.wiki.model.Page;
 
 import io.meeds.news.filter.NewsFilter;
 import io.meeds.news.model.News;
+import io.meeds.news.model.NewsActivity;
+import io.meeds.news.model.NewsArticleStatus;
+import io.meeds.news.model.NewsTranslation;
 import io.meeds.news.search.NewsESSearchResult;
 import org.springframework.stereotype.Service;
 
@@ -168,6 +172,15 @@ public interface NewsService {
    */
   News getNewsArticleByIdAndLang(String newsId, String lang);
 
+  /**
+   * Retrieves the status of a news article from its metadata only, without
+   * building the article content, author and versions
+   *
+   * @param newsId {@link News} identifier
+   * @return {@link NewsArticleStatus} if found else null
+   */
+  NewsArticleStatus getNewsArticleStatus(String newsId);
+
   /**
    * Get all news
    * 
@@ -250,6 +263,44 @@ public interface NewsService {
                                   org.exoplatform.services.security.Identity currentIdentity,
                                   String lang) throws IllegalAccessException, ObjectNotFoundException;
 
+  /**
+   * Retrieves the news article referenced by an activity, posted for the
+   * article or sharing it, without loading the activity
+   *
+   * @param activityId {@link ExoSocialActivity} identifier
+   * @return {@link NewsActivity} if the activity references a news article,
+   *         else null
+   */
+  NewsActivity getNewsActivity(String activityId);
+
+  /**
+   * Retrieves the activities of an article: the one posted with the article
+   * first, followed by its shares
+   *
+   * @param newsId {@link News} identifier
+   * @return {@link List} of {@link NewsActivity}
+   */
+  List<NewsActivity> getNewsActivities(String newsId);
+
+  /**
+   * Retrieves the activities of an article posted or shared in a set of
+   * spaces, the one posted with the article first. Used to read only the
+   * shares visible to a viewer, in the viewer spaces.
+   *
+   * @param newsId {@link News} identifier
+   * @param spaceIds {@link Collection} of {@link Space} identifiers
+   * @return {@link List} of {@link NewsActivity}
+   */
+  List<NewsActivity> getNewsActivities(String newsId, Collection<String> spaceIds);
+
+  /**
+   * Retrieves the activity posted with an article, excluding its shares
+   *
+   * @param newsId {@link News} identifier
+   * @return {@link NewsActivity} if the article activity was posted, else null
+   */
+  NewsActivity getNewsPostActivity(String newsId);
+
   /**
    * Schedule publishing a News
    * 
@@ -375,4 +426,14 @@ public interface NewsService {
    * @throws Exception when error occurs
    */
   List<String> getArticleLanguages(String articleId, boolean withDrafts) throws Exception;
+
+  /**
+   * Get the published translations of an article, described by their language
+   * and title only
+   *
+   * @param articleId article id
+   * @return {@link List} of {@link NewsTranslation}
+   * @throws Exception when error occurs
+   */
+  List<NewsTranslation> getArticleTranslations(String articleId) throws Exception;
 }
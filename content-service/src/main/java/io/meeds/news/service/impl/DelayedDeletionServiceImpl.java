@@ -0,0 +1,284 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.service.impl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.services.security.Identity;
+import org.exoplatform.social.common.ObjectAlreadyExistsException;
+import org.exoplatform.social.metadata.MetadataFilter;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
+import org.exoplatform.social.metadata.model.MetadataKey;
+import org.exoplatform.social.metadata.model.MetadataObject;
+import org.exoplatform.social.metadata.model.MetadataType;
+
+import io.meeds.news.service.DelayedDeletionService;
+import io.meeds.news.service.NewsService;
+import io.meeds.news.service.NewsTargetingService;
+import io.meeds.news.utils.NewsUtils;
+
+/**
+ * Service managing the delayed deletions of news and news targets. A pending
+ * deletion is stored as a metadata item, which makes it visible from all
+ * nodes, so that it can be undone from any of them, and keeps it across
+ * restarts. The node receiving the deletion request executes it at its due
+ * time, using the application task scheduler, and pending deletions which
+ * weren't executed, because their node was stopped, are executed by the
+ * periodic check of all nodes. A pending deletion
+ * is removed from storage before being executed, so that it's executed by a
+ * single node and no more once undone.
+ */
+@Primary
+@Service
+public class DelayedDeletionServiceImpl implements DelayedDeletionService {
+
+  public static final MetadataType  PENDING_DELETION_METADATA_TYPE = new MetadataType(1002, "contentPendingDeletion");
+
+  public static final MetadataKey   PENDING_DELETION_METADATA_KEY  = new MetadataKey(PENDING_DELETION_METADATA_TYPE.getName(),
+                                                                                     PENDING_DELETION_METADATA_TYPE.getName(),
+                                                                                     0);
+
+  public static final String        NEWS_OBJECT_TYPE               = NewsUtils.NEWS_METADATA_OBJECT_TYPE;
+
+  public static final String        TARGET_OBJECT_TYPE             = NewsTargetingService.METADATA_TYPE.getName();
+
+  public static final String        DELETION_USERNAME              = "username";
+
+  public static final String        DELETION_TIME                  = "deletionTime";
+
+  public static final String        DELETION_NEWS_OBJECT_TYPE      = "newsObjectType";
+
+  private static final Log          LOG                            = ExoLogger.getLogger(DelayedDeletionServiceImpl.class);
+
+  private static final long         OVERDUE_DELETION_DELAY         = 30000;
+
+  private static final int          PENDING_DELETIONS_PAGE_SIZE    = 100;
+
+  @Autowired
+  private MetadataService           metadataService;
+
+  @Autowired
+  private NewsService               newsService;
+
+  @Autowired
+  private NewsTargetingService      newsTargetingService;
+
+  @Autowired
+  private PortalContainer           container;
+
+  @Autowired
+  private TaskScheduler             taskScheduler;
+
+  @Override
+  public void deleteNews(String newsId, String newsObjectType, Identity currentIdentity, long delay) throws Exception {
+    if (delay > 0) {
+      Map<String, String> properties = new HashMap<>();
+      properties.put(DELETION_NEWS_OBJECT_TYPE, newsObjectType);
+      scheduleDeletion(NEWS_OBJECT_TYPE, newsId, currentIdentity.getUserId(), delay, properties);
+    } else {
+      removePendingDeletion(NEWS_OBJECT_TYPE, newsId);
+      newsService.deleteNews(newsId, currentIdentity, newsObjectType);
+    }
+  }
+
+  @Override
+  public boolean undoDeleteNews(String newsId, String username) throws IllegalAccessException {
+    return cancelDeletion(NEWS_OBJECT_TYPE, newsId, username);
+  }
+
+  @Override
+  public void deleteTarget(String targetName, Identity currentIdentity, long delay) throws IllegalAccessException {
+    if (delay > 0) {
+      scheduleDeletion(TARGET_OBJECT_TYPE, targetName, currentIdentity.getUserId(), delay, new HashMap<>());
+    } else {
+      removePendingDeletion(TARGET_OBJECT_TYPE, targetName);
+      newsTargetingService.deleteTargetByName(targetName, currentIdentity);
+    }
+  }
+
+  @Override
+  public boolean undoDeleteTarget(String targetName, String username) throws IllegalAccessException {
+    return cancelDeletion(TARGET_OBJECT_TYPE, targetName, username);
+  }
+
+  /**
+   * Executes the pending deletions which are overdue, because the node which
+   * received them was stopped before executing them. The metadata filter
+   * can't compare the deletion time property, so all pending deletions are
+   * paged through, and the overdue ones are executed once all pages are read,
+   * since executing a deletion removes it from the paged results.
+   */
+  @Scheduled(fixedDelayString = "${content.delayedDeletion.check.delay:60000}")
+  public void executeOverdueDeletions() {
+    ExoContainerContext.setCurrentContainer(container);
+    RequestLifeCycle.begin(container);
+    try {
+      MetadataFilter metadataFilter = new MetadataFilter();
+      metadataFilter.setMetadataName(PENDING_DELETION_METADATA_KEY.getName());
+      metadataFilter.setMetadataTypeName(PENDING_DELETION_METADATA_TYPE.getName());
+      metadataFilter.setMetadataObjectTypes(List.of(NEWS_OBJECT_TYPE, TARGET_OBJECT_TYPE));
+      long overdueTime = System.currentTimeMillis() - OVERDUE_DELETION_DELAY;
+      List<MetadataItem> overdueDeletions = new ArrayList<>();
+      long offset = 0;
+      List<MetadataItem> pendingDeletions;
+      do {
+        pendingDeletions = metadataService.getMetadataItemsByFilter(metadataFilter, offset, PENDING_DELETIONS_PAGE_SIZE);
+        pendingDeletions.stream()
+                        .filter(pendingDeletion -> getDeletionTime(pendingDeletion) < overdueTime)
+                        .forEach(overdueDeletions::add);
+        offset += PENDING_DELETIONS_PAGE_SIZE;
+      } while (pendingDeletions.size() == PENDING_DELETIONS_PAGE_SIZE);
+      // Avoid that nodes handle overdue deletions in the same order
+      Collections.shuffle(overdueDeletions);
+      overdueDeletions.forEach(this::executeDeletion);
+    } catch (Exception e) {
+      LOG.warn("Error while executing overdue news deletions", e);
+    } finally {
+      RequestLifeCycle.end();
+    }
+  }
+
+  private void scheduleDeletion(String objectType,
+                                String objectId,
+                                String username,
+                                long delay,
+                                Map<String, String> properties) {
+    properties.put(DELETION_USERNAME, username);
+    properties.put(DELETION_TIME, String.valueOf(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(delay)));
+    MetadataObject deletionObject = getDeletionObject(objectType, objectId);
+    try {
+      metadataService.createMetadataItem(deletionObject, PENDING_DELETION_METADATA_KEY, properties, false);
+    } catch (ObjectAlreadyExistsException e) {
+      // Deleted again before the effective deletion, postpone it
+      MetadataItem pendingDeletion = getPendingDeletion(objectType, objectId);
+      if (pendingDeletion != null) {
+        pendingDeletion.setProperties(properties);
+        metadataService.updateMetadataItem(pendingDeletion, pendingDeletion.getCreatorId(), false);
+      }
+    }
+    taskScheduler.schedule(() -> {
+      ExoContainerContext.setCurrentContainer(container);
+      RequestLifeCycle.begin(container);
+      try {
+        MetadataItem pendingDeletion = getPendingDeletion(objectType, objectId);
+        if (pendingDeletion != null && getDeletionTime(pendingDeletion) <= System.currentTimeMillis()) {
+          executeDeletion(pendingDeletion);
+        }
+      } catch (Exception e) {
+        LOG.warn("Error when deleting {} with id {}", objectType, objectId, e);
+      } finally {
+        RequestLifeCycle.end();
+      }
+    }, Instant.now().plusSeconds(delay));
+  }
+
+  private boolean cancelDeletion(String objectType, String objectId, String username) throws IllegalAccessException {
+    MetadataItem pendingDeletion = getPendingDeletion(objectType, objectId);
+    if (pendingDeletion == null) {
+      return false;
+    }
+    String originalModifierUser = pendingDeletion.getProperties() == null ? null
+                                                                          : pendingDeletion.getProperties().get(DELETION_USERNAME);
+    if (!StringUtils.equals(originalModifierUser, username)) {
+      throw new IllegalAccessException("User " + username + " attempts to cancel deletion of " + objectType + " " + objectId
+          + " deleted by user " + originalModifierUser);
+    }
+    return dequeue(pendingDeletion);
+  }
+
+  private void executeDeletion(MetadataItem pendingDeletion) {
+    if (!dequeue(pendingDeletion)) {
+      // Undone or executed by another node meanwhile
+      return;
+    }
+    Map<String, String> properties = pendingDeletion.getProperties();
+    String username = properties.get(DELETION_USERNAME);
+    String objectId = pendingDeletion.getObjectId();
+    try {
+      Identity identity = NewsUtils.getUserIdentity(username);
+      if (TARGET_OBJECT_TYPE.equals(pendingDeletion.getObjectType())) {
+        newsTargetingService.deleteTargetByName(objectId, identity);
+      } else {
+        newsService.deleteNews(objectId, identity, properties.get(DELETION_NEWS_OBJECT_TYPE));
+      }
+    } catch (IllegalAccessException e) {
+      LOG.warn("User '{}' is not authorized to delete the {} with id {}", username, pendingDeletion.getObjectType(), objectId, e);
+    } catch (Exception e) {
+      LOG.warn("Error when deleting the {} with id {}", pendingDeletion.getObjectType(), objectId, e);
+    }
+  }
+
+  private void removePendingDeletion(String objectType, String objectId) {
+    MetadataItem pendingDeletion = getPendingDeletion(objectType, objectId);
+    if (pendingDeletion != null) {
+      dequeue(pendingDeletion);
+    }
+  }
+
+  private boolean dequeue(MetadataItem pendingDeletion) {
+    try {
+      metadataService.deleteMetadataItem(pendingDeletion.getId(), false);
+      return true;
+    } catch (Exception e) {
+      LOG.debug("Pending deletion of {} with id {} already removed",
+                pendingDeletion.getObjectType(),
+                pendingDeletion.getObjectId(),
+                e);
+      return false;
+    }
+  }
+
+  private MetadataItem getPendingDeletion(String objectType, String objectId) {
+    return metadataService.getMetadataItemsByMetadataAndObject(PENDING_DELETION_METADATA_KEY,
+                                                               getDeletionObject(objectType, objectId))
+                          .stream()
+                          .findFirst()
+                          .orElse(null);
+  }
+
+  private long getDeletionTime(MetadataItem pendingDeletion) {
+    return pendingDeletion.getProperties() == null ? 0
+                                                   : NumberUtils.toLong(pendingDeletion.getProperties().get(DELETION_TIME));
+  }
+
+  private MetadataObject getDeletionObject(String objectType, String objectId) {
+    return new MetadataObject(objectType, objectId, null, 0);
+  }
+}
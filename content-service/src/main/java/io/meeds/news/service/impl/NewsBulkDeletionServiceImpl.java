@@ -0,0 +1,333 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.service.impl;
+
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_ACTIVITY_OBJECT_TYPE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import org.exoplatform.container.ExoContainerContext;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.services.security.Identity;
+import org.exoplatform.social.core.manager.ActivityManager;
+import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.space.spi.SpaceService;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.Metadata;
+import org.exoplatform.social.metadata.model.MetadataKey;
+import org.exoplatform.social.metadata.model.MetadataObject;
+import org.exoplatform.social.metadata.model.MetadataType;
+
+import io.meeds.news.model.News;
+import io.meeds.news.model.NewsActivity;
+import io.meeds.news.model.NewsActivityObject;
+import io.meeds.news.model.NewsBulkDeletion;
+import io.meeds.news.search.NewsSearchBackend;
+import io.meeds.news.service.NewsBulkDeletionService;
+import io.meeds.news.service.NewsService;
+import io.meeds.news.utils.NewsUtils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Deletes news articles by batches in a background thread. The articles of a
+ * batch are deleted first, then their activities and their metadata items,
+ * and all the indexed documents of the deleted articles are removed from index
+ * with a single request once all batches are processed. The progress of a bulk
+ * deletion is stored as a metadata named by the bulk deletion identifier and
+ * updated after each batch, so that it can be retrieved from any node.
+ */
+@Primary
+@Service
+public class NewsBulkDeletionServiceImpl implements NewsBulkDeletionService {
+
+  public static final MetadataType            BULK_DELETION_METADATA_TYPE = new MetadataType(1004, "contentBulkDeletion");
+
+  public static final String                  BULK_DELETION_USERNAME      = "username";
+
+  public static final String                  BULK_DELETION_TOTAL         = "total";
+
+  public static final String                  BULK_DELETION_DELETED_COUNT = "deletedCount";
+
+  public static final String                  BULK_DELETION_FAILED_IDS    = "failedIds";
+
+  public static final String                  BULK_DELETION_COMPLETED     = "completed";
+
+  public static final String                  BULK_DELETION_START_TIME    = "startTime";
+
+  public static final String                  BULK_DELETION_END_TIME      = "endTime";
+
+  public static final String                  BULK_DELETION_UPDATE_TIME   = "updateTime";
+
+  private static final Log                    LOG                         = ExoLogger.getLogger(NewsBulkDeletionServiceImpl.class);
+
+  @Autowired
+  private NewsService                         newsService;
+
+  @Autowired
+  private SpaceService                        spaceService;
+
+  @Autowired
+  private ActivityManager                     activityManager;
+
+  @Autowired
+  private MetadataService                     metadataService;
+
+  @Autowired
+  private NewsSearchBackend                   newsSearchBackend;
+
+  @Autowired
+  private PortalContainer                     container;
+
+  @Value("${content.bulkDeletion.batchSize:20}")
+  private int                                 batchSize;
+
+  /**
+   * Duration during which the progress of a bulk deletion remains available
+   * after its last update
+   */
+  @Value("${content.bulkDeletion.retention:3600000}")
+  private long                                retention;
+
+  private ExecutorService                     executor;
+
+  @PostConstruct
+  public void init() {
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  @Override
+  public NewsBulkDeletion deleteNews(List<String> newsIds, Identity currentIdentity) throws IllegalAccessException {
+    if (CollectionUtils.isEmpty(newsIds)) {
+      throw new IllegalArgumentException("News identifiers are mandatory");
+    }
+    List<News> articles = new ArrayList<>();
+    List<String> notFoundIds = new ArrayList<>();
+    Map<String, Boolean> spacesPermissions = new HashMap<>();
+    for (String newsId : new LinkedHashSet<>(newsIds)) {
+      News news = newsService.getNewsArticleById(newsId);
+      if (news == null || news.isDeleted()) {
+        notFoundIds.add(newsId);
+        continue;
+      }
+      boolean canDelete = spacesPermissions.computeIfAbsent(news.getSpaceId(),
+                                                            spaceId -> canDeleteInSpace(spaceId, currentIdentity));
+      if (!canDelete) {
+        throw new IllegalAccessException("User " + currentIdentity.getUserId() + " is not authorized to delete news " + newsId);
+      }
+      articles.add(news);
+    }
+    removeExpiredBulkDeletions();
+    NewsBulkDeletion bulkDeletion = new NewsBulkDeletion(UUID.randomUUID().toString(),
+                                                         currentIdentity.getUserId(),
+                                                         articles.size() + notFoundIds.size(),
+                                                         0,
+                                                         notFoundIds,
+                                                         articles.isEmpty(),
+                                                         System.currentTimeMillis(),
+                                                         articles.isEmpty() ? System.currentTimeMillis() : 0);
+    Metadata progress = new Metadata();
+    progress.setType(BULK_DELETION_METADATA_TYPE);
+    progress.setName(bulkDeletion.getId());
+    progress.setAudienceId(0);
+    progress.setProperties(toProperties(bulkDeletion));
+    Metadata storedProgress = metadataService.createMetadata(progress, 0);
+    NewsBulkDeletion bulkDeletionProgress = fromMetadata(storedProgress);
+    if (!articles.isEmpty()) {
+      executor.execute(() -> deleteArticles(bulkDeletion, storedProgress, articles));
+    }
+    return bulkDeletionProgress;
+  }
+
+  @Override
+  public NewsBulkDeletion getBulkDeletion(String bulkDeletionId, String username) throws IllegalAccessException {
+    Metadata progress = metadataService.getMetadataByKey(new MetadataKey(BULK_DELETION_METADATA_TYPE.getName(),
+                                                                         bulkDeletionId,
+                                                                         0));
+    if (progress == null) {
+      return null;
+    }
+    NewsBulkDeletion bulkDeletion = fromMetadata(progress);
+    if (!StringUtils.equals(bulkDeletion.getUsername(), username)) {
+      throw new IllegalAccessException("User " + username + " attempts to access bulk deletion " + bulkDeletionId
+          + " requested by user " + bulkDeletion.getUsername());
+    }
+    return bulkDeletion;
+  }
+
+  private void deleteArticles(NewsBulkDeletion bulkDeletion, Metadata progress, List<News> articles) {
+    List<String> documentsIds = new ArrayList<>();
+    try {
+      for (int offset = 0; offset < articles.size(); offset += batchSize) {
+        List<News> batch = articles.subList(offset, Math.min(offset + batchSize, articles.size()));
+        ExoContainerContext.setCurrentContainer(container);
+        RequestLifeCycle.begin(container);
+        try {
+          deleteBatch(bulkDeletion, batch, documentsIds);
+          saveProgress(bulkDeletion, progress);
+        } finally {
+          RequestLifeCycle.end();
+        }
+      }
+    } catch (Exception e) {
+      LOG.error("Error while deleting news articles of bulk deletion {}", bulkDeletion.getId(), e);
+    } finally {
+      try {
+        newsSearchBackend.unindex(documentsIds);
+      } catch (Exception e) {
+        LOG.warn("Error while removing news documents {} from index", documentsIds, e);
+      }
+      bulkDeletion.setCompleted(true);
+      bulkDeletion.setEndTime(System.currentTimeMillis());
+      ExoContainerContext.setCurrentContainer(container);
+      RequestLifeCycle.begin(container);
+      try {
+        saveProgress(bulkDeletion, progress);
+      } catch (Exception e) {
+        LOG.warn("Error while saving the progress of bulk deletion {}", bulkDeletion.getId(), e);
+      } finally {
+        RequestLifeCycle.end();
+      }
+    }
+  }
+
+  private void deleteBatch(NewsBulkDeletion bulkDeletion, List<News> batch, List<String> documentsIds) {
+    String username = bulkDeletion.getUsername();
+    List<News> deletedArticles = new ArrayList<>();
+    List<String> deletedActivitiesIds = new ArrayList<>();
+    List<String> failedIds = new ArrayList<>();
+    for (News news : batch) {
+      try {
+        List<String> articleLanguages = newsService.getArticleLanguages(news.getId(), false);
+        List<NewsActivity> newsActivities = newsService.getNewsActivities(news.getId());
+        newsService.deleteArticle(news, username);
+        deletedArticles.add(news);
+        newsActivities.forEach(newsActivity -> deletedActivitiesIds.add(newsActivity.getActivityId()));
+        documentsIds.add(news.getId());
+        if (CollectionUtils.isNotEmpty(articleLanguages)) {
+          articleLanguages.forEach(lang -> documentsIds.add(news.getId().concat("-").concat(lang)));
+        }
+      } catch (Exception e) {
+        LOG.warn("Error while deleting news article {}", news.getId(), e);
+        failedIds.add(news.getId());
+      }
+    }
+    deletedActivitiesIds.forEach(this::deleteActivity);
+    deletedArticles.forEach(news -> metadataService.deleteMetadataItemsByObject(new MetadataObject(NewsUtils.NEWS_METADATA_OBJECT_TYPE,
+                                                                                                  news.getId())));
+    deletedArticles.forEach(news -> NewsUtils.broadcastEvent(NewsUtils.DELETE_NEWS, username, news));
+    bulkDeletion.setDeletedCount(bulkDeletion.getDeletedCount() + deletedArticles.size());
+    bulkDeletion.getFailedIds().addAll(failedIds);
+  }
+
+  private void deleteActivity(String activityId) {
+    try {
+      activityManager.deleteActivity(activityId);
+      metadataService.deleteMetadataItemsByObject(new NewsActivityObject(NEWS_METADATA_ACTIVITY_OBJECT_TYPE, activityId, null, 0));
+    } catch (Exception e) {
+      LOG.warn("Error while deleting news activity {}", activityId, e);
+    }
+  }
+
+  private boolean canDeleteInSpace(String spaceId, Identity currentIdentity) {
+    Space space = spaceId == null ? null : spaceService.getSpaceById(spaceId);
+    return space != null && spaceService.canRedactOnSpace(space, currentIdentity);
+  }
+
+  private void saveProgress(NewsBulkDeletion bulkDeletion, Metadata progress) {
+    progress.setProperties(toProperties(bulkDeletion));
+    metadataService.updateMetadata(progress, 0);
+  }
+
+  private Map<String, String> toProperties(NewsBulkDeletion bulkDeletion) {
+    Map<String, String> properties = new HashMap<>();
+    properties.put(BULK_DELETION_USERNAME, bulkDeletion.getUsername());
+    properties.put(BULK_DELETION_TOTAL, String.valueOf(bulkDeletion.getTotal()));
+    properties.put(BULK_DELETION_DELETED_COUNT, String.valueOf(bulkDeletion.getDeletedCount()));
+    properties.put(BULK_DELETION_FAILED_IDS, StringUtils.join(bulkDeletion.getFailedIds(), ","));
+    properties.put(BULK_DELETION_COMPLETED, String.valueOf(bulkDeletion.isCompleted()));
+    properties.put(BULK_DELETION_START_TIME, String.valueOf(bulkDeletion.getStartTime()));
+    properties.put(BULK_DELETION_END_TIME, String.valueOf(bulkDeletion.getEndTime()));
+    properties.put(BULK_DELETION_UPDATE_TIME, String.valueOf(System.currentTimeMillis()));
+    return properties;
+  }
+
+  private NewsBulkDeletion fromMetadata(Metadata progress) {
+    Map<String, String> properties = progress.getProperties() == null ? new HashMap<>() : progress.getProperties();
+    String failedIds = properties.get(BULK_DELETION_FAILED_IDS);
+    return new NewsBulkDeletion(progress.getName(),
+                                properties.get(BULK_DELETION_USERNAME),
+                                NumberUtils.toInt(properties.get(BULK_DELETION_TOTAL)),
+                                NumberUtils.toInt(properties.get(BULK_DELETION_DELETED_COUNT)),
+                                StringUtils.isBlank(failedIds) ? new ArrayList<>()
+                                                               : new ArrayList<>(Arrays.asList(StringUtils.split(failedIds,
+                                                                                                                 ","))),
+                                Boolean.parseBoolean(properties.get(BULK_DELETION_COMPLETED)),
+                                NumberUtils.toLong(properties.get(BULK_DELETION_START_TIME)),
+                                NumberUtils.toLong(properties.get(BULK_DELETION_END_TIME)));
+  }
+
+  /**
+   * Removes the progress of bulk deletions which weren't updated during the
+   * retention duration, either completed or abandoned by a stopped node
+   */
+  private void removeExpiredBulkDeletions() {
+    long expirationTime = System.currentTimeMillis() - retention;
+    metadataService.getMetadatas(BULK_DELETION_METADATA_TYPE.getName(), 0)
+                   .stream()
+                   .filter(progress -> progress.getProperties() == null
+                       || NumberUtils.toLong(progress.getProperties().get(BULK_DELETION_UPDATE_TIME)) < expirationTime)
+                   .forEach(progress -> {
+                     try {
+                       metadataService.deleteMetadataById(progress.getId());
+                     } catch (Exception e) {
+                       // Already removed by another node
+                       LOG.debug("Bulk deletion {} already removed", progress.getName(), e);
+                     }
+                   });
+  }
+}
@@ -31,15 +31,15 @@ import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.stream.Stream;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
@@ -49,17 +49,15 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
 import org.exoplatform.commons.api.notification.NotificationContext;
-import org.exoplatform.commons.api.notification.model.PluginKey;
 import org.exoplatform.commons.exception.ObjectNotFoundException;
 import org.exoplatform.commons.notification.impl.NotificationContextImpl;
-import org.exoplatform.commons.search.index.IndexingService;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.commons.utils.HTMLSanitizer;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.services.security.ConversationState;
 import org.exoplatform.services.security.Identity;
-import org.exoplatform.social.common.RealtimeListAccess;
+import org.exoplatform.social.common.ObjectAlreadyExistsException;
 import org.exoplatform.social.core.activity.model.ExoSocialActivity;
 import org.exoplatform.social.core.activity.model.ExoSocialActivityImpl;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
@@ -74,7 +72,6 @@ import org.exoplatform.social.metadata.model.MetadataItem;
 import org.exoplatform.social.metadata.model.MetadataKey;
 import org.exoplatform.social.metadata.model.MetadataObject;
 import org.exoplatform.social.metadata.model.MetadataType;
-import org.exoplatform.social.notification.LinkProviderUtils;
 import org.exoplatform.wiki.WikiException;
 import org.exoplatform.wiki.model.DraftPage;
 import org.exoplatform.wiki.model.Page;
@@ -85,24 +82,32 @@ import org.exoplatform.wiki.service.NoteService;
 import org.exoplatform.wiki.service.PageUpdateType;
 import org.exoplatform.wiki.service.WikiService;
 
+import io.meeds.news.activity.NewsActivityCounterCache;
+import io.meeds.news.activity.NewsViewerSpacesCache;
 import io.meeds.news.filter.NewsFilter;
 import io.meeds.news.model.News;
+import io.meeds.news.model.NewsActivity;
+import io.meeds.news.model.NewsActivityObject;
+import io.meeds.news.model.NewsArticleStatus;
 import io.meeds.news.model.NewsDraftObject;
 import io.meeds.news.model.NewsLatestDraftObject;
 import io.meeds.news.model.NewsPageObject;
 import io.meeds.news.model.NewsPageVersionObject;
+import io.meeds.news.model.NewsTranslation;
+import io.meeds.news.model.NotificationUser;
+import io.meeds.news.notification.NewsNotificationQueue;
 import io.meeds.news.notification.plugin.MentionInNewsNotificationPlugin;
 import io.meeds.news.notification.plugin.PostNewsNotificationPlugin;
 import io.meeds.news.notification.plugin.PublishNewsNotificationPlugin;
 import io.meeds.news.notification.utils.NotificationConstants;
 import io.meeds.news.notification.utils.NotificationUtils;
 import io.meeds.news.search.NewsESSearchResult;
-import io.meeds.news.search.NewsIndexingServiceConnector;
-import io.meeds.news.search.NewsSearchConnector;
+import io.meeds.news.search.NewsSearchBackend;
 import io.meeds.news.service.NewsService;
 import io.meeds.news.service.NewsTargetingService;
 import io.meeds.news.utils.NewsUtils;
 import io.meeds.news.utils.NewsUtils.NewsObjectType;
+import io.meeds.news.utils.ScheduleDateUtils;
 import io.meeds.notes.model.NotePageProperties;
 
 @Primary
@@ -145,7 +150,7 @@ public class NewsServiceImpl implements NewsService {
   /** The Constant SCHEDULE_POST_DATE. */
   public static final String       SCHEDULE_POST_DATE                     = "schedulePostDate";
 
-  /** The Constant NEWS_ACTIVITIES. */
+  /** Legacy delimited list of the article activities, see NewsActivitiesUpgradePlugin. */
   public static final String       NEWS_ACTIVITIES                        = "activities";
 
   /** The Constant NEWS_PUBLICATION_STATE. */
@@ -160,6 +165,14 @@ public class NewsServiceImpl implements NewsService {
   /** The Constant NEWS_METADATA_PAGE_VERSION_OBJECT_TYPE. */
   public static final String       NEWS_METADATA_PAGE_VERSION_OBJECT_TYPE = "newsPageVersion";
 
+  /** The Constant NEWS_METADATA_ACTIVITY_OBJECT_TYPE. */
+  public static final String       NEWS_METADATA_ACTIVITY_OBJECT_TYPE     = "newsActivity";
+
+  /** The Constant NEWS_ACTIVITY_SHARE. */
+  public static final String       NEWS_ACTIVITY_SHARE                    = "share";
+
+  private static final int         NEWS_ACTIVITIES_PAGE_SIZE              = 100;
+
   /** The Constant NEWS_VIEWERS. */
   public static final String       NEWS_VIEWERS                           = "viewers";
 
@@ -171,6 +184,9 @@ public class NewsServiceImpl implements NewsService {
 
   public static final String       NEWS_ATTACHMENTS_IDS                   = "attachmentsIds";
 
+  /** Page version mentions, extracted once when the version is saved. */
+  public static final String       NEWS_MENTIONS                          = "mentions";
+
   public static final String       ARTICLE_CONTENT                        = "content";
 
   public static final String       SPACES                                 = "spaces";
@@ -192,9 +208,6 @@ public class NewsServiceImpl implements NewsService {
   @Autowired
   private NewsTargetingService     newsTargetingService;
 
-  @Autowired
-  private IndexingService          indexingService;
-
   @Autowired
   private IdentityManager          identityManager;
 
@@ -205,7 +218,16 @@ public class NewsServiceImpl implements NewsService {
   private WikiService              wikiService;
 
   @Autowired
-  private NewsSearchConnector      newsSearchConnector;
+  private NewsSearchBackend        newsSearchBackend;
+
+  @Autowired
+  private NewsNotificationQueue    newsNotificationQueue;
+
+  @Autowired
+  private NewsActivityCounterCache newsActivityCounterCache;
+
+  @Autowired
+  private NewsViewerSpacesCache    newsViewerSpacesCache;
 
   /**
    * {@inheritDoc}
@@ -237,6 +259,8 @@ public class NewsServiceImpl implements NewsService {
 
   @Override
   public News postNews(News news, String poster) throws Exception {
+    // mentions are only computed from the saved page version
+    news.setMentions(null);
     if (news.getPublicationState().equals(STAGED) || news.getSchedulePostDate() != null) {
       news = postScheduledArticle(news);
     } else {
@@ -275,13 +299,17 @@ public class NewsServiceImpl implements NewsService {
     if (!canEditNews(news, updater)) {
       throw new IllegalAccessException("User " + updater + " is not authorized to update news");
     }
+    // mentions are only computed from the saved page versions
+    news.setMentions(null);
     Identity updaterIdentity = NewsUtils.getUserIdentity(updater);
     String newsId = news.getTargetPageId() != null ? news.getTargetPageId() : news.getId();
     News originalNews = getNewsById(newsId, updaterIdentity, false, newsObjectType);
     List<String> oldTargets = newsTargetingService.getTargetsByNews(news);
     boolean canPublish = NewsUtils.canPublishNews(news.getSpaceId(), updaterIdentity);
     Space space = spaceService.getSpaceById(news.getSpaceId());
-    Set<String> previousMentions = NewsUtils.processMentions(originalNews.getOriginalBody(), space);
+    List<String> previousMentions = originalNews.getMentions() != null ? originalNews.getMentions()
+                                                                       : NewsUtils.extractMentions(originalNews.getOriginalBody(),
+                                                                                                   space);
     if (NewsObjectType.DRAFT.name().toLowerCase().equals(newsObjectType)) {
       return updateDraftArticleForNewPage(news, updater, space);
     } else if (LATEST_DRAFT.name().toLowerCase().equals(newsObjectType)) {
@@ -320,16 +348,17 @@ public class NewsServiceImpl implements NewsService {
     if (POSTED.equals(news.getPublicationState())) {
       // Send mention notifs
       if (StringUtils.isNotEmpty(newsId) && news.getCreationDate() != null) {
-        News newMentionedNews = news;
-        if (!previousMentions.isEmpty()) {
-          // clear old mentions from news body before sending a custom object to
-          // notification context.
-          previousMentions.forEach(username -> newMentionedNews.setBody(newMentionedNews.getBody()
-                                                                                        .replaceAll("@" + username, "")));
+        List<String> mentions = news.getMentions() != null ? news.getMentions()
+                                                           : NewsUtils.extractMentions(news.getBody(), space);
+        // only notify the users mentioned by the new version
+        List<String> newMentions = mentions.stream().filter(mention -> !previousMentions.contains(mention)).toList();
+        if (!newMentions.isEmpty()) {
+          news.setMentions(newMentions);
+          sendNotification(updater, news, NotificationConstants.NOTIFICATION_CONTEXT.MENTION_IN_NEWS);
         }
-        sendNotification(updater, newMentionedNews, NotificationConstants.NOTIFICATION_CONTEXT.MENTION_IN_NEWS);
+        news.setMentions(mentions);
       }
-      indexingService.reindex(NewsIndexingServiceConnector.TYPE, String.valueOf(newsId));
+      newsSearchBackend.reindex(String.valueOf(newsId));
     }
     if (!news.getPublicationState().isEmpty() && !DRAFT.equals(news.getPublicationState())) {
       if (post != null) {
@@ -364,18 +393,15 @@ public class NewsServiceImpl implements NewsService {
         }
       }
     } else {
+      List<NewsActivity> newsActivities = getNewsActivities(newsId);
       deleteArticle(news, currentIdentity.getUserId());
-      if (news.getActivities() != null) {
-        String newsActivities = news.getActivities();
-        Stream.of(newsActivities.split(";")).map(activity -> activity.split(":")[1]).forEach(activityManager::deleteActivity);
-      }
+      newsActivities.forEach(newsActivity -> deleteNewsActivity(newsActivity.getActivityId()));
       MetadataObject newsMetadataObject = new MetadataObject(NewsUtils.NEWS_METADATA_OBJECT_TYPE, newsId);
       metadataService.deleteMetadataItemsByObject(newsMetadataObject);
-      indexingService.unindex(NewsIndexingServiceConnector.TYPE, String.valueOf(news.getId()));
+      newsSearchBackend.unindex(String.valueOf(news.getId()));
       List<String> articleLanguages = getArticleLanguages(newsId, false);
       if (CollectionUtils.isNotEmpty(articleLanguages)) {
-        articleLanguages.forEach(lang -> indexingService.unindex(NewsIndexingServiceConnector.TYPE,
-                                                                 news.getId().concat("-").concat(lang)));
+        articleLanguages.forEach(lang -> newsSearchBackend.unindex(news.getId().concat("-").concat(lang)));
       }
       NewsUtils.broadcastEvent(NewsUtils.DELETE_NEWS, currentIdentity.getUserId(), news);
     }
@@ -521,9 +547,8 @@ public class NewsServiceImpl implements NewsService {
         LOG.debug("Error getting activity of News with id {}", news.getActivityId(), e);
       }
       if (activity != null) {
-        RealtimeListAccess<ExoSocialActivity> listAccess = activityManager.getCommentsWithListAccess(activity, true);
-        news.setCommentsCount(listAccess.getSize());
-        news.setLikesCount(activity.getLikeIdentityIds() == null ? 0 : activity.getLikeIdentityIds().length);
+        news.setCommentsCount(newsActivityCounterCache.getCommentsCount(activity));
+        news.setLikesCount(newsActivityCounterCache.getLikesCount(activity));
       }
     }
     return news;
@@ -546,6 +571,30 @@ public class NewsServiceImpl implements NewsService {
     return news;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public NewsArticleStatus getNewsArticleStatus(String newsId) {
+    if (!StringUtils.isNumeric(newsId)) {
+      return null;
+    }
+    NewsPageObject newsPageObject = new NewsPageObject(NEWS_METADATA_PAGE_OBJECT_TYPE, newsId, null, 0);
+    List<MetadataItem> metadataItems = metadataService.getMetadataItemsByMetadataAndObject(NEWS_METADATA_KEY, newsPageObject);
+    if (CollectionUtils.isEmpty(metadataItems)) {
+      return null;
+    }
+    MetadataItem metadataItem = metadataItems.get(0);
+    Map<String, String> properties = metadataItem.getProperties() == null ? Collections.emptyMap()
+                                                                          : metadataItem.getProperties();
+    NewsActivity newsActivity = getNewsPostActivity(newsId);
+    return new NewsArticleStatus(newsId,
+                                 String.valueOf(metadataItem.getSpaceId()),
+                                 newsActivity == null ? null : newsActivity.getActivityId(),
+                                 properties.get(NEWS_PUBLICATION_STATE),
+                                 Boolean.parseBoolean(properties.get(NEWS_DELETED)));
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -675,7 +724,7 @@ public class NewsServiceImpl implements NewsService {
   @Override
   public List<News> searchNews(NewsFilter filter,
                                org.exoplatform.social.core.identity.model.Identity currentIdentity) throws Exception {
-    return newsSearchConnector.search(currentIdentity, filter).stream().map(articleSearchResult -> {
+    return newsSearchBackend.search(currentIdentity, filter).stream().map(articleSearchResult -> {
       try {
         return buildArticle(articleSearchResult.getId());
       } catch (Exception e) {
@@ -706,6 +755,14 @@ public class NewsServiceImpl implements NewsService {
       throw new IllegalAccessException("User " + currentIdentity.getUserId() + " isn't allowed to access activity with id "
           + activityId);
     }
+    NewsActivity newsActivity = getNewsActivity(activityId);
+    if (newsActivity != null) {
+      // A shared article is retrieved with the permissions of the user who
+      // shared it
+      Identity newsViewerIdentity = newsActivity.isShare() ? getSharedActivityPosterIdentity(activity) : currentIdentity;
+      return getNewsByIdAndLang(newsActivity.getNewsId(), newsViewerIdentity, false, ARTICLE.name().toLowerCase(), lang);
+    }
+    // Activities posted before the activities references were stored
     Map<String, String> templateParams = activity.getTemplateParams();
     if (templateParams == null) {
       throw new ObjectNotFoundException("Activity with id " + activityId + " isn't of type news nor a shared news");
@@ -714,21 +771,77 @@ public class NewsServiceImpl implements NewsService {
     if (StringUtils.isBlank(newsId)) {
       String originalActivityId = templateParams.get("originalActivityId");
       if (StringUtils.isNotBlank(originalActivityId)) {
-        org.exoplatform.social.core.identity.model.Identity sharedActivityPosterIdentity =
-                                                                                         identityManager.getIdentity(activity.getPosterId());
-        if (sharedActivityPosterIdentity == null) {
-          throw new IllegalAccessException("Shared Activity '" + activityId + "' Poster " + activity.getPosterId()
-              + " isn't found");
-        }
-        return getNewsByActivityIdAndLang(originalActivityId,
-                                          NewsUtils.getUserIdentity(sharedActivityPosterIdentity.getRemoteId()),
-                                          lang);
+        return getNewsByActivityIdAndLang(originalActivityId, getSharedActivityPosterIdentity(activity), lang);
       }
       throw new ObjectNotFoundException("Activity with id " + activityId + " isn't of type news nor a shared news");
     }
     return getNewsByIdAndLang(newsId, currentIdentity, false, ARTICLE.name().toLowerCase(), lang);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public NewsActivity getNewsActivity(String activityId) {
+    if (StringUtils.isBlank(activityId)) {
+      return null;
+    }
+    NewsActivityObject newsActivityObject = new NewsActivityObject(NEWS_METADATA_ACTIVITY_OBJECT_TYPE, activityId, null, 0);
+    return metadataService.getMetadataItemsByMetadataAndObject(NEWS_METADATA_KEY, newsActivityObject)
+                          .stream()
+                          .findFirst()
+                          .map(this::toNewsActivity)
+                          .orElse(null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<NewsActivity> getNewsActivities(String newsId) {
+    return getNewsActivities(newsId, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<NewsActivity> getNewsActivities(String newsId, Collection<String> spaceIds) {
+    if (StringUtils.isBlank(newsId) || (spaceIds != null && spaceIds.isEmpty())) {
+      return Collections.emptyList();
+    }
+    MetadataFilter metadataFilter = buildNewsActivitiesFilter(Map.of(NEWS_ID, newsId));
+    if (spaceIds != null) {
+      metadataFilter.setMetadataSpaceIds(spaceIds.stream().map(Long::parseLong).toList());
+    }
+    List<NewsActivity> newsActivities = new ArrayList<>();
+    List<MetadataItem> newsActivitiesItems;
+    int offset = 0;
+    do {
+      newsActivitiesItems = metadataService.getMetadataItemsByFilter(metadataFilter, offset, NEWS_ACTIVITIES_PAGE_SIZE);
+      newsActivitiesItems.stream().map(this::toNewsActivity).forEach(newsActivities::add);
+      offset += NEWS_ACTIVITIES_PAGE_SIZE;
+    } while (newsActivitiesItems.size() == NEWS_ACTIVITIES_PAGE_SIZE);
+    newsActivities.sort(Comparator.comparing(NewsActivity::isShare));
+    return newsActivities;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public NewsActivity getNewsPostActivity(String newsId) {
+    if (StringUtils.isBlank(newsId)) {
+      return null;
+    }
+    MetadataFilter metadataFilter = buildNewsActivitiesFilter(Map.of(NEWS_ID, newsId, NEWS_ACTIVITY_SHARE, "false"));
+    return metadataService.getMetadataItemsByFilter(metadataFilter, 0, 1)
+                          .stream()
+                          .findFirst()
+                          .map(this::toNewsActivity)
+                          .orElse(null);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -758,6 +871,7 @@ public class NewsServiceImpl implements NewsService {
       // set the url and the space url to the scheduled news
       news.setUrl(NewsUtils.buildNewsArticleUrl(news, currentIdentity.getUserId()));
       news.setSpaceUrl(NewsUtils.buildSpaceUrl(news.getSpaceId()));
+      NewsUtils.broadcastEvent(NewsUtils.SCHEDULE_NEWS, currentIdentity.getUserId(), news);
       return news;
     }
     return null;
@@ -772,6 +886,7 @@ public class NewsServiceImpl implements NewsService {
     if (existingNews != null) {
       news = createDraftArticleForNewPage(news, pageOwnerId, articleCreator, System.currentTimeMillis());
       deleteArticle(existingNews, articleCreator);
+      NewsUtils.broadcastEvent(NewsUtils.UNSCHEDULE_NEWS, articleCreator, existingNews);
       return buildDraftArticle(news.getId(), articleCreator);
     }
     return null;
@@ -782,7 +897,7 @@ public class NewsServiceImpl implements NewsService {
    */
   @Override
   public List<NewsESSearchResult> search(org.exoplatform.social.core.identity.model.Identity currentIdentity, NewsFilter filter) {
-    return newsSearchConnector.search(currentIdentity, filter);
+    return newsSearchBackend.search(currentIdentity, filter);
   }
 
   /**
@@ -841,38 +956,12 @@ public class NewsServiceImpl implements NewsService {
       throw new IllegalAccessException("User with id " + userIdentity.getRemoteId() + "doesn't have access to news");
     }
     if (sharedActivityId != null) {
-      // update article metadata activities
-      NewsPageObject newsPageObject = new NewsPageObject(NEWS_METADATA_PAGE_OBJECT_TYPE,
-                                                         news.getId(),
-                                                         null,
-                                                         Long.parseLong(news.getSpaceId()));
-      MetadataItem metadataItem = metadataService.getMetadataItemsByMetadataAndObject(NEWS_METADATA_KEY, newsPageObject)
-                                                 .stream()
-                                                 .findFirst()
-                                                 .orElse(null);
-      if (metadataItem == null) {
-        throw new ObjectNotFoundException("News metadata object with id " + news.getId() + " wasn't found");
-      }
-
-      Map<String, String> properties = metadataItem.getProperties();
-      if (properties == null) {
-        properties = new HashMap<>();
-      }
-      if (properties.containsKey(NEWS_ACTIVITIES)) {
-        String newsActivities = properties.get(NEWS_ACTIVITIES);
-        newsActivities = newsActivities.concat(";").concat(space.getId()).concat(":").concat(sharedActivityId);
-        properties.put(NEWS_ACTIVITIES, newsActivities);
-      } else {
-        properties.put(NEWS_ACTIVITIES, space.getId().concat(":").concat(sharedActivityId));
-      }
-
-      metadataItem.setProperties(properties);
-      metadataService.updateMetadataItem(metadataItem, Long.parseLong(userIdentity.getId()), false);
+      createNewsActivity(new NewsActivity(sharedActivityId, news.getId(), space.getId(), true),
+                         Long.parseLong(userIdentity.getId()));
       // Update content permissions
       updateArticlePermissions(List.of(space),
                                news,
-                               getArticleAttachmentIds(Long.parseLong(news.getSpaceId()),
-                                                       Long.parseLong(newsPageObject.getId())));
+                               getArticleAttachmentIds(Long.parseLong(news.getSpaceId()), Long.parseLong(news.getId())));
       NewsUtils.broadcastEvent(NewsUtils.SHARE_NEWS, userIdentity.getRemoteId(), news);
     }
 
@@ -884,7 +973,7 @@ public class NewsServiceImpl implements NewsService {
     noteService.deleteVersionsByNoteIdAndLang(Long.parseLong(id), lang);
     NewsUtils.broadcastEvent(NewsUtils.REMOVE_ARTICLE_TRANSLATION, article.getAuthor(), article);
     String newsTranslationId = id.concat("-").concat(lang);
-    indexingService.unindex(NewsIndexingServiceConnector.TYPE, newsTranslationId);
+    newsSearchBackend.unindex(newsTranslationId);
   }
 
   /**
@@ -1010,6 +1099,9 @@ public class NewsServiceImpl implements NewsService {
                                                                                            Long.parseLong(space.getId()));
         String newsArticleMetadataItemCreatorIdentityId = identityManager.getOrCreateUserIdentity(newsArticleCreator).getId();
         Map<String, String> newsArticleVersionMetadataItemProperties = new HashMap<>();
+        List<String> mentions = NewsUtils.extractMentions(newsArticle.getBody(), space);
+        newsArticleVersionMetadataItemProperties.put(NEWS_MENTIONS, NewsUtils.formatMentions(mentions));
+        newsArticle.setMentions(mentions);
 
         // create the page version metadata item
         metadataService.createMetadataItem(newsArticleVersionMetaDataObject,
@@ -1175,6 +1267,25 @@ public class NewsServiceImpl implements NewsService {
     return noteService.getPageAvailableTranslationLanguages(Long.parseLong(articleId), withDrafts);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<NewsTranslation> getArticleTranslations(String articleId) throws WikiException {
+    List<String> articleLanguages = getArticleLanguages(articleId, false);
+    if (CollectionUtils.isEmpty(articleLanguages)) {
+      return Collections.emptyList();
+    }
+    List<NewsTranslation> articleTranslations = new ArrayList<>();
+    for (String articleLanguage : articleLanguages) {
+      PageVersion pageVersion = noteService.getPublishedVersionByPageIdAndLang(Long.parseLong(articleId), articleLanguage);
+      if (pageVersion != null) {
+        articleTranslations.add(new NewsTranslation(articleLanguage, pageVersion.getTitle()));
+      }
+    }
+    return articleTranslations;
+  }
+
   private News updateDraftArticleForNewPage(News draftArticle, String draftArticleUpdater, Space space) throws WikiException,
                                                                                                         IllegalAccessException {
     DraftPage draftArticlePage = noteService.getDraftNoteById(draftArticle.getId(), draftArticleUpdater);
@@ -1274,6 +1385,7 @@ public class NewsServiceImpl implements NewsService {
           List<String> attachmentsIds = List.of(newsPageVersionMetadataItemProperties.get(NEWS_ATTACHMENTS_IDS).split(";"));
           article.setAttachmentsIds(attachmentsIds);
         }
+        article.setMentions(NewsUtils.parseMentions(newsPageVersionMetadataItemProperties.get(NEWS_MENTIONS)));
       }
     }
   }
@@ -1281,31 +1393,14 @@ public class NewsServiceImpl implements NewsService {
   private void buildArticleProperties(News article, String currentUsername, MetadataItem metadataItem) throws Exception {
     if (metadataItem != null && !MapUtils.isEmpty(metadataItem.getProperties())) {
       Map<String, String> properties = metadataItem.getProperties();
-      if (properties.containsKey(NEWS_ACTIVITIES) && properties.get(NEWS_ACTIVITIES) != null) {
-        String[] activities = properties.get(NEWS_ACTIVITIES).split(";");
-        StringBuilder memberSpaceActivities = new StringBuilder();
-        String newsActivityId = activities[0].split(":")[1];
-        article.setActivityId(newsActivityId);
-        memberSpaceActivities.append(activities[0]).append(";");
-        List<String> sharedInSpacesList = new ArrayList<>();
-        for (int i = 1; i < activities.length; i++) {
-          String sharedInSpaceId = activities[i].split(":")[0];
-          sharedInSpacesList.add(sharedInSpaceId);
-          Space sharedInSpace = spaceService.getSpaceById(sharedInSpaceId);
-          String activityId = activities[i].split(":")[1];
-          if (sharedInSpace != null && currentUsername != null && spaceService.isMember(sharedInSpace, currentUsername)
-              && activityManager.isActivityExists(activityId)) {
-            memberSpaceActivities.append(activities[i]).append(";");
-          }
-        }
-        article.setActivities(memberSpaceActivities.toString());
-        article.setSharedInSpacesList(sharedInSpacesList);
-      }
+      buildArticleActivities(article, currentUsername, metadataItem.getObjectId());
       if (properties.containsKey(NEWS_AUDIENCE) && StringUtils.isNotEmpty(properties.get(NEWS_AUDIENCE))) {
         article.setAudience(properties.get(NEWS_AUDIENCE));
       }
       if (properties.containsKey(SCHEDULE_POST_DATE) && StringUtils.isNotEmpty(properties.get(SCHEDULE_POST_DATE))) {
-        article.setSchedulePostDate(properties.get(SCHEDULE_POST_DATE));
+        long schedulePostTime = ScheduleDateUtils.parse(properties.get(SCHEDULE_POST_DATE));
+        article.setSchedulePostDate(schedulePostTime > 0 ? ScheduleDateUtils.format(schedulePostTime)
+                                                         : properties.get(SCHEDULE_POST_DATE));
       }
       if (properties.containsKey(NEWS_PUBLICATION_STATE) && StringUtils.isNotEmpty(properties.get(NEWS_PUBLICATION_STATE))) {
         article.setPublicationState(properties.get(NEWS_PUBLICATION_STATE));
@@ -1324,6 +1419,40 @@ public class NewsServiceImpl implements NewsService {
     }
   }
 
+  /**
+   * Builds the activities of an article visible to the current user: the
+   * activity posted with the article, followed by its shares in the current
+   * user spaces. Only these shares are read, the full shares list being loaded
+   * only when updating or deleting the article.
+   */
+  private void buildArticleActivities(News article, String currentUsername, String newsId) {
+    StringBuilder memberSpaceActivities = new StringBuilder();
+    NewsActivity postActivity = getNewsPostActivity(newsId);
+    if (postActivity != null) {
+      article.setActivityId(postActivity.getActivityId());
+      memberSpaceActivities.append(formatNewsActivity(postActivity)).append(";");
+    }
+    Set<String> memberSpacesIds = newsViewerSpacesCache.getMemberSpacesIds(currentUsername);
+    List<NewsActivity> memberSpaceShares = getNewsActivities(newsId, memberSpacesIds).stream()
+                                                                                     .filter(NewsActivity::isShare)
+                                                                                     .toList();
+    if (!memberSpaceShares.isEmpty()) {
+      List<String> sharedActivitiesIds = memberSpaceShares.stream().map(NewsActivity::getActivityId).toList();
+      Set<String> existingActivitiesIds = newsViewerSpacesCache.getExistingActivitiesIds(currentUsername, sharedActivitiesIds);
+      memberSpaceShares.stream()
+                       .filter(newsActivity -> existingActivitiesIds.contains(newsActivity.getActivityId()))
+                       .forEach(newsActivity -> memberSpaceActivities.append(formatNewsActivity(newsActivity)).append(";"));
+    }
+    if (postActivity != null || !memberSpaceShares.isEmpty()) {
+      article.setActivities(memberSpaceActivities.toString());
+      article.setSharedInSpacesList(memberSpaceShares.stream().map(NewsActivity::getSpaceId).toList());
+    }
+  }
+
+  private String formatNewsActivity(NewsActivity newsActivity) {
+    return newsActivity.getSpaceId().concat(":").concat(newsActivity.getActivityId());
+  }
+
   private void buildDraftArticleProperties(News draftArticle, MetadataItem metadataItem) {
     if (metadataItem != null) {
       Map<String, String> draftArticleMetadataItemProperties = metadataItem.getProperties();
@@ -1342,10 +1471,9 @@ public class NewsServiceImpl implements NewsService {
         MetadataItem parentMetadataItem = metadataService.getMetadataItemsByMetadataAndObject(NEWS_METADATA_KEY, newsPageObject)
                                                          .get(0);
         Map<String, String> properties = parentMetadataItem.getProperties();
-        if (properties.containsKey(NEWS_ACTIVITIES) && properties.get(NEWS_ACTIVITIES) != null) {
-          String[] activities = properties.get(NEWS_ACTIVITIES).split(";");
-          String newsActivityId = activities[0].split(":")[1];
-          draftArticle.setActivityId(newsActivityId);
+        NewsActivity newsActivity = getNewsPostActivity(metadataItem.getParentObjectId());
+        if (newsActivity != null) {
+          draftArticle.setActivityId(newsActivity.getActivityId());
         }
         if (properties.containsKey(NEWS_VIEWS) && StringUtils.isNotEmpty(properties.get(NEWS_VIEWS))) {
           draftArticle.setViewsCount(Long.parseLong(properties.get(NEWS_VIEWS)));
@@ -1526,13 +1654,18 @@ public class NewsServiceImpl implements NewsService {
   }
 
   private boolean isMemberOfsharedInSpaces(News news, String username) {
-    for (String sharedInSpaceId : news.getSharedInSpacesList()) {
-      Space sharedInSpace = spaceService.getSpaceById(sharedInSpaceId);
-      if (sharedInSpace != null && spaceService.isMember(sharedInSpace, username)) {
-        return true;
-      }
+    if (StringUtils.isBlank(news.getId())) {
+      return false;
+    }
+    // Access is checked against the current memberships, read once, the
+    // viewer spaces cache is only used to filter the displayed shares
+    List<String> memberSpacesIds = spaceService.getMemberSpacesIds(username, 0, -1);
+    if (CollectionUtils.isEmpty(memberSpacesIds)) {
+      return false;
     }
-    return false;
+    MetadataFilter metadataFilter = buildNewsActivitiesFilter(Map.of(NEWS_ID, news.getId(), NEWS_ACTIVITY_SHARE, "true"));
+    metadataFilter.setMetadataSpaceIds(memberSpacesIds.stream().map(Long::parseLong).toList());
+    return !metadataService.getMetadataItemsByFilter(metadataFilter, 0, 1).isEmpty();
   }
 
   private Page createNewsArticlesNoteRootPage(Wiki wiki) throws WikiException {
@@ -1586,8 +1719,8 @@ public class NewsServiceImpl implements NewsService {
     if (contentSpace == null) {
       throw new NullPointerException("Cannot find a space with id " + contentSpaceId + ", it may not exist");
     }
-    org.exoplatform.social.core.identity.model.Identity identity = identityManager.getOrCreateUserIdentity(contentAuthor);
-    String authorAvatarUrl = LinkProviderUtils.getUserAvatarUrl(identity.getProfile());
+    NotificationUser author = NotificationUtils.getNotificationUser(contentAuthor, identityManager);
+    String authorAvatarUrl = author == null ? null : author.getAvatarUrl();
     String activityLink = NotificationUtils.getNotificationActivityLink(contentSpace, contentActivityId, isMember);
     String contentSpaceName = contentSpace.getDisplayName();
 
@@ -1604,14 +1737,15 @@ public class NewsServiceImpl implements NewsService {
                                                      .append(PostNewsNotificationPlugin.NEWS_ID, newsId);
 
     if (context.equals(NotificationConstants.NOTIFICATION_CONTEXT.POST_NEWS)) {
-      ctx.getNotificationExecutor().with(ctx.makeCommand(PluginKey.key(PostNewsNotificationPlugin.ID))).execute(ctx);
-      Matcher matcher = MentionInNewsNotificationPlugin.MENTION_PATTERN.matcher(contentBody);
-      if (matcher.find()) {
+      newsNotificationQueue.enqueue(PostNewsNotificationPlugin.ID, ctx);
+      List<String> mentions = news.getMentions() != null ? news.getMentions()
+                                                         : NewsUtils.extractMentions(contentBody, contentSpace);
+      if (!mentions.isEmpty()) {
         sendMentionInNewsNotification(newsId,
                                       contentAuthor,
                                       currentUser,
                                       contentTitle,
-                                      contentBody,
+                                      mentions,
                                       contentSpaceId,
                                       authorAvatarUrl,
                                       activityLink,
@@ -1622,7 +1756,8 @@ public class NewsServiceImpl implements NewsService {
                                     contentAuthor,
                                     currentUser,
                                     contentTitle,
-                                    contentBody,
+                                    news.getMentions() != null ? news.getMentions()
+                                                               : NewsUtils.extractMentions(contentBody, contentSpace),
                                     contentSpaceId,
                                     authorAvatarUrl,
                                     activityLink,
@@ -1654,7 +1789,7 @@ public class NewsServiceImpl implements NewsService {
           ctx.append(PostNewsNotificationPlugin.AUDIENCE, news.getAudience());
         }
       }
-      ctx.getNotificationExecutor().with(ctx.makeCommand(PluginKey.key(PublishNewsNotificationPlugin.ID))).execute(ctx);
+      newsNotificationQueue.enqueue(PublishNewsNotificationPlugin.ID, ctx);
     }
   }
 
@@ -1678,13 +1813,12 @@ public class NewsServiceImpl implements NewsService {
                                              String contentAuthor,
                                              String currentUser,
                                              String contentTitle,
-                                             String contentBody,
+                                             List<String> mentions,
                                              String contentSpaceId,
                                              String authorAvatarUrl,
                                              String activityLink,
                                              String contentSpaceName) {
-    Space space = spaceService.getSpaceById(contentSpaceId);
-    Set<String> mentionedIds = NewsUtils.processMentions(contentBody, space);
+    Set<String> mentionedIds = NewsUtils.getMentionedIds(mentions);
     NotificationContext mentionNotificationCtx =
                                                NotificationContextImpl.cloneInstance()
                                                                       .append(MentionInNewsNotificationPlugin.CONTEXT,
@@ -1706,9 +1840,7 @@ public class NewsServiceImpl implements NewsService {
                                                                       .append(MentionInNewsNotificationPlugin.MENTIONED_IDS,
                                                                               mentionedIds)
                                                                       .append(PostNewsNotificationPlugin.NEWS_ID, newsId);
-    mentionNotificationCtx.getNotificationExecutor()
-                          .with(mentionNotificationCtx.makeCommand(PluginKey.key(MentionInNewsNotificationPlugin.ID)))
-                          .execute(mentionNotificationCtx);
+    newsNotificationQueue.enqueue(MentionInNewsNotificationPlugin.ID, mentionNotificationCtx);
   }
 
   private Identity getCurrentIdentity() {
@@ -1726,22 +1858,14 @@ public class NewsServiceImpl implements NewsService {
                                                            Long.parseLong(news.getSpaceId()));
         MetadataItem metadataItem = metadataService.getMetadataItemsByMetadataAndObject(NEWS_METADATA_KEY, newsPageObject).get(0);
         if (metadataItem != null) {
-          Map<String, String> properties = metadataItem.getProperties();
-          if (properties == null) {
-            properties = new HashMap<>();
-          }
-          String newsActivity = news.getSpaceId().concat(":").concat(activityId);
-          if (properties.containsKey(NEWS_ACTIVITIES)) {
-            properties.put(NEWS_ACTIVITIES, properties.get(NEWS_ACTIVITIES).concat("; ").concat(newsActivity));
-          } else {
-            properties.put(NEWS_ACTIVITIES, newsActivity);
-          }
-          metadataItem.setProperties(properties);
+          NewsActivity newsActivity = new NewsActivity(activityId, news.getId(), news.getSpaceId(), false);
           String updaterId = identityManager.getOrCreateUserIdentity(news.getAuthor()).getId();
+          createNewsActivity(newsActivity, Long.parseLong(updaterId));
+          // Update the article item to reindex it with its activity
           Date updateDate = Calendar.getInstance().getTime();
           metadataItem.setUpdatedDate(updateDate.getTime());
           metadataService.updateMetadataItem(metadataItem, Long.parseLong(updaterId), false);
-          news.setActivities(properties.get(NEWS_ACTIVITIES));
+          news.setActivities(formatNewsActivity(newsActivity));
           news.setActivityId(activityId);
         }
       } else {
@@ -1750,6 +1874,53 @@ public class NewsServiceImpl implements NewsService {
     }
   }
 
+  private void createNewsActivity(NewsActivity newsActivity, long creatorIdentityId) {
+    NewsActivityObject newsActivityObject = new NewsActivityObject(NEWS_METADATA_ACTIVITY_OBJECT_TYPE,
+                                                                   newsActivity.getActivityId(),
+                                                                   newsActivity.getNewsId(),
+                                                                   Long.parseLong(newsActivity.getSpaceId()));
+    Map<String, String> properties = new HashMap<>();
+    properties.put(NEWS_ID, newsActivity.getNewsId());
+    properties.put(NEWS_ACTIVITY_SHARE, String.valueOf(newsActivity.isShare()));
+    try {
+      metadataService.createMetadataItem(newsActivityObject, NEWS_METADATA_KEY, properties, creatorIdentityId, false);
+    } catch (ObjectAlreadyExistsException e) {
+      LOG.debug("Activity {} of news {} is already referenced", newsActivity.getActivityId(), newsActivity.getNewsId());
+    }
+  }
+
+  private MetadataFilter buildNewsActivitiesFilter(Map<String, String> properties) {
+    MetadataFilter metadataFilter = new MetadataFilter();
+    metadataFilter.setMetadataName(NEWS_METADATA_NAME);
+    metadataFilter.setMetadataTypeName(NEWS_METADATA_TYPE.getName());
+    metadataFilter.setMetadataObjectTypes(List.of(NEWS_METADATA_ACTIVITY_OBJECT_TYPE));
+    metadataFilter.setMetadataProperties(properties);
+    return metadataFilter;
+  }
+
+  private NewsActivity toNewsActivity(MetadataItem newsActivityItem) {
+    Map<String, String> properties = newsActivityItem.getProperties();
+    return new NewsActivity(newsActivityItem.getObjectId(),
+                            properties == null ? null : properties.get(NEWS_ID),
+                            String.valueOf(newsActivityItem.getSpaceId()),
+                            properties != null && Boolean.parseBoolean(properties.get(NEWS_ACTIVITY_SHARE)));
+  }
+
+  private void deleteNewsActivity(String activityId) {
+    activityManager.deleteActivity(activityId);
+    metadataService.deleteMetadataItemsByObject(new NewsActivityObject(NEWS_METADATA_ACTIVITY_OBJECT_TYPE, activityId, null, 0));
+  }
+
+  private Identity getSharedActivityPosterIdentity(ExoSocialActivity sharedActivity) throws IllegalAccessException {
+    org.exoplatform.social.core.identity.model.Identity sharedActivityPosterIdentity =
+                                                                                     identityManager.getIdentity(sharedActivity.getPosterId());
+    if (sharedActivityPosterIdentity == null) {
+      throw new IllegalAccessException("Shared Activity '" + sharedActivity.getId() + "' Poster " + sharedActivity.getPosterId()
+          + " isn't found");
+    }
+    return NewsUtils.getUserIdentity(sharedActivityPosterIdentity.getRemoteId());
+  }
+
   private void postNewsActivity(News news) throws Exception {
     org.exoplatform.social.core.identity.model.Identity poster = identityManager.getOrCreateUserIdentity(news.getAuthor());
 
@@ -1807,9 +1978,9 @@ public class NewsServiceImpl implements NewsService {
           newsPageProperties.put(NEWS_AUDIENCE, news.getAudience());
         }
         if (StringUtils.isNotEmpty(news.getSchedulePostDate())) {
-          String existingSchedulePostDate = newsPageProperties.getOrDefault(SCHEDULE_POST_DATE, null);
-          if (existingSchedulePostDate == null || !existingSchedulePostDate.equals(news.getSchedulePostDate())) {
-            setSchedulePostDate(news, newsPageProperties);
+          long schedulePostTime = getSchedulePostTime(news);
+          if (ScheduleDateUtils.parse(newsPageProperties.get(SCHEDULE_POST_DATE)) != schedulePostTime) {
+            newsPageProperties.put(SCHEDULE_POST_DATE, ScheduleDateUtils.toStoredValue(schedulePostTime));
           }
         }
         if (StringUtils.isNotEmpty(news.getPublicationState())) {
@@ -1827,23 +1998,25 @@ public class NewsServiceImpl implements NewsService {
       // create the version
       if (newsUpdateType.equalsIgnoreCase(CONTENT_AND_TITLE.name())) {
         noteService.createVersionOfNote(existingPage, updater.getUserId());
+        createArticleVersionMentions(news,
+                                     newsId,
+                                     existingPage.getLang(),
+                                     existingPage.getContent(),
+                                     Long.parseLong(newsArticleUpdaterIdentityId));
         // remove the draft
         DraftPage draftPage = noteService.getLatestDraftPageByUserAndTargetPageAndLang(Long.parseLong(existingPage.getId()),
                                                                                        updater.getUserId(),
                                                                                        null);
         deleteDraftArticle(draftPage.getId(), updater.getUserId());
       }
-      Map<String, String> metadataItemProperties = existingPageMetadataItem.getProperties();
-      if (metadataItemProperties.containsKey(NEWS_ACTIVITIES) && metadataItemProperties.get(NEWS_ACTIVITIES) != null) {
-        String[] articleActivities = metadataItemProperties.get(NEWS_ACTIVITIES).split(";");
-        List<Space> articleSpaces = new ArrayList<>();
-        for (int i = 0; i < articleActivities.length; i++) {
-          String sharedInSpaceId = articleActivities[i].split(":")[0];
-          Space space = spaceService.getSpaceById(sharedInSpaceId);
-          if (space != null) {
-            articleSpaces.add(space);
-          }
-        }
+      List<NewsActivity> newsActivities = getNewsActivities(newsId);
+      if (!newsActivities.isEmpty()) {
+        List<Space> articleSpaces = newsActivities.stream()
+                                                  .map(NewsActivity::getSpaceId)
+                                                  .distinct()
+                                                  .map(spaceService::getSpaceById)
+                                                  .filter(Objects::nonNull)
+                                                  .toList();
         updateArticlePermissions(articleSpaces, news, null);
       }
       return news;
@@ -1902,6 +2075,14 @@ public class NewsServiceImpl implements NewsService {
         news.setDeleted(articlePage.isDeleted());
         news.setPublicationDate(articlePage.getCreatedDate());
         news.setTitle(pageVersion.getTitle());
+        NewsPageVersionObject newsPageVersionObject = new NewsPageVersionObject(NEWS_METADATA_PAGE_VERSION_OBJECT_TYPE,
+                                                                                pageVersion.getId(),
+                                                                                null,
+                                                                                Long.parseLong(space.getId()));
+        List<MetadataItem> newsPageVersionMetadataItems =
+                                                        metadataService.getMetadataItemsByMetadataAndObject(NEWS_METADATA_KEY,
+                                                                                                            newsPageVersionObject);
+        buildArticleVersionProperties(news, newsPageVersionMetadataItems);
         processPageContent(pageVersion, news);
         news.setUpdaterFullName(pageVersion.getAuthorFullName());
         news.setLang(pageVersion.getLang());
@@ -1913,15 +2094,6 @@ public class NewsServiceImpl implements NewsService {
           news.setIllustrationURL(NewsUtils.buildIllustrationUrl(news.getProperties(), pageVersion.getLang()));
 
         }
-
-        NewsPageVersionObject newsPageVersionObject = new NewsPageVersionObject(NEWS_METADATA_PAGE_VERSION_OBJECT_TYPE,
-                                                                                pageVersion.getId(),
-                                                                                null,
-                                                                                Long.parseLong(space.getId()));
-        List<MetadataItem> newsPageVersionMetadataItems =
-                                                        metadataService.getMetadataItemsByMetadataAndObject(NEWS_METADATA_KEY,
-                                                                                                            newsPageVersionObject);
-        buildArticleVersionProperties(news, newsPageVersionMetadataItems);
         return news;
       }
     }
@@ -2026,12 +2198,50 @@ public class NewsServiceImpl implements NewsService {
     String body = page.getContent();
     String sanitizedBody = HTMLSanitizer.sanitize(body);
     sanitizedBody = sanitizedBody.replaceAll(HTML_AT_SYMBOL_ESCAPED_PATTERN, HTML_AT_SYMBOL_PATTERN);
-    news.setBody(MentionUtils.substituteUsernames(portalOwner, sanitizedBody));
+    // The stored mentions avoid scanning again bodies which mention nobody
+    news.setBody(NewsUtils.hasUserMentions(news.getMentions()) ? MentionUtils.substituteUsernames(portalOwner, sanitizedBody)
+                                                                : sanitizedBody);
     news.setOriginalBody(sanitizedBody);
   }
 
+  private void createArticleVersionMentions(News news, String pageId, String lang, String content, long creatorIdentityId) {
+    PageVersion pageVersion = noteService.getPublishedVersionByPageIdAndLang(Long.parseLong(pageId), lang);
+    if (pageVersion == null) {
+      return;
+    }
+    Space space = spaceService.getSpaceById(news.getSpaceId());
+    List<String> mentions = NewsUtils.extractMentions(content, space);
+    NewsPageVersionObject newsPageVersionObject = new NewsPageVersionObject(NEWS_METADATA_PAGE_VERSION_OBJECT_TYPE,
+                                                                            pageVersion.getId(),
+                                                                            null,
+                                                                            Long.parseLong(news.getSpaceId()));
+    Map<String, String> newsPageVersionProperties = new HashMap<>();
+    newsPageVersionProperties.put(NEWS_MENTIONS, NewsUtils.formatMentions(mentions));
+    try {
+      metadataService.createMetadataItem(newsPageVersionObject,
+                                         NEWS_METADATA_KEY,
+                                         newsPageVersionProperties,
+                                         creatorIdentityId,
+                                         false);
+      news.setMentions(mentions);
+    } catch (ObjectAlreadyExistsException e) {
+      LOG.warn("Mentions of the news article version {} are already stored", pageVersion.getId());
+    }
+  }
+
   private void setSchedulePostDate(News news, Map<String, String> newsProperties) throws ParseException {
+    // Store the date as epoch milliseconds to keep it sortable
+    newsProperties.put(SCHEDULE_POST_DATE, ScheduleDateUtils.toStoredValue(getSchedulePostTime(news)));
+  }
+
+  private long getSchedulePostTime(News news) throws ParseException {
     String schedulePostDate = news.getSchedulePostDate();
+    // Schedule post date of an article read from storage, in UTC ISO-8601
+    // format
+    long schedulePostTime = ScheduleDateUtils.parse(schedulePostDate);
+    if (schedulePostTime > 0) {
+      return schedulePostTime;
+    }
     ZoneId userTimeZone = StringUtils.isBlank(news.getTimeZoneId()) ? ZoneOffset.UTC : ZoneId.of(news.getTimeZoneId());
     String offsetTimeZone = String.valueOf(OffsetTime.now(userTimeZone).getOffset()).replace(":", "");
     schedulePostDate = schedulePostDate.concat(" ").concat(offsetTimeZone);
@@ -2041,14 +2251,7 @@ public class NewsServiceImpl implements NewsService {
     SimpleDateFormat format = new SimpleDateFormat("MM/dd/yyyy HH:mm:ss" + "Z");
     Calendar startPublishedDate = Calendar.getInstance();
     startPublishedDate.setTime(format.parse(schedulePostDate));
-
-    // create a SimpleDateFormat to format the parsed date and then save it as
-    // string
-    SimpleDateFormat defaultFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-    defaultFormat.setTimeZone(TimeZone.getTimeZone(ZoneOffset.UTC));
-    String startPublishedDateString = defaultFormat.format(startPublishedDate.getTime());
-
-    newsProperties.put(SCHEDULE_POST_DATE, startPublishedDateString);
+    return startPublishedDate.getTimeInMillis();
   }
 
   private News postScheduledArticle(News news) throws ObjectNotFoundException {
@@ -2114,6 +2317,11 @@ public class NewsServiceImpl implements NewsService {
       }
       existingPage.setProperties(properties);
       noteService.createVersionOfNote(existingPage, versionCreator.getUserId());
+      createArticleVersionMentions(news,
+                                   newsId,
+                                   news.getLang(),
+                                   news.getBody(),
+                                   Long.parseLong(identityManager.getOrCreateUserIdentity(versionCreator.getUserId()).getId()));
       news.setIllustrationURL(NewsUtils.buildIllustrationUrl(news.getProperties(), news.getLang()));
       DraftPage draftPage = noteService.getLatestDraftPageByTargetPageAndLang(Long.parseLong(newsId), news.getLang());
       if (draftPage != null) {
@@ -2121,7 +2329,7 @@ public class NewsServiceImpl implements NewsService {
       }
       NewsUtils.broadcastEvent(NewsUtils.ADD_ARTICLE_TRANSLATION, versionCreator, news);
       String newsTranslationId = news.getId().concat("-").concat(news.getLang());
-      indexingService.index(NewsIndexingServiceConnector.TYPE, newsTranslationId);
+      newsSearchBackend.index(newsTranslationId);
       updateArticlePermissions(List.of(space), news, null);
       return news;
     }
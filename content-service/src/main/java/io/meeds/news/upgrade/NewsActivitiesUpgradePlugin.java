@@ -0,0 +1,148 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.upgrade;
+
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_ACTIVITIES;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_ACTIVITY_SHARE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_ID;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_ACTIVITY_OBJECT_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_KEY;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_NAME;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_PAGE_OBJECT_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_TYPE;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import org.exoplatform.commons.upgrade.UpgradeProductPlugin;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.common.ObjectAlreadyExistsException;
+import org.exoplatform.social.metadata.MetadataFilter;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+import io.meeds.news.model.NewsActivityObject;
+
+/**
+ * Moves the activities of the existing articles, stored as a delimited list in
+ * the article metadata item, to a newsActivity metadata item per activity, as
+ * done when posting and sharing articles.
+ */
+public class NewsActivitiesUpgradePlugin extends UpgradeProductPlugin {
+
+  private static final Log      LOG        = ExoLogger.getLogger(NewsActivitiesUpgradePlugin.class);
+
+  private static final int      BATCH_SIZE = 100;
+
+  private final PortalContainer container;
+
+  private final MetadataService metadataService;
+
+  public NewsActivitiesUpgradePlugin(PortalContainer container, MetadataService metadataService, InitParams initParams) {
+    super(initParams);
+    this.container = container;
+    this.metadataService = metadataService;
+  }
+
+  @Override
+  public void processUpgrade(String oldVersion, String newVersion) {
+    long startTime = System.currentTimeMillis();
+    int migratedCount = 0;
+    MetadataFilter metadataFilter = new MetadataFilter();
+    metadataFilter.setMetadataName(NEWS_METADATA_NAME);
+    metadataFilter.setMetadataTypeName(NEWS_METADATA_TYPE.getName());
+    metadataFilter.setMetadataObjectTypes(List.of(NEWS_METADATA_PAGE_OBJECT_TYPE));
+    int offset = 0;
+    List<MetadataItem> articlesItems;
+    do {
+      RequestLifeCycle.begin(container);
+      try {
+        articlesItems = metadataService.getMetadataItemsByFilter(metadataFilter, offset, BATCH_SIZE);
+        for (MetadataItem articleItem : articlesItems) {
+          migratedCount += migrateArticleActivities(articleItem);
+        }
+      } finally {
+        RequestLifeCycle.end();
+      }
+      offset += BATCH_SIZE;
+    } while (articlesItems.size() == BATCH_SIZE);
+    LOG.info("{} news activities references stored in {} ms", migratedCount, System.currentTimeMillis() - startTime);
+  }
+
+  private int migrateArticleActivities(MetadataItem articleItem) {
+    Map<String, String> properties = articleItem.getProperties();
+    String articleActivities = properties == null ? null : properties.get(NEWS_ACTIVITIES);
+    if (StringUtils.isBlank(articleActivities)) {
+      return 0;
+    }
+    int migratedCount = 0;
+    boolean migrated = true;
+    // The first activity is the one posted with the article, the next ones
+    // are its shares
+    String[] activities = articleActivities.split(";");
+    for (int i = 0; i < activities.length; i++) {
+      String[] activity = activities[i].split(":");
+      if (activity.length == 2 && StringUtils.isNumeric(activity[0].trim())) {
+        try {
+          if (createNewsActivity(articleItem, activity[1].trim(), Long.parseLong(activity[0].trim()), i > 0)) {
+            migratedCount++;
+          }
+        } catch (Exception e) {
+          LOG.warn("Error while storing the reference of activity {} to article {}",
+                   activity[1],
+                   articleItem.getObjectId(),
+                   e);
+          migrated = false;
+        }
+      }
+    }
+    if (migrated) {
+      Map<String, String> updatedProperties = new HashMap<>(properties);
+      updatedProperties.remove(NEWS_ACTIVITIES);
+      articleItem.setProperties(updatedProperties);
+      metadataService.updateMetadataItem(articleItem, articleItem.getCreatorId(), false);
+    }
+    return migratedCount;
+  }
+
+  private boolean createNewsActivity(MetadataItem articleItem, String activityId, long spaceId, boolean share) {
+    String articleId = articleItem.getObjectId();
+    NewsActivityObject newsActivityObject = new NewsActivityObject(NEWS_METADATA_ACTIVITY_OBJECT_TYPE,
+                                                                   activityId,
+                                                                   articleId,
+                                                                   spaceId);
+    Map<String, String> properties = new HashMap<>();
+    properties.put(NEWS_ID, articleId);
+    properties.put(NEWS_ACTIVITY_SHARE, String.valueOf(share));
+    try {
+      metadataService.createMetadataItem(newsActivityObject, NEWS_METADATA_KEY, properties, articleItem.getCreatorId(), false);
+      return true;
+    } catch (ObjectAlreadyExistsException e) {
+      return false;
+    }
+  }
+}
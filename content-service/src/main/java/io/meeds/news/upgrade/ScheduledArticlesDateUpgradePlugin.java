@@ -0,0 +1,110 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.upgrade;
+
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_NAME;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_PAGE_OBJECT_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_PUBLICATION_STATE;
+import static io.meeds.news.service.impl.NewsServiceImpl.SCHEDULE_POST_DATE;
+import static io.meeds.news.service.impl.NewsServiceImpl.STAGED;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import org.exoplatform.commons.upgrade.UpgradeProductPlugin;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.component.RequestLifeCycle;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+import io.meeds.news.utils.ScheduleDateUtils;
+
+/**
+ * Converts the schedule post dates of the staged articles from the legacy UTC
+ * ISO-8601 format to epoch milliseconds.
+ */
+public class ScheduledArticlesDateUpgradePlugin extends UpgradeProductPlugin {
+
+  private static final Log      LOG = ExoLogger.getLogger(ScheduledArticlesDateUpgradePlugin.class);
+
+  private final PortalContainer container;
+
+  private final MetadataService metadataService;
+
+  public ScheduledArticlesDateUpgradePlugin(PortalContainer container, MetadataService metadataService, InitParams initParams) {
+    super(initParams);
+    this.container = container;
+    this.metadataService = metadataService;
+  }
+
+  @Override
+  public void processUpgrade(String oldVersion, String newVersion) {
+    long startTime = System.currentTimeMillis();
+    int migratedCount = 0;
+    RequestLifeCycle.begin(container);
+    try {
+      List<MetadataItem> scheduledArticlesItems =
+                                                metadataService.getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(NEWS_METADATA_NAME,
+                                                                                                                                       NEWS_METADATA_TYPE.getName(),
+                                                                                                                                       NEWS_METADATA_PAGE_OBJECT_TYPE,
+                                                                                                                                       NEWS_PUBLICATION_STATE,
+                                                                                                                                       STAGED,
+                                                                                                                                       0,
+                                                                                                                                       0);
+      for (MetadataItem scheduledArticleItem : scheduledArticlesItems) {
+        if (migrateSchedulePostDate(scheduledArticleItem)) {
+          migratedCount++;
+        }
+      }
+    } finally {
+      RequestLifeCycle.end();
+    }
+    LOG.info("{} scheduled articles post dates converted to epoch milliseconds in {} ms",
+             migratedCount,
+             System.currentTimeMillis() - startTime);
+  }
+
+  private boolean migrateSchedulePostDate(MetadataItem scheduledArticleItem) {
+    Map<String, String> properties = scheduledArticleItem.getProperties();
+    String schedulePostDate = properties == null ? null : properties.get(SCHEDULE_POST_DATE);
+    if (StringUtils.isBlank(schedulePostDate) || StringUtils.isNumeric(schedulePostDate)) {
+      return false;
+    }
+    long schedulePostTime = ScheduleDateUtils.parse(schedulePostDate);
+    if (schedulePostTime <= 0) {
+      LOG.warn("Schedule post date '{}' of article {} can't be parsed, it's kept unchanged",
+               schedulePostDate,
+               scheduledArticleItem.getObjectId());
+      return false;
+    }
+    Map<String, String> updatedProperties = new HashMap<>(properties);
+    updatedProperties.put(SCHEDULE_POST_DATE, ScheduleDateUtils.toStoredValue(schedulePostTime));
+    scheduledArticleItem.setProperties(updatedProperties);
+    metadataService.updateMetadataItem(scheduledArticleItem, scheduledArticleItem.getCreatorId(), false);
+    return true;
+  }
+}
@@ -19,7 +19,9 @@
  */
 package io.meeds.news.utils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -41,7 +43,6 @@ import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
 import org.exoplatform.services.security.Authenticator;
 import org.exoplatform.services.security.IdentityRegistry;
-import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.identity.provider.SpaceIdentityProvider;
 import org.exoplatform.social.core.space.SpaceException;
@@ -53,51 +54,61 @@ import org.exoplatform.wiki.model.DraftPage;
 
 public class NewsUtils {
 
-  private static final Log   LOG                             = ExoLogger.getLogger(NewsUtils.class);
+  private static final Log          LOG                             = ExoLogger.getLogger(NewsUtils.class);
 
-  public static final String POST_NEWS                       = "exo.news.postArticle";
+  private static final List<String> MENTIONABLE_SPACE_ROLES         = List.of("member", "manager", "redactor", "publisher");
 
-  public static final String POST_NEWS_ARTICLE               = "exo.news.gamification.postArticle";
+  private static final String       MENTIONS_SEPARATOR              = ",";
 
-  public static final String PUBLISH_NEWS                    = "exo.news.gamification.PublishArticle";
+  public static final String        POST_NEWS                       = "exo.news.postArticle";
 
-  public static final String VIEW_NEWS                       = "exo.news.viewArticle";
+  public static final String        POST_NEWS_ARTICLE               = "exo.news.gamification.postArticle";
 
-  public static final String SHARE_NEWS                      = "exo.news.shareArticle";
+  public static final String        PUBLISH_NEWS                    = "exo.news.gamification.PublishArticle";
 
-  public static final String COMMENT_NEWS                    = "exo.news.commentArticle";
+  public static final String        VIEW_NEWS                       = "exo.news.viewArticle";
 
-  public static final String LIKE_NEWS                       = "exo.news.likeArticle";
+  public static final String        SHARE_NEWS                      = "exo.news.shareArticle";
 
-  public static final String DELETE_NEWS                     = "exo.news.deleteArticle";
+  public static final String        COMMENT_NEWS                    = "exo.news.commentArticle";
 
-  public static final String UPDATE_NEWS                     = "exo.news.updateArticle";
+  public static final String        LIKE_NEWS                       = "exo.news.likeArticle";
 
-  public static final String SCHEDULE_NEWS                   = "exo.news.scheduleArticle";
+  public static final String        DELETE_NEWS                     = "exo.news.deleteArticle";
 
-  public static final String UNSCHEDULE_NEWS                 = "exo.news.unscheduleArticle";
+  public static final String        UPDATE_NEWS                     = "exo.news.updateArticle";
 
-  public static final String NEWS_METADATA_OBJECT_TYPE       = "news";
+  public static final String        SCHEDULE_NEWS                   = "exo.news.scheduleArticle";
 
-  public static final String DISPLAYED_STATUS                = "displayed";
+  public static final String        UNSCHEDULE_NEWS                 = "exo.news.unscheduleArticle";
 
-  public static final String TARGET_PERMISSIONS              = "permissions";
+  public static final String        NEWS_METADATA_OBJECT_TYPE       = "news";
 
-  public static final String SPACE_NEWS_AUDIENCE             = "space";
+  public static final String        DISPLAYED_STATUS                = "displayed";
 
-  public static final String ALL_NEWS_AUDIENCE               = "all";
+  public static final String        TARGET_PERMISSIONS              = "permissions";
 
-  public static final String PUBLISHER_MEMBERSHIP_NAME       = "publisher";
+  public static final String        SPACE_NEWS_AUDIENCE             = "space";
 
-  public static final String MANAGER_MEMBERSHIP_NAME         = "manager";
+  public static final String        ALL_NEWS_AUDIENCE               = "all";
 
-  public static final String PLATFORM_WEB_CONTRIBUTORS_GROUP = "/platform/web-contributors";
+  public static final String        PUBLISHER_MEMBERSHIP_NAME       = "publisher";
 
-  public static final String ADD_ARTICLE_TRANSLATION         = "content.add.article.translation";
+  public static final String        MANAGER_MEMBERSHIP_NAME         = "manager";
 
-  public static final String REMOVE_ARTICLE_TRANSLATION      = "content.remove.article.translation";
+  public static final String        PLATFORM_WEB_CONTRIBUTORS_GROUP = "/platform/web-contributors";
 
-  public static final String UPDATE_CONTENT_PERMISSIONS      = "content.update.permissions";
+  public static final String        ADD_ARTICLE_TRANSLATION         = "content.add.article.translation";
+
+  public static final String        REMOVE_ARTICLE_TRANSLATION      = "content.remove.article.translation";
+
+  /**
+   * Prefix of the space role mentions returned by
+   * {@link #processMentions(String, Space)}
+   */
+  public static final String        ROLE_MENTION_PREFIX             = "role:";
+
+  public static final String        UPDATE_CONTENT_PERMISSIONS      = "content.update.permissions";
 
   public enum NewsObjectType {
     DRAFT, LATEST_DRAFT, ARTICLE;
@@ -117,39 +128,166 @@ public class NewsUtils {
   }
 
   /**
-   * Processes Mentioners who has been mentioned via the news body.
+   * Processes Mentioners who has been mentioned via the news body. Mentioned
+   * users are returned as identity identifiers while the mentioned space roles
+   * are returned as {@link #ROLE_MENTION_PREFIX} followed by the role name, to
+   * be expanded to the space users by the notification using
+   * {@link #getSpaceRoleUsernames(Space, Collection)}.
    *
    * @param content : the content in which update mention
    * @param space : the space of the news (for group mentioning)
-   * @return set of mentioned users
+   * @return set of mentioned users identity identifiers and space roles
    */
   public static Set<String> processMentions(String content, Space space) {
-    Set<String> mentions = new HashSet<>();
-    mentions.addAll(MentionUtils.getMentionedUsernames(content));
+    return getMentionedIds(extractMentions(content, space));
+  }
 
+  /**
+   * Extracts the mentions of a content: the mentioned users names followed by
+   * the mentioned space roles, as {@link #ROLE_MENTION_PREFIX} followed by the
+   * role name. The result is meant to be computed once when a page version is
+   * saved and stored using {@link #formatMentions(Collection)}.
+   *
+   * @param content : the content in which search mentions
+   * @param space : the space of the news (for group mentioning)
+   * @return list of distinct mentions
+   */
+  public static List<String> extractMentions(String content, Space space) {
+    List<String> mentions = new ArrayList<>();
+    if (StringUtils.isBlank(content)) {
+      return mentions;
+    }
+    MentionUtils.getMentionedUsernames(content).stream().distinct().forEach(mentions::add);
     if (space != null) {
       IdentityStorage identityStorage = CommonsUtils.getService(IdentityStorage.class);
       String spaceIdentityId = identityStorage.findIdentityId(SpaceIdentityProvider.NAME, space.getPrettyName());
-      Set<String> mentionedRoles = MentionUtils.getMentionedRoles(content, spaceIdentityId);
-      mentionedRoles.forEach(role -> {
-        if (StringUtils.equals("member", role) && space.getMembers() != null) {
-          mentions.addAll(Arrays.asList(space.getMembers()));
-        } else if (StringUtils.equals("manager", role) && space.getManagers() != null) {
-          mentions.addAll(Arrays.asList(space.getManagers()));
-        } else if (StringUtils.equals("redactor", role) && space.getRedactors() != null) {
-          mentions.addAll(Arrays.asList(space.getRedactors()));
-        } else if (StringUtils.equals("publisher", role) && space.getPublishers() != null) {
-          mentions.addAll(Arrays.asList(space.getPublishers()));
-        }
-      });
+      MentionUtils.getMentionedRoles(content, spaceIdentityId)
+                  .stream()
+                  .filter(MENTIONABLE_SPACE_ROLES::contains)
+                  .distinct()
+                  .map(ROLE_MENTION_PREFIX::concat)
+                  .forEach(mentions::add);
     }
+    return mentions;
+  }
 
-    return mentions.stream().map(remoteId -> {
-      IdentityStorage identityStorage = CommonsUtils.getService(IdentityStorage.class);
+  /**
+   * Resolves mentions returned by {@link #extractMentions(String, Space)} to
+   * the mentioned users identity identifiers, space role mentions being kept
+   * as is.
+   *
+   * @param mentions list of mentions
+   * @return set of mentioned users identity identifiers and space roles
+   */
+  public static Set<String> getMentionedIds(Collection<String> mentions) {
+    if (CollectionUtils.isEmpty(mentions)) {
+      return new HashSet<>();
+    }
+    IdentityStorage identityStorage = CommonsUtils.getService(IdentityStorage.class);
+    Set<String> mentionedIds = getUserIdentityIds(identityStorage,
+                                                  mentions.stream().filter(mention -> !isRoleMention(mention)).toList());
+    mentions.stream().filter(NewsUtils::isRoleMention).forEach(mentionedIds::add);
+    return mentionedIds;
+  }
+
+  /**
+   * @param mentions list of mentions
+   * @return compact representation of the mentions to store in a page version
+   *         metadata item
+   */
+  public static String formatMentions(Collection<String> mentions) {
+    return CollectionUtils.isEmpty(mentions) ? "" : String.join(MENTIONS_SEPARATOR, mentions);
+  }
 
-      Identity identity = identityStorage.findIdentity(OrganizationIdentityProvider.NAME, remoteId);
-      return identity == null ? null : identity.getId();
-    }).filter(Objects::nonNull).collect(Collectors.toSet());
+  /**
+   * @param storedMentions mentions stored using
+   *          {@link #formatMentions(Collection)}
+   * @return list of mentions or null when the mentions weren't stored
+   */
+  public static List<String> parseMentions(String storedMentions) {
+    if (storedMentions == null) {
+      return null; // NOSONAR : null means that the mentions are unknown
+    }
+    return StringUtils.isBlank(storedMentions) ? new ArrayList<>()
+                                               : new ArrayList<>(Arrays.asList(storedMentions.split(MENTIONS_SEPARATOR)));
+  }
+
+  /**
+   * @param mentions stored mentions, null when unknown
+   * @return true if the content may contain users mentions to substitute
+   */
+  public static boolean hasUserMentions(List<String> mentions) {
+    return mentions == null || mentions.stream().anyMatch(mention -> !isRoleMention(mention));
+  }
+
+  /**
+   * @param mentions stored mentions, null when unknown
+   * @return true if the content may contain space roles mentions to substitute
+   */
+  public static boolean hasRoleMentions(List<String> mentions) {
+    return mentions == null || mentions.stream().anyMatch(NewsUtils::isRoleMention);
+  }
+
+  /**
+   * Resolves the identity identifiers of users. Only the identifiers are
+   * retrieved, which are served by the identity storage cache, without loading
+   * the users identities and profiles.
+   *
+   * @param identityStorage {@link IdentityStorage}
+   * @param usernames users names
+   * @return set of identity identifiers of existing users
+   */
+  public static Set<String> getUserIdentityIds(IdentityStorage identityStorage, Collection<String> usernames) {
+    if (CollectionUtils.isEmpty(usernames)) {
+      return new HashSet<>();
+    }
+    return usernames.stream()
+                    .distinct()
+                    .map(username -> identityStorage.findIdentityId(OrganizationIdentityProvider.NAME, username))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(HashSet::new));
+  }
+
+  /**
+   * @param mention mention returned by {@link #processMentions(String, Space)}
+   * @return true if the mention is a space role mention
+   */
+  public static boolean isRoleMention(String mention) {
+    return StringUtils.startsWith(mention, ROLE_MENTION_PREFIX);
+  }
+
+  /**
+   * Expands space role mentions to the names of the space users having the
+   * mentioned roles
+   *
+   * @param space {@link Space}
+   * @param mentions mentions returned by {@link #processMentions(String, Space)}
+   * @return set of users names
+   */
+  public static Set<String> getSpaceRoleUsernames(Space space, Collection<String> mentions) {
+    Set<String> usernames = new HashSet<>();
+    if (space == null || CollectionUtils.isEmpty(mentions)) {
+      return usernames;
+    }
+    mentions.stream()
+            .filter(NewsUtils::isRoleMention)
+            .map(mention -> mention.substring(ROLE_MENTION_PREFIX.length()))
+            .forEach(role -> {
+              String[] roleUsernames = null;
+              if (StringUtils.equals("member", role)) {
+                roleUsernames = space.getMembers();
+              } else if (StringUtils.equals("manager", role)) {
+                roleUsernames = space.getManagers();
+              } else if (StringUtils.equals("redactor", role)) {
+                roleUsernames = space.getRedactors();
+              } else if (StringUtils.equals("publisher", role)) {
+                roleUsernames = space.getPublishers();
+              }
+              if (roleUsernames != null) {
+                usernames.addAll(Arrays.asList(roleUsernames));
+              }
+            });
+    return usernames;
   }
 
   public static List<Long> getMyFilteredSpacesIds(org.exoplatform.services.security.Identity userIdentity,
@@ -0,0 +1,80 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.utils;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Conversions of the articles schedule post dates. The schedule post date is
+ * stored in the article metadata properties as epoch milliseconds, which
+ * sorts like the dates themselves, while it's exposed to clients in UTC
+ * ISO-8601 format.
+ */
+public class ScheduleDateUtils {
+
+  private static final DateTimeFormatter SCHEDULE_POST_DATE_FORMATTER =
+                                                                      DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+                                                                                       .withZone(ZoneOffset.UTC);
+
+  private ScheduleDateUtils() {
+  }
+
+  /**
+   * @param schedulePostTime schedule post time in milliseconds
+   * @return the value to store in the article metadata properties
+   */
+  public static String toStoredValue(long schedulePostTime) {
+    return String.valueOf(schedulePostTime);
+  }
+
+  /**
+   * Parses a stored schedule post date, in epoch milliseconds or in the legacy
+   * UTC ISO-8601 format
+   *
+   * @param schedulePostDate stored schedule post date
+   * @return schedule post time in milliseconds, 0 if not parseable
+   */
+  public static long parse(String schedulePostDate) {
+    if (StringUtils.isBlank(schedulePostDate)) {
+      return 0;
+    }
+    if (StringUtils.isNumeric(schedulePostDate)) {
+      return Long.parseLong(schedulePostDate);
+    }
+    try {
+      return Instant.parse(schedulePostDate).toEpochMilli();
+    } catch (DateTimeParseException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * @param schedulePostTime schedule post time in milliseconds
+   * @return schedule post date in UTC ISO-8601 format
+   */
+  public static String format(long schedulePostTime) {
+    return SCHEDULE_POST_DATE_FORMATTER.format(Instant.ofEpochMilli(schedulePostTime));
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.activity;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.exoplatform.social.common.RealtimeListAccess;
+import org.exoplatform.social.core.activity.model.ExoSocialActivity;
+import org.exoplatform.social.core.activity.model.ExoSocialActivityImpl;
+import org.exoplatform.social.core.manager.ActivityManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NewsActivityCounterCacheTest {
+
+  @Mock
+  private ActivityManager          activityManager;
+
+  @InjectMocks
+  private NewsActivityCounterCache newsActivityCounterCache;
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(newsActivityCounterCache, "maxSize", 10);
+    ReflectionTestUtils.setField(newsActivityCounterCache, "timeToLive", 300000L);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGetCommentsCount() {
+    ExoSocialActivity activity = new ExoSocialActivityImpl();
+    activity.setId("1");
+    RealtimeListAccess<ExoSocialActivity> comments = mock(RealtimeListAccess.class);
+    when(comments.getSize()).thenReturn(2);
+    when(activityManager.getCommentsWithListAccess(activity, true)).thenReturn(comments);
+
+    assertEquals(2, newsActivityCounterCache.getCommentsCount(activity));
+    assertEquals(2, newsActivityCounterCache.getCommentsCount(activity));
+    verify(activityManager, times(1)).getCommentsWithListAccess(activity, true);
+
+    newsActivityCounterCache.incrementCommentsCount("1");
+    newsActivityCounterCache.incrementCommentsCount("2");
+    assertEquals(3, newsActivityCounterCache.getCommentsCount(activity));
+    verify(activityManager, times(1)).getCommentsWithListAccess(activity, true);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testInvalidateCommentsCount() {
+    ExoSocialActivity activity = new ExoSocialActivityImpl();
+    activity.setId("1");
+    RealtimeListAccess<ExoSocialActivity> comments = mock(RealtimeListAccess.class);
+    when(comments.getSize()).thenReturn(3, 1);
+    when(activityManager.getCommentsWithListAccess(activity, true)).thenReturn(comments);
+
+    assertEquals(3, newsActivityCounterCache.getCommentsCount(activity));
+    newsActivityCounterCache.invalidateCommentsCount("1");
+    assertEquals(1, newsActivityCounterCache.getCommentsCount(activity));
+    verify(activityManager, times(2)).getCommentsWithListAccess(activity, true);
+  }
+
+  @Test
+  public void testGetLikesCount() {
+    ExoSocialActivity activity = new ExoSocialActivityImpl();
+    assertEquals(0, newsActivityCounterCache.getLikesCount(activity));
+    activity.setLikeIdentityIds(new String[] { "1", "2" });
+    assertEquals(2, newsActivityCounterCache.getLikesCount(activity));
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.activity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.exoplatform.social.core.activity.model.ExoSocialActivity;
+import org.exoplatform.social.core.activity.model.ExoSocialActivityImpl;
+import org.exoplatform.social.core.manager.ActivityManager;
+import org.exoplatform.social.core.space.spi.SpaceService;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NewsViewerSpacesCacheTest {
+
+  @Mock
+  private SpaceService          spaceService;
+
+  @Mock
+  private ActivityManager       activityManager;
+
+  @InjectMocks
+  private NewsViewerSpacesCache newsViewerSpacesCache;
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(newsViewerSpacesCache, "maxSize", 10);
+    ReflectionTestUtils.setField(newsViewerSpacesCache, "timeToLive", 300000L);
+  }
+
+  @Test
+  public void testGetMemberSpacesIds() {
+    when(spaceService.getMemberSpacesIds("john", 0, -1)).thenReturn(List.of("1", "2"));
+
+    assertEquals(Set.of("1", "2"), newsViewerSpacesCache.getMemberSpacesIds("john"));
+    assertEquals(Set.of("1", "2"), newsViewerSpacesCache.getMemberSpacesIds("john"));
+    verify(spaceService, times(1)).getMemberSpacesIds("john", 0, -1);
+
+    newsViewerSpacesCache.invalidate("john");
+    assertEquals(Set.of("1", "2"), newsViewerSpacesCache.getMemberSpacesIds("john"));
+    verify(spaceService, times(2)).getMemberSpacesIds("john", 0, -1);
+
+    assertTrue(newsViewerSpacesCache.getMemberSpacesIds(null).isEmpty());
+  }
+
+  @Test
+  public void testGetExistingActivitiesIds() {
+    when(spaceService.getMemberSpacesIds("john", 0, -1)).thenReturn(List.of("1"));
+    ExoSocialActivity activity = new ExoSocialActivityImpl();
+    activity.setId("11");
+    when(activityManager.getActivities(List.of("11", "12"))).thenReturn(List.of(activity));
+    when(activityManager.getActivities(List.of("12", "13"))).thenReturn(List.of());
+
+    assertEquals(Set.of("11"), newsViewerSpacesCache.getExistingActivitiesIds("john", List.of("11", "12")));
+    assertEquals(Set.of("11"), newsViewerSpacesCache.getExistingActivitiesIds("john", List.of("11", "12", "13")));
+    verify(activityManager, times(1)).getActivities(List.of("11", "12"));
+    verify(activityManager, times(1)).getActivities(List.of("12", "13"));
+  }
+
+  @Test
+  public void testGetExistingActivitiesIdsForAnonymous() {
+    assertTrue(newsViewerSpacesCache.getExistingActivitiesIds(null, List.of("11")).isEmpty());
+    verifyNoInteractions(spaceService, activityManager);
+  }
+}
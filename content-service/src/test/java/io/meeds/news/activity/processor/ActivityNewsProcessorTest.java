@@ -0,0 +1,99 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.activity.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import org.exoplatform.social.core.activity.model.ExoSocialActivity;
+import org.exoplatform.social.core.activity.model.ExoSocialActivityImpl;
+import org.exoplatform.social.core.manager.ActivityManager;
+
+import io.meeds.news.activity.NewsActivityCounterCache;
+import io.meeds.news.model.News;
+import io.meeds.news.model.NewsTranslation;
+import io.meeds.news.service.NewsService;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ActivityNewsProcessorTest {
+
+  @Mock
+  private NewsService              newsService;
+
+  @Mock
+  private ActivityManager          activityManager;
+
+  @Mock
+  private NewsActivityCounterCache newsActivityCounterCache;
+
+  @InjectMocks
+  private ActivityNewsProcessor    activityNewsProcessor;
+
+  @Test
+  public void testProcessActivity() throws Exception {
+    ExoSocialActivity activity = newNewsActivity("1");
+    ExoSocialActivity notNewsActivity = newNewsActivity("2");
+    notNewsActivity.setType(null);
+    News article = new News();
+    article.setId("1");
+    when(newsService.getNewsArticleById("1")).thenReturn(article);
+    when(newsService.getArticleTranslations("1")).thenReturn(List.of(new NewsTranslation("fr", "titre")));
+    when(newsActivityCounterCache.getCommentsCount(activity)).thenReturn(2);
+    when(newsActivityCounterCache.getLikesCount(activity)).thenReturn(3);
+
+    activityNewsProcessor.processActivity(activity);
+    activityNewsProcessor.processActivity(notNewsActivity);
+
+    News news = (News) activity.getLinkedProcessedEntities().get("news");
+    assertEquals("1", news.getId());
+    assertEquals(2, news.getCommentsCount());
+    assertEquals(3, news.getLikesCount());
+    assertEquals("1", activity.getMetadataObjectId());
+    assertEquals(Map.of("news_fr", new NewsTranslation("fr", "titre")),
+                 activity.getLinkedProcessedEntities().get("newsTranslations"));
+    assertNull(notNewsActivity.getMetadataObjectId());
+
+    // An already processed activity isn't processed again
+    activityNewsProcessor.processActivity(activity);
+    verify(newsService, times(1)).getNewsArticleById("1");
+  }
+
+  private ExoSocialActivity newNewsActivity(String newsId) {
+    ExoSocialActivity activity = new ExoSocialActivityImpl();
+    activity.setType("news");
+    Map<String, String> templateParams = new HashMap<>();
+    templateParams.put("newsId", newsId);
+    activity.setTemplateParams(templateParams);
+    return activity;
+  }
+}
@@ -1,31 +1,32 @@
 package io.meeds.news.job;
 
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_DELETED;
+import static io.meeds.news.service.impl.NewsServiceImpl.POSTED;
 import static io.meeds.news.service.impl.NewsServiceImpl.SCHEDULE_POST_DATE;
+import static io.meeds.news.service.impl.NewsServiceImpl.STAGED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.text.SimpleDateFormat;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
+import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
-import java.util.TimeZone;
 
 import org.junit.Test;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import org.exoplatform.social.metadata.MetadataService;
@@ -46,44 +47,25 @@ public class PostScheduledNewsArticleJobTest {
   @InjectMocks
   private PostScheduledNewsArticleJob postScheduledNewsArticleJob;
 
-  @BeforeEach
-  public void setUp() {
-    // initializes all fields annotated with @Mock within the test class
-    MockitoAnnotations.openMocks(this);
-  }
-
   @Test
-  public void testPostScheduledNewsArticle() throws Exception {
-    String newsId = "1";
-    LocalDateTime currentDate = LocalDateTime.now(ZoneId.of("Africa/Tunis")).truncatedTo(ChronoUnit.MINUTES);
-
-    MetadataItem metadataItemWithDateBeforeTheCurrentDate = mock(MetadataItem.class);
-    when(metadataItemWithDateBeforeTheCurrentDate.getObjectId()).thenReturn(newsId);
-    LocalDateTime beforeDate = currentDate.minusDays(1);
-    String beforeDateString = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss").format(beforeDate).concat(" ").concat("+0100");
-
-    SimpleDateFormat format = new SimpleDateFormat("MM/dd/yyyy HH:mm:ss" + "Z");
-    Calendar startPublishedDate = Calendar.getInstance();
-    startPublishedDate.setTime(format.parse(beforeDateString));
-
-    SimpleDateFormat defaultFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-    defaultFormat.setTimeZone(TimeZone.getTimeZone(ZoneOffset.UTC));
-    String startPublishedDateString = defaultFormat.format(startPublishedDate.getTime());
-
-    when(metadataItemWithDateBeforeTheCurrentDate.getProperties()).thenReturn(Map.of(SCHEDULE_POST_DATE, startPublishedDateString));
-
-    MetadataItem metadataItemWithDateAfterTheCurrentDate = mock(MetadataItem.class);
-    LocalDateTime afterDate = currentDate.plusDays(1);
-    String afterDateString = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss").format(afterDate).concat(" ").concat("+0100");
-    // after date
-    startPublishedDate.setTime(format.parse(afterDateString));
-    String afterSatrtDateString = defaultFormat.format(startPublishedDate.getTime());
-    when(metadataItemWithDateAfterTheCurrentDate.getProperties()).thenReturn(Map.of(SCHEDULE_POST_DATE, afterSatrtDateString));
-
+  public void testGetScheduledArticles() {
+    Instant schedulePostDate = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+    MetadataItem scheduledArticle = mock(MetadataItem.class);
+    when(scheduledArticle.getObjectId()).thenReturn("1");
+    when(scheduledArticle.getProperties()).thenReturn(Map.of(SCHEDULE_POST_DATE, String.valueOf(schedulePostDate.toEpochMilli())));
+    MetadataItem legacyScheduledArticle = mock(MetadataItem.class);
+    when(legacyScheduledArticle.getObjectId()).thenReturn("2");
+    when(legacyScheduledArticle.getProperties()).thenReturn(Map.of(SCHEDULE_POST_DATE,
+                                                                   schedulePostDate.minus(1, ChronoUnit.HOURS).toString()));
+    MetadataItem deletedScheduledArticle = mock(MetadataItem.class);
+    when(deletedScheduledArticle.getProperties()).thenReturn(Map.of(SCHEDULE_POST_DATE,
+                                                                    String.valueOf(schedulePostDate.toEpochMilli()),
+                                                                    NEWS_DELETED,
+                                                                    "true"));
     List<MetadataItem> metadataItems = new ArrayList<>();
-    metadataItems.add(metadataItemWithDateBeforeTheCurrentDate);
-    metadataItems.add(metadataItemWithDateAfterTheCurrentDate);
-
+    metadataItems.add(scheduledArticle);
+    metadataItems.add(legacyScheduledArticle);
+    metadataItems.add(deletedScheduledArticle);
     when(metadataService.getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(anyString(),
                                                                                                anyString(),
                                                                                                anyString(),
@@ -92,15 +74,48 @@ public class PostScheduledNewsArticleJobTest {
                                                                                                anyLong(),
                                                                                                anyLong())).thenReturn(metadataItems);
 
-    News news = mock(News.class);
-    when(news.getAuthor()).thenReturn("author");
-    when(newsService.getNewsArticleById(newsId)).thenReturn(news);
-
-    // When
-    postScheduledNewsArticleJob.postScheduledNewsArticle();
+    Map<String, Long> scheduledArticles = postScheduledNewsArticleJob.getScheduledArticles();
+    assertEquals(List.of("2", "1"), new ArrayList<>(scheduledArticles.keySet()));
+    assertEquals(schedulePostDate.toEpochMilli(), scheduledArticles.get("1").longValue());
+    assertEquals(schedulePostDate.minus(1, ChronoUnit.HOURS).toEpochMilli(), scheduledArticles.get("2").longValue());
+    // A single page was read since it wasn't full
+    verify(metadataService, times(1)).getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(anyString(),
+                                                                                                            anyString(),
+                                                                                                            anyString(),
+                                                                                                            anyString(),
+                                                                                                            anyString(),
+                                                                                                            eq(0L),
+                                                                                                            eq(100L));
+  }
 
-    // Then
-    // Assert that the post news method called only once
-    verify(newsService, times(1)).postNews(news, news.getAuthor());
+  @Test
+  public void testPostScheduledNewsArticle() throws Exception {
+    News dueArticle = mock(News.class);
+    when(dueArticle.getAuthor()).thenReturn("author");
+    when(dueArticle.getPublicationState()).thenReturn(STAGED);
+    when(dueArticle.getSchedulePostDate()).thenReturn(Instant.now().minus(1, ChronoUnit.MINUTES).toString());
+    when(newsService.getNewsArticleById("1")).thenReturn(dueArticle);
+    when(newsService.postNews(dueArticle, "author")).thenReturn(dueArticle);
+
+    News rescheduledArticle = mock(News.class);
+    when(rescheduledArticle.getPublicationState()).thenReturn(STAGED);
+    when(rescheduledArticle.getSchedulePostDate()).thenReturn(Instant.now().plus(1, ChronoUnit.DAYS).toString());
+    when(newsService.getNewsArticleById("2")).thenReturn(rescheduledArticle);
+
+    News postedArticle = mock(News.class);
+    when(postedArticle.getPublicationState()).thenReturn(POSTED);
+    when(newsService.getNewsArticleById("3")).thenReturn(postedArticle);
+
+    assertTrue(postScheduledNewsArticleJob.postScheduledNewsArticle("1"));
+    assertFalse(postScheduledNewsArticleJob.postScheduledNewsArticle("2"));
+    assertFalse(postScheduledNewsArticleJob.postScheduledNewsArticle("3"));
+    assertFalse(postScheduledNewsArticleJob.postScheduledNewsArticle("4"));
+
+    verify(newsService, times(1)).postNews(dueArticle, "author");
+    verify(newsService, times(1)).postNews(any(), any());
+
+    // Posting errors are propagated to be retried
+    when(newsService.postNews(dueArticle, "author")).thenThrow(IllegalStateException.class);
+    assertThrows(IllegalStateException.class, () -> postScheduledNewsArticleJob.postScheduledNewsArticle("1"));
   }
 }
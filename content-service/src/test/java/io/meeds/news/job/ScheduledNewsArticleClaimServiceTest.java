@@ -0,0 +1,187 @@
+package io.meeds.news.job;
+
+import static io.meeds.news.job.ScheduledNewsArticleClaimService.CLAIM_ATTEMPTS;
+import static io.meeds.news.job.ScheduledNewsArticleClaimService.CLAIM_FAILED;
+import static io.meeds.news.job.ScheduledNewsArticleClaimService.CLAIM_METADATA_TYPE;
+import static io.meeds.news.job.ScheduledNewsArticleClaimService.CLAIM_NODE;
+import static io.meeds.news.job.ScheduledNewsArticleClaimService.CLAIM_TIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.Metadata;
+import org.exoplatform.social.metadata.model.MetadataKey;
+
+import io.meeds.news.model.ScheduledNewsArticleFailure;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScheduledNewsArticleClaimServiceTest {
+
+  private static final MetadataKey         CLAIM_KEY = new MetadataKey(CLAIM_METADATA_TYPE.getName(), "1", 0);
+
+  @Mock
+  private MetadataService                  metadataService;
+
+  @Mock
+  private PortalContainer                  container;
+
+  @InjectMocks
+  private ScheduledNewsArticleClaimService claimService;
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(claimService, "claimLease", 300000L);
+  }
+
+  @Test
+  public void testClaim() {
+    assertTrue(claimService.claim("1"));
+    verify(metadataService, times(1)).createMetadata(argThat(claim -> "1".equals(claim.getName())
+        && CLAIM_METADATA_TYPE.getName().equals(claim.getType().getName()) && claim.getAudienceId() == 0
+        && getNodeName().equals(claim.getProperties().get(CLAIM_NODE))), eq(0L));
+
+    // Unique key violation raised by a concurrent claim of another node
+    when(metadataService.createMetadata(any(), anyLong())).thenThrow(IllegalStateException.class);
+    assertFalse(claimService.claim("1"));
+  }
+
+  @Test
+  public void testConcurrentClaims() throws Exception {
+    // Both nodes see no claim, but only one claim creation passes the unique
+    // key of the metadata
+    AtomicBoolean claimCreated = new AtomicBoolean();
+    CountDownLatch claimsChecked = new CountDownLatch(2);
+    when(metadataService.getMetadataByKey(CLAIM_KEY)).thenAnswer(invocation -> {
+      claimsChecked.countDown();
+      claimsChecked.await(5, TimeUnit.SECONDS);
+      return null;
+    });
+    when(metadataService.createMetadata(any(), anyLong())).thenAnswer(invocation -> {
+      if (!claimCreated.compareAndSet(false, true)) {
+        throw new IllegalStateException("Duplicate metadata key");
+      }
+      return invocation.getArgument(0);
+    });
+
+    ExecutorService executorService = Executors.newFixedThreadPool(2);
+    try {
+      Callable<Boolean> claim = () -> claimService.claim("1");
+      List<Future<Boolean>> claims = new ArrayList<>(executorService.invokeAll(List.of(claim, claim)));
+      int successfulClaims = 0;
+      for (Future<Boolean> claimResult : claims) {
+        if (Boolean.TRUE.equals(claimResult.get())) {
+          successfulClaims++;
+        }
+      }
+      assertEquals(1, successfulClaims);
+      verify(metadataService, times(2)).createMetadata(any(), anyLong());
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testClaimAlreadyClaimedArticle() {
+    Metadata claim = newClaim("otherNode", System.currentTimeMillis());
+    when(metadataService.getMetadataByKey(CLAIM_KEY)).thenReturn(claim);
+    assertFalse(claimService.claim("1"));
+    verify(metadataService, never()).createMetadata(any(), anyLong());
+    verify(metadataService, never()).deleteMetadataById(anyLong());
+  }
+
+  @Test
+  public void testClaimExpiredClaim() {
+    Metadata claim = newClaim("stoppedNode", System.currentTimeMillis() - 600000);
+    when(metadataService.getMetadataByKey(CLAIM_KEY)).thenReturn(claim);
+    assertTrue(claimService.claim("1"));
+    verify(metadataService, times(1)).deleteMetadataById(3L);
+    verify(metadataService, times(1)).createMetadata(any(), eq(0L));
+  }
+
+  @Test
+  public void testRelease() {
+    when(metadataService.getMetadataByKey(CLAIM_KEY)).thenReturn(newClaim("otherNode", System.currentTimeMillis()));
+    claimService.release("1");
+    verify(metadataService, never()).deleteMetadataById(anyLong());
+
+    when(metadataService.getMetadataByKey(CLAIM_KEY)).thenReturn(newClaim(getNodeName(), System.currentTimeMillis()));
+    claimService.release("1");
+    verify(metadataService, times(1)).deleteMetadataById(3L);
+  }
+
+  @Test
+  public void testFailures() {
+    Metadata claim = newClaim(getNodeName(), System.currentTimeMillis());
+    when(metadataService.getMetadataByKey(CLAIM_KEY)).thenReturn(claim);
+
+    claimService.markAsFailed("1", 3L, 5, "error");
+    verify(metadataService, times(1)).updateMetadata(claim, 2L);
+    assertEquals("true", claim.getProperties().get(CLAIM_FAILED));
+    assertEquals("5", claim.getProperties().get(CLAIM_ATTEMPTS));
+
+    // Failed claims never expire
+    assertFalse(claimService.claim("1"));
+
+    Metadata otherClaim = newClaim("otherNode", System.currentTimeMillis());
+    otherClaim.setName("2");
+    when(metadataService.getMetadatas(CLAIM_METADATA_TYPE.getName(), 0)).thenReturn(List.of(claim, otherClaim));
+    List<ScheduledNewsArticleFailure> failures = claimService.getFailures();
+    assertEquals(1, failures.size());
+    assertEquals("1", failures.get(0).getArticleId());
+    assertEquals(3L, failures.get(0).getSchedulePostTime());
+    assertEquals(5, failures.get(0).getAttempts());
+    assertEquals("error", failures.get(0).getError());
+
+    ScheduledNewsArticleFailure failure = claimService.deleteFailure("1");
+    assertNotNull(failure);
+    verify(metadataService, times(1)).deleteMetadataById(3L);
+  }
+
+  private Metadata newClaim(String node, long claimTime) {
+    Map<String, String> properties = new HashMap<>();
+    properties.put(CLAIM_NODE, node);
+    properties.put(CLAIM_TIME, String.valueOf(claimTime));
+    Metadata claim = new Metadata();
+    claim.setId(3L);
+    claim.setType(CLAIM_METADATA_TYPE);
+    claim.setName("1");
+    claim.setCreatorId(2L);
+    claim.setProperties(properties);
+    return claim;
+  }
+
+  private String getNodeName() {
+    return (String) ReflectionTestUtils.getField(ScheduledNewsArticleClaimService.class, "NODE_NAME");
+  }
+}
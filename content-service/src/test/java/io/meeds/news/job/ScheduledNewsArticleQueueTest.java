@@ -0,0 +1,242 @@
+package io.meeds.news.job;
+
+import static io.meeds.news.utils.NewsUtils.DELETE_NEWS;
+import static io.meeds.news.utils.NewsUtils.SCHEDULE_NEWS;
+import static io.meeds.news.utils.NewsUtils.UNSCHEDULE_NEWS;
+import static io.meeds.news.utils.NewsUtils.UPDATE_NEWS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.exoplatform.services.listener.Event;
+import org.exoplatform.services.listener.ListenerService;
+
+import io.meeds.news.model.News;
+import io.meeds.news.model.ScheduledNewsArticleFailure;
+import io.meeds.news.model.ScheduledNewsArticleStatistics;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScheduledNewsArticleQueueTest {
+
+  @Mock
+  private PostScheduledNewsArticleJob      postScheduledNewsArticleJob;
+
+  @Mock
+  private ScheduledNewsArticleClaimService claimService;
+
+  @Mock
+  private ListenerService                  listenerService;
+
+  @InjectMocks
+  private ScheduledNewsArticleQueue        scheduledNewsArticleQueue;
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(scheduledNewsArticleQueue, "workers", 2);
+    ReflectionTestUtils.setField(scheduledNewsArticleQueue, "maxAttempts", 2);
+    ReflectionTestUtils.setField(scheduledNewsArticleQueue, "retryDelay", 0L);
+    scheduledNewsArticleQueue.init();
+  }
+
+  @After
+  public void tearDown() {
+    scheduledNewsArticleQueue.destroy();
+  }
+
+  @Test
+  public void testPostDueArticles() throws Exception {
+    long now = System.currentTimeMillis();
+    Map<String, Long> storedScheduledArticles = new HashMap<>();
+    storedScheduledArticles.put("1", now - 1000);
+    storedScheduledArticles.put("2", now + 3600000);
+    when(postScheduledNewsArticleJob.getScheduledArticles()).thenReturn(storedScheduledArticles);
+    when(claimService.claim("1")).thenReturn(true);
+    when(postScheduledNewsArticleJob.postScheduledNewsArticle("1")).thenReturn(true);
+
+    scheduledNewsArticleQueue.reconcile();
+    scheduledNewsArticleQueue.postDueArticles();
+    verify(claimService, timeout(5000).times(1)).release("1");
+    verify(postScheduledNewsArticleJob, times(1)).postScheduledNewsArticle("1");
+    assertEquals(1, scheduledNewsArticleQueue.size());
+
+    // Storage isn't read when checking due articles
+    scheduledNewsArticleQueue.postDueArticles();
+    verify(postScheduledNewsArticleJob, times(1)).getScheduledArticles();
+    verify(postScheduledNewsArticleJob, times(1)).postScheduledNewsArticle(any());
+
+    ScheduledNewsArticleStatistics statistics = scheduledNewsArticleQueue.getStatistics();
+    assertEquals(1, statistics.getScheduledCount());
+    assertEquals(1, statistics.getPostedCount());
+    assertTrue(statistics.getLastPostLag() >= 1000);
+    assertEquals(statistics.getLastPostLag(), statistics.getMaxPostLag());
+  }
+
+  @Test
+  public void testPostDueArticlesClaimedByAnotherNode() throws Exception {
+    long now = System.currentTimeMillis();
+    Map<String, Long> storedScheduledArticles = new HashMap<>();
+    storedScheduledArticles.put("1", now - 1000);
+    storedScheduledArticles.put("2", now - 2000);
+    when(postScheduledNewsArticleJob.getScheduledArticles()).thenReturn(storedScheduledArticles);
+    when(claimService.claim("1")).thenReturn(false);
+    when(claimService.claim("2")).thenReturn(true);
+
+    scheduledNewsArticleQueue.reconcile();
+    scheduledNewsArticleQueue.postDueArticles();
+    verify(claimService, timeout(5000).times(1)).release("2");
+    verify(postScheduledNewsArticleJob, times(1)).postScheduledNewsArticle("2");
+    verify(claimService, timeout(5000).times(1)).claim("1");
+    verify(postScheduledNewsArticleJob, never()).postScheduledNewsArticle("1");
+    verify(claimService, never()).release("1");
+    assertEquals(0, scheduledNewsArticleQueue.size());
+  }
+
+  @Test
+  public void testRetryFailedPosting() throws Exception {
+    long schedulePostTime = System.currentTimeMillis() - 1000;
+    when(postScheduledNewsArticleJob.getScheduledArticles()).thenReturn(Map.of("1", schedulePostTime));
+    when(claimService.claim("1")).thenReturn(true);
+    when(postScheduledNewsArticleJob.postScheduledNewsArticle("1")).thenThrow(IllegalStateException.class);
+
+    scheduledNewsArticleQueue.reconcile();
+    scheduledNewsArticleQueue.postDueArticles();
+    verify(claimService, timeout(5000).times(1)).release("1");
+    waitForScheduledArticles(1);
+
+    // Last attempt
+    scheduledNewsArticleQueue.postDueArticles();
+    verify(claimService, timeout(5000).times(1)).markAsFailed(any(), anyLong(), anyInt(), any());
+    verify(claimService, times(1)).markAsFailed("1", schedulePostTime, 2, null);
+    verify(claimService, times(1)).release("1");
+    assertEquals(0, scheduledNewsArticleQueue.size());
+
+    ScheduledNewsArticleStatistics statistics = scheduledNewsArticleQueue.getStatistics();
+    assertEquals(1, statistics.getRetriedCount());
+    assertEquals(1, statistics.getFailedCount());
+    assertEquals(0, statistics.getPostedCount());
+
+    when(claimService.deleteFailure(anyString())).thenReturn(null);
+    assertFalse(scheduledNewsArticleQueue.retryFailure("2"));
+    when(claimService.deleteFailure("1")).thenReturn(new ScheduledNewsArticleFailure("1", "node", 2, null, schedulePostTime, 0));
+    assertTrue(scheduledNewsArticleQueue.retryFailure("1"));
+    assertEquals(1, scheduledNewsArticleQueue.size());
+  }
+
+  @Test
+  public void testScheduleAndUnscheduleEvents() throws Exception {
+    News article = new News();
+    article.setId("1");
+    article.setSpaceId("2");
+
+    when(postScheduledNewsArticleJob.getSchedulePostTime(article)).thenReturn(System.currentTimeMillis() + 3600000);
+    scheduledNewsArticleQueue.onEvent(new Event<>(SCHEDULE_NEWS, "user", article));
+    assertEquals(1, scheduledNewsArticleQueue.size());
+
+    // Rescheduling to a past date makes the article due
+    when(postScheduledNewsArticleJob.getSchedulePostTime(article)).thenReturn(System.currentTimeMillis() - 1000);
+    when(claimService.claim("1")).thenReturn(true);
+    scheduledNewsArticleQueue.onEvent(new Event<>(SCHEDULE_NEWS, "user", article));
+    assertEquals(1, scheduledNewsArticleQueue.size());
+    scheduledNewsArticleQueue.postDueArticles();
+    verify(claimService, timeout(5000).times(1)).release("1");
+    verify(postScheduledNewsArticleJob, times(1)).postScheduledNewsArticle("1");
+    assertEquals(0, scheduledNewsArticleQueue.size());
+
+    scheduledNewsArticleQueue.schedule("1", System.currentTimeMillis() - 1000);
+    scheduledNewsArticleQueue.onEvent(new Event<>(UNSCHEDULE_NEWS, "user", article));
+    assertEquals(0, scheduledNewsArticleQueue.size());
+    scheduledNewsArticleQueue.postDueArticles();
+    verify(postScheduledNewsArticleJob, times(1)).postScheduledNewsArticle(any());
+  }
+
+  @Test
+  public void testUpdateAndDeleteEvents() throws Exception {
+    News article = new News();
+    article.setId("1");
+    article.setSpaceId("2");
+
+    // Updates of articles which aren't scheduled are ignored
+    scheduledNewsArticleQueue.onEvent(new Event<>(UPDATE_NEWS, "user", article));
+    verify(postScheduledNewsArticleJob, never()).getSchedulePostTime(article);
+    assertEquals(0, scheduledNewsArticleQueue.size());
+
+    scheduledNewsArticleQueue.schedule("1", System.currentTimeMillis() + 3600000);
+    when(postScheduledNewsArticleJob.getSchedulePostTime(article)).thenReturn(System.currentTimeMillis() + 7200000);
+    scheduledNewsArticleQueue.onEvent(new Event<>(UPDATE_NEWS, "user", article));
+    assertEquals(1, scheduledNewsArticleQueue.size());
+
+    // The article isn't staged anymore
+    when(postScheduledNewsArticleJob.getSchedulePostTime(article)).thenReturn(0L);
+    scheduledNewsArticleQueue.onEvent(new Event<>(UPDATE_NEWS, "user", article));
+    assertEquals(0, scheduledNewsArticleQueue.size());
+
+    scheduledNewsArticleQueue.schedule("1", System.currentTimeMillis() + 3600000);
+    scheduledNewsArticleQueue.onEvent(new Event<>(DELETE_NEWS, "user", article));
+    assertEquals(0, scheduledNewsArticleQueue.size());
+  }
+
+  @Test
+  public void testReconcileWithArticlesScheduledOnOtherNodes() throws Exception {
+    long now = System.currentTimeMillis();
+    Map<String, Long> storedScheduledArticles = new HashMap<>();
+    storedScheduledArticles.put("1", now + 3600000);
+    storedScheduledArticles.put("2", now + 7200000);
+    when(postScheduledNewsArticleJob.getScheduledArticles()).thenReturn(storedScheduledArticles);
+    scheduledNewsArticleQueue.reconcile();
+    assertEquals(2, scheduledNewsArticleQueue.size());
+
+    // Article 1 moved to a past date and article 2 unscheduled on another node
+    Thread.sleep(5);
+    storedScheduledArticles.put("1", now - 1000);
+    storedScheduledArticles.remove("2");
+    when(claimService.claim("1")).thenReturn(true);
+    when(postScheduledNewsArticleJob.postScheduledNewsArticle("1")).thenReturn(true);
+    scheduledNewsArticleQueue.reconcile();
+    assertEquals(1, scheduledNewsArticleQueue.size());
+    scheduledNewsArticleQueue.postDueArticles();
+    verify(claimService, timeout(5000).times(1)).release("1");
+    verify(postScheduledNewsArticleJob, times(1)).postScheduledNewsArticle("1");
+    verify(postScheduledNewsArticleJob, never()).postScheduledNewsArticle("2");
+  }
+
+  @Test
+  public void testReconcileKeepsArticlesScheduledMeanwhile() {
+    when(postScheduledNewsArticleJob.getScheduledArticles()).thenAnswer(invocation -> {
+      // Article scheduled on the current node while the staged articles are
+      // read from storage
+      scheduledNewsArticleQueue.schedule("1", System.currentTimeMillis() + 3600000);
+      return new HashMap<>();
+    });
+    scheduledNewsArticleQueue.reconcile();
+    assertEquals(1, scheduledNewsArticleQueue.size());
+  }
+
+  private void waitForScheduledArticles(int expectedSize) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 5000;
+    while (scheduledNewsArticleQueue.size() != expectedSize && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+    assertEquals(expectedSize, scheduledNewsArticleQueue.size());
+  }
+}
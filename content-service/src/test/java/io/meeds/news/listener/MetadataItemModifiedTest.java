@@ -35,13 +35,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
-import org.exoplatform.commons.search.index.IndexingService;
 import org.exoplatform.services.listener.Event;
 import org.exoplatform.social.core.storage.cache.CachedActivityStorage;
 import org.exoplatform.social.metadata.model.MetadataItem;
 
 import io.meeds.news.model.News;
-import io.meeds.news.search.NewsIndexingServiceConnector;
+import io.meeds.news.search.NewsSearchBackend;
 import io.meeds.news.service.NewsService;
 import io.meeds.news.utils.NewsUtils;
 
@@ -50,7 +49,7 @@ import io.meeds.news.utils.NewsUtils;
 public class MetadataItemModifiedTest {
 
   @Mock
-  private IndexingService       indexingService;
+  private NewsSearchBackend     newsSearchBackend;
 
   @Mock
   private NewsService           newsService;
@@ -99,7 +98,7 @@ public class MetadataItemModifiedTest {
 
     metadataItemModified.onEvent(event);
     verify(newsService, times(1)).getNewsArticleById(newsId);
-    verify(indexingService, times(1)).reindex(NewsIndexingServiceConnector.TYPE, newsId);
+    verify(newsSearchBackend, times(1)).reindex(newsId);
   }
 
   @Test
@@ -121,7 +120,7 @@ public class MetadataItemModifiedTest {
 
     metadataItemModified.onEvent(event);
     verify(newsService, times(1)).getNewsArticleById(newsId);
-    verify(indexingService, times(1)).reindex(NewsIndexingServiceConnector.TYPE, newsId);
+    verify(newsSearchBackend, times(1)).reindex(newsId);
     verify(activityStorage, times(1)).clearActivityCached(activityId);
   }
 
@@ -27,6 +27,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Map;
@@ -48,7 +49,9 @@ import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
 
+import io.meeds.news.activity.NewsActivityCounterCache;
 import io.meeds.news.model.News;
+import io.meeds.news.model.NewsActivity;
 import io.meeds.news.service.NewsService;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -56,19 +59,22 @@ import io.meeds.news.service.NewsService;
 public class NewsActivityListenerTest {
 
   @Mock
-  private ActivityManager activityManager;
+  private ActivityManager          activityManager;
 
   @Mock
-  private IdentityManager identityManager;
+  private IdentityManager          identityManager;
 
   @Mock
-  private SpaceService    spaceService;
+  private SpaceService             spaceService;
 
   @Mock
-  private NewsService     newsService;
+  private NewsService              newsService;
+
+  @Mock
+  private NewsActivityCounterCache newsActivityCounterCache;
 
   @InjectMocks
-  NewsActivityListener    newsActivityListener;
+  NewsActivityListener             newsActivityListener;
 
   @Test
   public void testNotShareWhenActivityNotFound() {
@@ -115,7 +121,8 @@ public class NewsActivityListenerTest {
 
     newsActivityListener.shareActivity(event);
 
-    verifyNoInteractions(newsService);
+    verify(newsService, times(1)).getNewsActivity(originalActivityId);
+    verifyNoMoreInteractions(newsService);
   }
 
   @Test
@@ -130,12 +137,12 @@ public class NewsActivityListenerTest {
     String originalActivityId = "originalActivityId";
     when(templateParams.get("originalActivityId")).thenReturn(originalActivityId);
 
-    ExoSocialActivity sharedActivity = mock(ExoSocialActivity.class);
-    when(activityManager.getActivity(originalActivityId)).thenReturn(sharedActivity);
+    when(newsService.getNewsActivity(originalActivityId)).thenReturn(new NewsActivity(originalActivityId, "newsId", "1", true));
 
     newsActivityListener.shareActivity(event);
 
-    verifyNoInteractions(newsService);
+    verify(newsService, times(1)).getNewsActivity(originalActivityId);
+    verifyNoMoreInteractions(newsService);
   }
 
   @Test
@@ -150,15 +157,8 @@ public class NewsActivityListenerTest {
     String originalActivityId = "originalActivityId";
     when(templateParams.get("originalActivityId")).thenReturn(originalActivityId);
 
-    ExoSocialActivity sharedActivity = mock(ExoSocialActivity.class);
-    when(activityManager.getActivity(originalActivityId)).thenReturn(sharedActivity);
-
-    Map<String, String> sharedTemplateParams = mock(Map.class);
-    when(sharedActivity.getTemplateParams()).thenReturn(sharedTemplateParams);
-    when(sharedTemplateParams.containsKey("newsId")).thenReturn(true);
-
     String newsId = "newsId";
-    when(sharedTemplateParams.get("newsId")).thenReturn(newsId);
+    when(newsService.getNewsActivity(originalActivityId)).thenReturn(new NewsActivity(originalActivityId, newsId, "1", false));
     org.exoplatform.services.security.Identity currentIdentity = new org.exoplatform.services.security.Identity("john");
     ConversationState.setCurrent(new ConversationState(currentIdentity));
 
@@ -183,21 +183,14 @@ public class NewsActivityListenerTest {
     String originalActivityId = "originalActivityId";
     when(templateParams.get("originalActivityId")).thenReturn(originalActivityId);
 
-    ExoSocialActivity sharedActivity = mock(ExoSocialActivity.class);
-    when(activityManager.getActivity(originalActivityId)).thenReturn(sharedActivity);
-
     ActivityStream activityStream = mock(ActivityStream.class);
     when(activity.getActivityStream()).thenReturn(activityStream);
 
     String spacePrettyName = "space1";
     when(activityStream.getPrettyId()).thenReturn(spacePrettyName);
 
-    Map<String, String> sharedTemplateParams = mock(Map.class);
-    when(sharedActivity.getTemplateParams()).thenReturn(sharedTemplateParams);
-    when(sharedTemplateParams.containsKey("newsId")).thenReturn(true);
-
     String newsId = "newsId";
-    when(sharedTemplateParams.get("newsId")).thenReturn(newsId);
+    when(newsService.getNewsActivity(originalActivityId)).thenReturn(new NewsActivity(originalActivityId, newsId, "1", false));
 
     org.exoplatform.services.security.Identity currentIdentity = new org.exoplatform.services.security.Identity("john");
     ConversationState.setCurrent(new ConversationState(currentIdentity));
@@ -210,4 +203,37 @@ public class NewsActivityListenerTest {
     verify(newsService, times(1)).getNewsById(newsId, currentIdentity, false, ARTICLE.name().toLowerCase());
     verify(newsService, times(1)).shareNews(eq(news), nullable(Space.class), nullable(Identity.class), nullable(String.class));
   }
+
+  @Test
+  public void testSaveCommentOnNewsActivity() throws Exception {
+    ActivityLifeCycleEvent event = mock(ActivityLifeCycleEvent.class);
+    ExoSocialActivity comment = mock(ExoSocialActivity.class);
+    when(event.getActivity()).thenReturn(comment);
+    when(comment.getParentId()).thenReturn("1");
+    org.exoplatform.services.security.Identity currentIdentity = new org.exoplatform.services.security.Identity("john");
+    ConversationState.setCurrent(new ConversationState(currentIdentity));
+
+    newsActivityListener.saveComment(event);
+    verify(newsService, never()).getNewsByActivityId("1", currentIdentity);
+
+    when(newsService.getNewsActivity("1")).thenReturn(new NewsActivity("1", "newsId", "1", false));
+    newsActivityListener.saveComment(event);
+
+    verify(newsActivityCounterCache, times(1)).incrementCommentsCount("1");
+    verify(newsService, times(1)).getNewsByActivityId("1", currentIdentity);
+    verifyNoInteractions(activityManager);
+  }
+
+  @Test
+  public void testDeleteComment() {
+    ActivityLifeCycleEvent event = mock(ActivityLifeCycleEvent.class);
+    ExoSocialActivity comment = mock(ExoSocialActivity.class);
+    when(event.getActivity()).thenReturn(comment);
+    when(comment.getParentId()).thenReturn("1");
+
+    newsActivityListener.deleteComment(event);
+
+    verify(newsActivityCounterCache, times(1)).invalidateCommentsCount("1");
+    verifyNoInteractions(newsService);
+  }
 }
@@ -35,7 +35,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
-import org.exoplatform.commons.search.index.IndexingService;
 import org.exoplatform.services.listener.Event;
 import org.exoplatform.social.core.identity.model.Identity;
 import org.exoplatform.social.core.manager.IdentityManager;
@@ -46,7 +45,7 @@ import org.exoplatform.social.metadata.tag.model.TagName;
 import org.exoplatform.social.metadata.tag.model.TagObject;
 
 import io.meeds.news.model.News;
-import io.meeds.news.search.NewsIndexingServiceConnector;
+import io.meeds.news.search.NewsSearchBackend;
 import io.meeds.news.utils.NewsUtils;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -56,7 +55,7 @@ public class NewsMetadataListenerTest {
   private static final String USERNAME = "testuser";
 
   @Mock
-  private IndexingService     indexingService;
+  private NewsSearchBackend   newsSearchBackend;
 
   @Mock
   private SpaceService        spaceService;
@@ -108,7 +107,7 @@ public class NewsMetadataListenerTest {
 
     newsMetadataListener.onEvent(event);
 
-    verify(indexingService, times(1)).reindex(NewsIndexingServiceConnector.TYPE, newsId);
+    verify(newsSearchBackend, times(1)).reindex(newsId);
     verify(tagService, times(1)).saveTags(new TagObject(NewsUtils.NEWS_METADATA_OBJECT_TYPE, news.getId(), null),
                                           contentTags,
                                           Long.parseLong(spaceIdentityId),
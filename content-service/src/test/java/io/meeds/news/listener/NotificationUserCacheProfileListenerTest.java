@@ -0,0 +1,65 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.listener;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.profile.ProfileLifeCycleEvent;
+
+import io.meeds.news.notification.NotificationUserCache;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NotificationUserCacheProfileListenerTest {
+
+  @Mock
+  private IdentityManager                      identityManager;
+
+  @Mock
+  private NotificationUserCache                notificationUserCache;
+
+  @InjectMocks
+  private NotificationUserCacheProfileListener notificationUserCacheProfileListener;
+
+  @Test
+  public void testInvalidateOnProfileUpdate() {
+    notificationUserCacheProfileListener.init();
+    verify(identityManager).addProfileListener(notificationUserCacheProfileListener);
+
+    Identity identity = mock(Identity.class);
+    when(identity.getRemoteId()).thenReturn("john");
+    Profile profile = mock(Profile.class);
+    when(profile.getIdentity()).thenReturn(identity);
+    ProfileLifeCycleEvent event = mock(ProfileLifeCycleEvent.class);
+    when(event.getProfile()).thenReturn(profile);
+    notificationUserCacheProfileListener.avatarUpdated(event);
+    verify(notificationUserCache).invalidate("john");
+  }
+}
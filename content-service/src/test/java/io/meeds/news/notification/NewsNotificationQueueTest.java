@@ -0,0 +1,362 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.notification;
+
+import static io.meeds.news.notification.NewsNotificationQueue.ATTEMPTS;
+import static io.meeds.news.notification.NewsNotificationQueue.ENQUEUE_TIME;
+import static io.meeds.news.notification.NewsNotificationQueue.FAILED;
+import static io.meeds.news.notification.NewsNotificationQueue.PENDING_NOTIFICATION_METADATA_KEY;
+import static io.meeds.news.notification.NewsNotificationQueue.PLUGIN_ID;
+import static io.meeds.news.notification.NewsNotificationQueue.RECOVERY_CLAIM_METADATA_TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.exoplatform.commons.api.notification.NotificationContext;
+import org.exoplatform.commons.api.notification.command.NotificationCommand;
+import org.exoplatform.commons.api.notification.command.NotificationExecutor;
+import org.exoplatform.commons.notification.impl.NotificationContextImpl;
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.Metadata;
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+import io.meeds.news.model.NewsNotificationStatistics;
+import io.meeds.news.notification.plugin.MentionInNewsNotificationPlugin;
+import io.meeds.news.notification.plugin.PostNewsNotificationPlugin;
+import io.meeds.news.notification.utils.NotificationConstants;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NewsNotificationQueueTest {
+
+  @Mock
+  private MetadataService       metadataService;
+
+  @Mock
+  private PortalContainer       container;
+
+  @Mock
+  private NotificationContext   ctx;
+
+  @InjectMocks
+  private NewsNotificationQueue newsNotificationQueue;
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(newsNotificationQueue, "workers", 1);
+    ReflectionTestUtils.setField(newsNotificationQueue, "queueCapacity", 10);
+    ReflectionTestUtils.setField(newsNotificationQueue, "maxAttempts", 2);
+    ReflectionTestUtils.setField(newsNotificationQueue, "retryDelay", 10L);
+    ReflectionTestUtils.setField(newsNotificationQueue, "recoveryTimeout", 60000L);
+    newsNotificationQueue.init();
+  }
+
+  @After
+  public void tearDown() {
+    newsNotificationQueue.destroy();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testEnqueue() throws Exception {
+    when(ctx.value(any())).thenReturn(null);
+    when(ctx.value(PostNewsNotificationPlugin.NEWS_ID)).thenReturn("1");
+    when(ctx.value(PostNewsNotificationPlugin.CONTENT_TITLE)).thenReturn("title");
+    when(ctx.value(PostNewsNotificationPlugin.CONTEXT)).thenReturn(NotificationConstants.NOTIFICATION_CONTEXT.MENTION_IN_NEWS);
+    when(ctx.value(MentionInNewsNotificationPlugin.MENTIONED_IDS)).thenReturn(new LinkedHashSet<>(List.of("john", "mary")));
+    MetadataItem pendingNotification = new MetadataItem();
+    pendingNotification.setId(5);
+    when(metadataService.createMetadataItem(any(), eq(PENDING_NOTIFICATION_METADATA_KEY), anyMap(), eq(false)))
+                                                                                                           .thenReturn(pendingNotification);
+    NotificationContext restoredCtx = mock(NotificationContext.class);
+    NotificationExecutor notificationExecutor = mock(NotificationExecutor.class);
+    NotificationCommand notificationCommand = mock(NotificationCommand.class);
+    when(restoredCtx.getNotificationExecutor()).thenReturn(notificationExecutor);
+    when(restoredCtx.makeCommand(argThat(pluginKey -> MentionInNewsNotificationPlugin.ID.equals(pluginKey.getId()))))
+                                                                                                                 .thenReturn(notificationCommand);
+    when(notificationExecutor.with(notificationCommand)).thenReturn(notificationExecutor);
+    when(notificationExecutor.execute(restoredCtx)).thenReturn(true);
+    // Dispatch the notification in the current thread, where the context
+    // creation is mocked
+    newsNotificationQueue.destroy();
+    ReflectionTestUtils.setField(newsNotificationQueue, "executor", new ThreadPoolExecutor(1,
+                                                                                           1,
+                                                                                           0L,
+                                                                                           TimeUnit.MILLISECONDS,
+                                                                                           new ArrayBlockingQueue<>(10)) {
+      @Override
+      public void execute(Runnable command) {
+        command.run();
+      }
+    });
+
+    try (MockedStatic<NotificationContextImpl> notificationContext = mockStatic(NotificationContextImpl.class)) {
+      notificationContext.when(NotificationContextImpl::cloneInstance).thenReturn(restoredCtx);
+      newsNotificationQueue.enqueue(MentionInNewsNotificationPlugin.ID, ctx);
+    }
+
+    ArgumentCaptor<Map<String, String>> propertiesCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(metadataService).createMetadataItem(any(),
+                                               eq(PENDING_NOTIFICATION_METADATA_KEY),
+                                               propertiesCaptor.capture(),
+                                               eq(false));
+    Map<String, String> properties = propertiesCaptor.getValue();
+    assertEquals(MentionInNewsNotificationPlugin.ID, properties.get(PLUGIN_ID));
+    assertEquals("1", properties.get(PostNewsNotificationPlugin.NEWS_ID.getKey()));
+    assertEquals("title", properties.get(PostNewsNotificationPlugin.CONTENT_TITLE.getKey()));
+    assertEquals("MENTION_IN_NEWS", properties.get(PostNewsNotificationPlugin.CONTEXT.getKey()));
+    assertEquals("john,mary", properties.get(MentionInNewsNotificationPlugin.MENTIONED_IDS.getKey()));
+
+    // The notification plugin is executed with the context restored from
+    // the persisted properties, then the pending notification is removed
+    verify(restoredCtx).append(PostNewsNotificationPlugin.NEWS_ID, "1");
+    verify(restoredCtx).append(PostNewsNotificationPlugin.CONTENT_TITLE, "title");
+    verify(restoredCtx).append(MentionInNewsNotificationPlugin.CONTEXT, NotificationConstants.NOTIFICATION_CONTEXT.MENTION_IN_NEWS);
+    verify(restoredCtx).append(MentionInNewsNotificationPlugin.MENTIONED_IDS, Set.of("john", "mary"));
+    verify(notificationExecutor).execute(restoredCtx);
+    verify(metadataService).deleteMetadataItem(5, false);
+    NewsNotificationStatistics statistics = newsNotificationQueue.getStatistics();
+    assertEquals(1, statistics.getDispatchedCount());
+    assertEquals(0, statistics.getFailedCount());
+    assertEquals(10, statistics.getQueueCapacity());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testEnqueueNextReceiversBatch() throws Exception {
+    when(ctx.value(any())).thenReturn(null);
+    when(ctx.value(PostNewsNotificationPlugin.NEWS_ID)).thenReturn("1");
+    MetadataItem firstBatchNotification = new MetadataItem();
+    firstBatchNotification.setId(5);
+    MetadataItem secondBatchNotification = new MetadataItem();
+    secondBatchNotification.setId(6);
+    when(metadataService.createMetadataItem(any(), eq(PENDING_NOTIFICATION_METADATA_KEY), anyMap(), eq(false)))
+                                                                                                           .thenReturn(firstBatchNotification,
+                                                                                                                       secondBatchNotification);
+    NotificationContext restoredCtx = mock(NotificationContext.class);
+    NotificationExecutor notificationExecutor = mock(NotificationExecutor.class);
+    NotificationCommand notificationCommand = mock(NotificationCommand.class);
+    when(restoredCtx.getNotificationExecutor()).thenReturn(notificationExecutor);
+    when(restoredCtx.makeCommand(any())).thenReturn(notificationCommand);
+    when(notificationExecutor.with(notificationCommand)).thenReturn(notificationExecutor);
+    when(notificationExecutor.execute(restoredCtx)).thenReturn(true);
+    // The plugin sends the first batch of receivers only
+    when(restoredCtx.value(PostNewsNotificationPlugin.NEXT_RECEIVERS_OFFSET)).thenReturn("500", (String) null);
+    newsNotificationQueue.destroy();
+    ReflectionTestUtils.setField(newsNotificationQueue, "executor", new ThreadPoolExecutor(1,
+                                                                                           1,
+                                                                                           0L,
+                                                                                           TimeUnit.MILLISECONDS,
+                                                                                           new ArrayBlockingQueue<>(10)) {
+      @Override
+      public void execute(Runnable command) {
+        command.run();
+      }
+    });
+
+    try (MockedStatic<NotificationContextImpl> notificationContext = mockStatic(NotificationContextImpl.class)) {
+      notificationContext.when(NotificationContextImpl::cloneInstance).thenReturn(restoredCtx);
+      newsNotificationQueue.enqueue(PostNewsNotificationPlugin.ID, ctx);
+    }
+
+    // The next batch is persisted as its own pending notification, then
+    // each batch is removed once sent
+    ArgumentCaptor<Map<String, String>> propertiesCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(metadataService, times(2)).createMetadataItem(any(),
+                                                         eq(PENDING_NOTIFICATION_METADATA_KEY),
+                                                         propertiesCaptor.capture(),
+                                                         eq(false));
+    assertNull(propertiesCaptor.getAllValues().get(0).get(PostNewsNotificationPlugin.RECEIVERS_OFFSET.getKey()));
+    assertEquals("500", propertiesCaptor.getAllValues().get(1).get(PostNewsNotificationPlugin.RECEIVERS_OFFSET.getKey()));
+    assertEquals("1", propertiesCaptor.getAllValues().get(1).get(PostNewsNotificationPlugin.NEWS_ID.getKey()));
+    verify(restoredCtx).append(PostNewsNotificationPlugin.RECEIVERS_OFFSET, "500");
+    verify(notificationExecutor, times(2)).execute(restoredCtx);
+    verify(metadataService).deleteMetadataItem(5, false);
+    verify(metadataService).deleteMetadataItem(6, false);
+    assertEquals(2, newsNotificationQueue.getStatistics().getDispatchedCount());
+  }
+
+  @Test
+  public void testKeepFailedNotification() throws Exception {
+    when(ctx.value(any())).thenReturn(null);
+    when(ctx.value(PostNewsNotificationPlugin.NEWS_ID)).thenReturn("1");
+    MetadataItem pendingNotification = new MetadataItem();
+    pendingNotification.setId(5);
+    pendingNotification.setProperties(Map.of(FAILED, "false"));
+    when(metadataService.createMetadataItem(any(), eq(PENDING_NOTIFICATION_METADATA_KEY), anyMap(), eq(false)))
+                                                                                                           .thenReturn(pendingNotification);
+
+    // The notification context can't be created out of a portal container
+    newsNotificationQueue.enqueue(PostNewsNotificationPlugin.ID, ctx);
+
+    verify(metadataService, timeout(5000)).updateMetadataItem(argThat(item -> item.getId() == 5 && isFailed(item)
+        && "2".equals(item.getProperties().get(ATTEMPTS))), anyLong(), eq(false));
+    verify(metadataService, never()).deleteMetadataItem(anyLong(), anyBoolean());
+    NewsNotificationStatistics statistics = newsNotificationQueue.getStatistics();
+    assertEquals(1, statistics.getRetriedCount());
+    assertEquals(1, statistics.getFailedCount());
+  }
+
+  @Test
+  public void testEnqueueWithDigest() throws Exception {
+    ReflectionTestUtils.setField(newsNotificationQueue, "digestWindow", 200L);
+    when(ctx.value(any())).thenReturn(null);
+    when(ctx.value(PostNewsNotificationPlugin.NEWS_ID)).thenReturn("1", "2", "3");
+    when(ctx.value(PostNewsNotificationPlugin.CONTENT_SPACE_ID)).thenReturn("10");
+    when(ctx.value(PostNewsNotificationPlugin.CONTEXT)).thenReturn(NotificationConstants.NOTIFICATION_CONTEXT.POST_NEWS);
+    MetadataItem firstNotification = new MetadataItem();
+    firstNotification.setId(1);
+    MetadataItem secondNotification = new MetadataItem();
+    secondNotification.setId(2);
+    MetadataItem thirdNotification = new MetadataItem();
+    thirdNotification.setId(3);
+    when(metadataService.createMetadataItem(any(), eq(PENDING_NOTIFICATION_METADATA_KEY), anyMap(), eq(false)))
+                                                                                                           .thenReturn(firstNotification,
+                                                                                                                       secondNotification,
+                                                                                                                       thirdNotification);
+
+    newsNotificationQueue.enqueue(PostNewsNotificationPlugin.ID, ctx);
+    newsNotificationQueue.enqueue(PostNewsNotificationPlugin.ID, ctx);
+    newsNotificationQueue.enqueue(PostNewsNotificationPlugin.ID, ctx);
+
+    // Notifications are held during the digest window
+    verify(metadataService, never()).deleteMetadataItem(anyLong(), anyBoolean());
+
+    // A single notification is sent for the three articles. It can't be
+    // executed out of a portal container, so the three pending notifications
+    // are kept as failed
+    verify(metadataService, timeout(5000)).updateMetadataItem(argThat(item -> item.getId() == 1 && isFailed(item)),
+                                                              anyLong(),
+                                                              eq(false));
+    verify(metadataService, timeout(5000)).updateMetadataItem(argThat(item -> item.getId() == 2 && isFailed(item)),
+                                                              anyLong(),
+                                                              eq(false));
+    verify(metadataService, timeout(5000)).updateMetadataItem(argThat(item -> item.getId() == 3 && isFailed(item)),
+                                                              anyLong(),
+                                                              eq(false));
+    NewsNotificationStatistics statistics = newsNotificationQueue.getStatistics();
+    assertEquals(2, statistics.getDigestedCount());
+    assertEquals(1, statistics.getFailedCount());
+  }
+
+  @Test
+  public void testRecoverPendingNotifications() throws Exception {
+    MetadataItem abandonedNotification = newPendingNotification(1, System.currentTimeMillis() - 120000);
+    MetadataItem queuedNotification = newPendingNotification(2, System.currentTimeMillis());
+    List<MetadataItem> firstPage = new ArrayList<>();
+    firstPage.add(queuedNotification);
+    for (int i = 10; i < 109; i++) {
+      firstPage.add(newPendingNotification(i, System.currentTimeMillis()));
+    }
+    when(metadataService.getMetadataItemsByFilter(argThat(filter -> "false".equals(filter.getMetadataProperties().get(FAILED))),
+                                                  eq(0L),
+                                                  eq(100L))).thenReturn(firstPage);
+    when(metadataService.getMetadataItemsByFilter(any(), eq(100L), eq(100L))).thenReturn(List.of(abandonedNotification));
+
+    newsNotificationQueue.recoverPendingNotifications();
+
+    // The abandoned notification of the second page is queued again, then
+    // kept as failed since it can't be executed out of a portal container
+    verify(metadataService, timeout(5000).times(2)).updateMetadataItem(argThat(item -> item.getId() == 1 && isFailed(item)),
+                                                              anyLong(),
+                                                              eq(false));
+    verify(metadataService, never()).updateMetadataItem(eq(queuedNotification), anyLong(), anyBoolean());
+    verify(metadataService, never()).deleteMetadataItem(anyLong(), anyBoolean());
+  }
+
+  @Test
+  public void testRecoverPendingNotificationClaimedByAnotherNode() throws Exception {
+    long now = System.currentTimeMillis();
+    MetadataItem abandonedNotification = newPendingNotification(1, now - 120000);
+    when(metadataService.getMetadataItemsByFilter(any(), eq(0L), eq(100L))).thenReturn(List.of(abandonedNotification));
+    Metadata expiredClaim = new Metadata();
+    expiredClaim.setId(7);
+    expiredClaim.setProperties(Map.of(ENQUEUE_TIME, String.valueOf(now - 120000)));
+    Metadata currentClaim = new Metadata();
+    currentClaim.setId(8);
+    currentClaim.setProperties(Map.of(ENQUEUE_TIME, String.valueOf(now)));
+    when(metadataService.getMetadatas(RECOVERY_CLAIM_METADATA_TYPE.getName(), 0)).thenReturn(List.of(expiredClaim, currentClaim));
+    when(metadataService.createMetadata(argThat(claim -> claim.getName().equals("1:" + (now - 120000))),
+                                        eq(0L))).thenThrow(IllegalStateException.class);
+
+    newsNotificationQueue.recoverPendingNotifications();
+
+    verify(metadataService).deleteMetadataById(7);
+    verify(metadataService, never()).deleteMetadataById(8);
+    verify(metadataService, never()).updateMetadataItem(any(), anyLong(), anyBoolean());
+  }
+
+  @Test
+  public void testRecoveryTimeoutGreaterThanDigestWindow() {
+    newsNotificationQueue.destroy();
+    ReflectionTestUtils.setField(newsNotificationQueue, "digestWindow", 60000L);
+    newsNotificationQueue.init();
+    assertEquals(120000L, ReflectionTestUtils.getField(newsNotificationQueue, "recoveryTimeout"));
+  }
+
+  private boolean isFailed(MetadataItem item) {
+    return item.getProperties() != null && "true".equals(item.getProperties().get(FAILED));
+  }
+
+  private MetadataItem newPendingNotification(long id, long enqueueTime) {
+    MetadataItem pendingNotification = new MetadataItem();
+    pendingNotification.setId(id);
+    Map<String, String> properties = new HashMap<>();
+    properties.put(PLUGIN_ID, PostNewsNotificationPlugin.ID);
+    properties.put(ENQUEUE_TIME, String.valueOf(enqueueTime));
+    properties.put(PostNewsNotificationPlugin.NEWS_ID.getKey(), "1");
+    properties.put(PostNewsNotificationPlugin.CONTEXT.getKey(), "POST_NEWS");
+    pendingNotification.setProperties(properties);
+    return pendingNotification;
+  }
+}
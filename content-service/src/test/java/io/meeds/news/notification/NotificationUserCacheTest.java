@@ -0,0 +1,154 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.identity.model.Profile;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.notification.LinkProviderUtils;
+
+import io.meeds.news.model.NotificationUser;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NotificationUserCacheTest {
+
+  @Mock
+  private IdentityManager               identityManager;
+
+  @InjectMocks
+  private NotificationUserCache         notificationUserCache;
+
+  private MockedStatic<LinkProviderUtils> linkProviderUtils;
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(notificationUserCache, "maxSize", 2);
+    ReflectionTestUtils.setField(notificationUserCache, "timeToLive", 60000L);
+    linkProviderUtils = mockStatic(LinkProviderUtils.class);
+  }
+
+  @After
+  public void tearDown() {
+    linkProviderUtils.close();
+  }
+
+  @Test
+  public void shouldLoadUserOnceUntilInvalidated() {
+    // Given
+    when(identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, "john")).thenReturn(buildIdentity("john"));
+    linkProviderUtils.when(() -> LinkProviderUtils.getUserAvatarUrl(any()))
+                     .thenAnswer(invocation -> "http://localhost" + invocation.getArgument(0, Profile.class).getAvatarUrl());
+
+    // When
+    NotificationUser user = notificationUserCache.getUser("john");
+    notificationUserCache.getUser("john");
+
+    // Then
+    assertEquals("john", user.getUsername());
+    assertEquals("john", user.getFirstName());
+    assertEquals("john Doe", user.getFullName());
+    // The avatar URL is cached as displayed in notifications
+    assertEquals("http://localhost/avatar/john", user.getAvatarUrl());
+    verify(identityManager, times(1)).getOrCreateIdentity(OrganizationIdentityProvider.NAME, "john");
+
+    // When
+    notificationUserCache.invalidate("john");
+    notificationUserCache.getUser("john");
+
+    // Then
+    verify(identityManager, times(2)).getOrCreateIdentity(OrganizationIdentityProvider.NAME, "john");
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedUsers() {
+    // Given
+    when(identityManager.getOrCreateIdentity(eq(OrganizationIdentityProvider.NAME),
+                                             anyString())).thenAnswer(invocation -> buildIdentity(invocation.getArgument(1)));
+
+    // When
+    notificationUserCache.getUser("john");
+    notificationUserCache.getUser("mary");
+    notificationUserCache.getUser("john");
+    notificationUserCache.getUser("root");
+    notificationUserCache.getUser("john");
+    notificationUserCache.getUser("mary");
+
+    // Then
+    assertEquals(2, notificationUserCache.size());
+    verify(identityManager, times(1)).getOrCreateIdentity(OrganizationIdentityProvider.NAME, "john");
+    verify(identityManager, times(2)).getOrCreateIdentity(OrganizationIdentityProvider.NAME, "mary");
+  }
+
+  @Test
+  public void shouldReloadExpiredUsers() {
+    // Given
+    ReflectionTestUtils.setField(notificationUserCache, "timeToLive", 0L);
+    when(identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, "john")).thenReturn(buildIdentity("john"));
+
+    // When
+    notificationUserCache.getUser("john");
+    notificationUserCache.getUser("john");
+
+    // Then
+    verify(identityManager, times(2)).getOrCreateIdentity(OrganizationIdentityProvider.NAME, "john");
+  }
+
+  @Test
+  public void shouldNotCacheUnknownUsers() {
+    // When
+    NotificationUser user = notificationUserCache.getUser("unknown");
+
+    // Then
+    assertNull(user);
+    assertEquals(0, notificationUserCache.size());
+  }
+
+  private Identity buildIdentity(String username) {
+    Identity identity = new Identity(OrganizationIdentityProvider.NAME, username);
+    identity.setRemoteId(username);
+    Profile profile = new Profile(identity);
+    profile.setProperty(Profile.FIRST_NAME, username);
+    profile.setProperty(Profile.FULL_NAME, username + " Doe");
+    profile.setProperty(Profile.AVATAR_URL, "/avatar/" + username);
+    identity.setProfile(profile);
+    return identity;
+  }
+}
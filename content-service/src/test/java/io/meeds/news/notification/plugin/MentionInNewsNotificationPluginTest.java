@@ -20,13 +20,19 @@
 package io.meeds.news.notification.plugin;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.AfterClass;
@@ -46,15 +52,19 @@ import org.exoplatform.commons.notification.impl.NotificationContextImpl;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.container.ExoContainerContext;
 import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
 import org.exoplatform.services.idgenerator.IDGeneratorService;
 import org.exoplatform.services.organization.OrganizationService;
 import org.exoplatform.services.organization.User;
 import org.exoplatform.services.organization.UserHandler;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
+import org.exoplatform.social.core.storage.api.IdentityStorage;
 import org.exoplatform.social.notification.Utils;
 
 import io.meeds.news.notification.utils.NotificationConstants;
+import io.meeds.news.utils.NewsUtils;
 
 @RunWith(MockitoJUnitRunner.class)
 public class MentionInNewsNotificationPluginTest {
@@ -99,7 +109,7 @@ public class MentionInNewsNotificationPluginTest {
   public void shouldMakeNotificationForMentionInNewsContext() throws Exception {
     // Given
     when(orgService.getUserHandler()).thenReturn(userhandler);
-    MentionInNewsNotificationPlugin newsPlugin = new MentionInNewsNotificationPlugin(initParams);
+    MentionInNewsNotificationPlugin newsPlugin = new MentionInNewsNotificationPlugin(initParams, spaceService);
     Set<String> mentionedIds = new HashSet<>(Collections.singleton("0"));
 
     COMMONS_UTILS.when(() -> CommonsUtils.getService(NotificationService.class)).thenReturn(null);
@@ -156,6 +166,112 @@ public class MentionInNewsNotificationPluginTest {
                  notificationInfo.getValueOwnerParameter("ACTIVITY_LINK"));
   }
 
+  @Test
+  public void shouldExpandSpaceRoleMentionsWhenMakingNotification() throws Exception {
+    // Given
+    MentionInNewsNotificationPlugin newsPlugin = new MentionInNewsNotificationPlugin(initParams, spaceService);
+    Set<String> mentionedIds = new HashSet<>(List.of("0", NewsUtils.ROLE_MENTION_PREFIX + "manager"));
+    NotificationContext ctx =
+                            NotificationContextImpl.cloneInstance()
+                                                   .append(PostNewsNotificationPlugin.CONTENT_TITLE, "title")
+                                                   .append(PostNewsNotificationPlugin.CONTENT_AUTHOR, "root")
+                                                   .append(PostNewsNotificationPlugin.CURRENT_USER, "root")
+                                                   .append(PostNewsNotificationPlugin.CONTENT_SPACE_ID, "1")
+                                                   .append(PostNewsNotificationPlugin.CONTENT_SPACE, "space1")
+                                                   .append(MentionInNewsNotificationPlugin.MENTIONED_IDS, mentionedIds)
+                                                   .append(MentionInNewsNotificationPlugin.CONTEXT,
+                                                           NotificationConstants.NOTIFICATION_CONTEXT.MENTION_IN_NEWS);
+    mockIdGeneratorService();
+    Space space = new Space();
+    space.setId("1");
+    space.setManagers(new String[] { "root", "john" });
+    when(spaceService.getSpaceById("1")).thenReturn(space);
+    mockIdentityStorage();
+    mockMentionersCheck();
+
+    // When
+    NotificationInfo notificationInfo = newsPlugin.makeNotification(ctx);
+
+    // Then
+    assertEquals(List.of("john"), notificationInfo.getSendToUserIds());
+    SOCIAL_UTILS.verify(() -> Utils.sendToMentioners(any(), eq(new String[] { "0" }), eq("root"), eq("1")));
+    // The space role users are checked as the mentioned users
+    SOCIAL_UTILS.verify(() -> Utils.sendToMentioners(any(),
+                                                     argThat(ids -> Set.of(ids).equals(Set.of("id-root", "id-john"))),
+                                                     eq("root"),
+                                                     eq("1")));
+  }
+
+  @Test
+  public void shouldMakeSpaceRoleMentionsNotificationForOneBatchOfReceivers() throws Exception {
+    // Given
+    ValueParam receiversBatchSize = new ValueParam();
+    receiversBatchSize.setValue("2");
+    when(initParams.getValueParam("receivers.batch.size")).thenReturn(receiversBatchSize);
+    MentionInNewsNotificationPlugin newsPlugin = new MentionInNewsNotificationPlugin(initParams, spaceService);
+    mockIdGeneratorService();
+    Space space = new Space();
+    space.setId("1");
+    space.setMembers(new String[] { "root", "user1", "user2", "user3", "user4", "user5" });
+    when(spaceService.getSpaceById("1")).thenReturn(space);
+    mockIdentityStorage();
+    mockMentionersCheck();
+
+    // When
+    NotificationContext ctx = buildRoleMentionContext(null);
+    NotificationInfo notificationInfo = newsPlugin.makeNotification(ctx);
+
+    // Then
+    assertEquals(List.of("user1", "user2"), notificationInfo.getSendToUserIds());
+    assertEquals("title", notificationInfo.getValueOwnerParameter("CONTENT_TITLE"));
+    assertEquals("2", ctx.value(PostNewsNotificationPlugin.NEXT_RECEIVERS_OFFSET));
+
+    ctx = buildRoleMentionContext("4");
+    notificationInfo = newsPlugin.makeNotification(ctx);
+    assertEquals(List.of("user5"), notificationInfo.getSendToUserIds());
+    assertNull(ctx.value(PostNewsNotificationPlugin.NEXT_RECEIVERS_OFFSET));
+  }
+
+  private NotificationContext buildRoleMentionContext(String receiversOffset) {
+    Set<String> mentionedIds = new HashSet<>(List.of(NewsUtils.ROLE_MENTION_PREFIX + "member"));
+    NotificationContext ctx =
+                            NotificationContextImpl.cloneInstance()
+                                                   .append(PostNewsNotificationPlugin.CONTENT_TITLE, "title")
+                                                   .append(PostNewsNotificationPlugin.CONTENT_AUTHOR, "root")
+                                                   .append(PostNewsNotificationPlugin.CURRENT_USER, "root")
+                                                   .append(PostNewsNotificationPlugin.CONTENT_SPACE_ID, "1")
+                                                   .append(PostNewsNotificationPlugin.CONTENT_SPACE, "space1")
+                                                   .append(MentionInNewsNotificationPlugin.MENTIONED_IDS, mentionedIds)
+                                                   .append(MentionInNewsNotificationPlugin.CONTEXT,
+                                                           NotificationConstants.NOTIFICATION_CONTEXT.MENTION_IN_NEWS);
+    if (receiversOffset != null) {
+      ctx.append(PostNewsNotificationPlugin.RECEIVERS_OFFSET, receiversOffset);
+    }
+    return ctx;
+  }
+
+  private void mockIdentityStorage() {
+    IdentityStorage identityStorage = mock(IdentityStorage.class);
+    COMMONS_UTILS.when(() -> CommonsUtils.getService(IdentityStorage.class)).thenReturn(identityStorage);
+    when(identityStorage.findIdentityId(eq(OrganizationIdentityProvider.NAME),
+                                        any())).thenAnswer(invocation -> "id-" + invocation.getArgument(1));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockMentionersCheck() {
+    SOCIAL_UTILS.when(() -> Utils.sendToMentioners(any(), any(), any(), any())).thenAnswer(invocation -> {
+      Set<String> receivers = invocation.getArgument(0);
+      String[] mentionedIds = invocation.getArgument(1);
+      String poster = invocation.getArgument(2);
+      Arrays.stream(mentionedIds)
+            .filter(mentionedId -> mentionedId.startsWith("id-"))
+            .map(mentionedId -> mentionedId.substring(3))
+            .filter(username -> !username.equals(poster))
+            .forEach(receivers::add);
+      return null;
+    });
+  }
+
   public static void mockIdGeneratorService() {
     EXO_CONTAINER_CONTEXT.when(() -> ExoContainerContext.getService(IDGeneratorService.class))
                          .thenReturn(new IDGeneratorService() {
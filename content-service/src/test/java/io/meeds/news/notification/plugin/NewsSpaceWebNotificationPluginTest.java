@@ -43,7 +43,7 @@ import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.metadata.model.MetadataObject;
 import org.exoplatform.social.notification.model.SpaceWebNotificationItem;
 
-import io.meeds.news.model.News;
+import io.meeds.news.model.NewsArticleStatus;
 import io.meeds.news.notification.utils.NotificationConstants;
 import io.meeds.news.service.NewsService;
 
@@ -84,14 +84,14 @@ public class NewsSpaceWebNotificationPluginTest {
     String activityId = "activityId";
     ExoSocialActivity activity = mock(ExoSocialActivity.class);
     MetadataObject metadataObject = mock(MetadataObject.class);
-    News news = mock(News.class);
+    NewsArticleStatus news = mock(NewsArticleStatus.class);
     long spaceId = 12l;
     long userIdentityId = 15l;
     String newsId = "newsId";
     String metadataObjectType = ExoSocialActivityImpl.DEFAULT_ACTIVITY_METADATA_OBJECT_TYPE;
     String metadataObjectId = activityId;
     when(notificationInfo.getValueOwnerParameter(NotificationConstants.NEWS_ID)).thenReturn(newsId);
-    when(newsService.getNewsArticleById(newsId)).thenReturn(news);
+    when(newsService.getNewsArticleStatus(newsId)).thenReturn(news);
     when(news.getActivityId()).thenReturn(activityId);
     when(identityManager.getOrCreateUserIdentity(USERNAME)).thenReturn(userIdentity);
     when(userIdentity.getId()).thenReturn(String.valueOf(userIdentityId));
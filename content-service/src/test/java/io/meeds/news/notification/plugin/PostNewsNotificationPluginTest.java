@@ -20,12 +20,16 @@
 package io.meeds.news.notification.plugin;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
+import java.util.List;
 
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -45,6 +49,7 @@ import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.commons.utils.ListAccess;
 import org.exoplatform.container.ExoContainerContext;
 import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
 import org.exoplatform.services.idgenerator.IDGeneratorService;
 import org.exoplatform.services.organization.OrganizationService;
 import org.exoplatform.services.organization.User;
@@ -54,8 +59,9 @@ import org.exoplatform.social.core.manager.ActivityManager;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
 
-import io.meeds.news.model.News;
+import io.meeds.news.model.NewsArticleStatus;
 import io.meeds.news.notification.utils.NotificationConstants;
+import io.meeds.news.notification.utils.NotificationUtils;
 import io.meeds.news.service.NewsService;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -153,9 +159,9 @@ public class PostNewsNotificationPluginTest {
     when(members.getSize()).thenReturn(2);
     when(members.load(0, 2)).thenReturn(receivers);
 
-    News news = mock(News.class);
+    NewsArticleStatus news = mock(NewsArticleStatus.class);
     when(news.getActivityId()).thenReturn("12345");
-    when(newsService.getNewsArticleById(Mockito.anyString())).thenReturn(news);
+    when(newsService.getNewsArticleStatus(Mockito.anyString())).thenReturn(news);
 
     ExoSocialActivity activity = mock(ExoSocialActivity.class);
     when(activity.isHidden()).thenReturn(false);
@@ -228,9 +234,9 @@ public class PostNewsNotificationPluginTest {
     when(members.getSize()).thenReturn(2);
     when(members.load(0, 2)).thenReturn(receivers);
 
-    News news = mock(News.class);
+    NewsArticleStatus news = mock(NewsArticleStatus.class);
     when(news.getActivityId()).thenReturn("12345");
-    when(newsService.getNewsArticleById(Mockito.anyString())).thenReturn(news);
+    when(newsService.getNewsArticleStatus(Mockito.anyString())).thenReturn(news);
 
     ExoSocialActivity activity = mock(ExoSocialActivity.class);
     when(activity.isHidden()).thenReturn(false);
@@ -304,9 +310,9 @@ public class PostNewsNotificationPluginTest {
     when(members.getSize()).thenReturn(2);
     when(members.load(0, 2)).thenReturn(receivers);
 
-    News news = mock(News.class);
+    NewsArticleStatus news = mock(NewsArticleStatus.class);
     when(news.getActivityId()).thenReturn("12345");
-    when(newsService.getNewsArticleById(Mockito.anyString())).thenReturn(news);
+    when(newsService.getNewsArticleStatus(Mockito.anyString())).thenReturn(news);
 
     ExoSocialActivity activity = mock(ExoSocialActivity.class);
     when(activity.isHidden()).thenReturn(false);
@@ -326,6 +332,147 @@ public class PostNewsNotificationPluginTest {
                  notificationInfo.getValueOwnerParameter("ACTIVITY_LINK"));
   }
 
+  @Test
+  public void shouldMakeNotificationForOneBatchOfReceivers() throws Exception {
+    // Given
+    when(orgService.getUserHandler()).thenReturn(userhandler);
+    ValueParam receiversBatchSize = new ValueParam();
+    receiversBatchSize.setValue("2");
+    when(initParams.getValueParam("receivers.batch.size")).thenReturn(receiversBatchSize);
+    PostNewsNotificationPlugin newsPlugin = new PostNewsNotificationPlugin(initParams,
+                                                                           spaceService,
+                                                                           orgService,
+                                                                           newsService,
+                                                                           activityManager);
+    COMMONS_UTILS.when(() -> CommonsUtils.getService(NotificationCompletionService.class)).thenReturn(null);
+    COMMONS_UTILS.when(() -> CommonsUtils.getService(OrganizationService.class)).thenReturn(orgService);
+    mockIdGeneratorService();
+
+    Space space = new Space();
+    space.setId("1");
+    space.setGroupId("space1");
+    when(spaceService.getSpaceById("1")).thenReturn(space);
+    ListAccess<User> members = mock(ListAccess.class);
+    when(userhandler.findUsersByGroupId("space1")).thenReturn(members);
+    when(members.getSize()).thenReturn(5);
+    User[] firstPage = new User[] { mockUser("root"), mockUser("user1") };
+    User[] secondPage = new User[] { mockUser("user2"), mockUser("user3") };
+    User[] lastPage = new User[] { mockUser("user4") };
+    when(members.load(0, 2)).thenReturn(firstPage);
+    when(members.load(2, 2)).thenReturn(secondPage);
+    when(members.load(4, 1)).thenReturn(lastPage);
+
+    NewsArticleStatus news = mock(NewsArticleStatus.class);
+    when(news.getActivityId()).thenReturn("12345");
+    when(newsService.getNewsArticleStatus("456789")).thenReturn(news);
+    ExoSocialActivity activity = mock(ExoSocialActivity.class);
+    when(activityManager.getActivity("12345")).thenReturn(activity);
+
+    // When
+    NotificationContext ctx = buildBatchContext(null);
+    NotificationInfo notificationInfo = newsPlugin.makeNotification(ctx);
+
+    // Then
+    assertEquals(List.of("user1"), notificationInfo.getSendToUserIds());
+    assertEquals("title", notificationInfo.getValueOwnerParameter("CONTENT_TITLE"));
+    assertEquals("2", ctx.value(PostNewsNotificationPlugin.NEXT_RECEIVERS_OFFSET));
+
+    ctx = buildBatchContext("2");
+    notificationInfo = newsPlugin.makeNotification(ctx);
+    assertEquals(List.of("user2", "user3"), notificationInfo.getSendToUserIds());
+    assertEquals("4", ctx.value(PostNewsNotificationPlugin.NEXT_RECEIVERS_OFFSET));
+
+    ctx = buildBatchContext("4");
+    notificationInfo = newsPlugin.makeNotification(ctx);
+    assertEquals(List.of("user4"), notificationInfo.getSendToUserIds());
+    assertNull(ctx.value(PostNewsNotificationPlugin.NEXT_RECEIVERS_OFFSET));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldMakeDigestNotificationWithVisibleArticlesOnly() throws Exception {
+    // Given
+    when(orgService.getUserHandler()).thenReturn(userhandler);
+    PostNewsNotificationPlugin newsPlugin = new PostNewsNotificationPlugin(initParams,
+                                                                           spaceService,
+                                                                           orgService,
+                                                                           newsService,
+                                                                           activityManager);
+    COMMONS_UTILS.when(() -> CommonsUtils.getService(NotificationService.class)).thenReturn(null);
+    COMMONS_UTILS.when(() -> CommonsUtils.getService(NotificationCompletionService.class)).thenReturn(null);
+    COMMONS_UTILS.when(() -> CommonsUtils.getService(OrganizationService.class)).thenReturn(orgService);
+    JSONArray digestArticles = new JSONArray();
+    digestArticles.add(newDigestArticle("1", "user1"));
+    digestArticles.add(newDigestArticle("2", "user2"));
+    digestArticles.add(newDigestArticle("3", "user3"));
+    NotificationContext ctx = NotificationContextImpl.cloneInstance()
+                                                     .append(PostNewsNotificationPlugin.CONTENT_TITLE, "title3")
+                                                     .append(PostNewsNotificationPlugin.CONTENT_AUTHOR, "user3")
+                                                     .append(PostNewsNotificationPlugin.CURRENT_USER, "user3")
+                                                     .append(PostNewsNotificationPlugin.CONTENT_SPACE_ID, "1")
+                                                     .append(PostNewsNotificationPlugin.CONTENT_SPACE, "space1")
+                                                     .append(PostNewsNotificationPlugin.NEWS_ID, "3")
+                                                     .append(PostNewsNotificationPlugin.DIGEST_ARTICLES,
+                                                             digestArticles.toJSONString())
+                                                     .append(PostNewsNotificationPlugin.CONTEXT,
+                                                             NotificationConstants.NOTIFICATION_CONTEXT.POST_NEWS);
+    mockIdGeneratorService();
+
+    Space space = new Space();
+    space.setId("1");
+    space.setGroupId("space1");
+    when(spaceService.getSpaceById("1")).thenReturn(space);
+    ListAccess<User> members = mock(ListAccess.class);
+    when(userhandler.findUsersByGroupId("space1")).thenReturn(members);
+    when(members.getSize()).thenReturn(4);
+    User[] users = new User[] { mockUser("user1"), mockUser("user2"), mockUser("user3"), mockUser("user4") };
+    when(members.load(0, 4)).thenReturn(users);
+
+    mockArticle("1", false);
+    mockArticle("2", false);
+    // The latest article was hidden meanwhile
+    mockArticle("3", true);
+
+    // When
+    NotificationInfo notificationInfo = newsPlugin.makeNotification(ctx);
+
+    // Then
+    assertEquals("user2", notificationInfo.getFrom());
+    assertEquals("2", notificationInfo.getValueOwnerParameter("NEWS_ID"));
+    assertEquals("title2", notificationInfo.getValueOwnerParameter("CONTENT_TITLE"));
+    JSONArray sentArticles = NotificationUtils.getDigestArticles(notificationInfo);
+    assertEquals(2, sentArticles.size());
+    assertEquals("1", ((JSONObject) sentArticles.get(0)).get(NotificationConstants.NEWS_ID));
+    assertEquals("2", ((JSONObject) sentArticles.get(1)).get(NotificationConstants.NEWS_ID));
+    // None of the posters of the digest is notified
+    assertEquals(List.of("user4"), notificationInfo.getSendToUserIds());
+  }
+
+  @SuppressWarnings("unchecked")
+  private JSONObject newDigestArticle(String newsId, String poster) {
+    JSONObject digestArticle = new JSONObject();
+    digestArticle.put(NotificationConstants.NEWS_ID, newsId);
+    digestArticle.put(NotificationConstants.CONTENT_TITLE, "title" + newsId);
+    digestArticle.put(NotificationConstants.CONTENT_AUTHOR, poster);
+    digestArticle.put(NotificationConstants.CURRENT_USER, poster);
+    return digestArticle;
+  }
+
+  private void mockArticle(String newsId, boolean hidden) throws Exception {
+    NewsArticleStatus news = mock(NewsArticleStatus.class);
+    when(news.getActivityId()).thenReturn("activity" + newsId);
+    when(newsService.getNewsArticleStatus(newsId)).thenReturn(news);
+    ExoSocialActivity activity = mock(ExoSocialActivity.class);
+    when(activity.isHidden()).thenReturn(hidden);
+    when(activityManager.getActivity("activity" + newsId)).thenReturn(activity);
+  }
+
+  private User mockUser(String username) {
+    User user = mock(User.class);
+    when(user.getUserName()).thenReturn(username);
+    return user;
+  }
+
   public static void mockIdGeneratorService() {
     EXO_CONTAINER_CONTEXT.when(() -> ExoContainerContext.getService(IDGeneratorService.class))
                          .thenReturn(new IDGeneratorService() {
@@ -351,4 +498,20 @@ public class PostNewsNotificationPluginTest {
                          });
   }
 
+
+  private NotificationContext buildBatchContext(String receiversOffset) {
+    NotificationContext ctx = NotificationContextImpl.cloneInstance()
+                                                     .append(PostNewsNotificationPlugin.CONTENT_TITLE, "title")
+                                                     .append(PostNewsNotificationPlugin.CONTENT_AUTHOR, "root")
+                                                     .append(PostNewsNotificationPlugin.CURRENT_USER, "root")
+                                                     .append(PostNewsNotificationPlugin.CONTENT_SPACE_ID, "1")
+                                                     .append(PostNewsNotificationPlugin.CONTENT_SPACE, "space1")
+                                                     .append(PostNewsNotificationPlugin.NEWS_ID, "456789")
+                                                     .append(PostNewsNotificationPlugin.CONTEXT,
+                                                             NotificationConstants.NOTIFICATION_CONTEXT.POST_NEWS);
+    if (receiversOffset != null) {
+      ctx.append(PostNewsNotificationPlugin.RECEIVERS_OFFSET, receiversOffset);
+    }
+    return ctx;
+  }
 }
@@ -27,10 +27,15 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
 
 import org.junit.AfterClass;
 import org.junit.Test;
@@ -187,4 +192,66 @@ public class MailTemplateProviderTest {
     assertEquals("Root Root has posted an article \"title\" in the space1 space", messageInfo.getBody());
     assertEquals("Root Root has posted an article on space1 space", messageInfo.getSubject());
   }
+
+  @Test
+  public void shouldRenderMessageOnceForAllNotificationReceivers() {
+    // Given
+    PluginKey plugin = mock(PluginKey.class);
+    PLUGIN_KEY.when(() -> PluginKey.key(PostNewsNotificationPlugin.ID)).thenReturn(plugin);
+    ValueParam channelParam = new ValueParam();
+    channelParam.setName(CHANNEL_ID_KEY);
+    channelParam.setValue("MAIL_CHANNEL");
+    when(initParams.getValueParam(CHANNEL_ID_KEY)).thenReturn(channelParam);
+    MailTemplateProvider mailTemplate = new MailTemplateProvider(initParams, identityManager, spaceService);
+    TemplateBuilder templateBuilder = (TemplateBuilder) mailTemplate.getTemplateBuilder().get(plugin);
+    when(plugin.getId()).thenReturn(PostNewsNotificationPlugin.ID);
+    NOTIFICATION_PLUGIN_UTILS.when(() -> NotificationPluginUtils.getLanguage(anyString())).thenReturn("en");
+    PROPERTY_MANAGER.when(() -> PropertyManager.getProperty("gatein.email.domain.url")).thenReturn("http://localhost:8080");
+    HTMLEntityEncoder encoder = mock(HTMLEntityEncoder.class);
+    HTML_ENTITY_ENCODER.when(() -> HTMLEntityEncoder.getInstance()).thenReturn(encoder);
+    when(encoder.encode(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+
+    Map<String, Object> templateValues = new HashMap<>();
+    TemplateContext templateContext = mock(TemplateContext.class);
+    when(templateContext.put(anyString(), any())).thenAnswer(invocation -> templateValues.put(invocation.getArgument(0),
+                                                                                              invocation.getArgument(1)));
+    TEMPLATE_CONTEXT.when(() -> TemplateContext.newChannelInstance(any(), eq(PostNewsNotificationPlugin.ID), eq("en")))
+                    .thenReturn(templateContext);
+    TEMPLATE_UTILS.when(() -> TemplateUtils.processSubject(templateContext)).thenReturn("New article");
+    TEMPLATE_UTILS.when(() -> TemplateUtils.processGroovy(templateContext))
+                  .thenAnswer(invocation -> "Hello " + templateValues.get("FIRST_NAME") + " " + templateValues.get("FOOTER_LINK"));
+
+    Map<String, String> ownerParameters = Map.of("CONTENT_TITLE", "title", "CONTENT_SPACE", "space1");
+    NotificationContext jeanCtx = mockNotificationContext(plugin, ownerParameters, "jean");
+    NotificationContext maryCtx = mockNotificationContext(plugin, ownerParameters, "mary");
+
+    // When
+    MessageInfo jeanMessage = templateBuilder.makeMessage(jeanCtx);
+    MessageInfo maryMessage = templateBuilder.makeMessage(maryCtx);
+
+    // Then
+    assertEquals("Hello Jean http://localhost:8080/settings/jean", jeanMessage.getBody());
+    assertEquals("Hello Mary http://localhost:8080/settings/mary", maryMessage.getBody());
+    assertEquals("New article", maryMessage.getSubject());
+    TEMPLATE_UTILS.verify(() -> TemplateUtils.processGroovy(templateContext), times(1));
+    TEMPLATE_UTILS.verify(() -> TemplateUtils.processSubject(templateContext), times(1));
+  }
+
+  private NotificationContext mockNotificationContext(PluginKey plugin, Map<String, String> ownerParameters, String receiver) {
+    NotificationContext ctx = mock(NotificationContext.class);
+    NotificationInfo notification = mock(NotificationInfo.class);
+    when(ctx.getNotificationInfo()).thenReturn(notification);
+    when(notification.getKey()).thenReturn(plugin);
+    when(notification.getTo()).thenReturn(receiver);
+    when(notification.getOwnerParameter()).thenReturn(ownerParameters);
+    Identity receiverIdentity = new Identity(OrganizationIdentityProvider.NAME, receiver);
+    receiverIdentity.setRemoteId(receiver);
+    Profile profile = new Profile(receiverIdentity);
+    profile.setProperty(Profile.FIRST_NAME, StringUtils.capitalize(receiver));
+    receiverIdentity.setProfile(profile);
+    when(identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, receiver)).thenReturn(receiverIdentity);
+    LINK_PROVIDER_UTILS.when(() -> LinkProviderUtils.getRedirectUrl("notification_settings", receiver))
+                       .thenReturn("http://localhost:8080/settings/" + receiver);
+    return ctx;
+  }
 }
@@ -20,14 +20,19 @@
 package io.meeds.news.notification.utils;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
 
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
 import org.junit.AfterClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.MockedStatic;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import org.exoplatform.commons.api.notification.model.NotificationInfo;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.commons.utils.PropertyManager;
 import org.exoplatform.container.PortalContainer;
@@ -90,4 +95,24 @@ public class NotificationUtilsTest {
     activityUrl = NotificationUtils.getNotificationActivityLink(updatedSpace, "13", false);
     assertEquals("http://localhost:8080/portal/g/:spaces:space1/space_one", activityUrl);
   }
+
+  @Test
+  public void shouldGetDigestArticles() {
+    // Given
+    NotificationInfo notification = mock(NotificationInfo.class);
+    when(notification.getValueOwnerParameter(NotificationConstants.DIGEST_ARTICLES)).thenReturn(null,
+                                                                                             "[{\"NEWS_ID\":\"1\",\"CONTENT_TITLE\":\"title1\"},{\"NEWS_ID\":\"2\",\"CONTENT_TITLE\":\"title2\"}]",
+                                                                                             "invalid");
+
+    // When
+    JSONArray noDigestArticles = NotificationUtils.getDigestArticles(notification);
+    JSONArray digestArticles = NotificationUtils.getDigestArticles(notification);
+    JSONArray invalidDigestArticles = NotificationUtils.getDigestArticles(notification);
+
+    // Then
+    assertEquals(0, noDigestArticles.size());
+    assertEquals(2, digestArticles.size());
+    assertEquals("title2", ((JSONObject) digestArticles.get(1)).get(NotificationConstants.CONTENT_TITLE));
+    assertEquals(0, invalidDigestArticles.size());
+  }
 }
@@ -0,0 +1,54 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import io.meeds.news.model.NewsNotificationStatistics;
+import io.meeds.news.notification.NewsNotificationQueue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NewsNotificationRestTest {
+
+  @Mock
+  private NewsNotificationQueue newsNotificationQueue;
+
+  @InjectMocks
+  private NewsNotificationRest  newsNotificationRest;
+
+  @Test
+  public void testGetStatistics() {
+    NewsNotificationStatistics statistics = new NewsNotificationStatistics(1, 1000, 2, 3, 4, 5, 6, 7, 8);
+    when(newsNotificationQueue.getStatistics()).thenReturn(statistics);
+
+    ResponseEntity<NewsNotificationStatistics> response = newsNotificationRest.getStatistics();
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(statistics, response.getBody());
+  }
+}
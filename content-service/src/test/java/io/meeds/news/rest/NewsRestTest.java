@@ -48,6 +48,7 @@ import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.RuntimeDelegate;
@@ -63,7 +64,6 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import org.exoplatform.commons.exception.ObjectNotFoundException;
 import org.exoplatform.commons.utils.CommonsUtils;
-import org.exoplatform.container.PortalContainer;
 import org.exoplatform.services.rest.impl.RuntimeDelegateImpl;
 import org.exoplatform.services.security.ConversationState;
 import org.exoplatform.services.security.Identity;
@@ -76,10 +76,16 @@ import org.exoplatform.social.metadata.favorite.FavoriteService;
 import org.exoplatform.social.metadata.tag.TagService;
 import org.exoplatform.social.rest.api.RestUtils;
 
+import io.meeds.news.activity.NewsViewerSpacesCache;
 import io.meeds.news.filter.NewsFilter;
 import io.meeds.news.model.News;
+import io.meeds.news.model.NewsActivity;
+import io.meeds.news.model.NewsBulkDeletion;
+import io.meeds.news.service.DelayedDeletionService;
+import io.meeds.news.service.NewsBulkDeletionService;
 import io.meeds.news.service.NewsService;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -100,15 +106,21 @@ public class NewsRestTest {
   @Mock
   IdentityManager                                 identityManager;
 
-  @Mock
-  PortalContainer                                 container;
-
   @Mock
   FavoriteService                                 favoriteService;
 
   @Mock
   TagService                                      tagService;
 
+  @Mock
+  DelayedDeletionService                          delayedDeletionService;
+
+  @Mock
+  NewsBulkDeletionService                         newsBulkDeletionService;
+
+  @Mock
+  NewsViewerSpacesCache                           newsViewerSpacesCache;
+
   @InjectMocks
   private NewsRest newsRestController;
 
@@ -116,7 +128,6 @@ public class NewsRestTest {
 
   @Before
   public void setup() {
-    newsRestController.init();
     RuntimeDelegate.setInstance(new RuntimeDelegateImpl());
     org.exoplatform.social.core.identity.model.Identity userIdentity =
                                                                      new org.exoplatform.social.core.identity.model.Identity("1",
@@ -321,7 +332,6 @@ public class NewsRestTest {
     ConversationState.setCurrent(new ConversationState(currentIdentity));
     News news = new News();
     news.setId("1");
-    news.setActivities("1:1;2:2");
     news.setSpaceId("1");
     Space space1 = new Space();
     space1.setId("1");
@@ -332,15 +342,19 @@ public class NewsRestTest {
     lenient().when(newsService.getNewsByIdAndLang(anyString(), any(), anyBoolean(), nullable(String.class), nullable(String.class))).thenReturn(news);
     lenient().when(spaceService.getSpaceById("1")).thenReturn(space1);
     lenient().when(spaceService.getSpaceById("2")).thenReturn(space2);
-    lenient().when(spaceService.isMember(space1, JOHN)).thenReturn(true);
-    lenient().when(spaceService.isMember(space2, JOHN)).thenReturn(true);
     lenient().when(spaceService.isSuperManager(eq(JOHN))).thenReturn(false);
+    when(newsViewerSpacesCache.getMemberSpacesIds(JOHN)).thenReturn(Set.of("1", "2"));
+    when(newsService.getNewsPostActivity("1")).thenReturn(new NewsActivity("1", "1", "1", false));
+    when(newsService.getNewsActivities("1", Set.of("1", "2"))).thenReturn(List.of(new NewsActivity("1", "1", "1", false),
+                                                                                  new NewsActivity("2", "1", "2", true)));
 
     // When
     ResponseEntity response = newsRestController.getNewsById("1", "spaces", null, false, null);
 
     // Then
     assertEquals(Response.Status.OK.getStatusCode(), response.getStatusCode().value());
+    assertEquals(List.of("1", "2"), ((News) response.getBody()).getSharedInSpacesList());
+    verify(newsService, never()).getNewsActivities("1");
   }
 
   @Test
@@ -708,7 +722,7 @@ public class NewsRestTest {
 
     // Then
     assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
-    verify(newsService).deleteNews("1", currentIdentity, ARTICLE.name().toLowerCase());
+    verify(delayedDeletionService).deleteNews("1", ARTICLE.name().toLowerCase(), currentIdentity, 0L);
   }
 
   @Test
@@ -735,7 +749,7 @@ public class NewsRestTest {
 
     // Then
     assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
-    verify(newsService).deleteNews("1", currentIdentity, ARTICLE.name().toLowerCase());
+    verify(delayedDeletionService).deleteNews("1", ARTICLE.name().toLowerCase(), currentIdentity, 0L);
   }
 
   @Test
@@ -756,7 +770,7 @@ public class NewsRestTest {
 
     // Then
     assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
-    verify(newsService, never()).deleteNews("1", currentIdentity, ARTICLE.name().toLowerCase());
+    verify(delayedDeletionService, never()).deleteNews("1", ARTICLE.name().toLowerCase(), currentIdentity, 0L);
   }
 
   @Test
@@ -778,7 +792,7 @@ public class NewsRestTest {
 
     // Then
     assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
-    verify(newsService, never()).deleteNews("1", currentIdentity, ARTICLE.name().toLowerCase());
+    verify(delayedDeletionService, never()).deleteNews("1", ARTICLE.name().toLowerCase(), currentIdentity, 0L);
   }
 
   @Test
@@ -1347,6 +1361,47 @@ public class NewsRestTest {
     assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
   }
 
+  @Test
+  public void shouldDeleteNewsList() throws Exception {
+    // Given
+    Identity currentIdentity = new Identity(JOHN);
+    ConversationState.setCurrent(new ConversationState(currentIdentity));
+    NewsBulkDeletion bulkDeletion = new NewsBulkDeletion();
+    bulkDeletion.setId("bulk1");
+    when(newsBulkDeletionService.deleteNews(List.of("1", "2"), currentIdentity)).thenReturn(bulkDeletion);
+
+    // When
+    ResponseEntity<NewsBulkDeletion> response = newsRestController.deleteNewsList(List.of("1", "2"));
+
+    // Then
+    assertEquals(HttpStatus.ACCEPTED.value(), response.getStatusCode().value());
+    assertEquals("bulk1", response.getBody().getId());
+
+    // When
+    when(newsBulkDeletionService.deleteNews(List.of("1", "2"), currentIdentity)).thenThrow(IllegalAccessException.class);
+    response = newsRestController.deleteNewsList(List.of("1", "2"));
+
+    // Then
+    assertEquals(HttpStatus.UNAUTHORIZED.value(), response.getStatusCode().value());
+    assertEquals(HttpStatus.BAD_REQUEST.value(), newsRestController.deleteNewsList(List.of()).getStatusCode().value());
+  }
+
+  @Test
+  public void shouldGetNewsBulkDeletion() throws Exception {
+    // Given
+    ConversationState.setCurrent(new ConversationState(new Identity(JOHN)));
+    NewsBulkDeletion bulkDeletion = new NewsBulkDeletion();
+    bulkDeletion.setId("bulk1");
+    when(newsBulkDeletionService.getBulkDeletion("bulk1", JOHN)).thenReturn(bulkDeletion);
+
+    // When
+    ResponseEntity<NewsBulkDeletion> response = newsRestController.getNewsBulkDeletion("bulk1");
+
+    // Then
+    assertEquals(HttpStatus.OK.value(), response.getStatusCode().value());
+    assertEquals(bulkDeletion, response.getBody());
+  }
+
   @Test
   public void shouldGetBadRequestWhenSearchingWithoutQueryAndFavorites() throws Exception {
     // Given
@@ -40,13 +40,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import org.exoplatform.container.PortalContainer;
 import org.exoplatform.services.rest.impl.RuntimeDelegateImpl;
 import org.exoplatform.services.security.ConversationState;
 import org.exoplatform.services.security.Identity;
 import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.metadata.model.Metadata;
 
+import io.meeds.news.service.DelayedDeletionService;
 import io.meeds.news.service.NewsTargetingService;
 import io.meeds.news.utils.NewsUtils;
 import org.springframework.http.HttpStatus;
@@ -56,20 +56,19 @@ import org.springframework.http.ResponseEntity;
 public class NewsTargetingRestTest {
 
   @Mock
-  NewsTargetingService newsTargetingService;
+  NewsTargetingService   newsTargetingService;
 
   @Mock
-  PortalContainer      container;
+  DelayedDeletionService delayedDeletionService;
 
   @Mock
-  IdentityManager      identityManager;
+  IdentityManager        identityManager;
 
   @InjectMocks
   private NewsTargetingRest newsTargetingRestController;
 
   @Before
   public void setup() {
-    newsTargetingRestController.init();
     RuntimeDelegate.setInstance(new RuntimeDelegateImpl());
   }
 
@@ -0,0 +1,73 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import io.meeds.news.job.ScheduledNewsArticleQueue;
+import io.meeds.news.model.ScheduledNewsArticleFailure;
+import io.meeds.news.model.ScheduledNewsArticleStatistics;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScheduledNewsArticleRestTest {
+
+  @Mock
+  private ScheduledNewsArticleQueue scheduledNewsArticleQueue;
+
+  @InjectMocks
+  private ScheduledNewsArticleRest  scheduledNewsArticleRest;
+
+  @Test
+  public void testGetFailures() {
+    ScheduledNewsArticleFailure failure = new ScheduledNewsArticleFailure("1", "node", 5, "error", 1, 2);
+    when(scheduledNewsArticleQueue.getFailures()).thenReturn(List.of(failure));
+
+    ResponseEntity<List<ScheduledNewsArticleFailure>> response = scheduledNewsArticleRest.getFailures();
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(List.of(failure), response.getBody());
+  }
+
+  @Test
+  public void testRetryFailure() {
+    when(scheduledNewsArticleQueue.retryFailure(anyString())).thenReturn(false);
+    when(scheduledNewsArticleQueue.retryFailure("1")).thenReturn(true);
+    assertEquals(HttpStatus.NO_CONTENT, scheduledNewsArticleRest.retryFailure("1").getStatusCode());
+    assertEquals(HttpStatus.NOT_FOUND, scheduledNewsArticleRest.retryFailure("2").getStatusCode());
+  }
+
+  @Test
+  public void testGetStatistics() {
+    ScheduledNewsArticleStatistics statistics = new ScheduledNewsArticleStatistics(1, 2, 3, 4, 5, 6, 7);
+    when(scheduledNewsArticleQueue.getStatistics()).thenReturn(statistics);
+    assertEquals(statistics, scheduledNewsArticleRest.getStatistics().getBody());
+  }
+}
@@ -0,0 +1,259 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.lucene.index.IndexWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.social.core.identity.model.Identity;
+import org.exoplatform.social.core.manager.IdentityManager;
+import org.exoplatform.social.core.search.DocumentWithMetadata;
+import org.exoplatform.social.core.storage.api.ActivityStorage;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.favorite.FavoriteService;
+import org.exoplatform.social.metadata.model.Metadata;
+import org.exoplatform.social.metadata.model.MetadataItem;
+import org.exoplatform.social.metadata.model.MetadataObject;
+import org.exoplatform.social.metadata.tag.TagService;
+
+import io.meeds.news.filter.NewsFilter;
+import io.meeds.news.utils.NewsUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LuceneNewsSearchBackendTest {
+
+  @Rule
+  public TemporaryFolder               temporaryFolder = new TemporaryFolder();
+
+  @Mock
+  private NewsIndexingServiceConnector connector;
+
+  @Mock
+  private MetadataService              metadataService;
+
+  @Mock
+  private IdentityManager              identityManager;
+
+  @Mock
+  private ActivityStorage              activityStorage;
+
+  @Mock
+  private PortalContainer              container;
+
+  @InjectMocks
+  private LuceneNewsSearchBackend      luceneNewsSearchBackend;
+
+  private Identity                     viewerIdentity;
+
+  @Before
+  public void setUp() throws Exception {
+    lenient().when(connector.getAllIds(anyInt(), anyInt())).thenReturn(new ArrayList<>());
+    viewerIdentity = mock(Identity.class);
+    lenient().when(viewerIdentity.getId()).thenReturn("7");
+    lenient().when(activityStorage.getStreamFeedOwnerIds(viewerIdentity)).thenReturn(Set.of(10L, 7L));
+    ReflectionTestUtils.setField(luceneNewsSearchBackend, "indexPath", temporaryFolder.getRoot().getAbsolutePath());
+    ReflectionTestUtils.setField(luceneNewsSearchBackend, "commitInterval", 60000L);
+    luceneNewsSearchBackend.init();
+    waitForIndexing();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    luceneNewsSearchBackend.destroy();
+  }
+
+  @Test
+  public void testSearchByTerm() throws Exception {
+    indexArticle("1", "First article", "Some content about gardening", "10", null);
+    indexArticle("2", "Second article", "Another content about cooking", "20", null);
+
+    List<NewsESSearchResult> results = luceneNewsSearchBackend.search(viewerIdentity, buildFilter("gardening"));
+    assertEquals(1, results.size());
+    assertEquals("1", results.get(0).getId());
+    assertEquals("First article", results.get(0).getTitle());
+    assertEquals("Space 10", results.get(0).getSpaceDisplayName());
+    assertEquals(1, results.get(0).getExcerpts().size());
+    assertTrue(results.get(0).getExcerpts().get(0).contains("<span class='searchMatchExcerpt'>gardening</span>"));
+
+    // Article 2 isn't accessible to the viewer
+    assertTrue(luceneNewsSearchBackend.search(viewerIdentity, buildFilter("cooking")).isEmpty());
+  }
+
+  @Test
+  public void testSearchTranslation() throws Exception {
+    indexArticle("1-fr", "Article traduit", "Les jardins fleuris du printemps", "10", null);
+
+    List<NewsESSearchResult> results = luceneNewsSearchBackend.search(viewerIdentity, buildFilter("jardin"));
+    assertEquals(1, results.size());
+    assertEquals("fr", results.get(0).getLang());
+    assertEquals("Les jardins fleuris du printemps", results.get(0).getBody());
+  }
+
+  @Test
+  public void testSearchFavoritesAndTags() throws Exception {
+    indexArticle("1", "First article", "Some content", "10", FavoriteService.METADATA_TYPE.getName());
+    indexArticle("2", "Second article", "Some content", "10", TagService.METADATA_TYPE.getName());
+
+    NewsFilter favoritesFilter = buildFilter(null);
+    favoritesFilter.setFavorites(true);
+    List<NewsESSearchResult> results = luceneNewsSearchBackend.search(viewerIdentity, favoritesFilter);
+    assertEquals(1, results.size());
+    assertEquals("1", results.get(0).getId());
+
+    NewsFilter tagsFilter = buildFilter(null);
+    tagsFilter.setTagNames(List.of("Garden"));
+    results = luceneNewsSearchBackend.search(viewerIdentity, tagsFilter);
+    assertEquals(1, results.size());
+    assertEquals("2", results.get(0).getId());
+  }
+
+  @Test
+  public void testUnindex() throws Exception {
+    indexArticle("1", "First article", "Some content", "10", null);
+    assertEquals(1, luceneNewsSearchBackend.search(viewerIdentity, buildFilter("content")).size());
+
+    luceneNewsSearchBackend.unindex("1");
+    waitForIndexing();
+    assertTrue(luceneNewsSearchBackend.search(viewerIdentity, buildFilter("content")).isEmpty());
+  }
+
+  @Test
+  public void testUnindexList() throws Exception {
+    indexArticle("1", "First article", "Some content", "10", null);
+    indexArticle("2", "Second article", "Some content", "10", null);
+    indexArticle("3", "Third article", "Some content", "10", null);
+    assertEquals(3, luceneNewsSearchBackend.search(viewerIdentity, buildFilter("content")).size());
+
+    luceneNewsSearchBackend.unindex(List.of("1", "2"));
+    waitForIndexing();
+    List<NewsESSearchResult> results = luceneNewsSearchBackend.search(viewerIdentity, buildFilter("content"));
+    assertEquals(1, results.size());
+    assertEquals("3", results.get(0).getId());
+  }
+
+  @Test
+  public void testFindDocumentsIds() throws Exception {
+    indexArticle("1", "First article", "Some content", "10", null);
+    indexArticle("1-fr", "Premier article", "Du contenu", "10", null);
+    indexArticle("2", "Second article", "Some content", "20", null);
+
+    assertEquals(List.of("1", "1-fr"), luceneNewsSearchBackend.findDocumentsIds("posterId", "user10", 0, 10));
+    assertEquals(List.of("1-fr"), luceneNewsSearchBackend.findDocumentsIds("posterId", "user10", 1, 10));
+    assertTrue(luceneNewsSearchBackend.findDocumentsIds("posterId", "user30", 0, 10).isEmpty());
+  }
+
+  @Test
+  public void testIndexWithoutCommitPerDocument() throws Exception {
+    indexArticle("1", "First article", "Some content", "10", null);
+    indexArticle("2", "Second article", "Some content", "10", null);
+
+    // Changes are searchable before being committed
+    assertEquals(2, luceneNewsSearchBackend.search(viewerIdentity, buildFilter("content")).size());
+    IndexWriter indexWriter = (IndexWriter) ReflectionTestUtils.getField(luceneNewsSearchBackend, "indexWriter");
+    assertTrue(indexWriter.hasUncommittedChanges());
+
+    ReflectionTestUtils.invokeMethod(luceneNewsSearchBackend, "commitChanges");
+    assertFalse(indexWriter.hasUncommittedChanges());
+  }
+
+  private void indexArticle(String id, String title, String body, String permission, String metadataType) throws Exception {
+    String lang = id.contains("-") ? id.substring(id.indexOf('-') + 1) : null;
+    Map<String, String> fields = new HashMap<>();
+    fields.put("id", id.contains("-") ? id.substring(0, id.indexOf('-')) : id);
+    fields.put("title", title);
+    fields.put(lang == null ? "body" : NewsIndexingServiceConnector.getLocalizedFieldName("body", lang), body);
+    fields.put("posterName", "John Doe");
+    fields.put("posterId", "user" + permission);
+    fields.put("spaceDisplayName", "Space " + permission);
+    fields.put("newsActivityId", "activity" + id);
+    fields.put("postedTime", "1000");
+    if (lang != null) {
+      fields.put("lang", lang);
+    }
+    DocumentWithMetadata document = new DocumentWithMetadata();
+    document.setId(id);
+    document.setLastUpdatedDate(new Date());
+    document.setPermissions(Set.of(permission));
+    document.setFields(fields);
+    when(connector.update(id)).thenReturn(document);
+
+    List<MetadataItem> metadataItems = new ArrayList<>();
+    if (metadataType != null) {
+      Metadata metadata = new Metadata();
+      metadata.setType(FavoriteService.METADATA_TYPE.getName().equals(metadataType) ? FavoriteService.METADATA_TYPE
+                                                                                    : TagService.METADATA_TYPE);
+      metadata.setName(FavoriteService.METADATA_TYPE.getName().equals(metadataType) ? viewerIdentity.getId() : "garden");
+      MetadataItem metadataItem = new MetadataItem();
+      metadataItem.setMetadata(metadata);
+      metadataItems.add(metadataItem);
+    }
+    when(metadataService.getMetadataItemsByObject(argThat((MetadataObject metadataObject) -> isNewsMetadataObject(metadataObject,
+                                                                                                             id)))).thenReturn(metadataItems);
+
+    luceneNewsSearchBackend.index(id);
+    waitForIndexing();
+  }
+
+  private boolean isNewsMetadataObject(MetadataObject metadataObject, String id) {
+    return metadataObject != null && NewsUtils.NEWS_METADATA_OBJECT_TYPE.equals(metadataObject.getType())
+        && id.equals(metadataObject.getId());
+  }
+
+  private void waitForIndexing() throws Exception {
+    // Indexing operations are processed sequentially by a single thread
+    ExecutorService indexingExecutor = (ExecutorService) ReflectionTestUtils.getField(luceneNewsSearchBackend, "indexingExecutor");
+    indexingExecutor.submit(() -> {
+    }).get();
+  }
+
+  private NewsFilter buildFilter(String term) {
+    NewsFilter filter = new NewsFilter();
+    filter.setSearchText(term);
+    filter.setLimit(10);
+    return filter;
+  }
+}
@@ -0,0 +1,109 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.search;
+
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_DELETED;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.social.metadata.MetadataFilter;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+import io.meeds.news.service.NewsService;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NewsIndexPartialUpdaterTest {
+
+  @Mock
+  private MetadataService         metadataService;
+
+  @Mock
+  private NewsService             newsService;
+
+  @Mock
+  private NewsSearchBackend       newsSearchBackend;
+
+  @Mock
+  private PortalContainer         container;
+
+  @InjectMocks
+  private NewsIndexPartialUpdater newsIndexPartialUpdater;
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(newsIndexPartialUpdater, "batchSize", 100);
+    ReflectionTestUtils.setField(newsIndexPartialUpdater, "batchDelay", 10L);
+    newsIndexPartialUpdater.init();
+  }
+
+  @After
+  public void tearDown() {
+    newsIndexPartialUpdater.destroy();
+  }
+
+  @Test
+  public void testUpdateSpaceDisplayName() throws Exception {
+    MetadataItem article = new MetadataItem();
+    article.setObjectId("1");
+    MetadataItem deletedArticle = new MetadataItem();
+    deletedArticle.setObjectId("2");
+    deletedArticle.setProperties(Map.of(NEWS_DELETED, "true"));
+    when(metadataService.getMetadataItemsByFilter(any(MetadataFilter.class), anyLong(), anyLong())).thenReturn(List.of(article,
+                                                                                                                   deletedArticle));
+    when(newsService.getArticleLanguages("1", false)).thenReturn(List.of("fr"));
+
+    newsIndexPartialUpdater.updateSpaceDisplayName("3", "Renamed space");
+
+    verify(newsSearchBackend, timeout(5000)).updateField(List.of("1", "1-fr"), "spaceDisplayName", "Renamed space");
+    ArgumentCaptor<MetadataFilter> filterCaptor = ArgumentCaptor.forClass(MetadataFilter.class);
+    verify(metadataService).getMetadataItemsByFilter(filterCaptor.capture(), anyLong(), anyLong());
+    assertEquals(List.of(3L), filterCaptor.getValue().getMetadataSpaceIds());
+  }
+
+  @Test
+  public void testUpdatePosterName() throws Exception {
+    when(newsSearchBackend.findDocumentsIds("posterId", "john", 0, 100)).thenReturn(List.of("1", "1-fr"));
+
+    newsIndexPartialUpdater.updatePosterName("john", "John Doe");
+
+    verify(newsSearchBackend, timeout(5000)).updateField(List.of("1", "1-fr"), "posterName", "John Doe");
+    verifyNoInteractions(metadataService);
+  }
+}
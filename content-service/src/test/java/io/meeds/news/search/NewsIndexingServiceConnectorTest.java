@@ -19,12 +19,25 @@
  */
 package io.meeds.news.search;
 
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_DELETED;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_NAME;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_PAGE_OBJECT_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_PUBLICATION_STATE;
+import static io.meeds.news.service.impl.NewsServiceImpl.POSTED;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -43,6 +56,7 @@ import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvide
 import org.exoplatform.social.core.manager.ActivityManager;
 import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
 
 import io.meeds.news.model.News;
 import io.meeds.news.service.NewsService;
@@ -71,12 +85,87 @@ public class NewsIndexingServiceConnectorTest {
                                                                     newsService,
                                                                     activityManager,
                                                                     metadataService);
+    MetadataItem articleItem = mock(MetadataItem.class);
+    when(articleItem.getObjectId()).thenReturn("1");
+    when(articleItem.getProperties()).thenReturn(Map.of(NEWS_DELETED, "false"));
+    MetadataItem deletedArticleItem = mock(MetadataItem.class);
+    when(deletedArticleItem.getProperties()).thenReturn(Map.of(NEWS_DELETED, "true"));
+    when(metadataService.getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(NEWS_METADATA_NAME,
+                                                                                               NEWS_METADATA_TYPE.getName(),
+                                                                                               NEWS_METADATA_PAGE_OBJECT_TYPE,
+                                                                                               NEWS_PUBLICATION_STATE,
+                                                                                               POSTED,
+                                                                                               0,
+                                                                                               10)).thenReturn(List.of(articleItem,
+                                                                                                                       deletedArticleItem));
     try {
-      newsIndexingServiceConnector.getAllIds(0, 10);
-      fail("getAllIds shouldn't be supported");
-    } catch (UnsupportedOperationException e) {
-      // Expected
+      when(newsService.getArticleLanguages("1", false)).thenReturn(List.of("fr", "de"));
+    } catch (Exception e) {
+      fail(e.getMessage());
     }
+
+    List<String> ids = newsIndexingServiceConnector.getAllIds(0, 10);
+    assertEquals(List.of("1", "1-fr", "1-de"), ids);
+  }
+
+  @Test
+  public void testGetAllIdsByPages() throws Exception {
+    newsIndexingServiceConnector = new NewsIndexingServiceConnector(identityManager,
+                                                                    getParams(),
+                                                                    newsService,
+                                                                    activityManager,
+                                                                    metadataService);
+    MetadataItem firstArticleItem = mockArticleItem("1", "false");
+    MetadataItem secondArticleItem = mockArticleItem("2", "false");
+    MetadataItem deletedArticleItem = mockArticleItem("4", "true");
+    MetadataItem thirdArticleItem = mockArticleItem("3", "false");
+    mockPostedArticlesItems(0, List.of(firstArticleItem, secondArticleItem));
+    mockPostedArticlesItems(2, List.of(deletedArticleItem, thirdArticleItem));
+    mockPostedArticlesItems(4, List.of());
+    when(newsService.getArticleLanguages("1", false)).thenReturn(List.of("fr", "de"));
+    when(newsService.getArticleLanguages("2", false)).thenReturn(List.of());
+    when(newsService.getArticleLanguages("3", false)).thenReturn(List.of("en"));
+
+    // Each page holds exactly the requested count of documents ids
+    assertEquals(List.of("1", "1-fr"), newsIndexingServiceConnector.getAllIds(0, 2));
+    assertEquals(List.of("1-de", "2"), newsIndexingServiceConnector.getAllIds(2, 2));
+    assertEquals(List.of("3", "3-en"), newsIndexingServiceConnector.getAllIds(4, 2));
+    assertEquals(List.of(), newsIndexingServiceConnector.getAllIds(6, 2));
+
+    // The next pages resume from the articles reached by the previous ones
+    verify(metadataService, times(2)).getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(NEWS_METADATA_NAME,
+                                                                                                            NEWS_METADATA_TYPE.getName(),
+                                                                                                            NEWS_METADATA_PAGE_OBJECT_TYPE,
+                                                                                                            NEWS_PUBLICATION_STATE,
+                                                                                                            POSTED,
+                                                                                                            0,
+                                                                                                            2);
+    verify(metadataService, times(1)).getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(NEWS_METADATA_NAME,
+                                                                                                            NEWS_METADATA_TYPE.getName(),
+                                                                                                            NEWS_METADATA_PAGE_OBJECT_TYPE,
+                                                                                                            NEWS_PUBLICATION_STATE,
+                                                                                                            POSTED,
+                                                                                                            2,
+                                                                                                            2);
+  }
+
+  private MetadataItem mockArticleItem(String articleId, String deleted) {
+    MetadataItem articleItem = mock(MetadataItem.class);
+    if ("false".equals(deleted)) {
+      when(articleItem.getObjectId()).thenReturn(articleId);
+    }
+    when(articleItem.getProperties()).thenReturn(Map.of(NEWS_DELETED, deleted));
+    return articleItem;
+  }
+
+  private void mockPostedArticlesItems(int offset, List<MetadataItem> articlesItems) {
+    when(metadataService.getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(NEWS_METADATA_NAME,
+                                                                                               NEWS_METADATA_TYPE.getName(),
+                                                                                               NEWS_METADATA_PAGE_OBJECT_TYPE,
+                                                                                               NEWS_PUBLICATION_STATE,
+                                                                                               POSTED,
+                                                                                               offset,
+                                                                                               2)).thenReturn(articlesItems);
   }
 
   @Test
@@ -107,7 +196,7 @@ public class NewsIndexingServiceConnectorTest {
     news.setAuthor("root");
     news.setCreationDate(new Date());
     news.setUpdateDate(new Date());
-    news.setActivities("1:1;1:2;1:3");
+    news.setActivityId("1");
 
     ExoSocialActivityImpl activity = new ExoSocialActivityImpl();
     activity.setId("1");
@@ -149,6 +238,100 @@ public class NewsIndexingServiceConnectorTest {
     assertEquals(1, document.getPermissions().size());
   }
 
+  @Test
+  public void testCreateTranslationDocument() {
+    newsIndexingServiceConnector = new NewsIndexingServiceConnector(identityManager,
+                                                                    getParams(),
+                                                                    newsService,
+                                                                    activityManager,
+                                                                    metadataService);
+    News news = new News();
+    news.setId("1");
+    news.setTitle("Bonjour");
+    news.setBody("<p>Les nouvelles du jour</p>");
+    news.setLang("fr");
+    news.setActivityId("1");
+
+    ExoSocialActivityImpl activity = new ExoSocialActivityImpl();
+    activity.setId("1");
+    ActivityStreamImpl activityStream = new ActivityStreamImpl();
+    activityStream.setPrettyId("prettyId");
+    activityStream.setType(ActivityStream.Type.SPACE);
+    activity.setActivityStream(activityStream);
+
+    when(newsService.getNewsArticleByIdAndLang("1", "fr")).thenReturn(news);
+    when(activityManager.getActivity("1")).thenReturn(activity);
+    when(identityManager.getOrCreateIdentity(ActivityStream.Type.SPACE.getProviderId(),
+                                             "prettyId")).thenReturn(new Identity("streamOwner"));
+
+    Document document = newsIndexingServiceConnector.create("1-fr");
+    assertNotNull(document);
+    assertEquals("1-fr", document.getId());
+    assertEquals("Bonjour", document.getFields().get("title"));
+    assertEquals("Bonjour", document.getFields().get("title_fr"));
+    assertNull(document.getFields().get("body"));
+    assertTrue(document.getFields().get("body_fr").contains("Les nouvelles du jour"));
+  }
+
+  @Test
+  public void testTranslationsReuseArticleResolutions() {
+    newsIndexingServiceConnector = new NewsIndexingServiceConnector(identityManager,
+                                                                    getParams(),
+                                                                    newsService,
+                                                                    activityManager,
+                                                                    metadataService);
+    News article = new News();
+    article.setId("1");
+    article.setTitle("news");
+    article.setAuthor("root");
+    article.setActivityId("1");
+    News translation = new News();
+    translation.setId("1");
+    translation.setTitle("nouvelle");
+    translation.setAuthor("root");
+    translation.setLang("fr");
+    translation.setActivityId("1");
+
+    ExoSocialActivityImpl activity = new ExoSocialActivityImpl();
+    activity.setId("1");
+    ActivityStreamImpl activityStream = new ActivityStreamImpl();
+    activityStream.setPrettyId("prettyId");
+    activityStream.setType(ActivityStream.Type.SPACE);
+    activity.setActivityStream(activityStream);
+
+    Identity posterIdentity = new Identity("posterId");
+    Profile posterProfile = new Profile(posterIdentity);
+    posterProfile.setProperty("fullName", "Root Root");
+    posterIdentity.setProfile(posterProfile);
+
+    when(newsService.getNewsArticleById("1")).thenReturn(article);
+    when(newsService.getNewsArticleByIdAndLang("1", "fr")).thenReturn(translation);
+    when(identityManager.getOrCreateIdentity(OrganizationIdentityProvider.NAME, "root")).thenReturn(posterIdentity);
+    when(activityManager.getActivity("1")).thenReturn(activity);
+    when(identityManager.getOrCreateIdentity(ActivityStream.Type.SPACE.getProviderId(),
+                                             "prettyId")).thenReturn(new Identity("streamOwner"));
+
+    Document articleDocument = newsIndexingServiceConnector.create("1");
+    Document translationDocument = newsIndexingServiceConnector.create("1-fr");
+
+    assertEquals("Root Root", translationDocument.getFields().get("posterName"));
+    assertEquals(articleDocument.getPermissions(), translationDocument.getPermissions());
+    verify(identityManager, times(1)).getOrCreateIdentity(OrganizationIdentityProvider.NAME, "root");
+    verify(activityManager, times(1)).getActivity("1");
+
+    // Indexing the original article again refreshes the resolutions
+    newsIndexingServiceConnector.update("1");
+    verify(activityManager, times(2)).getActivity("1");
+  }
+
+  @Test
+  public void testGetAnalyzedLanguage() {
+    assertEquals("fr", NewsIndexingServiceConnector.getAnalyzedLanguage("fr"));
+    assertEquals("pt", NewsIndexingServiceConnector.getAnalyzedLanguage("pt_BR"));
+    assertNull(NewsIndexingServiceConnector.getAnalyzedLanguage("ja"));
+    assertNull(NewsIndexingServiceConnector.getAnalyzedLanguage(null));
+  }
+
   private InitParams getParams() {
     InitParams params = new InitParams();
     PropertiesParam propertiesParam = new PropertiesParam();
@@ -21,11 +21,14 @@ package io.meeds.news.search;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
 
 import java.io.ByteArrayInputStream;
@@ -39,11 +42,14 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 
+import org.exoplatform.commons.search.es.client.ElasticIndexingClient;
 import org.exoplatform.commons.search.es.client.ElasticSearchingClient;
+import org.exoplatform.commons.search.index.IndexingOperationProcessor;
 import org.exoplatform.commons.utils.IOUtil;
 import org.exoplatform.commons.utils.PropertyManager;
 import org.exoplatform.container.configuration.ConfigurationManager;
@@ -77,6 +83,15 @@ public class NewsSearchConnectorTest {
   @Mock
   ElasticSearchingClient      client;
 
+  @Mock
+  ElasticIndexingClient       indexingClient;
+
+  @Mock
+  IndexingOperationProcessor  indexingOperationProcessor;
+
+  @Mock
+  NewsIndexingServiceConnector newsIndexingServiceConnector;
+
   @InjectMocks
   NewsSearchConnector         newsSearchConnector;
 
@@ -250,5 +265,32 @@ public class NewsSearchConnectorTest {
     assertEquals(0, newsESSearchResult.getExcerpts().size());
   }
 
+  @Test
+  public void testRegisterIndexingConnector() {
+    verify(indexingOperationProcessor).addConnector(newsIndexingServiceConnector);
+  }
+
+  @Test
+  public void testUpdateField() {
+    newsSearchConnector.updateField(List.of("1", "1-fr"), "spaceDisplayName", "Renamed space");
+
+    ArgumentCaptor<String> bulkRequestCaptor = ArgumentCaptor.forClass(String.class);
+    verify(indexingClient).sendCUDRequest(bulkRequestCaptor.capture());
+    String[] lines = bulkRequestCaptor.getValue().split("\n");
+    assertEquals(4, lines.length);
+    assertTrue(lines[0].contains("\"_id\":\"1\""));
+    assertTrue(lines[0].contains("\"_index\":\"news_alias\""));
+    assertTrue(lines[1].contains("\"spaceDisplayName\":\"Renamed space\""));
+    assertTrue(lines[2].contains("\"_id\":\"1-fr\""));
+  }
 
+  @Test
+  public void testFindDocumentsIds() {
+    ArgumentCaptor<String> queryCaptor = ArgumentCaptor.forClass(String.class);
+    when(client.sendRequest(queryCaptor.capture(), eq(ES_INDEX))).thenReturn("""
+        {"hits":{"hits":[{"_id":"1"},{"_id":"1-fr"}]}}""");
+
+    assertEquals(List.of("1", "1-fr"), newsSearchConnector.findDocumentsIds("posterId", "john", 0, 100));
+    assertTrue(queryCaptor.getValue().contains("\"term\":{\"posterId\":\"john\"}"));
+  }
 }
@@ -0,0 +1,214 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.service.impl;
+
+import static io.meeds.news.service.impl.DelayedDeletionServiceImpl.DELETION_NEWS_OBJECT_TYPE;
+import static io.meeds.news.service.impl.DelayedDeletionServiceImpl.DELETION_TIME;
+import static io.meeds.news.service.impl.DelayedDeletionServiceImpl.DELETION_USERNAME;
+import static io.meeds.news.service.impl.DelayedDeletionServiceImpl.NEWS_OBJECT_TYPE;
+import static io.meeds.news.service.impl.DelayedDeletionServiceImpl.PENDING_DELETION_METADATA_KEY;
+import static io.meeds.news.service.impl.DelayedDeletionServiceImpl.TARGET_OBJECT_TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.scheduling.TaskScheduler;
+
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.services.security.Identity;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+import io.meeds.news.service.NewsService;
+import io.meeds.news.service.NewsTargetingService;
+import io.meeds.news.utils.NewsUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DelayedDeletionServiceImplTest {
+
+  @Mock
+  private MetadataService            metadataService;
+
+  @Mock
+  private NewsService                newsService;
+
+  @Mock
+  private NewsTargetingService       newsTargetingService;
+
+  @Mock
+  private PortalContainer            container;
+
+  @Mock
+  private TaskScheduler              taskScheduler;
+
+  @InjectMocks
+  private DelayedDeletionServiceImpl delayedDeletionService;
+
+  @Test
+  public void testDeleteNewsWithoutDelay() throws Exception {
+    Identity identity = new Identity("john");
+    when(metadataService.getMetadataItemsByMetadataAndObject(eq(PENDING_DELETION_METADATA_KEY),
+                                                             any())).thenReturn(Collections.emptyList());
+
+    delayedDeletionService.deleteNews("1", "article", identity, 0);
+
+    verify(newsService).deleteNews("1", identity, "article");
+    verify(metadataService, never()).createMetadataItem(any(), any(), anyMap(), anyBoolean());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testDeleteNewsWithDelay() throws Exception {
+    Identity identity = new Identity("john");
+
+    delayedDeletionService.deleteNews("1", "article", identity, 10);
+
+    ArgumentCaptor<Map<String, String>> propertiesCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(metadataService).createMetadataItem(any(), eq(PENDING_DELETION_METADATA_KEY), propertiesCaptor.capture(), eq(false));
+    Map<String, String> properties = propertiesCaptor.getValue();
+    assertEquals("john", properties.get(DELETION_USERNAME));
+    assertEquals("article", properties.get(DELETION_NEWS_OBJECT_TYPE));
+    assertTrue(Long.parseLong(properties.get(DELETION_TIME)) > System.currentTimeMillis());
+    verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    verify(newsService, never()).deleteNews(anyString(), any(), anyString());
+  }
+
+  @Test
+  public void testUndoDeleteNews() throws Exception {
+    when(metadataService.getMetadataItemsByMetadataAndObject(eq(PENDING_DELETION_METADATA_KEY),
+                                                             any())).thenReturn(Collections.emptyList());
+    assertFalse(delayedDeletionService.undoDeleteNews("1", "john"));
+
+    MetadataItem pendingDeletion = newPendingDeletion(NEWS_OBJECT_TYPE, "1", System.currentTimeMillis() + 10000);
+    when(metadataService.getMetadataItemsByMetadataAndObject(eq(PENDING_DELETION_METADATA_KEY),
+                                                             any())).thenReturn(List.of(pendingDeletion));
+    assertThrows(IllegalAccessException.class, () -> delayedDeletionService.undoDeleteNews("1", "mary"));
+    verify(metadataService, never()).deleteMetadataItem(anyLong(), anyBoolean());
+
+    assertTrue(delayedDeletionService.undoDeleteNews("1", "john"));
+    verify(metadataService).deleteMetadataItem(pendingDeletion.getId(), false);
+  }
+
+  @Test
+  public void testDeleteTargetWithoutDelay() throws Exception {
+    Identity identity = new Identity("john");
+    when(metadataService.getMetadataItemsByMetadataAndObject(eq(PENDING_DELETION_METADATA_KEY),
+                                                             any())).thenReturn(Collections.emptyList());
+
+    delayedDeletionService.deleteTarget("target", identity, 0);
+
+    verify(newsTargetingService).deleteTargetByName("target", identity);
+  }
+
+  @Test
+  public void testExecuteOverdueDeletions() throws Exception {
+    MetadataItem overdueNewsDeletion = newPendingDeletion(NEWS_OBJECT_TYPE, "1", System.currentTimeMillis() - 60000);
+    MetadataItem overdueTargetDeletion = newPendingDeletion(TARGET_OBJECT_TYPE, "target", System.currentTimeMillis() - 60000);
+    MetadataItem pendingDeletion = newPendingDeletion(NEWS_OBJECT_TYPE, "2", System.currentTimeMillis() + 60000);
+    when(metadataService.getMetadataItemsByFilter(any(), anyLong(), anyLong())).thenReturn(List.of(overdueNewsDeletion,
+                                                                                                 overdueTargetDeletion,
+                                                                                                 pendingDeletion));
+    Identity identity = new Identity("john");
+    try (MockedStatic<NewsUtils> newsUtils = mockStatic(NewsUtils.class)) {
+      newsUtils.when(() -> NewsUtils.getUserIdentity("john")).thenReturn(identity);
+
+      delayedDeletionService.executeOverdueDeletions();
+    }
+
+    verify(metadataService).deleteMetadataItem(overdueNewsDeletion.getId(), false);
+    verify(metadataService).deleteMetadataItem(overdueTargetDeletion.getId(), false);
+    verify(metadataService, never()).deleteMetadataItem(pendingDeletion.getId(), false);
+    verify(newsService).deleteNews("1", identity, "article");
+    verify(newsTargetingService).deleteTargetByName("target", identity);
+    verify(newsService, never()).deleteNews(eq("2"), any(), anyString());
+  }
+
+  @Test
+  public void testExecuteOverdueDeletionsOfAllPages() throws Exception {
+    List<MetadataItem> firstPage = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      firstPage.add(newPendingDeletion(NEWS_OBJECT_TYPE, "pending" + i, System.currentTimeMillis() + 60000));
+    }
+    MetadataItem overdueDeletion = newPendingDeletion(NEWS_OBJECT_TYPE, "1", System.currentTimeMillis() - 60000);
+    when(metadataService.getMetadataItemsByFilter(any(), eq(0L), eq(100L))).thenReturn(firstPage);
+    when(metadataService.getMetadataItemsByFilter(any(), eq(100L), eq(100L))).thenReturn(List.of(overdueDeletion));
+    Identity identity = new Identity("john");
+    try (MockedStatic<NewsUtils> newsUtils = mockStatic(NewsUtils.class)) {
+      newsUtils.when(() -> NewsUtils.getUserIdentity("john")).thenReturn(identity);
+
+      delayedDeletionService.executeOverdueDeletions();
+    }
+
+    verify(metadataService).deleteMetadataItem(overdueDeletion.getId(), false);
+    verify(newsService).deleteNews("1", identity, "article");
+    verify(newsService, never()).deleteNews(eq("pending0"), any(), anyString());
+  }
+
+  @Test
+  public void testExecuteOverdueDeletionAlreadyDequeued() throws Exception {
+    MetadataItem overdueDeletion = newPendingDeletion(NEWS_OBJECT_TYPE, "1", System.currentTimeMillis() - 60000);
+    when(metadataService.getMetadataItemsByFilter(any(), anyLong(), anyLong())).thenReturn(List.of(overdueDeletion));
+    when(metadataService.deleteMetadataItem(overdueDeletion.getId(), false)).thenThrow(RuntimeException.class);
+
+    delayedDeletionService.executeOverdueDeletions();
+
+    verify(newsService, never()).deleteNews(anyString(), any(), anyString());
+  }
+
+  private MetadataItem newPendingDeletion(String objectType, String objectId, long deletionTime) {
+    MetadataItem pendingDeletion = new MetadataItem();
+    pendingDeletion.setId(objectId.hashCode());
+    pendingDeletion.setObjectType(objectType);
+    pendingDeletion.setObjectId(objectId);
+    Map<String, String> properties = new HashMap<>();
+    properties.put(DELETION_USERNAME, "john");
+    properties.put(DELETION_TIME, String.valueOf(deletionTime));
+    if (NEWS_OBJECT_TYPE.equals(objectType)) {
+      properties.put(DELETION_NEWS_OBJECT_TYPE, "article");
+    }
+    pendingDeletion.setProperties(properties);
+    return pendingDeletion;
+  }
+}
@@ -0,0 +1,251 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static io.meeds.news.service.impl.NewsBulkDeletionServiceImpl.BULK_DELETION_METADATA_TYPE;
+import static io.meeds.news.service.impl.NewsBulkDeletionServiceImpl.BULK_DELETION_UPDATE_TIME;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.services.security.Identity;
+import org.exoplatform.social.core.manager.ActivityManager;
+import org.exoplatform.social.core.space.model.Space;
+import org.exoplatform.social.core.space.spi.SpaceService;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.Metadata;
+import org.exoplatform.social.metadata.model.MetadataKey;
+
+import io.meeds.news.model.News;
+import io.meeds.news.model.NewsActivity;
+import io.meeds.news.model.NewsActivityObject;
+import io.meeds.news.model.NewsBulkDeletion;
+import io.meeds.news.search.NewsSearchBackend;
+import io.meeds.news.service.NewsService;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NewsBulkDeletionServiceImplTest {
+
+  @Mock
+  private NewsService                 newsService;
+
+  @Mock
+  private SpaceService                spaceService;
+
+  @Mock
+  private ActivityManager             activityManager;
+
+  @Mock
+  private MetadataService             metadataService;
+
+  @Mock
+  private NewsSearchBackend           newsSearchBackend;
+
+  @Mock
+  private PortalContainer             container;
+
+  @InjectMocks
+  private NewsBulkDeletionServiceImpl newsBulkDeletionService;
+
+  private Map<String, Metadata>       storedMetadatas = new ConcurrentHashMap<>();
+
+  @Before
+  public void setUp() {
+    ReflectionTestUtils.setField(newsBulkDeletionService, "batchSize", 2);
+    ReflectionTestUtils.setField(newsBulkDeletionService, "retention", 3600000L);
+    newsBulkDeletionService.init();
+    // Metadata storage shared by all nodes
+    lenient().when(metadataService.createMetadata(any(), anyLong())).thenAnswer(invocation -> {
+      Metadata metadata = invocation.getArgument(0);
+      metadata.setId(storedMetadatas.size() + 1L);
+      storedMetadatas.put(metadata.getName(), copy(metadata));
+      return metadata;
+    });
+    lenient().when(metadataService.updateMetadata(any(), anyLong())).thenAnswer(invocation -> {
+      Metadata metadata = invocation.getArgument(0);
+      storedMetadatas.put(metadata.getName(), copy(metadata));
+      return metadata;
+    });
+    lenient().when(metadataService.getMetadataByKey(any())).thenAnswer(invocation -> {
+      Metadata metadata = storedMetadatas.get(invocation.getArgument(0, MetadataKey.class).getName());
+      return metadata == null ? null : copy(metadata);
+    });
+  }
+
+  @After
+  public void tearDown() {
+    newsBulkDeletionService.destroy();
+  }
+
+  @Test
+  public void testDeleteNews() throws Exception {
+    Identity identity = new Identity("john");
+    Space space = new Space();
+    space.setId("1");
+    when(spaceService.getSpaceById("1")).thenReturn(space);
+    when(spaceService.canRedactOnSpace(space, identity)).thenReturn(true);
+    News firstArticle = newArticle("1");
+    News secondArticle = newArticle("2");
+    News thirdArticle = newArticle("3");
+    when(newsService.getNewsArticleById("1")).thenReturn(firstArticle);
+    when(newsService.getNewsArticleById("2")).thenReturn(secondArticle);
+    when(newsService.getNewsArticleById("3")).thenReturn(thirdArticle);
+    when(newsService.getNewsArticleById("4")).thenReturn(null);
+    when(newsService.getArticleLanguages(anyString(), eq(false))).thenReturn(List.of());
+    when(newsService.getArticleLanguages("1", false)).thenReturn(List.of("fr"));
+    when(newsService.getNewsActivities(anyString())).thenReturn(List.of());
+    when(newsService.getNewsActivities("1")).thenReturn(List.of(new NewsActivity("11", "1", "1", false)));
+    when(newsService.getNewsActivities("3")).thenReturn(List.of(new NewsActivity("31", "3", "1", false),
+                                                                new NewsActivity("32", "3", "2", true)));
+    doThrow(RuntimeException.class).when(newsService).deleteArticle(secondArticle, "john");
+
+    NewsBulkDeletion bulkDeletion = newsBulkDeletionService.deleteNews(List.of("1", "2", "3", "4", "1"), identity);
+    assertNotNull(bulkDeletion.getId());
+    assertEquals(4, bulkDeletion.getTotal());
+
+    verify(newsSearchBackend, timeout(5000)).unindex(List.of("1", "1-fr", "3"));
+    // Permissions are checked once per space
+    verify(spaceService, times(1)).canRedactOnSpace(space, identity);
+    verify(activityManager).deleteActivity("11");
+    verify(activityManager).deleteActivity("31");
+    verify(activityManager).deleteActivity("32");
+    verify(metadataService, times(3)).deleteMetadataItemsByObject(any(NewsActivityObject.class));
+    verify(metadataService, times(5)).deleteMetadataItemsByObject(any());
+
+    String bulkDeletionId = bulkDeletion.getId();
+    bulkDeletion = waitForCompletion(bulkDeletionId);
+    assertEquals(2, bulkDeletion.getDeletedCount());
+    assertEquals(List.of("4", "2"), bulkDeletion.getFailedIds());
+    assertThrows(IllegalAccessException.class, () -> newsBulkDeletionService.getBulkDeletion(bulkDeletionId, "mary"));
+    assertNull(newsBulkDeletionService.getBulkDeletion("unknown", "john"));
+
+    // The progress is retrieved from another node
+    NewsBulkDeletionServiceImpl otherNodeBulkDeletionService = new NewsBulkDeletionServiceImpl();
+    ReflectionTestUtils.setField(otherNodeBulkDeletionService, "metadataService", metadataService);
+    assertEquals(bulkDeletion, otherNodeBulkDeletionService.getBulkDeletion(bulkDeletionId, "john"));
+  }
+
+  @Test
+  public void testRemoveExpiredBulkDeletions() throws Exception {
+    Metadata expiredBulkDeletion = new Metadata();
+    expiredBulkDeletion.setId(5L);
+    expiredBulkDeletion.setName("expired");
+    expiredBulkDeletion.setProperties(Map.of(BULK_DELETION_UPDATE_TIME, String.valueOf(System.currentTimeMillis() - 7200000)));
+    Metadata runningBulkDeletion = new Metadata();
+    runningBulkDeletion.setId(6L);
+    runningBulkDeletion.setName("running");
+    runningBulkDeletion.setProperties(Map.of(BULK_DELETION_UPDATE_TIME, String.valueOf(System.currentTimeMillis() - 60000)));
+    when(metadataService.getMetadatas(BULK_DELETION_METADATA_TYPE.getName(), 0)).thenReturn(List.of(expiredBulkDeletion,
+                                                                                                    runningBulkDeletion));
+    when(newsService.getNewsArticleById("1")).thenReturn(null);
+
+    newsBulkDeletionService.deleteNews(List.of("1"), new Identity("john"));
+
+    verify(metadataService).deleteMetadataById(5L);
+    verify(metadataService, never()).deleteMetadataById(6L);
+  }
+
+  @Test
+  public void testDeleteNewsWithoutPermission() throws Exception {
+    Identity identity = new Identity("john");
+    Space space = new Space();
+    space.setId("1");
+    Space otherSpace = new Space();
+    otherSpace.setId("2");
+    when(spaceService.getSpaceById("1")).thenReturn(space);
+    when(spaceService.getSpaceById("2")).thenReturn(otherSpace);
+    when(spaceService.canRedactOnSpace(space, identity)).thenReturn(true);
+    when(spaceService.canRedactOnSpace(otherSpace, identity)).thenReturn(false);
+    News firstArticle = newArticle("1");
+    News secondArticle = newArticle("2");
+    secondArticle.setSpaceId("2");
+    when(newsService.getNewsArticleById("1")).thenReturn(firstArticle);
+    when(newsService.getNewsArticleById("2")).thenReturn(secondArticle);
+
+    assertThrows(IllegalAccessException.class, () -> newsBulkDeletionService.deleteNews(List.of("1", "2"), identity));
+    verify(newsService, never()).deleteArticle(any(), anyString());
+  }
+
+  @Test
+  public void testDeleteNotFoundNews() throws Exception {
+    when(newsService.getNewsArticleById("1")).thenReturn(null);
+
+    NewsBulkDeletion bulkDeletion = newsBulkDeletionService.deleteNews(List.of("1"), new Identity("john"));
+    assertTrue(bulkDeletion.isCompleted());
+    assertEquals(List.of("1"), bulkDeletion.getFailedIds());
+    assertFalse(bulkDeletion.getEndTime() == 0);
+  }
+
+  private NewsBulkDeletion waitForCompletion(String bulkDeletionId) throws Exception {
+    long timeout = System.currentTimeMillis() + 5000;
+    NewsBulkDeletion bulkDeletion = newsBulkDeletionService.getBulkDeletion(bulkDeletionId, "john");
+    while (!bulkDeletion.isCompleted() && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+      bulkDeletion = newsBulkDeletionService.getBulkDeletion(bulkDeletionId, "john");
+    }
+    assertTrue(bulkDeletion.isCompleted());
+    return bulkDeletion;
+  }
+
+  private Metadata copy(Metadata metadata) {
+    Metadata copy = new Metadata();
+    copy.setId(metadata.getId());
+    copy.setType(metadata.getType());
+    copy.setName(metadata.getName());
+    copy.setProperties(new HashMap<>(metadata.getProperties()));
+    return copy;
+  }
+
+  private News newArticle(String id) {
+    News news = new News();
+    news.setId(id);
+    news.setSpaceId("1");
+    return news;
+  }
+}
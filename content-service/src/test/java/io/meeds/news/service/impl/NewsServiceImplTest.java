@@ -25,13 +25,16 @@ import static io.meeds.news.utils.NewsUtils.NewsObjectType.LATEST_DRAFT;
 import static io.meeds.news.utils.NewsUtils.NewsUpdateType.CONTENT_AND_TITLE;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.*;
@@ -40,11 +43,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
-import io.meeds.news.search.NewsSearchConnector;
+import io.meeds.news.search.NewsSearchBackend;
 import io.meeds.news.search.NewsESSearchResult;
 import io.meeds.notes.model.NoteFeaturedImage;
 import io.meeds.notes.model.NotePageProperties;
@@ -62,7 +64,6 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import org.exoplatform.commons.file.services.FileService;
-import org.exoplatform.commons.search.index.IndexingService;
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.container.PortalContainer;
 import org.exoplatform.services.security.Identity;
@@ -70,6 +71,7 @@ import org.exoplatform.social.core.manager.ActivityManager;
 import org.exoplatform.social.core.manager.IdentityManager;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
+import org.exoplatform.social.metadata.MetadataFilter;
 import org.exoplatform.social.metadata.MetadataService;
 import org.exoplatform.social.metadata.model.MetadataItem;
 import org.exoplatform.social.metadata.model.MetadataKey;
@@ -83,12 +85,21 @@ import org.exoplatform.wiki.service.NoteService;
 import org.exoplatform.wiki.service.WikiService;
 
 import io.meeds.news.filter.NewsFilter;
+import io.meeds.news.activity.NewsActivityCounterCache;
+import io.meeds.news.activity.NewsViewerSpacesCache;
 import io.meeds.news.model.News;
+import io.meeds.news.model.NewsActivity;
+import io.meeds.news.model.NewsActivityObject;
+import io.meeds.news.model.NewsArticleStatus;
 import io.meeds.news.model.NewsDraftObject;
 import io.meeds.news.model.NewsLatestDraftObject;
+import io.meeds.news.model.NewsPageVersionObject;
+import io.meeds.news.model.NewsTranslation;
 import io.meeds.news.service.NewsService;
 import io.meeds.news.service.NewsTargetingService;
+import io.meeds.news.notification.NewsNotificationQueue;
 import io.meeds.news.utils.NewsUtils;
+import io.meeds.news.utils.ScheduleDateUtils;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class NewsServiceImplTest {
@@ -108,9 +119,6 @@ public class NewsServiceImplTest {
   @Mock
   private UploadService                                uploadService;
 
-  @Mock
-  private IndexingService                              indexingService;
-
   @Mock
   NewsTargetingService                                 newsTargetingService;
 
@@ -127,7 +135,16 @@ public class NewsServiceImplTest {
   private Identity                                     johnIdentity;
 
   @Mock
-  private NewsSearchConnector newsSearchConnector;
+  private NewsSearchBackend   newsSearchBackend;
+
+  @Mock
+  private NewsNotificationQueue newsNotificationQueue;
+
+  @Mock
+  private NewsActivityCounterCache newsActivityCounterCache;
+
+  @Mock
+  private NewsViewerSpacesCache newsViewerSpacesCache;
 
   @InjectMocks
   private NewsServiceImpl                                  newsService;
@@ -253,6 +270,7 @@ public class NewsServiceImplTest {
     when(activityManager.getActivity(nullable(String.class))).thenReturn(null);
     when(newsTargetingService.getTargetsByNews(any(News.class))).thenReturn(null);
     NEWS_UTILS.when(() -> NewsUtils.buildDraftUrl(any())).thenReturn("url");
+    NEWS_UTILS.when(() -> NewsUtils.hasUserMentions(any())).thenReturn(true);
     MENTION_UTILS.when(() -> MentionUtils.substituteUsernames(anyString(), anyString())).thenReturn(draftPage.getContent());
 
     // When
@@ -574,7 +592,7 @@ public class NewsServiceImplTest {
 
     Identity identity = mockIdentity();
     NEWS_UTILS.when(() -> NewsUtils.canPublishNews(anyString(), any(Identity.class))).thenReturn(false);
-    NEWS_UTILS.when(() -> NewsUtils.processMentions(anyString(), any())).thenReturn(new HashSet<>());
+    NEWS_UTILS.when(() -> NewsUtils.extractMentions(anyString(), any())).thenReturn(new ArrayList<>());
 
     when(activityManager.getActivity(nullable(String.class))).thenReturn(null);
     when(newsTargetingService.getTargetsByNews(any(News.class))).thenReturn(null);
@@ -649,7 +667,7 @@ public class NewsServiceImplTest {
 
     Identity identity = mockIdentity();
     NEWS_UTILS.when(() -> NewsUtils.canPublishNews(anyString(), any(Identity.class))).thenReturn(false);
-    NEWS_UTILS.when(() -> NewsUtils.processMentions(anyString(), any())).thenReturn(new HashSet<>());
+    NEWS_UTILS.when(() -> NewsUtils.extractMentions(anyString(), any())).thenReturn(new ArrayList<>());
     when(newsTargetingService.getTargetsByNews(any(News.class))).thenReturn(null);
 
     DraftPage draftPage = mock(DraftPage.class);
@@ -722,7 +740,7 @@ public class NewsServiceImplTest {
 
     Identity identity = mockIdentity();
     NEWS_UTILS.when(() -> NewsUtils.canPublishNews(anyString(), any(Identity.class))).thenReturn(false);
-    NEWS_UTILS.when(() -> NewsUtils.processMentions(anyString(), any())).thenReturn(new HashSet<>());
+    NEWS_UTILS.when(() -> NewsUtils.extractMentions(anyString(), any())).thenReturn(new ArrayList<>());
     when(newsTargetingService.getTargetsByNews(any(News.class))).thenReturn(null);
 
     DraftPage draftPage = mock(DraftPage.class);
@@ -761,14 +779,25 @@ public class NewsServiceImplTest {
     when(identity1.getId()).thenReturn("1");
 
     when(noteService.updateNote(any(Page.class), any(), any())).thenReturn(existingPage);
+    // Schedule post date stored in epoch milliseconds and read back in UTC
+    // ISO-8601 format
+    properties.put(SCHEDULE_POST_DATE, "1717056000000");
+    news.setSchedulePostDate(ScheduleDateUtils.format(1717056000000L));
 
     // When
     newsService.updateNews(news, "john", false, false, ARTICLE.name().toLowerCase(), CONTENT_AND_TITLE.name());
 
     // Then
+    assertEquals("1717056000000", properties.get(SCHEDULE_POST_DATE));
     verify(noteService, times(1)).updateNote(any(Page.class), any(), any());
     verify(noteService, times(1)).createVersionOfNote(existingPage, identity.getUserId());
-    verify(noteService, times(1)).getPublishedVersionByPageIdAndLang(1L, null);
+    // the published version is retrieved again to store its mentions
+    verify(noteService, times(2)).getPublishedVersionByPageIdAndLang(1L, null);
+    verify(metadataService, times(1)).createMetadataItem(any(NewsPageVersionObject.class),
+                                                         any(MetadataKey.class),
+                                                         any(Map.class),
+                                                         anyLong(),
+                                                         anyBoolean());
   }
 
   @Test
@@ -787,8 +816,13 @@ public class NewsServiceImplTest {
     when(metadataService.getMetadataItemsByMetadataAndObject(any(MetadataKey.class),
             any(MetadataObject.class))).thenReturn(metadataItems);
     Map<String, String> properties = new HashMap<>();
-    properties.put(NEWS_ACTIVITIES, "1:1;");
+    properties.put(NEWS_VIEWS, "1");
     when(metadataItem.getProperties()).thenReturn(properties);
+    MetadataItem newsActivityItem = mock(MetadataItem.class);
+    when(newsActivityItem.getObjectId()).thenReturn("1");
+    when(metadataService.getMetadataItemsByFilter(any(MetadataFilter.class),
+                                                  anyLong(),
+                                                  anyLong())).thenReturn(List.of(newsActivityItem));
     Space space = mockSpace();
     Identity identity = mockIdentity();
     when(identityManager.getOrCreateUserIdentity(anyString())).thenReturn(new org.exoplatform.social.core.identity.model.Identity("1"));
@@ -826,6 +860,8 @@ public class NewsServiceImplTest {
     verify(noteService, times(1)).deleteNote(existingPage.getWikiType(), existingPage.getWikiOwner(), existingPage.getName());
     verify(noteService, times(1)).removeDraftById("1");
     verify(activityManager, times(1)).deleteActivity("1");
+    verify(metadataService, times(1)).deleteMetadataItemsByObject(argThat(metadataObject -> metadataObject instanceof NewsActivityObject
+        && "1".equals(metadataObject.getObjectId())));
     verify(metadataService, times(1)).updateMetadataItem(any(MetadataItem.class), anyLong(), anyBoolean());
   }
 
@@ -870,6 +906,103 @@ public class NewsServiceImplTest {
     verify(noteService, times(1)).createNote(any(Wiki.class), anyString(), any(Page.class), any(Identity.class));
   }
 
+  @Test
+  public void testGetArticleTranslations() throws Exception {
+    when(noteService.getPageAvailableTranslationLanguages(1L, false)).thenReturn(List.of("fr", "de"));
+    PageVersion frenchVersion = mock(PageVersion.class);
+    when(frenchVersion.getTitle()).thenReturn("titre");
+    when(noteService.getPublishedVersionByPageIdAndLang(1L, "fr")).thenReturn(frenchVersion);
+
+    List<NewsTranslation> articleTranslations = newsService.getArticleTranslations("1");
+
+    assertEquals(List.of(new NewsTranslation("fr", "titre")), articleTranslations);
+    verify(noteService, never()).getNoteById(anyString());
+  }
+
+  @Test
+  public void testGetNewsActivity() {
+    MetadataItem metadataItem = mock(MetadataItem.class);
+    when(metadataItem.getObjectId()).thenReturn("38");
+    when(metadataItem.getSpaceId()).thenReturn(2L);
+    when(metadataItem.getProperties()).thenReturn(Map.of(NEWS_ID, "12", NEWS_ACTIVITY_SHARE, "true"));
+    when(metadataService.getMetadataItemsByMetadataAndObject(eq(NEWS_METADATA_KEY),
+                                                             argThat(object -> "38".equals(object.getObjectId())))).thenReturn(List.of(metadataItem));
+
+    assertEquals(new NewsActivity("38", "12", "2", true), newsService.getNewsActivity("38"));
+    assertNull(newsService.getNewsActivity("40"));
+    verifyNoInteractions(activityManager);
+  }
+
+  @Test
+  public void testCanViewNewsSharedInMemberSpace() {
+    Space space = new Space();
+    space.setId("1");
+    when(spaceService.getSpaceById("1")).thenReturn(space);
+    News news = new News();
+    news.setId("12");
+    news.setSpaceId("1");
+    news.setPublicationState(POSTED);
+    when(spaceService.getMemberSpacesIds("john", 0, -1)).thenReturn(List.of("3", "4"));
+    when(spaceService.getMemberSpacesIds("mary", 0, -1)).thenReturn(List.of("4"));
+    MetadataItem shareActivityItem = mock(MetadataItem.class);
+    // The article is shared in the spaces 2 and 3
+    when(metadataService.getMetadataItemsByFilter(any(MetadataFilter.class), eq(0L), eq(1L))).thenAnswer(invocation -> {
+      MetadataFilter filter = invocation.getArgument(0);
+      boolean sharedInMemberSpace = "12".equals(filter.getMetadataProperties().get(NEWS_ID))
+          && "true".equals(filter.getMetadataProperties().get(NEWS_ACTIVITY_SHARE))
+          && (filter.getMetadataSpaceIds().contains(2L) || filter.getMetadataSpaceIds().contains(3L));
+      return sharedInMemberSpace ? List.of(shareActivityItem) : List.of();
+    });
+
+    assertTrue(newsService.canViewNews(news, "john"));
+    assertFalse(newsService.canViewNews(news, "mary"));
+    // Access isn't checked using the cached viewer spaces nor the full shares
+    // list, the member spaces are read once
+    verifyNoInteractions(newsViewerSpacesCache);
+    verify(spaceService, times(1)).getMemberSpacesIds("john", 0, -1);
+    verify(spaceService, never()).getSpaceById("3");
+    verify(metadataService, never()).getMetadataItemsByFilter(any(MetadataFilter.class), anyLong(), eq(100L));
+  }
+
+  @Test
+  public void testGetNewsArticleStatus() throws Exception {
+    // Given
+    MetadataItem metadataItem = mock(MetadataItem.class);
+    Map<String, String> properties = new HashMap<>();
+    properties.put(NEWS_PUBLICATION_STATE, POSTED);
+    properties.put(NEWS_DELETED, "false");
+    when(metadataItem.getProperties()).thenReturn(properties);
+    when(metadataItem.getSpaceId()).thenReturn(1L);
+    when(metadataService.getMetadataItemsByMetadataAndObject(any(MetadataKey.class),
+                                                             any(MetadataObject.class))).thenReturn(List.of(metadataItem));
+    MetadataItem newsActivityItem = mock(MetadataItem.class);
+    when(newsActivityItem.getObjectId()).thenReturn("38");
+    when(metadataService.getMetadataItemsByFilter(argThat(filter -> "false".equals(filter.getMetadataProperties()
+                                                                                         .get(NEWS_ACTIVITY_SHARE))),
+                                                  eq(0L),
+                                                  eq(1L))).thenReturn(List.of(newsActivityItem));
+
+    // When
+    NewsArticleStatus articleStatus = newsService.getNewsArticleStatus("12");
+
+    // Then
+    assertNotNull(articleStatus);
+    assertEquals("12", articleStatus.getId());
+    assertEquals("1", articleStatus.getSpaceId());
+    assertEquals("38", articleStatus.getActivityId());
+    assertEquals(POSTED, articleStatus.getPublicationState());
+    assertEquals(false, articleStatus.isDeleted());
+    verify(noteService, never()).getNoteById(anyString());
+
+    // When
+    when(metadataService.getMetadataItemsByMetadataAndObject(any(MetadataKey.class),
+                                                             any(MetadataObject.class))).thenReturn(List.of());
+
+    // Then
+    assertNull(newsService.getNewsArticleStatus("13"));
+    assertNull(newsService.getNewsArticleStatus("unknown"));
+  }
+
   @Test
   public void testGetScheduledArticles() throws Exception {
     NewsFilter newsFilter = new NewsFilter();
@@ -895,7 +1028,7 @@ public class NewsServiceImplTest {
     NewsESSearchResult newsESSearchResult = new NewsESSearchResult();
     newsESSearchResult.setId("1");
     results.add(newsESSearchResult);
-    when(newsSearchConnector.search(any(), any())).thenReturn(results);
+    when(newsSearchBackend.search(any(), any())).thenReturn(results);
     Map<String, String> properties = new HashMap<>();
     properties.put(NEWS_PUBLICATION_STATE, "staged");
     properties.put(NEWS_DELETED, String.valueOf(false));
@@ -974,7 +1107,7 @@ public class NewsServiceImplTest {
 
     Identity identity = mockIdentity();
     NEWS_UTILS.when(() -> NewsUtils.canPublishNews(anyString(), any(Identity.class))).thenReturn(false);
-    NEWS_UTILS.when(() -> NewsUtils.processMentions(anyString(), any())).thenReturn(new HashSet<>());
+    NEWS_UTILS.when(() -> NewsUtils.extractMentions(anyString(), any())).thenReturn(new ArrayList<>());
     when(newsTargetingService.getTargetsByNews(any(News.class))).thenReturn(null);
 
     DraftPage draftPage = mock(DraftPage.class);
@@ -0,0 +1,98 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.upgrade;
+
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_ACTIVITIES;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_ACTIVITY_SHARE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_ID;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_ACTIVITY_OBJECT_TYPE;
+import static io.meeds.news.service.impl.NewsServiceImpl.NEWS_METADATA_KEY;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.social.metadata.MetadataFilter;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NewsActivitiesUpgradePluginTest {
+
+  @Mock
+  private PortalContainer container;
+
+  @Mock
+  private MetadataService metadataService;
+
+  @Test
+  public void testProcessUpgrade() throws Exception {
+    MetadataItem sharedArticleItem = new MetadataItem();
+    sharedArticleItem.setObjectId("1");
+    sharedArticleItem.setCreatorId(2L);
+    sharedArticleItem.setProperties(Map.of(NEWS_ACTIVITIES, "1:11; 2:21"));
+    MetadataItem stagedArticleItem = new MetadataItem();
+    stagedArticleItem.setObjectId("3");
+    when(metadataService.getMetadataItemsByFilter(any(MetadataFilter.class), eq(0L), anyLong())).thenReturn(List.of(sharedArticleItem,
+                                                                                                                 stagedArticleItem));
+
+    InitParams initParams = new InitParams();
+    ValueParam productGroupId = new ValueParam();
+    productGroupId.setName("product.group.id");
+    productGroupId.setValue("org.exoplatform.social");
+    initParams.addParameter(productGroupId);
+    new NewsActivitiesUpgradePlugin(container, metadataService, initParams).processUpgrade(null, null);
+
+    verify(metadataService, times(1)).createMetadataItem(argThat(object -> NEWS_METADATA_ACTIVITY_OBJECT_TYPE.equals(object.getType())
+        && "11".equals(object.getObjectId()) && object.getSpaceId() == 1L),
+                                                         eq(NEWS_METADATA_KEY),
+                                                         eq(Map.of(NEWS_ID, "1", NEWS_ACTIVITY_SHARE, "false")),
+                                                         eq(2L),
+                                                         eq(false));
+    verify(metadataService, times(1)).createMetadataItem(argThat(object -> NEWS_METADATA_ACTIVITY_OBJECT_TYPE.equals(object.getType())
+        && "21".equals(object.getObjectId()) && object.getSpaceId() == 2L),
+                                                         eq(NEWS_METADATA_KEY),
+                                                         eq(Map.of(NEWS_ID, "1", NEWS_ACTIVITY_SHARE, "true")),
+                                                         eq(2L),
+                                                         eq(false));
+    verify(metadataService, times(2)).createMetadataItem(any(), any(), anyMap(), anyLong(), anyBoolean());
+    assertFalse(sharedArticleItem.getProperties().containsKey(NEWS_ACTIVITIES));
+    verify(metadataService, times(1)).updateMetadataItem(sharedArticleItem, 2L, false);
+    verify(metadataService, never()).updateMetadataItem(eq(stagedArticleItem), anyLong(), anyBoolean());
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.upgrade;
+
+import static io.meeds.news.service.impl.NewsServiceImpl.SCHEDULE_POST_DATE;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import org.exoplatform.container.PortalContainer;
+import org.exoplatform.container.xml.InitParams;
+import org.exoplatform.container.xml.ValueParam;
+import org.exoplatform.social.metadata.MetadataService;
+import org.exoplatform.social.metadata.model.MetadataItem;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScheduledArticlesDateUpgradePluginTest {
+
+  @Mock
+  private PortalContainer container;
+
+  @Mock
+  private MetadataService metadataService;
+
+  @Test
+  public void testProcessUpgrade() {
+    MetadataItem legacyItem = new MetadataItem();
+    legacyItem.setCreatorId(2L);
+    legacyItem.setProperties(Map.of(SCHEDULE_POST_DATE, "2024-05-05T08:00:00.000Z"));
+    MetadataItem migratedItem = new MetadataItem();
+    migratedItem.setProperties(Map.of(SCHEDULE_POST_DATE, "1714896000000"));
+    when(metadataService.getMetadataItemsByMetadataNameAndTypeAndObjectAndMetadataItemProperty(anyString(),
+                                                                                               anyString(),
+                                                                                               anyString(),
+                                                                                               anyString(),
+                                                                                               anyString(),
+                                                                                               anyLong(),
+                                                                                               anyLong())).thenReturn(List.of(legacyItem,
+                                                                                                                              migratedItem));
+
+    InitParams initParams = new InitParams();
+    ValueParam productGroupId = new ValueParam();
+    productGroupId.setName("product.group.id");
+    productGroupId.setValue("org.exoplatform.social");
+    initParams.addParameter(productGroupId);
+    new ScheduledArticlesDateUpgradePlugin(container, metadataService, initParams).processUpgrade(null, null);
+
+    assertEquals("1714896000000", legacyItem.getProperties().get(SCHEDULE_POST_DATE));
+    verify(metadataService, times(1)).updateMetadataItem(legacyItem, 2L, false);
+    verify(metadataService, times(1)).updateMetadataItem(any(), anyLong(), anyBoolean());
+  }
+}
@@ -18,12 +18,19 @@
  */
 package io.meeds.news.utils;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.Set;
+
 import org.junit.AfterClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -33,8 +40,10 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import org.exoplatform.commons.utils.CommonsUtils;
 import org.exoplatform.services.security.Identity;
+import org.exoplatform.social.core.identity.provider.OrganizationIdentityProvider;
 import org.exoplatform.social.core.space.model.Space;
 import org.exoplatform.social.core.space.spi.SpaceService;
+import org.exoplatform.social.core.storage.api.IdentityStorage;
 
 @RunWith(MockitoJUnitRunner.class)
 public class NewsUtilsTest {
@@ -47,6 +56,9 @@ public class NewsUtilsTest {
   @Mock
   private Space                                   space;
 
+  @Mock
+  private IdentityStorage                         identityStorage;
+
   @Mock
   private Identity                                userAclIdentity;
 
@@ -93,4 +105,61 @@ public class NewsUtilsTest {
     assertTrue(NewsUtils.canPublishNews(space.getId(), userAclIdentity));
   }
 
+
+  @Test
+  public void testGetUserIdentityIds() {
+    when(identityStorage.findIdentityId(OrganizationIdentityProvider.NAME, "john")).thenReturn("1");
+    when(identityStorage.findIdentityId(OrganizationIdentityProvider.NAME, "mary")).thenReturn("2");
+
+    Set<String> identityIds = NewsUtils.getUserIdentityIds(identityStorage, List.of("john", "mary", "john", "unknown"));
+
+    assertEquals(Set.of("1", "2"), identityIds);
+    verify(identityStorage, times(1)).findIdentityId(OrganizationIdentityProvider.NAME, "john");
+    assertTrue(NewsUtils.getUserIdentityIds(identityStorage, List.of()).isEmpty());
+  }
+
+  @Test
+  public void testGetSpaceRoleUsernames() {
+    Space mentionedSpace = new Space();
+    mentionedSpace.setMembers(new String[] { "john", "mary", "root" });
+    mentionedSpace.setManagers(new String[] { "root" });
+
+    assertTrue(NewsUtils.isRoleMention(NewsUtils.ROLE_MENTION_PREFIX + "member"));
+    assertFalse(NewsUtils.isRoleMention("1"));
+    assertEquals(Set.of("root"), NewsUtils.getSpaceRoleUsernames(mentionedSpace, List.of("1", "role:manager", "role:redactor")));
+    assertEquals(Set.of("john", "mary", "root"),
+                 NewsUtils.getSpaceRoleUsernames(mentionedSpace, List.of("role:member", "role:manager")));
+    assertTrue(NewsUtils.getSpaceRoleUsernames(null, List.of("role:member")).isEmpty());
+  }
+
+  @Test
+  public void testStoredMentions() {
+    List<String> mentions = List.of("john", "mary", "role:manager");
+
+    String storedMentions = NewsUtils.formatMentions(mentions);
+
+    assertEquals("john,mary,role:manager", storedMentions);
+    assertEquals(mentions, NewsUtils.parseMentions(storedMentions));
+    assertEquals("", NewsUtils.formatMentions(List.of()));
+    assertTrue(NewsUtils.parseMentions("").isEmpty());
+    assertNull(NewsUtils.parseMentions(null));
+
+    assertTrue(NewsUtils.hasUserMentions(mentions));
+    assertTrue(NewsUtils.hasRoleMentions(mentions));
+    assertFalse(NewsUtils.hasUserMentions(List.of("role:member")));
+    assertFalse(NewsUtils.hasRoleMentions(List.of("john")));
+    assertFalse(NewsUtils.hasUserMentions(List.of()));
+    // unknown mentions must be searched in the content
+    assertTrue(NewsUtils.hasUserMentions(null));
+    assertTrue(NewsUtils.hasRoleMentions(null));
+  }
+
+  @Test
+  public void testGetMentionedIds() {
+    COMMONS_UTILS.when(() -> CommonsUtils.getService(IdentityStorage.class)).thenReturn(identityStorage);
+    when(identityStorage.findIdentityId(OrganizationIdentityProvider.NAME, "john")).thenReturn("1");
+
+    assertEquals(Set.of("1", "role:manager"), NewsUtils.getMentionedIds(List.of("john", "unknown", "role:manager")));
+    assertTrue(NewsUtils.getMentionedIds(List.of()).isEmpty());
+  }
 }
@@ -0,0 +1,42 @@
+/**
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.news.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class ScheduleDateUtilsTest {
+
+  @Test
+  public void testParse() {
+    assertEquals(0, ScheduleDateUtils.parse(null));
+    assertEquals(0, ScheduleDateUtils.parse("05/05/2024 08:00:00 +0100"));
+    assertEquals(1714896000000L, ScheduleDateUtils.parse("1714896000000"));
+    // Legacy format
+    assertEquals(1714896000000L, ScheduleDateUtils.parse("2024-05-05T08:00:00.000Z"));
+  }
+
+  @Test
+  public void testFormat() {
+    assertEquals("2024-05-05T08:00:00.000Z", ScheduleDateUtils.format(1714896000000L));
+    assertEquals("1714896000000", ScheduleDateUtils.toStoredValue(1714896000000L));
+  }
+}
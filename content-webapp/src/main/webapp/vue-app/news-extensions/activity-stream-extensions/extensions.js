@@ -23,6 +23,13 @@ const url = `/content/i18n/locale.portlet.news.News?lang=${lang}`;
 
 const i18nPromise = exoi18n.loadLanguageAsync(lang, url).then(i18n => new Vue({i18n}));
 
+function setTranslationMetadataObjectId(activity) {
+  // metadata object id for translation is a concatenation of the news id and the lang
+  if (activity.news?.lang) {
+    activity.templateParams.metadataObjectId = `${activity.news.id}-${activity.news.lang}`;
+  }
+}
+
 const newsActivityTypeExtensionOptions = {
   name: 'News',
   getExtendedComponent: (activity, isActivityDetail) => {
@@ -41,19 +48,18 @@ const newsActivityTypeExtensionOptions = {
     if (activity.parentActivity) {
       activityId = activity.parentActivity.id;
     }
-    if (activity.newsTranslations) {
-      const newsTranslationsMap = activity.newsTranslations;
-      const newsTranslationKey = `news_${lang}`;
-      activity.news = newsTranslationsMap[newsTranslationKey] || activity.news;
-    }
     if (!activity.news || isActivityDetail) {
       return Vue.prototype.$newsServices.getNewsByActivityId(activityId, lang)
         .then(news => activity.news = news);
     }
-    // metadata object id for translation is a concatenation of the news id and the lang
-    if (activity.news.lang) {
-      activity.templateParams.metadataObjectId = `${activity.news.id}-${activity.news.lang}`;
+    // translations are only described, load the one of the user language
+    if (activity.newsTranslations?.[`news_${lang}`] && activity.news.lang !== lang) {
+      return Vue.prototype.$newsServices.getNewsByActivityId(activityId, lang)
+        .then(news => activity.news = news || activity.news)
+        .catch(() => activity.news)
+        .finally(() => setTranslationMetadataObjectId(activity));
     }
+    setTranslationMetadataObjectId(activity);
   },
   canEdit: () => false,
   canShare: () => true,